@@ -0,0 +1,29 @@
+package com.jeizas.cluster;
+
+import java.util.Map;
+
+/**
+ * 集群成员来源，返回当前存活的节点
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+public interface ClusterMembership {
+
+    /**
+     * 本节点上报存活（定时调用）
+     */
+    void heartbeat();
+
+    /**
+     * 获取当前存活的节点
+     *
+     * @return 节点ID到节点地址（如 ws://host:port）的映射
+     */
+    Map<String, String> members();
+
+    /**
+     * 本节点退出集群
+     */
+    void leave();
+}
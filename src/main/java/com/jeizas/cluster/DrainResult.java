@@ -0,0 +1,25 @@
+package com.jeizas.cluster;
+
+import lombok.Data;
+
+/**
+ * 节点排空结果
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+@Data
+public class DrainResult {
+
+    /** 迁移成功的房间数 */
+    private int migrated;
+
+    /** 迁移失败、留在本节点继续对局的房间数 */
+    private int failed;
+
+    /** 单个房间的最长冻结时间（毫秒） */
+    private long maxPauseMillis;
+
+    /** 排空总耗时（毫秒） */
+    private long elapsedMillis;
+}
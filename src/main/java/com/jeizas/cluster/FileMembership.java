@@ -0,0 +1,96 @@
+package com.jeizas.cluster;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 基于本地目录的成员发现，用于在同一台机器上运行多个实例
+ * 每个节点定时重写 &lt;目录&gt;/&lt;节点ID&gt;.node（内容为节点地址），超过存活时限未更新的文件视为节点已离开
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+@Slf4j
+public class FileMembership implements ClusterMembership {
+
+    /** 节点文件后缀 */
+    private static final String SUFFIX = ".node";
+
+    /** 成员目录 */
+    private final Path dir;
+
+    /** 本节点ID */
+    private final String nodeId;
+
+    /** 本节点地址 */
+    private final String address;
+
+    /** 节点存活时限（毫秒） */
+    private final long ttlMillis;
+
+    /**
+     * 构造函数
+     *
+     * @param dir 成员目录
+     * @param nodeId 本节点ID
+     * @param address 本节点地址
+     * @param ttlMillis 节点存活时限（毫秒）
+     */
+    public FileMembership(Path dir, String nodeId, String address, long ttlMillis) {
+        this.dir = dir;
+        this.nodeId = nodeId;
+        this.address = address;
+        this.ttlMillis = ttlMillis;
+    }
+
+    @Override
+    public void heartbeat() {
+        try {
+            Files.createDirectories(dir);
+            Path tmp = dir.resolve(nodeId + SUFFIX + ".tmp");
+            Files.write(tmp, address.getBytes(StandardCharsets.UTF_8));
+            Files.move(tmp, dir.resolve(nodeId + SUFFIX), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("写入节点心跳失败: {}", dir, e);
+        }
+    }
+
+    @Override
+    public Map<String, String> members() {
+        Map<String, String> nodes = new TreeMap<>();
+        long cutoff = System.currentTimeMillis() - ttlMillis;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*" + SUFFIX)) {
+            for (Path file : files) {
+                if (Files.getLastModifiedTime(file).toMillis() < cutoff) {
+                    continue;
+                }
+                String name = file.getFileName().toString();
+                String url = new String(Files.readAllBytes(file), StandardCharsets.UTF_8).trim();
+                if (!url.isEmpty()) {
+                    nodes.put(name.substring(0, name.length() - SUFFIX.length()), url);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("读取集群成员失败: {}", dir, e);
+        }
+        return nodes;
+    }
+
+    @Override
+    public void leave() {
+        try {
+            Files.deleteIfExists(dir.resolve(nodeId + SUFFIX));
+        } catch (IOException e) {
+            log.warn("删除节点文件失败: {}", nodeId, e);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.jeizas.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * 一致性哈希环，每个节点在环上放置若干虚拟节点，房间归属于顺时针方向遇到的第一个虚拟节点
+ * 节点加入或离开时只有约 1/N 的房间改变归属。实例不可变，成员变化时整体重建后替换
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+public final class HashRing {
+
+    /** 环上的虚拟节点：哈希值到节点ID */
+    private final TreeMap<Long, String> points = new TreeMap<>();
+
+    /** 节点ID到节点地址 */
+    private final Map<String, String> nodes;
+
+    /**
+     * 构造函数
+     *
+     * @param nodes 节点ID到节点地址的映射
+     * @param virtualNodes 每个节点的虚拟节点数
+     */
+    public HashRing(Map<String, String> nodes, int virtualNodes) {
+        this.nodes = Collections.unmodifiableMap(new LinkedHashMap<>(nodes));
+        for (String nodeId : nodes.keySet()) {
+            for (int i = 0; i < Math.max(1, virtualNodes); i++) {
+                points.put(hash(nodeId + "#" + i), nodeId);
+            }
+        }
+    }
+
+    /**
+     * 获取键的归属节点
+     *
+     * @param key 房间ID等路由键
+     * @return 节点ID，环为空时返回null
+     */
+    public String ownerOf(String key) {
+        if (points.isEmpty()) {
+            return null;
+        }
+        SortedMap<Long, String> tail = points.tailMap(hash(key));
+        return tail.isEmpty() ? points.firstEntry().getValue() : tail.get(tail.firstKey());
+    }
+
+    /**
+     * 获取节点地址
+     *
+     * @param nodeId 节点ID
+     * @return 节点地址，节点不存在返回null
+     */
+    public String addressOf(String nodeId) {
+        return nodes.get(nodeId);
+    }
+
+    /**
+     * 获取所有节点
+     *
+     * @return 节点ID到地址的只读映射
+     */
+    public Map<String, String> getNodes() {
+        return nodes;
+    }
+
+    /**
+     * 获取所有节点ID
+     *
+     * @return 节点ID集合
+     */
+    public Set<String> nodeIds() {
+        return nodes.keySet();
+    }
+
+    /**
+     * 计算64位哈希（MD5 前8字节），分布均匀且各节点计算结果一致
+     *
+     * @param key 键
+     * @return 哈希值
+     */
+    static long hash(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(key.getBytes(StandardCharsets.UTF_8));
+            long h = 0;
+            for (int i = 0; i < 8; i++) {
+                h = (h << 8) | (digest[i] & 0xFF);
+            }
+            return h;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 不可用", e);
+        }
+    }
+}
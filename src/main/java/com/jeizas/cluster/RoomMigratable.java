@@ -0,0 +1,67 @@
+package com.jeizas.cluster;
+
+import java.util.List;
+
+/**
+ * 支持在线迁移房间的游戏处理器
+ * 迁移过程：冻结房间并截取快照 → 目标节点导入 → 源节点把玩家重定向到目标节点（带恢复令牌）并释放房间；
+ * 导入失败时解冻房间，对局在源节点继续
+ *
+ * @param <S> 房间快照类型
+ * @author jeizas
+ * @date 2026-10-19
+ */
+public interface RoomMigratable<S> {
+
+    /**
+     * 获取游戏名称，用作迁移接口路径
+     *
+     * @return 游戏名称
+     */
+    String getGameName();
+
+    /**
+     * 获取房间快照类型
+     *
+     * @return 快照类型
+     */
+    Class<S> getSnapshotType();
+
+    /**
+     * 获取本节点上的所有房间ID
+     *
+     * @return 房间ID列表
+     */
+    List<String> getRoomIds();
+
+    /**
+     * 在两次操作之间冻结房间并截取完整快照，冻结期间房间不接受操作、机器人不行动
+     *
+     * @param roomId 房间ID
+     * @return 房间快照，房间不存在、为空或已在迁移中时返回null
+     */
+    S freezeRoom(String roomId);
+
+    /**
+     * 目标节点已接管房间：把玩家重定向到目标节点并释放本地房间
+     *
+     * @param roomId 房间ID
+     * @param targetUrl 目标节点的 WebSocket 地址（如 ws://host:port）
+     */
+    void completeMigration(String roomId, String targetUrl);
+
+    /**
+     * 迁移失败：解冻房间，对局在本节点继续
+     *
+     * @param roomId 房间ID
+     */
+    void abortMigration(String roomId);
+
+    /**
+     * 导入其他节点迁来的房间，真人座位以断线保留状态等待凭令牌重连
+     *
+     * @param snapshot 房间快照
+     * @return 导入成功返回true，本节点已存在同名房间返回false
+     */
+    boolean importRoom(S snapshot);
+}
@@ -0,0 +1,292 @@
+package com.jeizas.cluster;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 房间在线迁移服务：排空本节点时把所有房间并行迁往其他节点，对局不中断
+ * 每个房间只在“截取快照 → 目标节点导入 → 重定向玩家”期间冻结，冻结时长记入 room.migration.pause
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+@Slf4j
+@Service
+public class RoomMigrationService {
+
+    /** 迁移请求携带共享密钥的请求头 */
+    public static final String SECRET_HEADER = "X-Migration-Secret";
+
+    /** 房间导入接口路径前缀 */
+    public static final String IMPORT_PATH = "/internal/migration/";
+
+    /** 支持迁移的游戏处理器 */
+    private final List<RoomMigratable<?>> games;
+
+    /** 房间路由器 */
+    private final RoomRouter roomRouter;
+
+    /** HTTP客户端 */
+    private final WebClient webClient;
+
+    /** JSON映射器 */
+    private final ObjectMapper objectMapper;
+
+    /** 指标注册表 */
+    private final MeterRegistry meterRegistry;
+
+    /** 同时进行的迁移数 */
+    @Value("${game.migration.parallelism:16}")
+    private int parallelism;
+
+    /** 单个房间导入请求的超时（毫秒） */
+    @Value("${game.migration.timeout-ms:2000}")
+    private long timeoutMillis;
+
+    /** 节点间迁移请求的共享密钥，为空时拒绝所有迁移请求 */
+    @Value("${game.migration.secret:}")
+    private String secret;
+
+    /**
+     * 构造函数
+     *
+     * @param games 支持迁移的游戏处理器
+     * @param roomRouter 房间路由器
+     * @param webClientBuilder HTTP客户端构造器
+     * @param objectMapper JSON映射器
+     * @param meterRegistry 指标注册表
+     */
+    public RoomMigrationService(List<RoomMigratable<?>> games, RoomRouter roomRouter,
+                                WebClient.Builder webClientBuilder, ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry) {
+        this.games = games;
+        this.roomRouter = roomRouter;
+        this.webClient = webClientBuilder.build();
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * 未配置迁移密钥时提示排空与迁移接口已停用
+     */
+    @PostConstruct
+    public void warnIfUnsecured() {
+        if (secret.trim().isEmpty()) {
+            log.warn("未配置 game.migration.secret，节点排空与房间迁移接口将拒绝所有请求");
+        }
+    }
+
+    /**
+     * 校验节点间请求的共享密钥，未配置密钥时一律拒绝
+     *
+     * @param provided 请求携带的密钥
+     */
+    public void checkSecret(String provided) {
+        if (secret.trim().isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "未配置迁移密钥，迁移接口已停用");
+        }
+        if (provided == null || !MessageDigest.isEqual(secret.getBytes(StandardCharsets.UTF_8),
+                provided.getBytes(StandardCharsets.UTF_8))) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "迁移密钥不正确");
+        }
+    }
+
+    /**
+     * 排空本节点：启用集群时先退出哈希环，然后把所有房间并行迁往目标节点
+     *
+     * @param target 目标节点的 HTTP 地址（如 http://localhost:8082），为空时按哈希环为每个房间选择归属节点
+     * @return 排空结果
+     */
+    public Mono<DrainResult> drain(String target) {
+        if ((target == null || target.isEmpty()) && !roomRouter.isEnabled()) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "未启用集群时必须指定 target"));
+        }
+        roomRouter.drain();
+        List<Mono<Long>> migrations = new ArrayList<>();
+        Set<String> targets = new HashSet<>();
+        for (RoomMigratable<?> game : games) {
+            for (String roomId : game.getRoomIds()) {
+                String wsBase = target == null || target.isEmpty() ? roomRouter.addressOf(roomId) : toWs(target);
+                if (wsBase != null) {
+                    targets.add(toHttp(wsBase));
+                    migrations.add(migrate(game, roomId, wsBase));
+                }
+            }
+        }
+        long start = System.nanoTime();
+        DrainResult result = new DrainResult();
+        AtomicLong maxPause = new AtomicLong();
+        return Flux.fromIterable(targets)
+                .flatMap(this::warmUp)
+                .thenMany(Flux.fromIterable(migrations))
+                .flatMap(migration -> migration, Math.max(1, parallelism))
+                .doOnNext(pause -> {
+                    if (pause >= 0) {
+                        result.setMigrated(result.getMigrated() + 1);
+                        maxPause.accumulateAndGet(pause, Math::max);
+                    } else {
+                        result.setFailed(result.getFailed() + 1);
+                    }
+                })
+                .then(Mono.fromSupplier(() -> {
+                    result.setMaxPauseMillis(TimeUnit.NANOSECONDS.toMillis(maxPause.get()));
+                    result.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                    log.info("节点排空完成: 迁移 {} 个房间，失败 {} 个，最长冻结 {} ms，总耗时 {} ms",
+                            result.getMigrated(), result.getFailed(), result.getMaxPauseMillis(),
+                            result.getElapsedMillis());
+                    return result;
+                }));
+    }
+
+    /**
+     * 冻结任何房间之前先与目标节点建立连接，避免首个房间的冻结时间包含建连与客户端初始化
+     *
+     * @param httpBase 目标节点的 HTTP 地址
+     * @return 预热完成信号，失败时忽略
+     */
+    private Mono<Void> warmUp(String httpBase) {
+        return webClient.get()
+                .uri(httpBase + IMPORT_PATH + "ping")
+                .header(SECRET_HEADER, secret)
+                .retrieve()
+                .toBodilessEntity()
+                .timeout(Duration.ofMillis(timeoutMillis))
+                .then()
+                .onErrorResume(e -> {
+                    log.warn("预热到 {} 的连接失败: {}", httpBase, e.toString());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * 迁移单个房间
+     *
+     * @param game 游戏处理器
+     * @param roomId 房间ID
+     * @param wsBase 目标节点的 WebSocket 地址
+     * @param <S> 快照类型
+     * @return 成功时为冻结时长（纳秒），失败为-1，房间无需迁移时为空
+     */
+    private <S> Mono<Long> migrate(RoomMigratable<S> game, String roomId, String wsBase) {
+        String httpBase = toHttp(wsBase);
+        return Mono.defer(() -> {
+            long frozenAt = System.nanoTime();
+            S snapshot = game.freezeRoom(roomId);
+            if (snapshot == null) {
+                return Mono.<Long>empty();
+            }
+            return webClient.post()
+                    .uri(httpBase + IMPORT_PATH + game.getGameName())
+                    .header(SECRET_HEADER, secret)
+                    .bodyValue(snapshot)
+                    .retrieve()
+                    .toBodilessEntity()
+                    .timeout(Duration.ofMillis(timeoutMillis))
+                    .publishOn(Schedulers.boundedElastic())
+                    .map(response -> {
+                        game.completeMigration(roomId, wsBase);
+                        long pause = System.nanoTime() - frozenAt;
+                        Timer.builder("room.migration.pause")
+                                .tag("game", game.getGameName())
+                                .register(meterRegistry)
+                                .record(pause, TimeUnit.NANOSECONDS);
+                        count(game, "migrated");
+                        return pause;
+                    })
+                    .onErrorResume(e -> {
+                        log.warn("房间 {} 迁往 {} 失败，留在本节点继续: {}", roomId, httpBase, e.toString());
+                        game.abortMigration(roomId);
+                        count(game, "failed");
+                        return Mono.just(-1L);
+                    });
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * 导入其他节点迁来的房间
+     *
+     * @param gameName 游戏名称
+     * @param body 房间快照JSON
+     */
+    public void importRoom(String gameName, JsonNode body) {
+        for (RoomMigratable<?> game : games) {
+            if (game.getGameName().equals(gameName)) {
+                importRoom(game, body);
+                return;
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.NOT_FOUND, "未知的游戏: " + gameName);
+    }
+
+    /**
+     * 按游戏的快照类型反序列化并导入
+     *
+     * @param game 游戏处理器
+     * @param body 房间快照JSON
+     * @param <S> 快照类型
+     */
+    private <S> void importRoom(RoomMigratable<S> game, JsonNode body) {
+        S snapshot = objectMapper.convertValue(body, game.getSnapshotType());
+        if (!game.importRoom(snapshot)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "房间已存在");
+        }
+        count(game, "imported");
+    }
+
+    /**
+     * 记录迁移计数
+     *
+     * @param game 游戏处理器
+     * @param outcome 结果标签
+     */
+    private void count(RoomMigratable<?> game, String outcome) {
+        Counter.builder("room.migrations")
+                .tag("game", game.getGameName())
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * 把 HTTP 地址转换为 WebSocket 地址
+     *
+     * @param url HTTP 地址
+     * @return WebSocket 地址
+     */
+    static String toWs(String url) {
+        return url.replaceFirst("^http", "ws");
+    }
+
+    /**
+     * 把 WebSocket 地址转换为 HTTP 地址
+     *
+     * @param url WebSocket 地址
+     * @return HTTP 地址
+     */
+    static String toHttp(String url) {
+        return url.replaceFirst("^ws", "http");
+    }
+}
@@ -0,0 +1,18 @@
+package com.jeizas.cluster;
+
+/**
+ * 房间归属变化的监听者，由各游戏处理器实现
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+public interface RoomOwnershipListener {
+
+    /**
+     * 处理本节点已不再拥有的房间：未在对局中的房间把会话重定向到新的归属节点
+     *
+     * @param router 房间路由器
+     * @return 仍在对局中、暂时留在本节点的房间数，大于0时路由器会在下次刷新时再次调用
+     */
+    int rehome(RoomRouter router);
+}
@@ -0,0 +1,293 @@
+package com.jeizas.cluster;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.net.URI;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 房间路由器：按房间ID的一致性哈希把房间分配到集群节点
+ * 连接落到非归属节点时由处理器下发 REDIRECT 让客户端改连归属节点；成员变化后通知各处理器迁走不再归属本节点的房间。
+ * 未启用集群（game.cluster.enabled=false）时所有房间都归本节点
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+@Slf4j
+@Component
+public class RoomRouter {
+
+    /** 重定向时关闭连接使用的状态码 */
+    public static final CloseStatus REDIRECT_STATUS = new CloseStatus(4302, "redirect");
+
+    /** 归属变化的监听者（各游戏处理器），延迟获取以避免循环依赖 */
+    private final ObjectProvider<RoomOwnershipListener> listeners;
+
+    /** 指标注册表 */
+    private final MeterRegistry meterRegistry;
+
+    /** 成员刷新线程 */
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "cluster-membership");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** 是否启用集群 */
+    @Value("${game.cluster.enabled:false}")
+    private boolean enabled;
+
+    /** 本节点ID */
+    @Value("${game.cluster.node-id:local}")
+    private String nodeId;
+
+    /** 本节点对外的 WebSocket 地址 */
+    @Value("${game.cluster.advertise-url:ws://localhost:${server.port:8080}}")
+    private String advertiseUrl;
+
+    /** 成员来源：static 或 file */
+    @Value("${game.cluster.membership:static}")
+    private String membershipType;
+
+    /** 静态成员列表（id=url，逗号分隔） */
+    @Value("${game.cluster.nodes:}")
+    private String staticNodes;
+
+    /** 文件成员目录 */
+    @Value("${game.cluster.membership-dir:${java.io.tmpdir}/game-cluster}")
+    private String membershipDir;
+
+    /** 心跳与成员刷新间隔（毫秒） */
+    @Value("${game.cluster.heartbeat-ms:1000}")
+    private long heartbeatMillis;
+
+    /** 节点存活时限（毫秒） */
+    @Value("${game.cluster.node-ttl-ms:5000}")
+    private long nodeTtlMillis;
+
+    /** 每个节点的虚拟节点数 */
+    @Value("${game.cluster.virtual-nodes:128}")
+    private int virtualNodes;
+
+    /** 成员来源 */
+    private ClusterMembership membership;
+
+    /** 当前哈希环 */
+    private volatile HashRing ring = new HashRing(Collections.emptyMap(), 1);
+
+    /** 本节点是否正在排空，排空后不再承接任何房间 */
+    private volatile boolean draining;
+
+    /** 应用是否已就绪，就绪前只维护哈希环，不通知处理器 */
+    private volatile boolean ready;
+
+    /** 成员已变化但尚未通知处理器 */
+    private boolean rehomePending;
+
+    /** 上次刷新后仍暂留本节点的非归属房间数 */
+    private int pinnedRooms;
+
+    /**
+     * 构造函数
+     *
+     * @param listeners 归属变化的监听者
+     * @param meterRegistry 指标注册表
+     */
+    public RoomRouter(ObjectProvider<RoomOwnershipListener> listeners, MeterRegistry meterRegistry) {
+        this.listeners = listeners;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * 启用集群时加入集群，建立初始哈希环并开始定时心跳
+     */
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        if ("file".equalsIgnoreCase(membershipType)) {
+            membership = new FileMembership(Paths.get(membershipDir), nodeId, advertiseUrl, nodeTtlMillis);
+        } else {
+            membership = new StaticMembership(StaticMembership.parse(staticNodes));
+        }
+        Gauge.builder("cluster.nodes", this, router -> router.ring.nodeIds().size())
+                .description("当前集群节点数")
+                .register(meterRegistry);
+        membership.heartbeat();
+        ring = new HashRing(currentMembers(), virtualNodes);
+        timer.scheduleWithFixedDelay(this::refresh, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+        log.info("节点 {} 加入集群，成员来源 {}，对外地址 {}，当前成员 {}", nodeId, membershipType, advertiseUrl,
+                ring.nodeIds());
+    }
+
+    /**
+     * 应用就绪后才开始通知处理器（此时各处理器已创建完毕）
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        ready = true;
+    }
+
+    /**
+     * 退出集群
+     */
+    @PreDestroy
+    public void stop() {
+        timer.shutdownNow();
+        if (membership != null) {
+            membership.leave();
+        }
+    }
+
+    /**
+     * 上报心跳并刷新成员，成员变化或仍有暂留房间时通知各处理器
+     */
+    public void refresh() {
+        try {
+            if (!draining) {
+                membership.heartbeat();
+            }
+            Map<String, String> members = currentMembers();
+            boolean changed = !members.equals(ring.getNodes());
+            if (changed) {
+                ring = new HashRing(members, virtualNodes);
+                rehomePending = true;
+                log.info("集群成员变化: {}", members.keySet());
+            }
+            if (ready && (rehomePending || pinnedRooms > 0)) {
+                rehomePending = false;
+                int pinned = 0;
+                for (RoomOwnershipListener listener : listeners) {
+                    pinned += listener.rehome(this);
+                }
+                pinnedRooms = pinned;
+            }
+        } catch (Exception e) {
+            log.error("刷新集群成员失败", e);
+        }
+    }
+
+    /**
+     * 读取存活成员，本节点总是包含在内
+     *
+     * @return 节点ID到节点地址的映射
+     */
+    private Map<String, String> currentMembers() {
+        Map<String, String> members = new LinkedHashMap<>(membership.members());
+        if (draining) {
+            members.remove(nodeId);
+        } else {
+            members.putIfAbsent(nodeId, advertiseUrl);
+        }
+        return members;
+    }
+
+    /**
+     * 开始排空：退出集群并从哈希环上移除本节点，之后新连接都被重定向到其他节点
+     */
+    public synchronized void drain() {
+        if (!enabled || draining) {
+            return;
+        }
+        draining = true;
+        membership.leave();
+        ring = new HashRing(currentMembers(), virtualNodes);
+        log.info("节点 {} 开始排空，剩余成员 {}", nodeId, ring.nodeIds());
+    }
+
+    /**
+     * 是否启用集群
+     *
+     * @return 是否启用
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 获取本节点ID
+     *
+     * @return 节点ID
+     */
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * 获取房间的归属节点
+     *
+     * @param roomId 房间ID
+     * @return 节点ID
+     */
+    public String ownerOf(String roomId) {
+        String owner = enabled ? ring.ownerOf(roomId) : null;
+        return owner == null ? nodeId : owner;
+    }
+
+    /**
+     * 判断房间是否归本节点
+     *
+     * @param roomId 房间ID
+     * @return 是否归本节点
+     */
+    public boolean isLocal(String roomId) {
+        return nodeId.equals(ownerOf(roomId));
+    }
+
+    /**
+     * 计算把会话重定向到房间归属节点的地址（保留原路径和查询参数）
+     *
+     * @param session WebSocket会话
+     * @param roomId 房间ID
+     * @return 重定向地址，房间归本节点时返回null
+     */
+    public String redirectUrl(WebSocketSession session, String roomId) {
+        String base = addressOf(roomId);
+        return base == null ? null : relocate(base, session);
+    }
+
+    /**
+     * 获取房间归属节点的 WebSocket 地址
+     *
+     * @param roomId 房间ID
+     * @return 节点地址，归本节点或无其他节点时返回null
+     */
+    public String addressOf(String roomId) {
+        String owner = ownerOf(roomId);
+        return nodeId.equals(owner) ? null : ring.addressOf(owner);
+    }
+
+    /**
+     * 把会话的路径和查询参数拼到另一个节点地址上
+     *
+     * @param base 节点地址（如 ws://host:port）
+     * @param session WebSocket会话
+     * @return 新的连接地址
+     */
+    public static String relocate(String base, WebSocketSession session) {
+        URI uri = session.getUri();
+        if (uri == null) {
+            return base;
+        }
+        String query = uri.getRawQuery();
+        return base + uri.getRawPath() + (query == null ? "" : "?" + query);
+    }
+}
@@ -0,0 +1,59 @@
+package com.jeizas.cluster;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 静态成员列表，节点由配置给出（game.cluster.nodes=a=ws://localhost:8081,b=ws://localhost:8082）
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+public class StaticMembership implements ClusterMembership {
+
+    /** 节点ID到节点地址 */
+    private final Map<String, String> nodes;
+
+    /**
+     * 构造函数
+     *
+     * @param nodes 节点ID到节点地址的映射
+     */
+    public StaticMembership(Map<String, String> nodes) {
+        this.nodes = Collections.unmodifiableMap(new LinkedHashMap<>(nodes));
+    }
+
+    /**
+     * 解析 id=url 以逗号分隔的节点列表
+     *
+     * @param spec 节点列表
+     * @return 节点ID到节点地址的映射
+     */
+    public static Map<String, String> parse(String spec) {
+        Map<String, String> nodes = new LinkedHashMap<>();
+        if (spec == null) {
+            return nodes;
+        }
+        for (String entry : spec.split(",")) {
+            int eq = entry.indexOf('=');
+            if (eq > 0) {
+                nodes.put(entry.substring(0, eq).trim(), entry.substring(eq + 1).trim());
+            }
+        }
+        return nodes;
+    }
+
+    @Override
+    public void heartbeat() {
+    }
+
+    @Override
+    public Map<String, String> members() {
+        return nodes;
+    }
+
+    @Override
+    public void leave() {
+    }
+}
@@ -0,0 +1,39 @@
+package com.jeizas.config;
+
+import com.jeizas.service.GameExecutors;
+import com.jeizas.websocket.GomokuWebSocketHandler;
+import com.jeizas.websocket.MahjongWebSocketHandler;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 游戏处理器配置类，servlet 与 reactive 两种运行方式共用同一套处理器
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+@Configuration
+public class GameHandlerConfig {
+
+    /**
+     * 创建五子棋WebSocket处理器Bean
+     *
+     * @param gameExecutors 游戏动作执行器
+     * @return 五子棋WebSocket处理器实例
+     */
+    @Bean
+    public GomokuWebSocketHandler gomokuWebSocketHandler(GameExecutors gameExecutors) {
+        return new GomokuWebSocketHandler(gameExecutors);
+    }
+
+    /**
+     * 创建麻将WebSocket处理器Bean
+     *
+     * @param gameExecutors 游戏动作执行器
+     * @return 麻将WebSocket处理器实例
+     */
+    @Bean
+    public MahjongWebSocketHandler mahjongWebSocketHandler(GameExecutors gameExecutors) {
+        return new MahjongWebSocketHandler(gameExecutors);
+    }
+}
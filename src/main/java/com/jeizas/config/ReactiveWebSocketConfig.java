@@ -0,0 +1,94 @@
+package com.jeizas.config;
+
+import com.jeizas.service.GameExecutors;
+import com.jeizas.websocket.GomokuWebSocketHandler;
+import com.jeizas.websocket.MahjongWebSocketHandler;
+import com.jeizas.websocket.ReactiveWebSocketBridge;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.reactive.handler.SimpleUrlHandlerMapping;
+import org.springframework.web.reactive.socket.WebSocketHandler;
+import org.springframework.web.reactive.socket.server.support.HandshakeWebSocketService;
+import org.springframework.web.reactive.socket.server.support.WebSocketHandlerAdapter;
+import org.springframework.web.reactive.socket.server.upgrade.ReactorNettyRequestUpgradeStrategy;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 响应式 WebSocket 配置类（reactive 配置文件），在 Netty 上提供与 servlet 方式相同的 /gomoku、/mahjong 端点
+ * 启动方式：--spring.profiles.active=reactive
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveWebSocketConfig {
+
+    /**
+     * 使用 Netty 作为响应式服务器（类路径上同时存在 Tomcat 时默认会选 Tomcat）
+     *
+     * @return Netty服务器工厂
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    /**
+     * 游戏消息处理线程，处理器内部会短暂持有房间锁，因此不在 Netty 事件循环上执行
+     * 虚拟线程模式下直接使用游戏动作执行器，每条消息一个虚拟线程
+     *
+     * @param threads 线程数上限，小于等于0时取CPU核数的2倍
+     * @param gameExecutors 游戏动作执行器
+     * @return 调度器
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler gameWebSocketScheduler(@Value("${game.reactive.worker-threads:0}") int threads,
+                                            GameExecutors gameExecutors) {
+        if (gameExecutors.isVirtual()) {
+            return Schedulers.fromExecutor(gameExecutors.actions());
+        }
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors() * 2;
+        return Schedulers.newBoundedElastic(size, Integer.MAX_VALUE, "ws-game", 60, true);
+    }
+
+    /**
+     * 注册 /gomoku、/mahjong 端点
+     *
+     * @param gomokuWebSocketHandler 五子棋WebSocket处理器
+     * @param mahjongWebSocketHandler 麻将WebSocket处理器
+     * @param gameWebSocketScheduler 游戏消息处理线程
+     * @param outboundBufferSize 每个会话的出站缓冲条数上限
+     * @return 处理器映射
+     */
+    @Bean
+    public HandlerMapping gameWebSocketMapping(GomokuWebSocketHandler gomokuWebSocketHandler,
+                                               MahjongWebSocketHandler mahjongWebSocketHandler,
+                                               Scheduler gameWebSocketScheduler,
+                                               @Value("${game.reactive.outbound-buffer:256}") int outboundBufferSize) {
+        Map<String, WebSocketHandler> handlers = new HashMap<>();
+        handlers.put("/gomoku", new ReactiveWebSocketBridge(gomokuWebSocketHandler, gameWebSocketScheduler,
+                outboundBufferSize));
+        handlers.put("/mahjong", new ReactiveWebSocketBridge(mahjongWebSocketHandler, gameWebSocketScheduler,
+                outboundBufferSize));
+        return new SimpleUrlHandlerMapping(handlers, -1);
+    }
+
+    /**
+     * WebSocket 握手适配器，显式使用 Netty 的升级策略（类路径上存在 Tomcat 时默认会选 Tomcat 的）
+     *
+     * @return 握手适配器
+     */
+    @Bean
+    public WebSocketHandlerAdapter webSocketHandlerAdapter() {
+        return new WebSocketHandlerAdapter(new HandshakeWebSocketService(new ReactorNettyRequestUpgradeStrategy()));
+    }
+}
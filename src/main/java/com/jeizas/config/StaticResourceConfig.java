@@ -0,0 +1,44 @@
+package com.jeizas.config;
+
+import com.jeizas.web.StaticAssetCacheFilter;
+import com.jeizas.web.StaticAssetManifest;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 静态资源配置（servlet 运行方式）：资源目录与预压缩版本的选择见 spring.web.resources，
+ * 这里按构建时的清单为静态资源加上 ETag 与缓存头
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class StaticResourceConfig {
+
+    /**
+     * 静态资源清单
+     *
+     * @return 构建时写出的清单，未经构建步骤时为空
+     */
+    @Bean
+    public StaticAssetManifest staticAssetManifest() {
+        return StaticAssetManifest.load();
+    }
+
+    /**
+     * 静态资源缓存头过滤器
+     *
+     * @param manifest 静态资源清单
+     * @return 过滤器注册
+     */
+    @Bean
+    public FilterRegistrationBean<StaticAssetCacheFilter> staticAssetCacheFilter(StaticAssetManifest manifest) {
+        FilterRegistrationBean<StaticAssetCacheFilter> registration =
+                new FilterRegistrationBean<>(new StaticAssetCacheFilter(manifest));
+        registration.addUrlPatterns("/*");
+        return registration;
+    }
+}
@@ -1,7 +1,13 @@
 package com.jeizas.config;
 
+import com.jeizas.service.GameExecutors;
+import com.jeizas.websocket.CompressingWebSocketHandler;
+import com.jeizas.websocket.CompressionHandshakeHandler;
 import com.jeizas.websocket.GomokuWebSocketHandler;
 import com.jeizas.websocket.MahjongWebSocketHandler;
+import com.jeizas.websocket.MessageCompressor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.socket.config.annotation.EnableWebSocket;
@@ -9,46 +15,76 @@ import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
 import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
 
 /**
- * WebSocket配置类，用于配置WebSocket处理器和端点
+ * WebSocket配置类，用于配置WebSocket处理器和端点（servlet 运行方式）
  *
  * @author jeizas
  * @date 2025-11-29
  */
 @Configuration
 @EnableWebSocket
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class WebSocketConfig implements WebSocketConfigurer {
 
-    /**
-     * 创建五子棋WebSocket处理器Bean
-     *
-     * @return 五子棋WebSocket处理器实例
-     */
-    @Bean
-    public GomokuWebSocketHandler gomokuWebSocketHandler() {
-        return new GomokuWebSocketHandler();
-    }
+    /** 五子棋WebSocket处理器 */
+    private final GomokuWebSocketHandler gomokuWebSocketHandler;
+
+    /** 麻将WebSocket处理器 */
+    private final MahjongWebSocketHandler mahjongWebSocketHandler;
+
+    /** 出站消息压缩器 */
+    private final MessageCompressor messageCompressor;
 
     /**
-     * 创建麻将WebSocket处理器Bean
+     * 构造函数
      *
-     * @return 麻将WebSocket处理器实例
+     * @param gomokuWebSocketHandler 五子棋WebSocket处理器
+     * @param mahjongWebSocketHandler 麻将WebSocket处理器
+     * @param messageCompressor 出站消息压缩器
      */
-    @Bean
-    public MahjongWebSocketHandler mahjongWebSocketHandler() {
-        return new MahjongWebSocketHandler();
+    public WebSocketConfig(GomokuWebSocketHandler gomokuWebSocketHandler,
+                           MahjongWebSocketHandler mahjongWebSocketHandler,
+                           MessageCompressor messageCompressor) {
+        this.gomokuWebSocketHandler = gomokuWebSocketHandler;
+        this.mahjongWebSocketHandler = mahjongWebSocketHandler;
+        this.messageCompressor = messageCompressor;
     }
 
     /**
-     * 注册WebSocket处理器
+     * 注册WebSocket处理器，启用压缩时协商 json.deflate.v1 子协议，协商成功的会话按阈值压缩出站消息
      *
      * @param registry WebSocket处理器注册表
      */
     @Override
     public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
-        registry.addHandler(gomokuWebSocketHandler(), "/gomoku")
+        if (messageCompressor.isEnabled()) {
+            CompressionHandshakeHandler handshakeHandler = new CompressionHandshakeHandler();
+            registry.addHandler(new CompressingWebSocketHandler(gomokuWebSocketHandler, messageCompressor), "/gomoku")
+                    .setHandshakeHandler(handshakeHandler)
+                    .setAllowedOrigins("*");
+            registry.addHandler(new CompressingWebSocketHandler(mahjongWebSocketHandler, messageCompressor),
+                            "/mahjong")
+                    .setHandshakeHandler(handshakeHandler)
+                    .setAllowedOrigins("*");
+            return;
+        }
+        registry.addHandler(gomokuWebSocketHandler, "/gomoku")
                 .setAllowedOrigins("*");
-        registry.addHandler(mahjongWebSocketHandler(), "/mahjong")
+        registry.addHandler(mahjongWebSocketHandler, "/mahjong")
                 .setAllowedOrigins("*");
     }
-}
 
+    /**
+     * 虚拟线程模式下让 Tomcat 在虚拟线程上处理请求与 WebSocket 消息
+     *
+     * @param gameExecutors 游戏动作执行器
+     * @return Tomcat协议处理器定制器
+     */
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(GameExecutors gameExecutors) {
+        return protocolHandler -> {
+            if (gameExecutors.isVirtual()) {
+                protocolHandler.setExecutor(gameExecutors.actions());
+            }
+        };
+    }
+}
@@ -0,0 +1,65 @@
+package com.jeizas.controller;
+
+import com.jeizas.service.HandAnalysisService;
+import com.jeizas.service.rules.HandAnalysis;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 麻将手牌批量分析接口，供复盘、教学工具离线调用，无需建立 WebSocket 对局
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+@RestController
+@RequestMapping("/api/mahjong")
+public class MahjongAnalysisController {
+
+    /** 批量手牌分析服务 */
+    private final HandAnalysisService analysisService;
+
+    /** 单次请求最多的手牌数 */
+    @Value("${game.analyze.max-hands:20000}")
+    private int maxHands;
+
+    /**
+     * 构造函数
+     *
+     * @param analysisService 批量手牌分析服务
+     */
+    public MahjongAnalysisController(HandAnalysisService analysisService) {
+        this.analysisService = analysisService;
+    }
+
+    /**
+     * 批量分析手牌：请求体每行一手牌（如 123m456p789s1122z），结果以 NDJSON 按完成顺序逐行返回，
+     * 每行带 index 对应请求中的行序（忽略空行）
+     *
+     * @param body 请求体
+     * @return 分析结果流
+     */
+    @PostMapping(value = "/analyze", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<HandAnalysis> analyze(@RequestBody String body) {
+        List<String> hands = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            String hand = line.trim();
+            if (!hand.isEmpty()) {
+                hands.add(hand);
+            }
+        }
+        if (hands.size() > maxHands) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "单次最多分析 " + maxHands + " 手牌");
+        }
+        return analysisService.analyze(hands);
+    }
+}
@@ -0,0 +1,116 @@
+package com.jeizas.controller;
+
+import com.jeizas.model.RoomSummary;
+import com.jeizas.service.RoomSummaryPage;
+import com.jeizas.service.RoomSummaryQuery;
+import com.jeizas.service.RoomSummaryRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * 房间查看接口，仅供运维使用。数据来自房间摘要登记表，查询不获取任何房间锁
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+@Slf4j
+@RestController
+@RequestMapping("/admin/rooms")
+public class RoomAdminController {
+
+    /** 运维令牌请求头 */
+    public static final String TOKEN_HEADER = "X-Admin-Token";
+
+    /** 房间摘要登记表 */
+    private final RoomSummaryRegistry registry;
+
+    /** 运维令牌，为空时拒绝所有请求 */
+    private final String token;
+
+    /** 单页最多返回的条数 */
+    private final int maxPageSize;
+
+    /**
+     * 构造函数
+     *
+     * @param registry 房间摘要登记表
+     * @param token 运维令牌
+     * @param maxPageSize 单页最多返回的条数
+     */
+    public RoomAdminController(RoomSummaryRegistry registry, @Value("${game.admin.token:}") String token,
+                               @Value("${game.admin.max-page-size:500}") int maxPageSize) {
+        this.registry = registry;
+        this.token = token;
+        this.maxPageSize = Math.max(1, maxPageSize);
+    }
+
+    /**
+     * 分页列出房间
+     *
+     * @param query 查询条件（游戏、状态、机器人数、空闲秒数、玩家、offset、limit）
+     * @param provided 运维令牌
+     * @return 查询结果
+     */
+    @GetMapping
+    public RoomSummaryPage list(RoomSummaryQuery query,
+                                @RequestHeader(value = TOKEN_HEADER, required = false) String provided) {
+        checkToken(provided);
+        int limit = Math.min(Math.max(1, query.getLimit()), maxPageSize);
+        return registry.query(query.toFilter(System.currentTimeMillis()), Math.max(0, query.getOffset()), limit);
+    }
+
+    /**
+     * 查看单个房间
+     *
+     * @param game 游戏名称
+     * @param roomId 房间ID
+     * @param provided 运维令牌
+     * @return 房间摘要
+     */
+    @GetMapping("/{game}/{roomId}")
+    public RoomSummary get(@PathVariable("game") String game, @PathVariable("roomId") String roomId,
+                           @RequestHeader(value = TOKEN_HEADER, required = false) String provided) {
+        checkToken(provided);
+        RoomSummary summary = registry.get(game, roomId);
+        if (summary == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "房间不存在");
+        }
+        return summary;
+    }
+
+    /**
+     * 未配置运维令牌时提示查看接口已停用
+     */
+    @PostConstruct
+    public void warnIfUnsecured() {
+        if (token.trim().isEmpty()) {
+            log.warn("未配置 game.admin.token，房间查看接口将拒绝所有请求");
+        }
+    }
+
+    /**
+     * 校验运维令牌，未配置令牌时一律拒绝
+     *
+     * @param provided 请求携带的令牌
+     */
+    private void checkToken(String provided) {
+        if (token.trim().isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "未配置运维令牌，查看接口已停用");
+        }
+        if (provided == null || !MessageDigest.isEqual(token.getBytes(StandardCharsets.UTF_8),
+                provided.getBytes(StandardCharsets.UTF_8))) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "运维令牌不正确");
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.jeizas.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.jeizas.cluster.DrainResult;
+import com.jeizas.cluster.RoomMigrationService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+/**
+ * 节点排空与房间迁移接口，仅供运维与集群节点之间调用
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+@RestController
+@RequestMapping("/internal")
+public class RoomMigrationController {
+
+    /** 房间迁移服务 */
+    private final RoomMigrationService migrationService;
+
+    /**
+     * 构造函数
+     *
+     * @param migrationService 房间迁移服务
+     */
+    public RoomMigrationController(RoomMigrationService migrationService) {
+        this.migrationService = migrationService;
+    }
+
+    /**
+     * 排空本节点，把所有房间迁往其他节点
+     *
+     * @param target 目标节点的 HTTP 地址，缺省时按哈希环为每个房间选择归属节点
+     * @param secret 迁移密钥
+     * @return 排空结果
+     */
+    @PostMapping("/drain")
+    public Mono<DrainResult> drain(@RequestParam(value = "target", required = false) String target,
+                                   @RequestHeader(value = RoomMigrationService.SECRET_HEADER, required = false)
+                                           String secret) {
+        migrationService.checkSecret(secret);
+        return migrationService.drain(target);
+    }
+
+    /**
+     * 连通性检查，迁移前用于预热节点间连接
+     *
+     * @param secret 迁移密钥
+     * @return 总是返回200
+     */
+    @GetMapping("/migration/ping")
+    public ResponseEntity<Void> ping(@RequestHeader(value = RoomMigrationService.SECRET_HEADER, required = false)
+                                             String secret) {
+        migrationService.checkSecret(secret);
+        return ResponseEntity.ok().build();
+    }
+
+    /**
+     * 导入其他节点迁来的房间
+     *
+     * @param game 游戏名称
+     * @param snapshot 房间快照
+     * @param secret 迁移密钥
+     * @return 导入成功返回200
+     */
+    @PostMapping("/migration/{game}")
+    public ResponseEntity<Void> importRoom(@PathVariable("game") String game, @RequestBody JsonNode snapshot,
+                                           @RequestHeader(value = RoomMigrationService.SECRET_HEADER, required = false)
+                                                   String secret) {
+        migrationService.checkSecret(secret);
+        migrationService.importRoom(game, snapshot);
+        return ResponseEntity.ok().build();
+    }
+}
@@ -0,0 +1,38 @@
+package com.jeizas.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+import lombok.AccessLevel;
+import lombok.Setter;
+
+/**
+ * 一次机器人出牌决策，从提交到得出结果（含排队时间），由完成决策的线程提交
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+@Name("com.jeizas.BotDecision")
+@Label("Mahjong Bot Decision")
+@Category({"Game", "Mahjong"})
+@Description("机器人出牌决策")
+@Setter(AccessLevel.PACKAGE)
+@StackTrace(false)
+class BotDecisionEvent extends jdk.jfr.Event {
+
+    /** 策略名 */
+    @Label("Strategy")
+    private String strategy;
+
+    /** 结果标签（ok / timeout / invalid / error / rejected） */
+    @Label("Outcome")
+    private String outcome;
+
+    /** 时间预算（毫秒） */
+    @Label("Budget")
+    @Timespan(Timespan.MILLISECONDS)
+    private long budget;
+}
@@ -0,0 +1,46 @@
+package com.jeizas.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.AccessLevel;
+import lombok.Setter;
+
+/**
+ * 一次房间广播：接收者数与消息字节数（UTF-8 编码后、压缩前）
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+@Name("com.jeizas.Broadcast")
+@Label("Room Broadcast")
+@Category({"Game", "Broadcast"})
+@Description("向房间内的玩家广播一条消息")
+@Setter(AccessLevel.PACKAGE)
+@StackTrace(false)
+class BroadcastEvent extends jdk.jfr.Event {
+
+    /** 游戏（mahjong / gomoku） */
+    @Label("Game")
+    private String game;
+
+    /** 房间ID */
+    @Label("Room")
+    private String roomId;
+
+    /** 消息类型 */
+    @Label("Type")
+    private String type;
+
+    /** 接收的玩家数（不含观战者） */
+    @Label("Recipients")
+    private int recipients;
+
+    /** 消息字节数 */
+    @Label("Bytes")
+    @DataAmount
+    private int bytes;
+}
@@ -0,0 +1,233 @@
+package com.jeizas.jfr;
+
+import jdk.jfr.FlightRecorder;
+
+import java.util.concurrent.locks.Lock;
+
+/**
+ * JFR 事件的实际实现，只由 {@link GameEvents} 在检测到 JFR 后调用。
+ * 每种事件保留一个不提交的探针实例，isEnabled 只读取事件类型的开关，未录制时不必为每次调用分配事件对象
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+final class FlightEvents {
+
+    /** 指令事件探针 */
+    private static final GameCommandEvent COMMAND = new GameCommandEvent();
+
+    /** 锁等待事件探针 */
+    private static final RoomLockWaitEvent LOCK_WAIT = new RoomLockWaitEvent();
+
+    /** 广播事件探针 */
+    private static final BroadcastEvent BROADCAST = new BroadcastEvent();
+
+    /** 胡牌判定事件探针 */
+    private static final HandCheckEvent HAND_CHECK = new HandCheckEvent();
+
+    /** 机器人决策事件探针 */
+    private static final BotDecisionEvent BOT_DECISION = new BotDecisionEvent();
+
+    /**
+     * 私有构造函数，禁止实例化
+     */
+    private FlightEvents() {
+    }
+
+    /**
+     * 注册事件类型，使其在尚未产生过事件时也出现在录制配置与 JMC 的事件列表中
+     *
+     * @return 是否注册成功
+     */
+    static boolean registered() {
+        FlightRecorder.register(GameCommandEvent.class);
+        FlightRecorder.register(RoomLockWaitEvent.class);
+        FlightRecorder.register(BroadcastEvent.class);
+        FlightRecorder.register(HandCheckEvent.class);
+        FlightRecorder.register(BotDecisionEvent.class);
+        return true;
+    }
+
+    /**
+     * 开始指令事件
+     *
+     * @return 事件，未启用时返回null
+     */
+    static Object beginCommand() {
+        if (!COMMAND.isEnabled()) {
+            return null;
+        }
+        GameCommandEvent event = new GameCommandEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * 结束指令事件
+     *
+     * @param token 事件
+     * @param game 游戏
+     * @param type 指令类型
+     * @param roomId 房间ID
+     */
+    static void endCommand(Object token, String game, String type, String roomId) {
+        GameCommandEvent event = (GameCommandEvent) token;
+        event.end();
+        if (event.shouldCommit()) {
+            event.setGame(game);
+            event.setType(type);
+            event.setRoomId(roomId);
+            event.commit();
+        }
+    }
+
+    /**
+     * 阻塞获取已被占用的锁，并记录等待时间
+     *
+     * @param lock 锁
+     * @param game 游戏
+     * @param roomId 房间ID
+     */
+    static void lockContended(Lock lock, String game, String roomId) {
+        if (!LOCK_WAIT.isEnabled()) {
+            lock.lock();
+            return;
+        }
+        RoomLockWaitEvent event = new RoomLockWaitEvent();
+        event.begin();
+        lock.lock();
+        event.end();
+        if (event.shouldCommit()) {
+            event.setGame(game);
+            event.setRoomId(roomId);
+            event.commit();
+        }
+    }
+
+    /**
+     * 开始广播事件
+     *
+     * @return 事件，未启用时返回null
+     */
+    static Object beginBroadcast() {
+        if (!BROADCAST.isEnabled()) {
+            return null;
+        }
+        BroadcastEvent event = new BroadcastEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * 结束广播事件
+     *
+     * @param token 事件
+     * @param game 游戏
+     * @param roomId 房间ID
+     * @param type 消息类型
+     * @param recipients 接收的玩家数
+     * @param payload 消息内容
+     */
+    static void endBroadcast(Object token, String game, String roomId, String type, int recipients,
+                             String payload) {
+        BroadcastEvent event = (BroadcastEvent) token;
+        event.end();
+        if (event.shouldCommit()) {
+            event.setGame(game);
+            event.setRoomId(roomId);
+            event.setType(type);
+            event.setRecipients(recipients);
+            event.setBytes(utf8Length(payload));
+            event.commit();
+        }
+    }
+
+    /**
+     * 开始胡牌判定事件
+     *
+     * @return 事件，未启用时返回null
+     */
+    static Object beginHandCheck() {
+        if (!HAND_CHECK.isEnabled()) {
+            return null;
+        }
+        HandCheckEvent event = new HandCheckEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * 结束胡牌判定事件
+     *
+     * @param token 事件
+     * @param tiles 手牌张数
+     * @param win 是否可以胡牌
+     */
+    static void endHandCheck(Object token, int tiles, boolean win) {
+        HandCheckEvent event = (HandCheckEvent) token;
+        event.end();
+        if (event.shouldCommit()) {
+            event.setTiles(tiles);
+            event.setWin(win);
+            event.commit();
+        }
+    }
+
+    /**
+     * 开始机器人决策事件
+     *
+     * @param strategy 策略名
+     * @param budgetMillis 时间预算（毫秒）
+     * @return 事件，未启用时返回null
+     */
+    static Object beginBotDecision(String strategy, long budgetMillis) {
+        if (!BOT_DECISION.isEnabled()) {
+            return null;
+        }
+        BotDecisionEvent event = new BotDecisionEvent();
+        event.setStrategy(strategy);
+        event.setBudget(budgetMillis);
+        event.begin();
+        return event;
+    }
+
+    /**
+     * 结束机器人决策事件
+     *
+     * @param token 事件
+     * @param outcome 结果标签
+     */
+    static void endBotDecision(Object token, String outcome) {
+        BotDecisionEvent event = (BotDecisionEvent) token;
+        event.end();
+        if (event.shouldCommit()) {
+            event.setOutcome(outcome);
+            event.commit();
+        }
+    }
+
+    /**
+     * 字符串按 UTF-8 编码后的字节数，不实际编码
+     *
+     * @param s 字符串
+     * @return 字节数
+     */
+    static int utf8Length(String s) {
+        int length = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < s.length()
+                    && Character.isLowSurrogate(s.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+}
@@ -0,0 +1,36 @@
+package com.jeizas.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.AccessLevel;
+import lombok.Setter;
+
+/**
+ * 一条客户端指令的处理过程（持有房间锁处理指令的耗时），与同一时段的 GC、安全点事件对照可定位卡顿的指令
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+@Name("com.jeizas.GameCommand")
+@Label("Game Command")
+@Category({"Game", "Command"})
+@Description("处理一条客户端指令")
+@Setter(AccessLevel.PACKAGE)
+@StackTrace(false)
+class GameCommandEvent extends jdk.jfr.Event {
+
+    /** 游戏（mahjong / gomoku） */
+    @Label("Game")
+    private String game;
+
+    /** 指令类型 */
+    @Label("Type")
+    private String type;
+
+    /** 房间ID */
+    @Label("Room")
+    private String roomId;
+}
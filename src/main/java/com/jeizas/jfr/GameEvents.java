@@ -0,0 +1,158 @@
+package com.jeizas.jfr;
+
+import java.util.concurrent.locks.Lock;
+
+/**
+ * 游戏自定义 JFR 事件的入口：指令处理、房间锁等待、广播、胡牌判定与机器人决策。
+ * 项目以 1.8 为编译目标，运行时不一定有 jdk.jfr 模块，所有对 JFR 类型的引用都在 {@link FlightEvents} 中，
+ * 只有检测到 JFR 时才会加载；没有录制或事件未启用时 begin 方法返回 null，end 方法直接返回，不分配对象
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+public final class GameEvents {
+
+    /** 运行时是否提供 JFR */
+    private static final boolean AVAILABLE = detect();
+
+    /**
+     * 私有构造函数，禁止实例化
+     */
+    private GameEvents() {
+    }
+
+    /**
+     * 运行时是否提供 JFR
+     *
+     * @return 是否提供
+     */
+    public static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    /**
+     * 开始记录一条指令的处理
+     *
+     * @return 事件，未录制时返回null
+     */
+    public static Object beginCommand() {
+        return AVAILABLE ? FlightEvents.beginCommand() : null;
+    }
+
+    /**
+     * 结束记录一条指令的处理
+     *
+     * @param event {@link #beginCommand()} 的返回值
+     * @param game 游戏
+     * @param type 指令类型
+     * @param roomId 房间ID
+     */
+    public static void endCommand(Object event, String game, String type, String roomId) {
+        if (event != null) {
+            FlightEvents.endCommand(event, game, type, roomId);
+        }
+    }
+
+    /**
+     * 获取房间锁：先 tryLock，无竞争时与直接 lock 相同；锁被占用时再阻塞等待，并把等待时间记为锁等待事件
+     *
+     * @param lock 房间锁
+     * @param game 游戏
+     * @param roomId 房间ID
+     */
+    public static void lock(Lock lock, String game, String roomId) {
+        if (lock.tryLock()) {
+            return;
+        }
+        if (AVAILABLE) {
+            FlightEvents.lockContended(lock, game, roomId);
+        } else {
+            lock.lock();
+        }
+    }
+
+    /**
+     * 开始记录一次广播
+     *
+     * @return 事件，未录制时返回null
+     */
+    public static Object beginBroadcast() {
+        return AVAILABLE ? FlightEvents.beginBroadcast() : null;
+    }
+
+    /**
+     * 结束记录一次广播，消息字节数只在事件确定提交时才计算
+     *
+     * @param event {@link #beginBroadcast()} 的返回值
+     * @param game 游戏
+     * @param roomId 房间ID
+     * @param type 消息类型
+     * @param recipients 接收的玩家数
+     * @param payload 消息内容
+     */
+    public static void endBroadcast(Object event, String game, String roomId, String type, int recipients,
+                                    String payload) {
+        if (event != null) {
+            FlightEvents.endBroadcast(event, game, roomId, type, recipients, payload);
+        }
+    }
+
+    /**
+     * 开始记录一次胡牌判定
+     *
+     * @return 事件，未录制时返回null
+     */
+    public static Object beginHandCheck() {
+        return AVAILABLE ? FlightEvents.beginHandCheck() : null;
+    }
+
+    /**
+     * 结束记录一次胡牌判定
+     *
+     * @param event {@link #beginHandCheck()} 的返回值
+     * @param tiles 手牌张数
+     * @param win 是否可以胡牌
+     */
+    public static void endHandCheck(Object event, int tiles, boolean win) {
+        if (event != null) {
+            FlightEvents.endHandCheck(event, tiles, win);
+        }
+    }
+
+    /**
+     * 开始记录一次机器人决策，决策可能在另一个线程上完成
+     *
+     * @param strategy 策略名
+     * @param budgetMillis 时间预算（毫秒）
+     * @return 事件，未录制时返回null
+     */
+    public static Object beginBotDecision(String strategy, long budgetMillis) {
+        return AVAILABLE ? FlightEvents.beginBotDecision(strategy, budgetMillis) : null;
+    }
+
+    /**
+     * 结束记录一次机器人决策
+     *
+     * @param event {@link #beginBotDecision(String, long)} 的返回值
+     * @param outcome 结果标签
+     */
+    public static void endBotDecision(Object event, String outcome) {
+        if (event != null) {
+            FlightEvents.endBotDecision(event, outcome);
+        }
+    }
+
+    /**
+     * 检测运行时是否提供 JFR
+     *
+     * @return 是否提供
+     */
+    private static boolean detect() {
+        try {
+            Class.forName("jdk.jfr.Event", false, GameEvents.class.getClassLoader());
+            return FlightEvents.registered();
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.jeizas.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import lombok.AccessLevel;
+import lombok.Setter;
+
+/**
+ * 一次胡牌判定。判定本身在微秒级且调用频繁（听牌计算每张候选牌各一次），默认只记录超过阈值的慢调用
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+@Name("com.jeizas.HandCheck")
+@Label("Mahjong Hand Check")
+@Category({"Game", "Mahjong"})
+@Description("胡牌判定")
+@Setter(AccessLevel.PACKAGE)
+@StackTrace(false)
+@Threshold("50 us")
+class HandCheckEvent extends jdk.jfr.Event {
+
+    /** 手牌张数 */
+    @Label("Tiles")
+    private int tiles;
+
+    /** 是否可以胡牌 */
+    @Label("Win")
+    private boolean win;
+}
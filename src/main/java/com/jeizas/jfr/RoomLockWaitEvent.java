@@ -0,0 +1,32 @@
+package com.jeizas.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.AccessLevel;
+import lombok.Setter;
+
+/**
+ * 等待房间锁的耗时，只在 tryLock 失败（锁被占用）时记录，无竞争的加锁不产生事件
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+@Name("com.jeizas.RoomLockWait")
+@Label("Room Lock Wait")
+@Category({"Game", "Lock"})
+@Description("等待房间锁")
+@Setter(AccessLevel.PACKAGE)
+@StackTrace(true)
+class RoomLockWaitEvent extends jdk.jfr.Event {
+
+    /** 游戏（mahjong / gomoku） */
+    @Label("Game")
+    private String game;
+
+    /** 房间ID */
+    @Label("Room")
+    private String roomId;
+}
@@ -10,7 +10,7 @@ import lombok.Data;
  */
 @Data
 public class GameMessage {
-    /** 消息类型: JOIN, MOVE, GAME_START, GAME_OVER, OPPONENT_LEFT, ERROR, WAITING, RESET */
+    /** 消息类型: JOIN, MOVE, GAME_START, GAME_OVER, OPPONENT_LEFT, OPPONENT_OFFLINE, OPPONENT_RESUMED, ERROR, WAITING, RESET, SESSION, RESUME, SPECTATE, REDIRECT */
     private String type;
 
     /** 落子行坐标 */
@@ -34,6 +34,12 @@ public class GameMessage {
     /** 当前回合玩家，1=黑棋，2=白棋 */
     private int currentPlayer;
 
+    /** 断线重连使用的恢复令牌 */
+    private String resumeToken;
+
+    /** 房间归属节点的连接地址（REDIRECT） */
+    private String redirectUrl;
+
     /**
      * 默认构造函数
      */
@@ -149,5 +155,90 @@ public class GameMessage {
         msg.setCurrentPlayer(1);
         return msg;
     }
-}
 
+    /**
+     * 创建会话信息消息，告知客户端断线重连使用的恢复令牌
+     *
+     * @param resumeToken 恢复令牌
+     * @return 会话信息消息对象
+     */
+    public static GameMessage session(String resumeToken) {
+        GameMessage msg = new GameMessage();
+        msg.setType("SESSION");
+        msg.setResumeToken(resumeToken);
+        return msg;
+    }
+
+    /**
+     * 创建断线恢复后的状态同步消息
+     *
+     * @param playerColor 玩家颜色，1=黑棋，2=白棋
+     * @param room 游戏房间
+     * @return 状态同步消息对象
+     */
+    public static GameMessage resume(int playerColor, GameRoom room) {
+        GameMessage msg = new GameMessage();
+        msg.setType("RESUME");
+        msg.setPlayer(playerColor);
+        msg.setCurrentPlayer(room.getCurrentPlayer());
+        msg.setBoard(room.getBoard());
+        msg.setWinner(room.getWinner());
+        msg.setMessage("已恢复对局");
+        return msg;
+    }
+
+    /**
+     * 创建观战局面快照消息
+     *
+     * @param room 游戏房间
+     * @return 观战快照消息对象
+     */
+    public static GameMessage spectate(GameRoom room) {
+        GameMessage msg = new GameMessage();
+        msg.setType("SPECTATE");
+        msg.setCurrentPlayer(room.getCurrentPlayer());
+        msg.setBoard(room.getBoard());
+        msg.setWinner(room.getWinner());
+        msg.setMessage(room.isGameStarted() ? "观战中" : "观战中，等待对局开始");
+        return msg;
+    }
+
+    /**
+     * 创建对手掉线消息（座位保留中）
+     *
+     * @param graceSeconds 座位保留时间（秒）
+     * @return 对手掉线消息对象
+     */
+    public static GameMessage opponentOffline(long graceSeconds) {
+        GameMessage msg = new GameMessage();
+        msg.setType("OPPONENT_OFFLINE");
+        msg.setMessage("对手掉线，等待重连（" + graceSeconds + "秒）...");
+        return msg;
+    }
+
+    /**
+     * 创建对手重连消息
+     *
+     * @return 对手重连消息对象
+     */
+    public static GameMessage opponentResumed() {
+        GameMessage msg = new GameMessage();
+        msg.setType("OPPONENT_RESUMED");
+        msg.setMessage("对手已重新连接");
+        return msg;
+    }
+
+    /**
+     * 创建重定向消息，房间归属其他节点时通知客户端改连
+     *
+     * @param redirectUrl 归属节点的连接地址
+     * @return 重定向消息对象
+     */
+    public static GameMessage redirect(String redirectUrl) {
+        GameMessage msg = new GameMessage();
+        msg.setType("REDIRECT");
+        msg.setRedirectUrl(redirectUrl);
+        msg.setMessage("房间位于其他服务器，正在切换...");
+        return msg;
+    }
+}
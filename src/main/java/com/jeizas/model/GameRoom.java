@@ -3,6 +3,8 @@ package com.jeizas.model;
 import lombok.Data;
 import org.springframework.web.socket.WebSocketSession;
 
+import java.util.concurrent.locks.ReentrantLock;
+
 /**
  * 游戏房间实体类，管理五子棋游戏的状态和玩家
  *
@@ -12,8 +14,8 @@ import org.springframework.web.socket.WebSocketSession;
 @Data
 public class GameRoom {
 
-    /** 同步锁对象 */
-    private final Object lock = new Object();
+    /** 房间锁，使用显式锁而非对象监视器，持锁期间的套接字写入不会钉住虚拟线程的载体线程 */
+    private final ReentrantLock lock = new ReentrantLock();
 
     /** 房间ID */
     private String roomId;
@@ -39,6 +41,12 @@ public class GameRoom {
     /** 获胜者，0=无，1=黑棋获胜，2=白棋获胜 */
     private int winner;
 
+    /** 是否因迁移而冻结（迁出时等待目标节点接管，迁入后等待玩家重连），冻结期间不接受落子 */
+    private boolean migrating;
+
+    /** 最近一次玩家操作的时间戳（毫秒），0 表示还没有玩家操作过 */
+    private long lastActiveAt;
+
     /**
      * 构造函数
      *
@@ -86,6 +94,35 @@ public class GameRoom {
         return 0;
     }
 
+    /**
+     * 替换指定颜色的玩家会话（断线重连）
+     *
+     * @param color 玩家颜色，1=黑棋，2=白棋
+     * @param session 新的WebSocket会话
+     */
+    public void replacePlayer(int color, WebSocketSession session) {
+        if (color == 1) {
+            this.blackPlayer = session;
+        } else if (color == 2) {
+            this.whitePlayer = session;
+        }
+    }
+
+    /**
+     * 获取指定颜色的玩家会话
+     *
+     * @param color 玩家颜色，1=黑棋，2=白棋
+     * @return 该颜色玩家的WebSocket会话，不存在返回null
+     */
+    public WebSocketSession getPlayerSession(int color) {
+        if (color == 1) {
+            return blackPlayer;
+        } else if (color == 2) {
+            return whitePlayer;
+        }
+        return null;
+    }
+
     /**
      * 获取指定会话的对手会话
      *
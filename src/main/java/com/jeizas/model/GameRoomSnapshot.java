@@ -0,0 +1,77 @@
+package com.jeizas.model;
+
+import lombok.Data;
+
+/**
+ * 五子棋房间快照，用于把进行中的房间完整迁移到其他节点，双方座位附带恢复令牌
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+@Data
+public class GameRoomSnapshot {
+
+    /** 房间ID */
+    private String roomId;
+
+    /** 棋盘状态 */
+    private int[][] board;
+
+    /** 当前下棋方 */
+    private int currentPlayer;
+
+    /** 游戏是否已开始 */
+    private boolean gameStarted;
+
+    /** 游戏是否已结束 */
+    private boolean gameOver;
+
+    /** 获胜者 */
+    private int winner;
+
+    /** 黑棋座位的恢复令牌，座位为空时为null */
+    private String blackToken;
+
+    /** 白棋座位的恢复令牌，座位为空时为null */
+    private String whiteToken;
+
+    /**
+     * 截取房间当前状态，调用方需持有房间锁
+     *
+     * @param room 游戏房间
+     * @param blackToken 黑棋座位的恢复令牌
+     * @param whiteToken 白棋座位的恢复令牌
+     * @return 房间快照
+     */
+    public static GameRoomSnapshot capture(GameRoom room, String blackToken, String whiteToken) {
+        GameRoomSnapshot snapshot = new GameRoomSnapshot();
+        snapshot.setRoomId(room.getRoomId());
+        int[][] board = new int[room.getBoard().length][];
+        for (int i = 0; i < board.length; i++) {
+            board[i] = room.getBoard()[i].clone();
+        }
+        snapshot.setBoard(board);
+        snapshot.setCurrentPlayer(room.getCurrentPlayer());
+        snapshot.setGameStarted(room.isGameStarted());
+        snapshot.setGameOver(room.isGameOver());
+        snapshot.setWinner(room.getWinner());
+        snapshot.setBlackToken(blackToken);
+        snapshot.setWhiteToken(whiteToken);
+        return snapshot;
+    }
+
+    /**
+     * 按快照重建房间（双方座位为空，等待凭令牌重连）
+     *
+     * @return 游戏房间
+     */
+    public GameRoom restore() {
+        GameRoom room = new GameRoom(roomId);
+        room.setBoard(board);
+        room.setCurrentPlayer(currentPlayer);
+        room.setGameStarted(gameStarted);
+        room.setGameOver(gameOver);
+        room.setWinner(winner);
+        return room;
+    }
+}
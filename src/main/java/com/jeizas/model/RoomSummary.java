@@ -0,0 +1,216 @@
+package com.jeizas.model;
+
+import com.jeizas.model.mahjong.MahjongPlayer;
+import com.jeizas.model.mahjong.MahjongRoom;
+import lombok.Getter;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 房间摘要，供运维查看在线房间。每次房间状态变化后在房间锁内重新生成并整体替换，
+ * 生成后不再修改，查询时直接读取，不需要获取房间锁
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+@Getter
+public final class RoomSummary {
+
+    /** 等待玩家或等待开局 */
+    public static final String WAITING = "WAITING";
+
+    /** 对局中 */
+    public static final String PLAYING = "PLAYING";
+
+    /** 对局已结束 */
+    public static final String FINISHED = "FINISHED";
+
+    /** 迁移中 */
+    public static final String MIGRATING = "MIGRATING";
+
+    /** 游戏名称 */
+    private final String game;
+
+    /** 房间ID */
+    private final String roomId;
+
+    /** 房间状态 */
+    private final String state;
+
+    /** 座位 */
+    private final List<Seat> seats;
+
+    /** 真人玩家数 */
+    private final int humans;
+
+    /** 机器人数 */
+    private final int bots;
+
+    /** 当前轮数（五子棋为0） */
+    private final int currentRound;
+
+    /** 总轮数（五子棋为0） */
+    private final int totalRounds;
+
+    /** 最近一次玩家操作的时间戳（毫秒） */
+    private final long lastActiveAt;
+
+    /**
+     * 构造函数
+     *
+     * @param game 游戏名称
+     * @param roomId 房间ID
+     * @param state 房间状态
+     * @param seats 座位
+     * @param currentRound 当前轮数
+     * @param totalRounds 总轮数
+     * @param lastActiveAt 最近一次玩家操作的时间戳（毫秒）
+     */
+    public RoomSummary(String game, String roomId, String state, List<Seat> seats, int currentRound,
+                       int totalRounds, long lastActiveAt) {
+        this.game = game;
+        this.roomId = roomId;
+        this.state = state;
+        this.seats = Collections.unmodifiableList(seats);
+        int botCount = 0;
+        for (Seat seat : seats) {
+            if (seat.isBot()) {
+                botCount++;
+            }
+        }
+        this.bots = botCount;
+        this.humans = seats.size() - botCount;
+        this.currentRound = currentRound;
+        this.totalRounds = totalRounds;
+        this.lastActiveAt = lastActiveAt;
+    }
+
+    /**
+     * 在房间锁内生成麻将房间摘要
+     *
+     * @param game 游戏名称
+     * @param room 麻将房间
+     * @param now 当前时间（毫秒），房间还没有真人操作过时作为最近操作时间
+     * @return 房间摘要
+     */
+    public static RoomSummary of(String game, MahjongRoom room, long now) {
+        List<Seat> seats = new ArrayList<>(room.getPlayers().size());
+        for (MahjongPlayer player : room.getPlayers()) {
+            seats.add(new Seat(player.getPlayerId(), player.getPlayerName(), player.isBot(),
+                    player.isBot() || (player.isOnline() && !player.isAway())));
+        }
+        String state;
+        if (room.isMigrating()) {
+            state = MIGRATING;
+        } else if (room.isGameStarted() && !room.isGameOver()) {
+            state = PLAYING;
+        } else if (room.isGameOver()) {
+            state = FINISHED;
+        } else {
+            state = WAITING;
+        }
+        return new RoomSummary(game, room.getRoomId(), state, seats, room.getCurrentRound(), room.getTotalRounds(),
+                room.getLastActiveAt() > 0 ? room.getLastActiveAt() : now);
+    }
+
+    /**
+     * 在房间锁内生成五子棋房间摘要
+     *
+     * @param game 游戏名称
+     * @param room 五子棋房间
+     * @param now 当前时间（毫秒），房间还没有玩家操作过时作为最近操作时间
+     * @return 房间摘要
+     */
+    public static RoomSummary of(String game, GameRoom room, long now) {
+        List<Seat> seats = new ArrayList<>(2);
+        addSeat(seats, room.getBlackPlayer(), "黑棋");
+        addSeat(seats, room.getWhitePlayer(), "白棋");
+        String state;
+        if (room.isMigrating()) {
+            state = MIGRATING;
+        } else if (room.isGameOver()) {
+            state = FINISHED;
+        } else if (room.isGameStarted()) {
+            state = PLAYING;
+        } else {
+            state = WAITING;
+        }
+        return new RoomSummary(game, room.getRoomId(), state, seats, 0, 0,
+                room.getLastActiveAt() > 0 ? room.getLastActiveAt() : now);
+    }
+
+    /**
+     * 添加五子棋座位
+     *
+     * @param seats 座位
+     * @param session 玩家会话
+     * @param name 座位名称
+     */
+    private static void addSeat(List<Seat> seats, WebSocketSession session, String name) {
+        if (session != null) {
+            seats.add(new Seat(session.getId(), name, false, session.isOpen()));
+        }
+    }
+
+    /**
+     * 空闲时长
+     *
+     * @param now 当前时间（毫秒）
+     * @return 距最近一次玩家操作的毫秒数
+     */
+    public long idleMillis(long now) {
+        return Math.max(0, now - lastActiveAt);
+    }
+
+    /**
+     * 房间内是否有指定玩家
+     *
+     * @param player 玩家ID或名称（名称按包含匹配）
+     * @return 是否有该玩家
+     */
+    public boolean hasPlayer(String player) {
+        for (Seat seat : seats) {
+            if (player.equals(seat.getPlayerId()) || (seat.getName() != null && seat.getName().contains(player))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 座位摘要
+     */
+    @Getter
+    public static final class Seat {
+
+        /** 玩家ID（五子棋为会话ID） */
+        private final String playerId;
+
+        /** 玩家名称 */
+        private final String name;
+
+        /** 是否为机器人 */
+        private final boolean bot;
+
+        /** 是否在线（机器人总是在线，托管中的真人视为不在线） */
+        private final boolean online;
+
+        /**
+         * 构造函数
+         *
+         * @param playerId 玩家ID
+         * @param name 玩家名称
+         * @param bot 是否为机器人
+         * @param online 是否在线
+         */
+        public Seat(String playerId, String name, boolean bot, boolean online) {
+            this.playerId = playerId;
+            this.name = name;
+            this.bot = bot;
+            this.online = online;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.jeizas.model.mahjong;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Arrays;
+
+/**
+ * 声明窗口：有人打出一张可被胡/杠/碰的牌后，等待相关座位在截止时间前作出决定
+ * 声明以位掩码表示，座位的决定为 {@link #UNDECIDED}、{@link #PASS} 或单个声明位
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+@Data
+@NoArgsConstructor
+public class ClaimWindow {
+
+    /** 声明：胡 */
+    public static final int WIN = 1;
+
+    /** 声明：明杠 */
+    public static final int GANG = 2;
+
+    /** 声明：碰 */
+    public static final int PENG = 4;
+
+    /** 决定：过 */
+    public static final int PASS = 0;
+
+    /** 决定：尚未决定 */
+    public static final int UNDECIDED = -1;
+
+    /** 被声明的弃牌 */
+    private MahjongTile tile;
+
+    /** 出牌者座位 */
+    private int discarderIndex;
+
+    /** 各座位的可选声明位掩码 */
+    private int[] options;
+
+    /** 各座位的决定 */
+    private int[] decisions;
+
+    /** 截止时间戳（毫秒） */
+    private long deadline;
+
+    /**
+     * 构造函数
+     *
+     * @param tile 被声明的弃牌
+     * @param discarderIndex 出牌者座位
+     * @param options 各座位的可选声明位掩码
+     * @param deadline 截止时间戳（毫秒）
+     */
+    public ClaimWindow(MahjongTile tile, int discarderIndex, int[] options, long deadline) {
+        this.tile = tile;
+        this.discarderIndex = discarderIndex;
+        this.options = options;
+        this.decisions = new int[options.length];
+        this.deadline = deadline;
+        for (int seat = 0; seat < options.length; seat++) {
+            decisions[seat] = options[seat] == 0 ? PASS : UNDECIDED;
+        }
+    }
+
+    /**
+     * 座位作出决定
+     *
+     * @param seat 座位
+     * @param claim 单个声明位或 PASS
+     * @return 座位尚未决定且声明在可选范围内时返回true
+     */
+    public boolean offer(int seat, int claim) {
+        if (seat < 0 || seat >= options.length || decisions[seat] != UNDECIDED) {
+            return false;
+        }
+        if (claim != PASS && (options[seat] & claim) == 0) {
+            return false;
+        }
+        decisions[seat] = claim;
+        return true;
+    }
+
+    /**
+     * 判断座位是否还在等待决定
+     *
+     * @param seat 座位
+     * @return 是否未决定
+     */
+    public boolean isPending(int seat) {
+        return decisions[seat] == UNDECIDED;
+    }
+
+    /**
+     * 截止时间已到，未决定的座位一律视为放弃
+     */
+    public void expire() {
+        for (int seat = 0; seat < decisions.length; seat++) {
+            if (decisions[seat] == UNDECIDED) {
+                decisions[seat] = PASS;
+            }
+        }
+    }
+
+    /**
+     * 复制窗口（用于迁移快照）
+     *
+     * @return 副本
+     */
+    public ClaimWindow copy() {
+        ClaimWindow copy = new ClaimWindow();
+        copy.setTile(tile);
+        copy.setDiscarderIndex(discarderIndex);
+        copy.setOptions(Arrays.copyOf(options, options.length));
+        copy.setDecisions(Arrays.copyOf(decisions, decisions.length));
+        copy.setDeadline(deadline);
+        return copy;
+    }
+}
@@ -0,0 +1,159 @@
+package com.jeizas.model.mahjong;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * 每局的洗牌种子（承诺-揭示）：发牌时只公布种子的 SHA-256 承诺，本局结束后公布种子，
+ * 玩家可校验 SHA-256(种子) 与承诺一致，并按同样的算法复现整副牌的顺序。
+ * 洗牌使用由种子派生的 SplittableRandom（各局独立实例，不与其他房间或线程共享状态），
+ * 派生方式为把 32 字节种子按大端拆成 4 个 long 后异或，再对 [0, n) 做从后向前的 Fisher-Yates 交换
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+public final class HandSeed {
+
+    /** 种子字节数 */
+    public static final int SEED_BYTES = 32;
+
+    /** 种子 */
+    private final byte[] seed;
+
+    /** 承诺：种子的 SHA-256（十六进制） */
+    private final String commitment;
+
+    /**
+     * 构造函数
+     *
+     * @param seed 种子
+     */
+    private HandSeed(byte[] seed) {
+        this.seed = seed.clone();
+        this.commitment = toHex(sha256(this.seed));
+    }
+
+    /**
+     * 用安全随机数生成新种子
+     *
+     * @param random 安全随机数源
+     * @return 种子
+     */
+    public static HandSeed generate(SecureRandom random) {
+        byte[] seed = new byte[SEED_BYTES];
+        random.nextBytes(seed);
+        return new HandSeed(seed);
+    }
+
+    /**
+     * 从十六进制恢复种子（迁移或复盘时使用）
+     *
+     * @param hex 十六进制种子
+     * @return 种子，参数为null时返回null
+     */
+    public static HandSeed fromHex(String hex) {
+        if (hex == null) {
+            return null;
+        }
+        if (hex.length() != SEED_BYTES * 2) {
+            throw new IllegalArgumentException("种子长度非法: " + hex.length());
+        }
+        byte[] seed = new byte[SEED_BYTES];
+        for (int i = 0; i < SEED_BYTES; i++) {
+            seed[i] = (byte) Integer.parseInt(hex.substring(2 * i, 2 * i + 2), 16);
+        }
+        return new HandSeed(seed);
+    }
+
+    /**
+     * 用本局种子洗牌
+     *
+     * @param deck 牌堆
+     * @param <T> 元素类型
+     */
+    public <T> void shuffle(List<T> deck) {
+        SplittableRandom random = new SplittableRandom(foldedSeed());
+        for (int i = deck.size() - 1; i > 0; i--) {
+            Collections.swap(deck, i, random.nextInt(i + 1));
+        }
+    }
+
+    /**
+     * 把种子按大端拆成 4 个 long 后异或
+     *
+     * @return 派生的 64 位种子
+     */
+    long foldedSeed() {
+        ByteBuffer buffer = ByteBuffer.wrap(seed);
+        long folded = 0;
+        while (buffer.hasRemaining()) {
+            folded ^= buffer.getLong();
+        }
+        return folded;
+    }
+
+    /**
+     * 获取承诺，发牌时公布
+     *
+     * @return 种子的 SHA-256（十六进制）
+     */
+    public String getCommitment() {
+        return commitment;
+    }
+
+    /**
+     * 获取种子，本局结束后才能公布
+     *
+     * @return 十六进制种子
+     */
+    public String reveal() {
+        return toHex(seed);
+    }
+
+    /**
+     * 校验揭示的种子与承诺一致
+     *
+     * @param commitment 发牌时公布的承诺
+     * @param seedHex 本局结束后公布的种子
+     * @return 是否一致
+     */
+    public static boolean verify(String commitment, String seedHex) {
+        if (commitment == null || seedHex == null || seedHex.length() != SEED_BYTES * 2) {
+            return false;
+        }
+        return commitment.equals(fromHex(seedHex).getCommitment());
+    }
+
+    /**
+     * 计算 SHA-256
+     *
+     * @param data 数据
+     * @return 摘要
+     */
+    private static byte[] sha256(byte[] data) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(data);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("JVM 不支持 SHA-256", e);
+        }
+    }
+
+    /**
+     * 转为小写十六进制
+     *
+     * @param bytes 字节
+     * @return 十六进制字符串
+     */
+    private static String toHex(byte[] bytes) {
+        StringBuilder builder = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            builder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return builder.toString();
+    }
+}
@@ -75,6 +75,24 @@ public class MahjongMessage {
     /** 碰/杠的牌组 */
     private MahjongMeld meld;
 
+    /** 断线重连使用的恢复令牌 */
+    private String resumeToken;
+
+    /** 房间归属节点的连接地址（REDIRECT） */
+    private String redirectUrl;
+
+    /** 本局洗牌种子的 SHA-256 承诺，发牌时公布 */
+    private String handCommitment;
+
+    /** 本局洗牌种子，本局结束时揭示，用于校验承诺并复现牌序 */
+    private String handSeed;
+
+    /** 单回合时限（毫秒） */
+    private Long turnMillis;
+
+    /** 行动座位剩余的时间银行（毫秒） */
+    private Long timeBankMillis;
+
     /**
      * 创建加入房间消息
      */
@@ -100,7 +118,7 @@ public class MahjongMessage {
      * 创建游戏开始消息
      */
     public static MahjongMessage gameStart(List<MahjongTile> hand, List<Map<String, Object>> players,
-                                           int dealerIndex, int totalRounds) {
+                                           int dealerIndex, int totalRounds, String handCommitment) {
         MahjongMessage msg = new MahjongMessage();
         msg.setType("GAME_START");
         msg.setMessage("游戏开始");
@@ -109,6 +127,7 @@ public class MahjongMessage {
         msg.setDealerIndex(dealerIndex);
         msg.setTotalRounds(totalRounds);
         msg.setCurrentRound(1);
+        msg.setHandCommitment(handCommitment);
         return msg;
     }
 
@@ -206,15 +225,118 @@ public class MahjongMessage {
     }
 
     /**
-     * 创建可以碰/杠的通知消息
+     * 创建会话信息消息，告知客户端自己的玩家ID和恢复令牌
+     */
+    public static MahjongMessage session(String playerId, String resumeToken) {
+        MahjongMessage msg = new MahjongMessage();
+        msg.setType("SESSION");
+        msg.setPlayerId(playerId);
+        msg.setResumeToken(resumeToken);
+        return msg;
+    }
+
+    /**
+     * 创建断线恢复后的状态同步消息
+     */
+    public static MahjongMessage resume(List<MahjongTile> hand, List<Map<String, Object>> players,
+                                        MahjongRoom room, boolean canWin) {
+        MahjongMessage msg = new MahjongMessage();
+        msg.setType("RESUME");
+        msg.setMessage("已恢复对局");
+        msg.setHand(hand);
+        msg.setPlayers(players);
+        msg.setCurrentPlayerIndex(room.getCurrentPlayerIndex());
+        msg.setDealerIndex(room.getDealerIndex());
+        msg.setCurrentRound(room.getCurrentRound());
+        msg.setTotalRounds(room.getTotalRounds());
+        msg.setRemainingTiles(room.getDeck().size());
+        msg.setLastDiscardedTile(room.getLastDiscardedTile());
+        msg.setLastDiscardPlayerIndex(room.getLastDiscardPlayerIndex());
+        msg.setCanWin(canWin);
+        if (room.getHandSeed() != null) {
+            msg.setHandCommitment(room.getHandSeed().getCommitment());
+        }
+        return msg;
+    }
+
+    /**
+     * 创建观战局面快照消息（不含任何玩家的手牌）
      */
-    public static MahjongMessage canMeld(MahjongTile tile, boolean canPeng, boolean canGang) {
+    public static MahjongMessage spectate(List<Map<String, Object>> players, MahjongRoom room) {
+        MahjongMessage msg = new MahjongMessage();
+        msg.setType("SPECTATE");
+        msg.setMessage("观战中");
+        msg.setPlayers(players);
+        msg.setTotalRounds(room.getTotalRounds());
+        if (room.isGameStarted()) {
+            msg.setCurrentPlayerIndex(room.getCurrentPlayerIndex());
+            msg.setDealerIndex(room.getDealerIndex());
+            msg.setCurrentRound(room.getCurrentRound());
+            msg.setRemainingTiles(room.getDeck().size());
+            msg.setLastDiscardedTile(room.getLastDiscardedTile());
+            msg.setLastDiscardPlayerIndex(room.getLastDiscardPlayerIndex());
+            if (room.getHandSeed() != null) {
+                msg.setHandCommitment(room.getHandSeed().getCommitment());
+            }
+        }
+        return msg;
+    }
+
+    /**
+     * 创建玩家掉线消息（座位保留中）
+     */
+    public static MahjongMessage playerOffline(String playerId, String message) {
+        MahjongMessage msg = new MahjongMessage();
+        msg.setType("PLAYER_OFFLINE");
+        msg.setPlayerId(playerId);
+        msg.setMessage(message);
+        return msg;
+    }
+
+    /**
+     * 创建可以胡/碰/杠的通知消息（声明窗口打开时发给有可选声明的真人）
+     */
+    public static MahjongMessage canMeld(MahjongTile tile, boolean canPeng, boolean canGang, boolean canWin,
+                                         long windowMillis) {
         MahjongMessage msg = new MahjongMessage();
         msg.setType("CAN_MELD");
-        msg.setMessage("可以碰/杠");
+        msg.setMessage("可以" + (canWin ? "胡/" : "") + "碰/杠，" + windowMillis / 1000 + " 秒内决定");
         msg.setTile(tile);
         msg.setCanPeng(canPeng);
         msg.setCanGang(canGang);
+        msg.setCanWin(canWin);
+        return msg;
+    }
+
+    /**
+     * 创建轮转消息，声明窗口结束且无人声明时通知下一位玩家行动
+     *
+     * @param currentPlayerIndex 当前玩家索引
+     * @param remainingTiles 剩余牌数
+     * @return 轮转消息
+     */
+    public static MahjongMessage turn(int currentPlayerIndex, int remainingTiles) {
+        MahjongMessage msg = new MahjongMessage();
+        msg.setType("TURN");
+        msg.setCurrentPlayerIndex(currentPlayerIndex);
+        msg.setRemainingTiles(remainingTiles);
+        return msg;
+    }
+
+    /**
+     * 创建回合计时消息，真人开始行动时广播，超出单回合时限后开始消耗时间银行，都用完则由服务器代为出牌
+     *
+     * @param currentPlayerIndex 行动座位
+     * @param turnMillis 单回合时限（毫秒）
+     * @param timeBankMillis 剩余时间银行（毫秒）
+     * @return 回合计时消息
+     */
+    public static MahjongMessage turnClock(int currentPlayerIndex, long turnMillis, long timeBankMillis) {
+        MahjongMessage msg = new MahjongMessage();
+        msg.setType("TURN_CLOCK");
+        msg.setCurrentPlayerIndex(currentPlayerIndex);
+        msg.setTurnMillis(turnMillis);
+        msg.setTimeBankMillis(timeBankMillis);
         return msg;
     }
 
@@ -243,4 +365,18 @@ public class MahjongMessage {
         msg.setCurrentPlayerIndex(currentPlayerIndex);
         return msg;
     }
+
+    /**
+     * 创建重定向消息，房间归属其他节点时通知客户端改连
+     *
+     * @param redirectUrl 归属节点的连接地址
+     * @return 重定向消息
+     */
+    public static MahjongMessage redirect(String redirectUrl) {
+        MahjongMessage msg = new MahjongMessage();
+        msg.setType("REDIRECT");
+        msg.setRedirectUrl(redirectUrl);
+        msg.setMessage("房间位于其他服务器，正在切换...");
+        return msg;
+    }
 }
@@ -48,6 +48,21 @@ public class MahjongPlayer {
     /** 是否准备 */
     private boolean ready;
 
+    /** 机器人出牌策略名称，为null时跟随房间难度 */
+    private String botStrategy;
+
+    /** 机器人单次决策时间预算（毫秒），小于等于0时使用策略或难度默认值 */
+    private long botBudgetMillis;
+
+    /** 时间银行（毫秒），回合用时超出单回合时限的部分从这里扣除，每局开始时补满 */
+    private long timeBankMillis;
+
+    /** 连续超时的回合数，玩家自己行动后清零 */
+    private int missedTurns;
+
+    /** 是否因连续超时由机器人代打，玩家任意操作后恢复 */
+    private boolean away;
+
     /**
      * 构造函数
      *
@@ -68,6 +83,40 @@ public class MahjongPlayer {
         this.ready = false;
     }
 
+    /**
+     * 从对象池取出后重新初始化玩家，复用手牌、出牌和牌组列表
+     *
+     * @param playerId 玩家ID
+     * @param playerName 玩家名称
+     * @param isBot 是否是机器人
+     * @param session WebSocket会话
+     */
+    public void recycle(String playerId, String playerName, boolean isBot, WebSocketSession session) {
+        this.playerId = playerId;
+        this.playerName = playerName;
+        this.isBot = isBot;
+        this.session = session;
+        this.score = 0;
+        this.isDealer = false;
+        this.position = 0;
+        this.botStrategy = null;
+        this.botBudgetMillis = 0;
+        this.timeBankMillis = 0;
+        this.missedTurns = 0;
+        this.away = false;
+        reset();
+    }
+
+    /**
+     * 归还对象池前清理玩家，释放对会话和牌的引用
+     */
+    public void release() {
+        reset();
+        this.session = null;
+        this.playerId = null;
+        this.playerName = null;
+    }
+
     /**
      * 添加牌到手牌
      *
@@ -133,10 +182,10 @@ public class MahjongPlayer {
             }
 
             // 创建碰的牌组
-            List<MahjongTile> meldTiles = new ArrayList<>();
-            meldTiles.add(tile);
-            meldTiles.add(new MahjongTile(tile.getType(), tile.getValue()));
-            meldTiles.add(new MahjongTile(tile.getType(), tile.getValue()));
+            List<MahjongTile> meldTiles = new ArrayList<>(4);
+            for (int i = 0; i < 3; i++) {
+                meldTiles.add(MahjongTile.of(tile.getType(), tile.getValue()));
+            }
 
             MahjongMeld meld = new MahjongMeld(MahjongMeld.MeldType.PENG, meldTiles);
             melds.add(meld);
@@ -169,9 +218,9 @@ public class MahjongPlayer {
             }
 
             // 创建明杠的牌组
-            List<MahjongTile> meldTiles = new ArrayList<>();
+            List<MahjongTile> meldTiles = new ArrayList<>(4);
             for (int i = 0; i < 4; i++) {
-                meldTiles.add(new MahjongTile(tile.getType(), tile.getValue()));
+                meldTiles.add(MahjongTile.of(tile.getType(), tile.getValue()));
             }
 
             MahjongMeld meld = new MahjongMeld(MahjongMeld.MeldType.MINGGANG, meldTiles);
@@ -205,9 +254,9 @@ public class MahjongPlayer {
             }
 
             // 创建暗杠的牌组
-            List<MahjongTile> meldTiles = new ArrayList<>();
+            List<MahjongTile> meldTiles = new ArrayList<>(4);
             for (int i = 0; i < 4; i++) {
-                meldTiles.add(new MahjongTile(tile.getType(), tile.getValue()));
+                meldTiles.add(MahjongTile.of(tile.getType(), tile.getValue()));
             }
 
             MahjongMeld meld = new MahjongMeld(MahjongMeld.MeldType.ANGANG, meldTiles);
@@ -234,7 +283,7 @@ public class MahjongPlayer {
                 if (removeTile(tile)) {
                     // 将碰转换为杠
                     meld.setType(MahjongMeld.MeldType.GANG);
-                    meld.getTiles().add(new MahjongTile(tile.getType(), tile.getValue()));
+                    meld.getTiles().add(MahjongTile.of(tile.getType(), tile.getValue()));
                     return true;
                 }
             }
@@ -274,6 +323,24 @@ public class MahjongPlayer {
         return count >= 3;
     }
 
+    /**
+     * 判断玩家当前是否在线（机器人视为不在线）
+     *
+     * @return 是否存在打开的WebSocket会话
+     */
+    public boolean isOnline() {
+        return session != null && session.isOpen();
+    }
+
+    /**
+     * 判断玩家是否由服务器代为行动（机器人，掉线后座位保留中的真人，或连续超时的真人）
+     *
+     * @return 是否自动行动
+     */
+    public boolean isAutoPlay() {
+        return isBot || away || !isOnline();
+    }
+
     /**
      * 重置玩家状态（新一局）
      */
@@ -3,8 +3,10 @@ package com.jeizas.model.mahjong;
 import lombok.Data;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * 麻将房间实体类
@@ -15,8 +17,8 @@ import java.util.List;
 @Data
 public class MahjongRoom {
 
-    /** 同步锁对象 */
-    private final Object lock = new Object();
+    /** 房间锁，使用显式锁而非对象监视器，持锁期间的套接字写入不会钉住虚拟线程的载体线程 */
+    private final ReentrantLock lock = new ReentrantLock();
 
     /** 房间ID */
     private String roomId;
@@ -54,6 +56,45 @@ public class MahjongRoom {
     /** 最后打出牌的玩家索引 */
     private int lastDiscardPlayerIndex;
 
+    /** 机器人难度，未单独指定策略的机器人座位跟随此难度 */
+    private String botDifficulty;
+
+    /** 当前玩家最近摸到的牌 */
+    private MahjongTile lastDrawnTile;
+
+    /** 当前玩家本回合是否摸过牌（含庄家第14张与杠后补牌），碰牌后轮到的回合没有摸牌，不能自摸 */
+    private boolean drawnThisTurn;
+
+    /** 当前打开的声明窗口，没有等待胡/杠/碰的决定时为null */
+    private ClaimWindow claimWindow;
+
+    /** 本局洗牌种子，发牌时公布承诺，本局结束后揭示 */
+    private HandSeed handSeed;
+
+    /** 是否处于无人观看的快进模式，机器人回合在同一任务中连续执行 */
+    private boolean fastForward;
+
+    /** 是否因迁移而冻结（迁出时等待目标节点接管，迁入后等待玩家重连），冻结期间不接受玩家操作 */
+    private boolean migrating;
+
+    /** 房间代数，每次从对象池复用时递增，用于识别过期的定时任务 */
+    private int generation;
+
+    /** 回合计时序号，每次开始或停止计时都递增，到期的计时据此判断自己是否已经作废 */
+    private int turnClockSerial;
+
+    /** 正在计时的座位，没有计时时为-1 */
+    private int turnClockSeat = -1;
+
+    /** 本回合开始计时的时间戳（毫秒） */
+    private long turnClockStartedAt;
+
+    /** 最近一次真人操作的时间戳（毫秒），0 表示还没有真人操作过 */
+    private long lastActiveAt;
+
+    /** 房间内待执行的机器人定时任务 */
+    private final List<ScheduledFuture<?>> scheduledTasks = new ArrayList<>();
+
     /**
      * 构造函数
      *
@@ -61,17 +102,122 @@ public class MahjongRoom {
      */
     public MahjongRoom(String roomId) {
         this.roomId = roomId;
-        this.players = new ArrayList<>();
-        this.deck = new ArrayList<>();
+        this.players = new ArrayList<>(4);
+        this.deck = new ArrayList<>(136);
         this.currentPlayerIndex = 0;
         this.dealerIndex = 0;
         this.gameStarted = false;
         this.gameOver = false;
         this.totalRounds = 1;
+        this.botDifficulty = "normal";
         this.currentRound = 0;
         this.currentDealerTurn = 0;
     }
 
+    /**
+     * 从对象池取出后重新初始化房间，复用玩家列表和牌堆
+     *
+     * @param roomId 房间ID
+     */
+    public void recycle(String roomId) {
+        this.roomId = roomId;
+        this.players.clear();
+        this.totalRounds = 1;
+        this.botDifficulty = "normal";
+        this.fastForward = false;
+        this.migrating = false;
+        this.lastDiscardedTile = null;
+        this.lastDiscardPlayerIndex = -1;
+        this.lastDrawnTile = null;
+        this.drawnThisTurn = false;
+        this.claimWindow = null;
+        this.lastActiveAt = 0;
+        this.generation++;
+        cancelScheduledTasks();
+        reset();
+    }
+
+    /**
+     * 登记房间的定时任务，便于房间释放时统一取消
+     *
+     * @param task 定时任务
+     */
+    public void trackTask(ScheduledFuture<?> task) {
+        scheduledTasks.removeIf(Future::isDone);
+        scheduledTasks.add(task);
+    }
+
+    /**
+     * 取消房间内所有尚未执行的定时任务
+     *
+     * @return 被取消的任务数
+     */
+    public int cancelScheduledTasks() {
+        int cancelled = 0;
+        for (ScheduledFuture<?> task : scheduledTasks) {
+            if (task.cancel(false)) {
+                cancelled++;
+            }
+        }
+        scheduledTasks.clear();
+        return cancelled;
+    }
+
+    /**
+     * 冻结房间以便迁移：作废已安排的机器人动作并退出快进模式
+     *
+     * @return 被取消的任务数
+     */
+    public int freeze() {
+        this.migrating = true;
+        this.fastForward = false;
+        this.generation++;
+        return cancelScheduledTasks();
+    }
+
+    /**
+     * 开始座位的回合计时，之前的计时作废
+     *
+     * @param seat 座位
+     * @param now 当前时间戳（毫秒）
+     * @return 本次计时的序号
+     */
+    public int startTurnClock(int seat, long now) {
+        turnClockSeat = seat;
+        turnClockStartedAt = now;
+        return ++turnClockSerial;
+    }
+
+    /**
+     * 座位在计时内行动，停止计时
+     *
+     * @param seat 座位
+     * @param now 当前时间戳（毫秒）
+     * @return 本回合用时（毫秒），该座位没有在计时时返回-1
+     */
+    public long stopTurnClock(int seat, long now) {
+        if (turnClockSeat != seat) {
+            return -1;
+        }
+        turnClockSeat = -1;
+        turnClockSerial++;
+        return now - turnClockStartedAt;
+    }
+
+    /**
+     * 判断房间内是否还有真人玩家（含掉线保留座位的玩家）
+     *
+     * @return 是否有真人玩家
+     */
+    public boolean hasHumanPlayer() {
+        for (MahjongPlayer player : players) {
+            if (!player.isBot()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * 添加玩家
      *
@@ -140,6 +286,15 @@ public class MahjongRoom {
         return players.isEmpty();
     }
 
+    /**
+     * 判断是否有比赛正在进行（已开始且尚未全部结束，含局间）；最后一局结束后不再算进行中
+     *
+     * @return 是否有比赛正在进行
+     */
+    public boolean isMatchInProgress() {
+        return !gameOver && (gameStarted || currentRound > 0);
+    }
+
     /**
      * 判断所有玩家是否都准备好
      *
@@ -158,9 +313,11 @@ public class MahjongRoom {
     }
 
     /**
-     * 初始化牌堆
+     * 初始化牌堆并用本局种子洗牌
+     *
+     * @param seed 本局洗牌种子
      */
-    public void initDeck() {
+    public void initDeck(HandSeed seed) {
         deck.clear();
 
         // 添加万、条、筒各36张（每种1-9各4张）
@@ -170,7 +327,7 @@ public class MahjongRoom {
                 MahjongTile.TileType.TONG}) {
             for (int value = 1; value <= 9; value++) {
                 for (int i = 0; i < 4; i++) {
-                    deck.add(new MahjongTile(type, value));
+                    deck.add(MahjongTile.of(type, value));
                 }
             }
         }
@@ -178,19 +335,20 @@ public class MahjongRoom {
         // 添加风牌16张（东南西北各4张）
         for (int value = 1; value <= 4; value++) {
             for (int i = 0; i < 4; i++) {
-                deck.add(new MahjongTile(MahjongTile.TileType.FENG, value));
+                deck.add(MahjongTile.of(MahjongTile.TileType.FENG, value));
             }
         }
 
         // 添加箭牌12张（中发白各4张）
         for (int value = 1; value <= 3; value++) {
             for (int i = 0; i < 4; i++) {
-                deck.add(new MahjongTile(MahjongTile.TileType.JIAN, value));
+                deck.add(MahjongTile.of(MahjongTile.TileType.JIAN, value));
             }
         }
 
         // 洗牌
-        Collections.shuffle(deck);
+        handSeed = seed;
+        seed.shuffle(deck);
     }
 
     /**
@@ -209,7 +367,9 @@ public class MahjongRoom {
 
         // 庄家多摸一张（第14张）
         if (!deck.isEmpty()) {
-            players.get(dealerIndex).addTile(deck.remove(0));
+            lastDrawnTile = deck.remove(0);
+            players.get(dealerIndex).addTile(lastDrawnTile);
+            drawnThisTurn = true;
         }
     }
 
@@ -222,7 +382,9 @@ public class MahjongRoom {
         if (deck.isEmpty()) {
             return null;
         }
-        return deck.remove(0);
+        lastDrawnTile = deck.remove(0);
+        drawnThisTurn = true;
+        return lastDrawnTile;
     }
 
     /**
@@ -242,12 +404,15 @@ public class MahjongRoom {
      */
     public void nextPlayer() {
         currentPlayerIndex = (currentPlayerIndex + 1) % 4;
+        drawnThisTurn = false;
     }
 
     /**
      * 开始新一局
+     *
+     * @param seed 本局洗牌种子
      */
-    public void startNewGame() {
+    public void startNewGame(HandSeed seed) {
         // 重置所有玩家
         for (MahjongPlayer player : players) {
             player.reset();
@@ -257,7 +422,7 @@ public class MahjongRoom {
         players.get(dealerIndex).setDealer(true);
 
         // 初始化并发牌
-        initDeck();
+        initDeck(seed);
         dealTiles();
 
         // 庄家先出牌
@@ -266,6 +431,8 @@ public class MahjongRoom {
         gameOver = false;
         lastDiscardedTile = null;
         lastDiscardPlayerIndex = -1;
+        claimWindow = null;
+        stopTurnClock(turnClockSeat, 0);
     }
 
     /**
@@ -303,6 +470,9 @@ public class MahjongRoom {
         gameOver = false;
         currentRound = 0;
         currentDealerTurn = 0;
+        claimWindow = null;
+        handSeed = null;
+        stopTurnClock(turnClockSeat, 0);
 
         for (MahjongPlayer player : players) {
             player.reset();
@@ -0,0 +1,242 @@
+package com.jeizas.model.mahjong;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 麻将房间快照，用于把进行中的房间完整迁移到其他节点
+ * 包含牌堆、各座位的手牌、出牌、副露、分数以及轮次与当前回合，真人座位附带恢复令牌
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+@Data
+public class MahjongRoomSnapshot {
+
+    /** 房间ID */
+    private String roomId;
+
+    /** 座位（按位置排序） */
+    private List<Seat> seats;
+
+    /** 牌堆（按摸牌顺序） */
+    private List<MahjongTile> deck;
+
+    /** 当前玩家索引 */
+    private int currentPlayerIndex;
+
+    /** 庄家索引 */
+    private int dealerIndex;
+
+    /** 游戏是否已开始 */
+    private boolean gameStarted;
+
+    /** 游戏是否已结束 */
+    private boolean gameOver;
+
+    /** 总轮数 */
+    private int totalRounds;
+
+    /** 当前轮数 */
+    private int currentRound;
+
+    /** 当前轮的局数 */
+    private int currentDealerTurn;
+
+    /** 最后打出的牌 */
+    private MahjongTile lastDiscardedTile;
+
+    /** 最后打出牌的玩家索引 */
+    private int lastDiscardPlayerIndex;
+
+    /** 当前玩家最近摸到的牌 */
+    private MahjongTile lastDrawnTile;
+
+    /** 当前玩家本回合是否摸过牌 */
+    private boolean drawnThisTurn;
+
+    /** 打开中的声明窗口 */
+    private ClaimWindow claimWindow;
+
+    /** 机器人难度 */
+    private String botDifficulty;
+
+    /** 本局洗牌种子（十六进制），目标节点接管后仍需在本局结束时揭示 */
+    private String handSeed;
+
+    /**
+     * 截取房间当前状态，调用方需持有房间锁
+     *
+     * @param room 麻将房间
+     * @param resumeTokens 玩家ID到恢复令牌的映射（仅真人座位）
+     * @return 房间快照
+     */
+    public static MahjongRoomSnapshot capture(MahjongRoom room, Map<String, String> resumeTokens) {
+        MahjongRoomSnapshot snapshot = new MahjongRoomSnapshot();
+        snapshot.setRoomId(room.getRoomId());
+        snapshot.setDeck(new ArrayList<>(room.getDeck()));
+        snapshot.setCurrentPlayerIndex(room.getCurrentPlayerIndex());
+        snapshot.setDealerIndex(room.getDealerIndex());
+        snapshot.setGameStarted(room.isGameStarted());
+        snapshot.setGameOver(room.isGameOver());
+        snapshot.setTotalRounds(room.getTotalRounds());
+        snapshot.setCurrentRound(room.getCurrentRound());
+        snapshot.setCurrentDealerTurn(room.getCurrentDealerTurn());
+        snapshot.setLastDiscardedTile(room.getLastDiscardedTile());
+        snapshot.setLastDiscardPlayerIndex(room.getLastDiscardPlayerIndex());
+        snapshot.setLastDrawnTile(room.getLastDrawnTile());
+        snapshot.setDrawnThisTurn(room.isDrawnThisTurn());
+        snapshot.setClaimWindow(room.getClaimWindow() == null ? null : room.getClaimWindow().copy());
+        snapshot.setBotDifficulty(room.getBotDifficulty());
+        snapshot.setHandSeed(room.getHandSeed() == null ? null : room.getHandSeed().reveal());
+        List<Seat> seats = new ArrayList<>(room.getPlayers().size());
+        for (MahjongPlayer player : room.getPlayers()) {
+            seats.add(Seat.capture(player, resumeTokens.get(player.getPlayerId())));
+        }
+        snapshot.setSeats(seats);
+        return snapshot;
+    }
+
+    /**
+     * 把快照中的房间级状态写回房间（座位由调用方重建）
+     *
+     * @param room 新取得的空房间
+     */
+    public void restoreInto(MahjongRoom room) {
+        room.getDeck().clear();
+        room.getDeck().addAll(canonical(deck));
+        room.setCurrentPlayerIndex(currentPlayerIndex);
+        room.setDealerIndex(dealerIndex);
+        room.setGameStarted(gameStarted);
+        room.setGameOver(gameOver);
+        room.setTotalRounds(totalRounds);
+        room.setCurrentRound(currentRound);
+        room.setCurrentDealerTurn(currentDealerTurn);
+        room.setLastDiscardedTile(canonical(lastDiscardedTile));
+        room.setLastDiscardPlayerIndex(lastDiscardPlayerIndex);
+        room.setLastDrawnTile(canonical(lastDrawnTile));
+        room.setDrawnThisTurn(drawnThisTurn);
+        if (claimWindow != null) {
+            claimWindow.setTile(canonical(claimWindow.getTile()));
+        }
+        room.setClaimWindow(claimWindow);
+        room.setBotDifficulty(botDifficulty);
+        room.setHandSeed(HandSeed.fromHex(handSeed));
+    }
+
+    /**
+     * 把反序列化得到的单张牌换成共享的牌实例
+     *
+     * @param tile 反序列化得到的牌，可为null
+     * @return 共享实例
+     */
+    static MahjongTile canonical(MahjongTile tile) {
+        return tile == null ? null : MahjongTile.of(tile.getType(), tile.getValue());
+    }
+
+    /**
+     * 把反序列化得到的牌换成共享的牌实例
+     *
+     * @param tiles 反序列化得到的牌
+     * @return 共享实例组成的新列表
+     */
+    static List<MahjongTile> canonical(List<MahjongTile> tiles) {
+        List<MahjongTile> result = new ArrayList<>(tiles.size());
+        for (MahjongTile tile : tiles) {
+            result.add(canonical(tile));
+        }
+        return result;
+    }
+
+    /**
+     * 座位快照
+     */
+    @Data
+    public static class Seat {
+
+        /** 玩家ID */
+        private String playerId;
+
+        /** 玩家名称 */
+        private String playerName;
+
+        /** 是否是机器人 */
+        private boolean bot;
+
+        /** 机器人策略 */
+        private String botStrategy;
+
+        /** 机器人单次决策预算（毫秒） */
+        private long botBudgetMillis;
+
+        /** 是否是庄家 */
+        private boolean dealer;
+
+        /** 是否已准备 */
+        private boolean ready;
+
+        /** 分数 */
+        private int score;
+
+        /** 手牌 */
+        private List<MahjongTile> hand;
+
+        /** 已打出的牌 */
+        private List<MahjongTile> discardedTiles;
+
+        /** 碰/杠的牌组 */
+        private List<MahjongMeld> melds;
+
+        /** 真人座位的恢复令牌，目标节点凭此令牌接受重连 */
+        private String resumeToken;
+
+        /**
+         * 截取玩家状态
+         *
+         * @param player 玩家
+         * @param resumeToken 恢复令牌
+         * @return 座位快照
+         */
+        static Seat capture(MahjongPlayer player, String resumeToken) {
+            Seat seat = new Seat();
+            seat.setPlayerId(player.getPlayerId());
+            seat.setPlayerName(player.getPlayerName());
+            seat.setBot(player.isBot());
+            seat.setBotStrategy(player.getBotStrategy());
+            seat.setBotBudgetMillis(player.getBotBudgetMillis());
+            seat.setDealer(player.isDealer());
+            seat.setReady(player.isReady());
+            seat.setScore(player.getScore());
+            seat.setHand(new ArrayList<>(player.getHand()));
+            seat.setDiscardedTiles(new ArrayList<>(player.getDiscardedTiles()));
+            List<MahjongMeld> melds = new ArrayList<>(player.getMelds().size());
+            for (MahjongMeld meld : player.getMelds()) {
+                melds.add(new MahjongMeld(meld.getType(), new ArrayList<>(meld.getTiles())));
+            }
+            seat.setMelds(melds);
+            seat.setResumeToken(resumeToken);
+            return seat;
+        }
+
+        /**
+         * 把座位状态写回玩家
+         *
+         * @param player 新取得的玩家
+         */
+        public void restoreInto(MahjongPlayer player) {
+            player.setBotStrategy(botStrategy);
+            player.setBotBudgetMillis(botBudgetMillis);
+            player.setDealer(dealer);
+            player.setReady(ready);
+            player.setScore(score);
+            player.getHand().addAll(canonical(hand));
+            player.getDiscardedTiles().addAll(canonical(discardedTiles));
+            for (MahjongMeld meld : melds) {
+                player.getMelds().add(new MahjongMeld(meld.getType(), canonical(meld.getTiles())));
+            }
+        }
+    }
+}
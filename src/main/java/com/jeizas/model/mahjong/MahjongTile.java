@@ -1,25 +1,28 @@
 package com.jeizas.model.mahjong;
 
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
 
 /**
- * 麻将牌实体类
+ * 麻将牌实体类，不可变，每种牌只有一个共享实例，通过 {@link #of(TileType, int)} 获取
  *
  * @author jeizas
  * @date 2025-12-07
  */
-@Data
-@NoArgsConstructor
-@AllArgsConstructor
-public class MahjongTile {
+@Getter
+@JsonIgnoreProperties(ignoreUnknown = true)
+public final class MahjongTile {
 
     /** 牌的类型：万(WAN)、条(TIAO)、筒(TONG)、风(FENG)、箭(JIAN) */
-    private TileType type;
+    private final TileType type;
 
     /** 牌的值：1-9 (万/条/筒), 1-4 (风：东南西北), 1-3 (箭：中发白) */
-    private int value;
+    private final int value;
+
+    /** 共享的牌实例缓存，按 [类型][值] 索引，牌在对局中只读，可在房间间复用 */
+    private static final MahjongTile[][] CANONICAL = createCanonicalTiles();
 
     /**
      * 牌的类型枚举
@@ -42,6 +45,69 @@ public class MahjongTile {
         }
     }
 
+    /**
+     * 构造函数，仅用于创建共享实例
+     *
+     * @param type 牌的类型
+     * @param value 牌的值
+     */
+    private MahjongTile(TileType type, int value) {
+        this.type = type;
+        this.value = value;
+    }
+
+    /**
+     * 获取共享的牌实例，避免每次洗牌、出牌都创建新对象；JSON 反序列化也经由此方法，直接得到共享实例
+     *
+     * @param type 牌的类型
+     * @param value 牌的值
+     * @return 共享的牌实例
+     */
+    @JsonCreator
+    public static MahjongTile of(@JsonProperty("type") TileType type, @JsonProperty("value") int value) {
+        if (type == null) {
+            throw new IllegalArgumentException("无效的牌: 缺少类型");
+        }
+        MahjongTile[] tiles = CANONICAL[type.ordinal()];
+        if (value < 1 || value >= tiles.length) {
+            throw new IllegalArgumentException("无效的牌: " + type + "_" + value);
+        }
+        return tiles[value];
+    }
+
+    /**
+     * 获取指定类型牌的最大值
+     *
+     * @param type 牌的类型
+     * @return 最大值（万条筒9，风4，箭3）
+     */
+    public static int maxValue(TileType type) {
+        if (type == TileType.FENG) {
+            return 4;
+        } else if (type == TileType.JIAN) {
+            return 3;
+        }
+        return 9;
+    }
+
+    /**
+     * 创建共享牌实例缓存
+     *
+     * @return 按 [类型][值] 索引的牌实例
+     */
+    private static MahjongTile[][] createCanonicalTiles() {
+        TileType[] types = TileType.values();
+        MahjongTile[][] tiles = new MahjongTile[types.length][];
+        for (TileType type : types) {
+            int max = maxValue(type);
+            tiles[type.ordinal()] = new MahjongTile[max + 1];
+            for (int value = 1; value <= max; value++) {
+                tiles[type.ordinal()][value] = new MahjongTile(type, value);
+            }
+        }
+        return tiles;
+    }
+
     /**
      * 获取牌的字符串表示
      *
@@ -0,0 +1,185 @@
+package com.jeizas.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 游戏动作执行器，统一承载机器人回合、延迟动作与断线到期等会持有房间锁并写套接字的任务
+ * platform 模式使用固定大小的平台线程池；virtual 模式每个动作一个虚拟线程（需要 JDK 21+，
+ * 运行时不支持时回退为 platform 模式）。延迟只由一个定时线程计时，到期后立即转交执行器，定时线程本身不阻塞
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+@Slf4j
+@Component
+public class GameExecutors {
+
+    /** 平台线程模式 */
+    public static final String MODE_PLATFORM = "platform";
+
+    /** 虚拟线程模式 */
+    public static final String MODE_VIRTUAL = "virtual";
+
+    /** 延迟计时线程 */
+    private final ScheduledExecutorService timer;
+
+    /** 动作执行器 */
+    private final ExecutorService actions;
+
+    /** 实际生效的模式 */
+    private final String mode;
+
+    /** 已提交、尚未开始执行的动作数 */
+    private final AtomicInteger backlog = new AtomicInteger();
+
+    /**
+     * 构造函数
+     *
+     * @param mode 期望的模式：platform 或 virtual
+     * @param platformThreads platform 模式下的线程数
+     */
+    public GameExecutors(@Value("${game.executor.mode:platform}") String mode,
+                         @Value("${game.executor.platform-threads:4}") int platformThreads) {
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "game-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ExecutorService virtual = MODE_VIRTUAL.equalsIgnoreCase(mode) ? newVirtualThreadExecutor() : null;
+        if (virtual != null) {
+            this.actions = virtual;
+            this.mode = MODE_VIRTUAL;
+        } else {
+            if (MODE_VIRTUAL.equalsIgnoreCase(mode)) {
+                log.warn("当前JDK {} 不支持虚拟线程，游戏动作回退为平台线程", System.getProperty("java.version"));
+            }
+            this.actions = newPlatformExecutor(platformThreads);
+            this.mode = MODE_PLATFORM;
+        }
+        log.info("游戏动作执行器模式: {}", this.mode);
+    }
+
+    /**
+     * 创建固定大小的平台线程池
+     *
+     * @param threads 线程数
+     * @return 线程池
+     */
+    public static ExecutorService newPlatformExecutor(int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+            Thread thread = new Thread(r, "game-action-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 通过反射创建每任务一个虚拟线程的执行器，项目以 Java 8 为编译目标，无法直接引用该 API
+     *
+     * @return 执行器，运行时不支持虚拟线程时返回null
+     */
+    public static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 获取实际生效的模式
+     *
+     * @return platform 或 virtual
+     */
+    public String getMode() {
+        return mode;
+    }
+
+    /**
+     * 是否运行在虚拟线程上
+     *
+     * @return 是否为虚拟线程模式
+     */
+    public boolean isVirtual() {
+        return MODE_VIRTUAL.equals(mode);
+    }
+
+    /**
+     * 获取动作执行器
+     *
+     * @return 动作执行器
+     */
+    public Executor actions() {
+        return actions;
+    }
+
+    /**
+     * 获取延迟计时线程，提交给它的任务必须短小且不阻塞
+     *
+     * @return 计时线程
+     */
+    public ScheduledExecutorService timer() {
+        return timer;
+    }
+
+    /**
+     * 立即在动作执行器上执行任务，执行器已关闭时忽略
+     *
+     * @param task 任务
+     */
+    public void execute(Runnable task) {
+        backlog.incrementAndGet();
+        try {
+            actions.execute(() -> {
+                backlog.decrementAndGet();
+                task.run();
+            });
+        } catch (RejectedExecutionException e) {
+            backlog.decrementAndGet();
+            log.debug("执行器已关闭，丢弃游戏动作");
+        }
+    }
+
+    /**
+     * 已提交、尚未开始执行的动作数（两种模式都按此计数：platform 模式为排队数，virtual 模式为等待调度的虚拟线程数）
+     *
+     * @return 积压的动作数
+     */
+    public int backlog() {
+        return backlog.get();
+    }
+
+    /**
+     * 延迟后在动作执行器上执行任务，取消返回的句柄可阻止尚未转交的任务
+     *
+     * @param task 任务
+     * @param delay 延迟
+     * @param unit 时间单位
+     * @return 定时句柄
+     */
+    public ScheduledFuture<?> schedule(Runnable task, long delay, TimeUnit unit) {
+        return timer.schedule(() -> execute(task), delay, unit);
+    }
+
+    /**
+     * 停止计时线程与执行器
+     */
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+        actions.shutdownNow();
+    }
+}
@@ -0,0 +1,128 @@
+package com.jeizas.service;
+
+import com.jeizas.service.rules.HandAnalysis;
+import com.jeizas.service.rules.HandAnalyzer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 批量手牌分析服务：在独立的工作窃取线程池中按区间二分拆分任务，每手牌算完立即推送，不等整批结束
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+@Slf4j
+@Service
+public class HandAnalysisService {
+
+    /** 分析线程池 */
+    private final ForkJoinPool pool;
+
+    /** 不再拆分的区间大小 */
+    private final int batchSize;
+
+    /**
+     * 构造函数
+     *
+     * @param parallelism 并行度，小于等于0时取CPU核数
+     * @param batchSize 不再拆分的区间大小
+     */
+    public HandAnalysisService(@Value("${game.analyze.parallelism:0}") int parallelism,
+                               @Value("${game.analyze.batch-size:32}") int batchSize) {
+        int size = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(size, p -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            thread.setName("hand-analyze-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        }, null, false);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * 并行分析一批手牌，结果按完成顺序推送，订阅取消后未开始的区间不再计算
+     *
+     * @param hands 牌串列表
+     * @return 分析结果流
+     */
+    public Flux<HandAnalysis> analyze(List<String> hands) {
+        return Flux.create(sink -> {
+            AnalyzeTask root = new AnalyzeTask(hands, 0, hands.size(), sink);
+            pool.execute(() -> {
+                try {
+                    root.invoke();
+                    sink.complete();
+                } catch (RuntimeException e) {
+                    log.error("批量手牌分析失败", e);
+                    sink.error(e);
+                }
+            });
+        });
+    }
+
+    /**
+     * 停止分析线程池
+     */
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * 区间分析任务：区间大于批次大小时二分，否则逐手分析并推送
+     */
+    private final class AnalyzeTask extends RecursiveAction {
+
+        /** 牌串列表 */
+        private final List<String> hands;
+
+        /** 区间起点（含） */
+        private final int from;
+
+        /** 区间终点（不含） */
+        private final int to;
+
+        /** 结果推送 */
+        private final FluxSink<HandAnalysis> sink;
+
+        /**
+         * 构造函数
+         *
+         * @param hands 牌串列表
+         * @param from 区间起点（含）
+         * @param to 区间终点（不含）
+         * @param sink 结果推送
+         */
+        AnalyzeTask(List<String> hands, int from, int to, FluxSink<HandAnalysis> sink) {
+            this.hands = hands;
+            this.from = from;
+            this.to = to;
+            this.sink = sink;
+        }
+
+        @Override
+        protected void compute() {
+            if (sink.isCancelled()) {
+                return;
+            }
+            if (to - from > batchSize) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new AnalyzeTask(hands, from, mid, sink), new AnalyzeTask(hands, mid, to, sink));
+                return;
+            }
+            for (int i = from; i < to && !sink.isCancelled(); i++) {
+                sink.next(HandAnalyzer.analyze(i, hands.get(i)));
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.jeizas.service;
+
+import com.jeizas.model.mahjong.HandSeed;
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+
+/**
+ * 每局随机数服务：为每一局生成独立的洗牌种子，种子来自线程私有的 SecureRandom，
+ * 各房间、各线程之间没有共享的随机数状态，洗牌本身在 {@link HandSeed} 内用单局的 SplittableRandom 完成
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+@Service
+public class HandRngService {
+
+    /** 线程私有的安全随机数源，每局只取一次种子 */
+    private final ThreadLocal<SecureRandom> secureRandom = ThreadLocal.withInitial(SecureRandom::new);
+
+    /**
+     * 生成新一局的种子
+     *
+     * @return 种子
+     */
+    public HandSeed newHand() {
+        return HandSeed.generate(secureRandom.get());
+    }
+}
@@ -0,0 +1,114 @@
+package com.jeizas.service;
+
+import com.jeizas.websocket.IdleReclaimable;
+import com.jeizas.websocket.ReclaimStats;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 空闲房间与僵尸会话回收器，在低优先级定时线程上按空闲截止时间索引回收房间
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+@Slf4j
+@Service
+public class IdleRoomReaper {
+
+    /** 各游戏处理器 */
+    private final List<IdleReclaimable> targets;
+
+    /** 指标注册表 */
+    private final MeterRegistry meterRegistry;
+
+    /** 低优先级定时线程 */
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "idle-room-reaper");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    /** 回收间隔（秒） */
+    @Value("${game.reaper.interval-seconds:30}")
+    private long intervalSeconds;
+
+    /** 每个游戏每轮最多回收的房间数 */
+    @Value("${game.reaper.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * 构造函数
+     *
+     * @param targets 可回收的游戏处理器
+     * @param meterRegistry 指标注册表
+     */
+    public IdleRoomReaper(List<IdleReclaimable> targets, MeterRegistry meterRegistry) {
+        this.targets = targets;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * 启动定时回收
+     */
+    @PostConstruct
+    public void start() {
+        timer.scheduleWithFixedDelay(this::reapOnce, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 停止定时回收
+     */
+    @PreDestroy
+    public void stop() {
+        timer.shutdownNow();
+    }
+
+    /**
+     * 执行一轮回收并发布回收计数
+     */
+    public void reapOnce() {
+        long now = System.currentTimeMillis();
+        for (IdleReclaimable target : targets) {
+            try {
+                ReclaimStats stats = target.reclaimIdle(now, batchSize);
+                record(target.getGameName(), "rooms", stats.getRooms());
+                record(target.getGameName(), "sessions", stats.getSessions());
+                record(target.getGameName(), "bot_tasks", stats.getBotTasks());
+                if (stats.getRooms() > 0) {
+                    log.info("{} 回收空闲房间 {} 个，会话 {} 个，机器人任务 {} 个", target.getGameName(),
+                            stats.getRooms(), stats.getSessions(), stats.getBotTasks());
+                }
+            } catch (Exception e) {
+                log.error("{} 回收空闲房间失败", target.getGameName(), e);
+            }
+        }
+    }
+
+    /**
+     * 累加回收计数指标
+     *
+     * @param game 游戏名称
+     * @param resource 资源类型
+     * @param amount 回收数量
+     */
+    private void record(String game, String resource, int amount) {
+        if (amount > 0) {
+            Counter.builder("game.reaper.reclaimed")
+                    .tag("game", game)
+                    .tag("resource", resource)
+                    .register(meterRegistry)
+                    .increment(amount);
+        }
+    }
+}
@@ -1,12 +1,20 @@
 package com.jeizas.service;
 
 import com.jeizas.model.mahjong.MahjongPlayer;
+import com.jeizas.model.mahjong.MahjongRoom;
 import com.jeizas.model.mahjong.MahjongTile;
+import com.jeizas.service.bot.BotComputePool;
+import com.jeizas.service.bot.BotDifficulty;
+import com.jeizas.service.bot.BotStrategy;
+import com.jeizas.service.bot.BotView;
+import com.jeizas.service.bot.HeuristicBotStrategy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * 麻将机器人服务类
@@ -21,134 +29,99 @@ public class MahjongBotService {
     @Autowired
     private MahjongGameService gameService;
 
+    /** 所有已注册的出牌策略 */
+    @Autowired
+    private List<BotStrategy> strategies;
+
+    /** 启发式策略，未知策略时兜底 */
+    @Autowired
+    private HeuristicBotStrategy heuristicStrategy;
+
+    /** 机器人计算线程池 */
+    @Autowired
+    private BotComputePool computePool;
+
     /**
-     * 机器人选择要打出的牌
-     * 策略：
-     * 1. 如果能胡牌，不打牌（等待胡牌）
-     * 2. 优先打出孤张（不能组成顺子或刻子的牌）
-     * 3. 打出最不容易组成牌型的牌
+     * 在房间锁内为当前机器人（或掉线代打的座位）发起异步出牌决策
+     * 决策在机器人计算线程池上执行，不占用游戏线程
      *
-     * @param player 机器人玩家
-     * @param drawnTile 刚摸的牌
-     * @return 要打出的牌
+     * @param room 麻将房间
+     * @param bot 机器人玩家
+     * @param thinkMillis 本次思考延迟（毫秒），决策预算不超过该时间
+     * @return 决策结果，本回合摸牌后能自摸时结果为null
      */
-    public MahjongTile chooseTileToDiscard(MahjongPlayer player, MahjongTile drawnTile) {
-        List<MahjongTile> hand = player.getHand();
-
-        // 检查是否能胡牌
-        if (gameService.canWin(hand)) {
-            log.info("机器人 {} 可以胡牌！", player.getPlayerName());
-            return null; // 不打牌，准备胡牌
+    public CompletableFuture<MahjongTile> decideDiscard(MahjongRoom room, MahjongPlayer bot, long thinkMillis) {
+        if (room.isDrawnThisTurn() && gameService.canWin(bot.getHand())) {
+            log.info("机器人 {} 可以胡牌！", bot.getPlayerName());
+            return CompletableFuture.completedFuture(null);
         }
 
-        // 计算每张牌的价值
-        Map<MahjongTile, Integer> tileValues = new HashMap<>();
-        for (MahjongTile tile : hand) {
-            int value = calculateTileValue(tile, hand);
-            tileValues.put(tile, value);
-        }
-
-        // 找到价值最低的牌
-        MahjongTile worstTile = null;
-        int minValue = Integer.MAX_VALUE;
-
-        for (Map.Entry<MahjongTile, Integer> entry : tileValues.entrySet()) {
-            if (entry.getValue() < minValue) {
-                minValue = entry.getValue();
-                worstTile = entry.getKey();
+        BotDifficulty difficulty = BotDifficulty.fromName(room.getBotDifficulty(), BotDifficulty.NORMAL);
+        BotStrategy strategy = getStrategy(bot.getBotStrategy());
+        long budgetMillis = bot.getBotBudgetMillis();
+        if (strategy == null) {
+            strategy = getStrategy(difficulty.getStrategy());
+            if (budgetMillis <= 0) {
+                budgetMillis = difficulty.getBudgetMillis();
             }
         }
-
-        log.info("机器人 {} 选择打出: {}", player.getPlayerName(),
-                worstTile != null ? worstTile.toString() : "无");
-
-        return worstTile;
+        if (strategy == null) {
+            strategy = heuristicStrategy;
+        }
+        if (budgetMillis <= 0) {
+            budgetMillis = strategy.getDefaultBudgetMillis();
+        }
+        return computePool.submit(strategy, BotView.of(room, bot), Math.min(budgetMillis, thinkMillis));
     }
 
     /**
-     * 计算牌的价值
-     * 价值越高表示越重要，越不应该打出
+     * 按 ADD_BOT 参数配置机器人座位的策略和时间预算
+     * difficulty 决定默认策略和预算，strategy、budgetMs 可单独覆盖；都未指定时跟随房间难度
      *
-     * @param tile 要评估的牌
-     * @param hand 手牌
-     * @return 牌的价值
+     * @param bot 机器人玩家
+     * @param data ADD_BOT 消息
      */
-    private int calculateTileValue(MahjongTile tile, List<MahjongTile> hand) {
-        int value = 0;
-
-        // 统计相同牌的数量（对子、刻子）
-        int sameCount = 0;
-        for (MahjongTile t : hand) {
-            if (isSameTile(t, tile)) {
-                sameCount++;
+    public void configureBot(MahjongPlayer bot, Map<String, Object> data) {
+        Object difficultyName = data.get("difficulty");
+        if (difficultyName instanceof String) {
+            BotDifficulty difficulty = BotDifficulty.fromName((String) difficultyName, null);
+            if (difficulty != null) {
+                bot.setBotStrategy(difficulty.getStrategy());
+                bot.setBotBudgetMillis(difficulty.getBudgetMillis());
             }
         }
 
-        // 对子价值: 20, 刻子价值: 50
-        if (sameCount == 2) {
-            value += 20;
-        } else if (sameCount >= 3) {
-            value += 50;
-        }
-
-        // 检查顺子潜力（只有万、条、筒可以组成顺子）
-        if (tile.getType() != MahjongTile.TileType.FENG &&
-            tile.getType() != MahjongTile.TileType.JIAN) {
-
-            // 检查前后是否有相邻的牌
-            int sequenceValue = 0;
-
-            // 检查 tile-2, tile-1
-            if (tile.getValue() >= 3) {
-                if (hasTile(hand, tile.getType(), tile.getValue() - 1)) {
-                    sequenceValue += 10;
-                }
-                if (hasTile(hand, tile.getType(), tile.getValue() - 2)) {
-                    sequenceValue += 5;
-                }
+        Object strategyName = data.get("strategy");
+        if (strategyName instanceof String) {
+            if (getStrategy((String) strategyName) != null) {
+                bot.setBotStrategy((String) strategyName);
+            } else {
+                log.warn("未知的机器人策略: {}", strategyName);
             }
-
-            // 检查 tile+1, tile+2
-            if (tile.getValue() <= 7) {
-                if (hasTile(hand, tile.getType(), tile.getValue() + 1)) {
-                    sequenceValue += 10;
-                }
-                if (hasTile(hand, tile.getType(), tile.getValue() + 2)) {
-                    sequenceValue += 5;
-                }
-            }
-
-            value += sequenceValue;
         }
 
-        // 中间牌（4-6）比边缘牌（1,2,8,9）更有价值
-        if (tile.getType() != MahjongTile.TileType.FENG &&
-            tile.getType() != MahjongTile.TileType.JIAN) {
-            if (tile.getValue() >= 4 && tile.getValue() <= 6) {
-                value += 5;
-            }
+        Object budget = data.get("budgetMs");
+        if (budget instanceof Number && ((Number) budget).longValue() > 0) {
+            bot.setBotBudgetMillis(((Number) budget).longValue());
         }
-
-        return value;
     }
 
     /**
-     * 判断两张牌是否相同
-     */
-    private boolean isSameTile(MahjongTile t1, MahjongTile t2) {
-        return t1.getType() == t2.getType() && t1.getValue() == t2.getValue();
-    }
-
-    /**
-     * 检查手牌中是否有指定的牌
+     * 按名称查找策略
+     *
+     * @param name 策略名称
+     * @return 策略，名称为空或不存在返回null
      */
-    private boolean hasTile(List<MahjongTile> hand, MahjongTile.TileType type, int value) {
-        for (MahjongTile tile : hand) {
-            if (tile.getType() == type && tile.getValue() == value) {
-                return true;
+    private BotStrategy getStrategy(String name) {
+        if (name == null) {
+            return null;
+        }
+        for (BotStrategy strategy : strategies) {
+            if (strategy.getName().equalsIgnoreCase(name)) {
+                return strategy;
             }
         }
-        return false;
+        return null;
     }
 
     /**
@@ -170,7 +143,7 @@ public class MahjongBotService {
      * @return 延迟时间（毫秒）
      */
     public long getThinkingDelay() {
-        // 随机1-3秒的思考时间
-        return 1000 + new Random().nextInt(2000);
+        // 随机1-3秒的思考时间，使用线程私有的随机数，不再每次新建 Random
+        return ThreadLocalRandom.current().nextInt(1000, 3000);
     }
 }
@@ -1,12 +1,19 @@
 package com.jeizas.service;
 
+import com.jeizas.jfr.GameEvents;
+import com.jeizas.model.mahjong.MahjongPlayer;
 import com.jeizas.model.mahjong.MahjongTile;
+import com.jeizas.service.rules.FanEvaluator;
+import com.jeizas.service.rules.FanResult;
+import com.jeizas.service.rules.FanRuleSet;
+import com.jeizas.service.rules.ShantenCalculator;
+import com.jeizas.service.rules.TileCodec;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PostConstruct;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * 麻将游戏服务类，处理游戏逻辑
@@ -17,201 +24,71 @@ import java.util.Map;
 @Service
 public class MahjongGameService {
 
-    /**
-     * 检查是否可以胡牌（简化规则）
-     * 胡牌条件：14张牌，满足以下之一：
-     * 1. 一对将 + 4组顺子/刻子
-     * 2. 七对子
-     *
-     * @param hand 手牌
-     * @return 是否可以胡牌
-     */
-    public boolean canWin(List<MahjongTile> hand) {
-        if (hand.size() != 14) {
-            return false;
-        }
-
-        // 检查七对子
-        if (isSevenPairs(hand)) {
-            return true;
-        }
-
-        // 检查标准胡牌（一对将 + 4组顺子/刻子）
-        return isStandardWin(hand);
-    }
+    /** 计分规则名称：classic 只计七对与自摸，standard 计全部番种 */
+    @Value("${game.scoring.rule-set:standard}")
+    private String ruleSetName;
 
-    /**
-     * 检查是否是七对子
-     *
-     * @param hand 手牌
-     * @return 是否是七对子
-     */
-    private boolean isSevenPairs(List<MahjongTile> hand) {
-        Map<String, Integer> tileCount = countTiles(hand);
+    /** 番数覆盖（番种=番数，逗号分隔），番数为0表示不计该番 */
+    @Value("${game.scoring.overrides:}")
+    private String ruleOverrides;
 
-        if (tileCount.size() != 7) {
-            return false;
-        }
+    /** 底分 */
+    @Value("${game.scoring.base-score:10}")
+    private int baseScore;
 
-        for (int count : tileCount.values()) {
-            if (count != 2) {
-                return false;
-            }
-        }
+    /** 封顶番数，得分为底分乘以 2 的番数次方 */
+    @Value("${game.scoring.max-fan:8}")
+    private int maxFan;
 
-        return true;
-    }
+    /** 当前番数规则表 */
+    private FanRuleSet ruleSet = FanRuleSet.preset("standard");
 
     /**
-     * 检查是否是标准胡牌（一对将 + 4组顺子/刻子）
-     *
-     * @param hand 手牌
-     * @return 是否是标准胡牌
+     * 按配置加载番数规则表
      */
-    private boolean isStandardWin(List<MahjongTile> hand) {
-        Map<String, Integer> tileCount = countTiles(hand);
-
-        // 尝试每一种牌作为将牌
-        for (String tileId : tileCount.keySet()) {
-            if (tileCount.get(tileId) >= 2) {
-                // 创建副本并移除将牌
-                Map<String, Integer> remaining = new HashMap<>(tileCount);
-                remaining.put(tileId, remaining.get(tileId) - 2);
-                if (remaining.get(tileId) == 0) {
-                    remaining.remove(tileId);
-                }
-
-                // 检查剩余牌是否能组成4组顺子/刻子
-                if (canFormMelds(remaining)) {
-                    return true;
-                }
-            }
-        }
-
-        return false;
+    @PostConstruct
+    public void init() {
+        ruleSet = FanRuleSet.preset(ruleSetName).withOverrides(ruleOverrides);
     }
 
     /**
-     * 检查是否能组成顺子/刻子
-     *
-     * @param tileCount 牌的数量统计
-     * @return 是否能组成顺子/刻子
-     */
-    private boolean canFormMelds(Map<String, Integer> tileCount) {
-        if (tileCount.isEmpty()) {
-            return true;
-        }
-
-        // 获取第一张牌
-        String firstTileId = tileCount.keySet().iterator().next();
-        MahjongTile firstTile = parseTileId(firstTileId);
-
-        // 尝试组成刻子（3张相同的牌）
-        if (tileCount.get(firstTileId) >= 3) {
-            Map<String, Integer> remaining = new HashMap<>(tileCount);
-            remaining.put(firstTileId, remaining.get(firstTileId) - 3);
-            if (remaining.get(firstTileId) == 0) {
-                remaining.remove(firstTileId);
-            }
-            if (canFormMelds(remaining)) {
-                return true;
-            }
-        }
-
-        // 尝试组成顺子（只有万、条、筒可以组成顺子）
-        if (firstTile.getType() != MahjongTile.TileType.FENG &&
-            firstTile.getType() != MahjongTile.TileType.JIAN) {
-
-            // 检查是否有连续的3张牌
-            if (firstTile.getValue() <= 7) {
-                String tile2Id = getTileId(firstTile.getType(), firstTile.getValue() + 1);
-                String tile3Id = getTileId(firstTile.getType(), firstTile.getValue() + 2);
-
-                if (tileCount.containsKey(tile2Id) && tileCount.containsKey(tile3Id)) {
-                    Map<String, Integer> remaining = new HashMap<>(tileCount);
-                    remaining.put(firstTileId, remaining.get(firstTileId) - 1);
-                    if (remaining.get(firstTileId) == 0) {
-                        remaining.remove(firstTileId);
-                    }
-                    remaining.put(tile2Id, remaining.get(tile2Id) - 1);
-                    if (remaining.get(tile2Id) == 0) {
-                        remaining.remove(tile2Id);
-                    }
-                    remaining.put(tile3Id, remaining.get(tile3Id) - 1);
-                    if (remaining.get(tile3Id) == 0) {
-                        remaining.remove(tile3Id);
-                    }
-
-                    if (canFormMelds(remaining)) {
-                        return true;
-                    }
-                }
-            }
-        }
-
-        return false;
-    }
-
-    /**
-     * 统计每种牌的数量
+     * 检查是否可以胡牌（简化规则）
+     * 胡牌条件：手牌张数为 3n+2（碰/杠过的牌组不在手牌中），满足以下之一：
+     * 1. 一对将 + 顺子/刻子（含副露共4组）
+     * 2. 七对子（仅门清）
      *
      * @param hand 手牌
-     * @return 牌的数量统计
+     * @return 是否可以胡牌
      */
-    private Map<String, Integer> countTiles(List<MahjongTile> hand) {
-        Map<String, Integer> count = new HashMap<>();
-        for (MahjongTile tile : hand) {
-            String id = tile.getTileId();
-            count.put(id, count.getOrDefault(id, 0) + 1);
+    public boolean canWin(List<MahjongTile> hand) {
+        if (hand.size() % 3 != 2 || hand.size() > 14) {
+            return false;
         }
-        return count;
+        Object event = GameEvents.beginHandCheck();
+        boolean win = ShantenCalculator.isWin(TileCodec.toCounts(hand), (14 - hand.size()) / 3);
+        GameEvents.endHandCheck(event, hand.size(), win);
+        return win;
     }
 
     /**
-     * 从牌ID解析出牌对象
+     * 计算和牌的番型，手牌须已包含和牌张
      *
-     * @param tileId 牌ID
-     * @return 牌对象
+     * @param winner 和牌的玩家
+     * @param isSelfDrawn 是否自摸
+     * @return 番型结果
      */
-    private MahjongTile parseTileId(String tileId) {
-        String[] parts = tileId.split("_");
-        MahjongTile.TileType type = MahjongTile.TileType.valueOf(parts[0]);
-        int value = Integer.parseInt(parts[1]);
-        return new MahjongTile(type, value);
+    public FanResult evaluateFan(MahjongPlayer winner, boolean isSelfDrawn) {
+        return FanEvaluator.evaluate(winner.getHand(), winner.getMelds(), isSelfDrawn, ruleSet);
     }
 
     /**
-     * 获取牌ID
+     * 按番数计算得分：底分乘以 2 的番数次方，超过封顶番数按封顶计
      *
-     * @param type 牌类型
-     * @param value 牌值
-     * @return 牌ID
+     * @param fan 番型结果
+     * @return 得分
      */
-    private String getTileId(MahjongTile.TileType type, int value) {
-        return type.name() + "_" + value;
-    }
-
-    /**
-     * 计算分数（简化规则：基础分10分，自摸加倍）
-     *
-     * @param hand 手牌
-     * @param isSelfDrawn 是否自摸
-     * @return 分数
-     */
-    public int calculateScore(List<MahjongTile> hand, boolean isSelfDrawn) {
-        int baseScore = 10;
-
-        // 七对子加倍
-        if (isSevenPairs(hand)) {
-            baseScore *= 2;
-        }
-
-        // 自摸加倍
-        if (isSelfDrawn) {
-            baseScore *= 2;
-        }
-
-        return baseScore;
+    public int calculateScore(FanResult fan) {
+        return baseScore << Math.min(fan.getFan(), maxFan);
     }
 
     /**
@@ -237,7 +114,7 @@ public class MahjongGameService {
             }
 
             for (int value = 1; value <= maxValue; value++) {
-                MahjongTile testTile = new MahjongTile(type, value);
+                MahjongTile testTile = MahjongTile.of(type, value);
                 List<MahjongTile> testHand = new ArrayList<>(hand);
                 testHand.add(testTile);
 
@@ -0,0 +1,167 @@
+package com.jeizas.service;
+
+import com.jeizas.model.mahjong.MahjongPlayer;
+import com.jeizas.model.mahjong.MahjongRoom;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * 麻将房间与玩家对象池，复用房间、玩家及其手牌/牌组列表，减少短局高频建房带来的年轻代垃圾
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+@Slf4j
+@Service
+public class MahjongObjectPool {
+
+    /** 空闲房间队列 */
+    private final BlockingQueue<MahjongRoom> idleRooms;
+
+    /** 空闲玩家队列 */
+    private final BlockingQueue<MahjongPlayer> idlePlayers;
+
+    /** 房间复用次数 */
+    private final Counter roomReused;
+
+    /** 房间新建次数 */
+    private final Counter roomAllocated;
+
+    /** 房间归还后因池满被丢弃的次数 */
+    private final Counter roomDropped;
+
+    /** 玩家复用次数 */
+    private final Counter playerReused;
+
+    /** 玩家新建次数 */
+    private final Counter playerAllocated;
+
+    /** 玩家归还后因池满被丢弃的次数 */
+    private final Counter playerDropped;
+
+    /**
+     * 构造函数
+     *
+     * @param maxIdleRooms 最多缓存的空闲房间数
+     * @param maxIdlePlayers 最多缓存的空闲玩家数
+     * @param meterRegistry 指标注册表
+     */
+    public MahjongObjectPool(@Value("${game.pool.max-idle-rooms:256}") int maxIdleRooms,
+                             @Value("${game.pool.max-idle-players:1024}") int maxIdlePlayers,
+                             MeterRegistry meterRegistry) {
+        this.idleRooms = new ArrayBlockingQueue<>(Math.max(1, maxIdleRooms));
+        this.idlePlayers = new ArrayBlockingQueue<>(Math.max(1, maxIdlePlayers));
+
+        this.roomReused = poolCounter(meterRegistry, "mahjong.pool.acquire", "room", "reused");
+        this.roomAllocated = poolCounter(meterRegistry, "mahjong.pool.acquire", "room", "allocated");
+        this.roomDropped = poolCounter(meterRegistry, "mahjong.pool.release", "room", "dropped");
+        this.playerReused = poolCounter(meterRegistry, "mahjong.pool.acquire", "player", "reused");
+        this.playerAllocated = poolCounter(meterRegistry, "mahjong.pool.acquire", "player", "allocated");
+        this.playerDropped = poolCounter(meterRegistry, "mahjong.pool.release", "player", "dropped");
+
+        Gauge.builder("mahjong.pool.idle", idleRooms, BlockingQueue::size)
+                .tag("type", "room")
+                .description("对象池中空闲的房间数")
+                .register(meterRegistry);
+        Gauge.builder("mahjong.pool.idle", idlePlayers, BlockingQueue::size)
+                .tag("type", "player")
+                .description("对象池中空闲的玩家数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 获取房间，优先复用池中空闲房间
+     *
+     * @param roomId 房间ID
+     * @return 已初始化的房间
+     */
+    public MahjongRoom acquireRoom(String roomId) {
+        MahjongRoom room = idleRooms.poll();
+        if (room == null) {
+            roomAllocated.increment();
+            return new MahjongRoom(roomId);
+        }
+        roomReused.increment();
+        room.recycle(roomId);
+        return room;
+    }
+
+    /**
+     * 归还房间，房间内剩余的玩家（如机器人）一并归还
+     * 调用方需保证房间已从房间表中移除，且不再被其他线程引用
+     *
+     * @param room 房间
+     */
+    public void releaseRoom(MahjongRoom room) {
+        List<MahjongPlayer> remaining = new ArrayList<>(room.getPlayers());
+        room.recycle(null);
+        for (MahjongPlayer player : remaining) {
+            releasePlayer(player);
+        }
+        if (!idleRooms.offer(room)) {
+            roomDropped.increment();
+        }
+    }
+
+    /**
+     * 获取玩家，优先复用池中空闲玩家
+     *
+     * @param playerId 玩家ID
+     * @param playerName 玩家名称
+     * @param isBot 是否是机器人
+     * @param session WebSocket会话（机器人为null）
+     * @return 已初始化的玩家
+     */
+    public MahjongPlayer acquirePlayer(String playerId, String playerName, boolean isBot,
+                                       WebSocketSession session) {
+        MahjongPlayer player = idlePlayers.poll();
+        if (player == null) {
+            playerAllocated.increment();
+            return new MahjongPlayer(playerId, playerName, isBot, session);
+        }
+        playerReused.increment();
+        player.recycle(playerId, playerName, isBot, session);
+        return player;
+    }
+
+    /**
+     * 归还玩家
+     *
+     * @param player 玩家，可为null
+     */
+    public void releasePlayer(MahjongPlayer player) {
+        if (player == null) {
+            return;
+        }
+        player.release();
+        if (!idlePlayers.offer(player)) {
+            playerDropped.increment();
+        }
+    }
+
+    /**
+     * 注册对象池计数器
+     *
+     * @param registry 指标注册表
+     * @param name 指标名
+     * @param type 对象类型
+     * @param result 结果标签
+     * @return 计数器
+     */
+    private static Counter poolCounter(MeterRegistry registry, String name, String type, String result) {
+        return Counter.builder(name)
+                .tag("type", type)
+                .tag("result", result)
+                .register(registry);
+    }
+}
@@ -0,0 +1,47 @@
+package com.jeizas.service;
+
+import com.jeizas.model.RoomSummary;
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 房间摘要分页查询结果
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+@Getter
+public final class RoomSummaryPage {
+
+    /** 符合条件的房间总数 */
+    private final int total;
+
+    /** 跳过的条数 */
+    private final int offset;
+
+    /** 最多返回的条数 */
+    private final int limit;
+
+    /** 本页的房间摘要 */
+    private final List<RoomSummary> items;
+
+    /** 生成时间（毫秒），空闲时长按此时间计算 */
+    private final long generatedAt = System.currentTimeMillis();
+
+    /**
+     * 构造函数
+     *
+     * @param total 符合条件的房间总数
+     * @param offset 跳过的条数
+     * @param limit 最多返回的条数
+     * @param items 本页的房间摘要
+     */
+    public RoomSummaryPage(int total, int offset, int limit, List<RoomSummary> items) {
+        this.total = total;
+        this.offset = offset;
+        this.limit = limit;
+        this.items = Collections.unmodifiableList(items);
+    }
+}
@@ -0,0 +1,69 @@
+package com.jeizas.service;
+
+import com.jeizas.model.RoomSummary;
+import lombok.Data;
+
+import java.util.function.Predicate;
+
+/**
+ * 房间摘要查询条件，由请求参数绑定，未指定的条件不参与过滤
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+@Data
+public class RoomSummaryQuery {
+
+    /** 游戏名称（mahjong / gomoku） */
+    private String game;
+
+    /** 房间状态（WAITING / PLAYING / FINISHED / MIGRATING） */
+    private String state;
+
+    /** 最少机器人数 */
+    private Integer minBots;
+
+    /** 最多机器人数 */
+    private Integer maxBots;
+
+    /** 最短空闲秒数 */
+    private Long minIdleSeconds;
+
+    /** 玩家ID或名称（名称按包含匹配） */
+    private String player;
+
+    /** 跳过的条数 */
+    private int offset;
+
+    /** 最多返回的条数 */
+    private int limit = 50;
+
+    /**
+     * 组合过滤条件
+     *
+     * @param now 当前时间（毫秒），用于计算空闲时长
+     * @return 过滤条件
+     */
+    public Predicate<RoomSummary> toFilter(long now) {
+        Predicate<RoomSummary> filter = summary -> true;
+        if (game != null) {
+            filter = filter.and(summary -> game.equals(summary.getGame()));
+        }
+        if (state != null) {
+            filter = filter.and(summary -> state.equalsIgnoreCase(summary.getState()));
+        }
+        if (minBots != null) {
+            filter = filter.and(summary -> summary.getBots() >= minBots);
+        }
+        if (maxBots != null) {
+            filter = filter.and(summary -> summary.getBots() <= maxBots);
+        }
+        if (minIdleSeconds != null) {
+            filter = filter.and(summary -> summary.idleMillis(now) >= minIdleSeconds * 1000);
+        }
+        if (player != null && !player.isEmpty()) {
+            filter = filter.and(summary -> summary.hasPlayer(player));
+        }
+        return filter;
+    }
+}
@@ -0,0 +1,99 @@
+package com.jeizas.service;
+
+import com.jeizas.model.RoomSummary;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Predicate;
+
+/**
+ * 房间摘要登记表：游戏处理器在每次房间状态变化后发布新的不可变摘要，房间销毁时移除。
+ * 查询只遍历这张表，不访问房间对象，也不获取房间锁；按游戏与房间ID排序，分页结果稳定
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+@Component
+public class RoomSummaryRegistry {
+
+    /** 游戏名称与房间ID之间的分隔符 */
+    private static final char SEPARATOR = '/';
+
+    /** 房间摘要，键为 game/roomId */
+    private final ConcurrentSkipListMap<String, RoomSummary> summaries = new ConcurrentSkipListMap<>();
+
+    /**
+     * 发布房间摘要，替换该房间之前的摘要
+     *
+     * @param summary 房间摘要
+     */
+    public void publish(RoomSummary summary) {
+        summaries.put(key(summary.getGame(), summary.getRoomId()), summary);
+    }
+
+    /**
+     * 移除房间摘要
+     *
+     * @param game 游戏名称
+     * @param roomId 房间ID
+     */
+    public void remove(String game, String roomId) {
+        summaries.remove(key(game, roomId));
+    }
+
+    /**
+     * 获取房间摘要
+     *
+     * @param game 游戏名称
+     * @param roomId 房间ID
+     * @return 房间摘要，不存在时返回null
+     */
+    public RoomSummary get(String game, String roomId) {
+        return summaries.get(key(game, roomId));
+    }
+
+    /**
+     * 按条件分页查询
+     *
+     * @param filter 过滤条件
+     * @param offset 跳过的条数
+     * @param limit 最多返回的条数
+     * @return 查询结果
+     */
+    public RoomSummaryPage query(Predicate<RoomSummary> filter, int offset, int limit) {
+        List<RoomSummary> items = new ArrayList<>(Math.min(limit, 64));
+        int total = 0;
+        for (RoomSummary summary : summaries.values()) {
+            if (!filter.test(summary)) {
+                continue;
+            }
+            if (total >= offset && items.size() < limit) {
+                items.add(summary);
+            }
+            total++;
+        }
+        return new RoomSummaryPage(total, offset, limit, items);
+    }
+
+    /**
+     * 登记的房间数
+     *
+     * @return 房间数
+     */
+    public int size() {
+        return summaries.size();
+    }
+
+    /**
+     * 摘要的键
+     *
+     * @param game 游戏名称
+     * @param roomId 房间ID
+     * @return game/roomId
+     */
+    private static String key(String game, String roomId) {
+        return game + SEPARATOR + roomId;
+    }
+}
@@ -0,0 +1,160 @@
+package com.jeizas.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 共享时间轮：所有房间的回合计时与声明窗口截止共用一个轮子，由计时线程按固定刻度推进，
+ * 到期的任务转交动作执行器。登记只是入队一个对象，不像每次 schedule 那样进入计时线程的堆，也没有取消：
+ * 任务到期时自行检查局面是否已变化（房间代数、计时序号），过期的直接返回。到期时间按刻度向上取整，不会提前触发
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+@Slf4j
+@Component
+public class TimerWheel {
+
+    /** 轮子的格数，超过一圈的任务记录剩余圈数 */
+    private static final int WHEEL_SIZE = 512;
+
+    /** 游戏动作执行器 */
+    private final GameExecutors executors;
+
+    /** 刻度（纳秒） */
+    private final long tickNanos;
+
+    /** 起始时间（纳秒），刻度从此处开始计数 */
+    private final long startNanos;
+
+    /** 新登记的任务，由计时线程在每个刻度开始时放入对应格子 */
+    private final Queue<Timeout> incoming = new ConcurrentLinkedQueue<>();
+
+    /** 格子，只由计时线程访问 */
+    private final List<List<Timeout>> buckets = new ArrayList<>(WHEEL_SIZE);
+
+    /** 尚未到期的任务数 */
+    private final AtomicInteger pending = new AtomicInteger();
+
+    /** 下一个待处理的刻度，只由计时线程访问 */
+    private long tick;
+
+    /**
+     * 构造函数
+     *
+     * @param executors 游戏动作执行器
+     * @param tickMillis 刻度（毫秒）
+     */
+    public TimerWheel(GameExecutors executors, @Value("${game.turn-clock.tick-ms:100}") long tickMillis) {
+        this.executors = executors;
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, tickMillis));
+        this.startNanos = System.nanoTime();
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            buckets.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * 在计时线程上按刻度推进
+     */
+    @PostConstruct
+    public void start() {
+        executors.timer().scheduleAtFixedRate(this::safeAdvance, tickNanos, tickNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 登记一个延迟任务，到期后在动作执行器上执行
+     *
+     * @param task 任务
+     * @param delayMillis 延迟（毫秒）
+     */
+    public void schedule(Runnable task, long delayMillis) {
+        long elapsed = System.nanoTime() - startNanos + TimeUnit.MILLISECONDS.toNanos(Math.max(0, delayMillis));
+        Timeout timeout = new Timeout(task, (elapsed + tickNanos - 1) / tickNanos);
+        pending.incrementAndGet();
+        incoming.add(timeout);
+    }
+
+    /**
+     * 尚未到期的任务数
+     *
+     * @return 任务数
+     */
+    public int size() {
+        return pending.get();
+    }
+
+    /**
+     * 推进时间轮，异常只记录日志，不能让定时任务因此停止
+     */
+    private void safeAdvance() {
+        try {
+            advance((System.nanoTime() - startNanos) / tickNanos);
+        } catch (RuntimeException e) {
+            log.error("时间轮推进失败", e);
+        }
+    }
+
+    /**
+     * 推进到指定刻度：先把新任务放入格子，再依次处理到该刻度为止的每一格
+     *
+     * @param now 当前刻度
+     */
+    void advance(long now) {
+        Timeout timeout;
+        while ((timeout = incoming.poll()) != null) {
+            long due = Math.max(timeout.deadlineTick, tick);
+            timeout.rounds = (due - tick) / WHEEL_SIZE;
+            buckets.get((int) (due % WHEEL_SIZE)).add(timeout);
+        }
+        for (; tick <= now; tick++) {
+            Iterator<Timeout> it = buckets.get((int) (tick % WHEEL_SIZE)).iterator();
+            while (it.hasNext()) {
+                Timeout entry = it.next();
+                if (entry.rounds > 0) {
+                    entry.rounds--;
+                } else {
+                    it.remove();
+                    pending.decrementAndGet();
+                    executors.execute(entry.task);
+                }
+            }
+        }
+    }
+
+    /**
+     * 时间轮中的任务
+     */
+    private static final class Timeout {
+
+        /** 任务 */
+        private final Runnable task;
+
+        /** 到期刻度 */
+        private final long deadlineTick;
+
+        /** 剩余圈数 */
+        private long rounds;
+
+        /**
+         * 构造函数
+         *
+         * @param task 任务
+         * @param deadlineTick 到期刻度
+         */
+        Timeout(Runnable task, long deadlineTick) {
+            this.task = task;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.jeizas.service;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * 预热健康检查（warmUp），预热完成前为 OUT_OF_SERVICE，已加入 readiness 分组，负载均衡在预热结束后才导入流量
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+@Component
+public class WarmUpHealthIndicator implements HealthIndicator {
+
+    /** 预热服务 */
+    private final WarmUpService warmUpService;
+
+    /**
+     * 构造函数
+     *
+     * @param warmUpService 预热服务
+     */
+    public WarmUpHealthIndicator(WarmUpService warmUpService) {
+        this.warmUpService = warmUpService;
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder builder = warmUpService.isDone() ? Health.up() : Health.outOfService();
+        return builder.withDetail("completed", warmUpService.getCompleted())
+                .withDetail("iterations", warmUpService.getIterations())
+                .withDetail("elapsedMs", warmUpService.getElapsedMillis())
+                .build();
+    }
+}
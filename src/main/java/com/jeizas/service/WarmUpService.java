@@ -0,0 +1,205 @@
+package com.jeizas.service;
+
+import com.jeizas.model.mahjong.MahjongMessage;
+import com.jeizas.model.mahjong.MahjongPlayer;
+import com.jeizas.model.mahjong.MahjongTile;
+import com.jeizas.service.bot.BotStrategy;
+import com.jeizas.service.bot.BotView;
+import com.jeizas.service.rules.HandAnalyzer;
+import com.jeizas.service.rules.ShantenCalculator;
+import com.jeizas.service.rules.TileCodec;
+import com.jeizas.service.rules.TileNotation;
+import com.jeizas.websocket.MahjongWebSocketHandler;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 启动预热：应用就绪后在后台用合成手牌反复执行和牌判定、向听数、番型计分、机器人出牌与消息编解码，
+ * 让这些热点路径在接入真实对局前完成 JIT 编译。预热完成前 readiness 健康检查为 OUT_OF_SERVICE
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+@Slf4j
+@Service
+public class WarmUpService {
+
+    /** 合成手牌的固定种子，保证每次预热路径一致 */
+    private static final long SEED = 20261019L;
+
+    /** 游戏服务 */
+    private final MahjongGameService gameService;
+
+    /** 所有出牌策略 */
+    private final List<BotStrategy> strategies;
+
+    /** 指标注册表 */
+    private final MeterRegistry meterRegistry;
+
+    /** 是否启用预热 */
+    @Value("${game.warmup.enabled:true}")
+    private boolean enabled;
+
+    /** 预热轮数 */
+    @Value("${game.warmup.iterations:3000}")
+    private int iterations;
+
+    /** 预热最长时间（毫秒），超时后即使未完成也报告就绪 */
+    @Value("${game.warmup.max-ms:20000}")
+    private long maxMillis;
+
+    /** 单次机器人决策的时间预算（毫秒） */
+    @Value("${game.warmup.bot-budget-ms:2}")
+    private long botBudgetMillis;
+
+    /** 预热是否已结束 */
+    private volatile boolean done;
+
+    /** 已完成的轮数 */
+    private volatile int completed;
+
+    /** 预热耗时（毫秒） */
+    private volatile long elapsedMillis;
+
+    /**
+     * 构造函数
+     *
+     * @param gameService 游戏服务
+     * @param strategies 所有出牌策略
+     * @param meterRegistry 指标注册表
+     */
+    public WarmUpService(MahjongGameService gameService, List<BotStrategy> strategies,
+                         MeterRegistry meterRegistry) {
+        this.gameService = gameService;
+        this.strategies = strategies;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * 应用就绪后在后台线程开始预热
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        if (!enabled || iterations <= 0) {
+            done = true;
+            return;
+        }
+        Thread thread = new Thread(this::run, "warm-up");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * 执行预热，任何异常都不影响就绪
+     */
+    void run() {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(maxMillis);
+        Random random = new Random(SEED);
+        List<MahjongTile> deck = new ArrayList<>(TileCodec.KINDS * 4);
+        for (int index = 0; index < TileCodec.KINDS * 4; index++) {
+            deck.add(TileCodec.tileAt(index / 4));
+        }
+        try {
+            for (int i = 0; i < iterations && System.nanoTime() - deadline < 0; i++) {
+                Collections.shuffle(deck, random);
+                exercise(new ArrayList<>(deck.subList(0, 14)), i);
+                completed = i + 1;
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("预热中断，直接报告就绪", e);
+        } finally {
+            elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            meterRegistry.timer("game.warmup").record(elapsedMillis, TimeUnit.MILLISECONDS);
+            done = true;
+            log.info("预热完成: {} 轮，耗时 {} ms", completed, elapsedMillis);
+        }
+    }
+
+    /**
+     * 用一手合成牌走一遍热点路径
+     *
+     * @param hand 14 张合成手牌
+     * @param iteration 当前轮次
+     * @throws IOException 编解码失败
+     */
+    private void exercise(List<MahjongTile> hand, int iteration) throws IOException {
+        gameService.canWin(hand);
+        int[] counts = TileCodec.toCounts(hand);
+        ShantenCalculator.shanten(counts, 0);
+
+        MahjongPlayer player = new MahjongPlayer("warm-up", "warm-up", true, null);
+        player.setHand(hand);
+        gameService.calculateScore(gameService.evaluateFan(player, iteration % 2 == 0));
+
+        StringBuilder notation = new StringBuilder();
+        for (int index = 0; index < TileCodec.KINDS; index++) {
+            for (int n = 0; n < counts[index]; n++) {
+                notation.append(TileNotation.format(index));
+            }
+        }
+        HandAnalyzer.analyze(iteration, notation.toString());
+
+        BotStrategy strategy = strategies.get(iteration % strategies.size());
+        int[] meldCounts = new int[4];
+        BotView view = new BotView(0, hand, counts.clone(), 60,
+                Arrays.asList(Collections.emptyList(), Collections.emptyList(), Collections.emptyList(),
+                        Collections.emptyList()), new int[]{14, 13, 13, 13}, meldCounts);
+        strategy.chooseDiscard(view, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(botBudgetMillis));
+
+        MahjongTile tile = hand.get(iteration % hand.size());
+        MahjongWebSocketHandler.exerciseCodec(MahjongMessage.drawTile(tile, false),
+                "{\"type\":\"DISCARD_TILE\",\"tile\":{\"type\":\"" + tile.getType() + "\",\"value\":"
+                        + tile.getValue() + "}}");
+        MahjongWebSocketHandler.exerciseCodec(
+                MahjongMessage.discardTile("warm-up", tile, iteration % 4, 60), "{\"type\":\"PASS\"}");
+    }
+
+    /**
+     * 预热是否已结束
+     *
+     * @return 是否结束
+     */
+    public boolean isDone() {
+        return done;
+    }
+
+    /**
+     * 已完成的轮数
+     *
+     * @return 轮数
+     */
+    public int getCompleted() {
+        return completed;
+    }
+
+    /**
+     * 计划的轮数
+     *
+     * @return 轮数
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * 预热耗时
+     *
+     * @return 毫秒
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+}
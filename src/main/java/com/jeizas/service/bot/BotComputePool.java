@@ -0,0 +1,182 @@
+package com.jeizas.service.bot;
+
+import com.jeizas.jfr.GameEvents;
+import com.jeizas.model.mahjong.MahjongTile;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 机器人计算线程池，与游戏IO线程隔离，容量有界
+ * 每次决策带有时间预算：超时、被拒绝或出错时使用启发式策略兜底，保证机器人总能按时出牌
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+@Slf4j
+@Component
+public class BotComputePool {
+
+    /** 超出预算后等待策略自行收敛的额外时间（毫秒） */
+    private static final long GRACE_MILLIS = 20;
+
+    /** 计算线程池 */
+    private final ThreadPoolExecutor executor;
+
+    /** 截止时间计时器 */
+    private final ScheduledExecutorService deadlineTimer;
+
+    /** 兜底策略 */
+    private final HeuristicBotStrategy fallback;
+
+    /** 指标注册表 */
+    private final MeterRegistry meterRegistry;
+
+    /** 单次决策的最大预算（毫秒） */
+    private final long maxBudgetMillis;
+
+    /** 决策耗时 */
+    private final Timer decisionTimer;
+
+    /**
+     * 构造函数
+     *
+     * @param threads 计算线程数，小于等于0时取CPU核数减1
+     * @param queueSize 等待队列容量
+     * @param maxBudgetMillis 单次决策的最大预算（毫秒）
+     * @param fallback 兜底策略
+     * @param meterRegistry 指标注册表
+     */
+    public BotComputePool(@Value("${game.bot.compute-threads:0}") int threads,
+                          @Value("${game.bot.compute-queue:256}") int queueSize,
+                          @Value("${game.bot.max-budget-ms:3000}") long maxBudgetMillis,
+                          HeuristicBotStrategy fallback, MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueSize)), r -> {
+                    Thread thread = new Thread(r, "bot-compute-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.NORM_PRIORITY - 1);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "bot-deadline");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.setRemoveOnCancelPolicy(true);
+        this.deadlineTimer = timer;
+        this.maxBudgetMillis = maxBudgetMillis;
+        this.fallback = fallback;
+        this.meterRegistry = meterRegistry;
+        this.decisionTimer = Timer.builder("mahjong.bot.decision.time")
+                .description("机器人单次出牌决策耗时")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 提交一次出牌决策
+     *
+     * @param strategy 出牌策略
+     * @param view 局面快照
+     * @param budgetMillis 时间预算（毫秒），小于等于0时使用策略默认预算
+     * @return 决策结果，总能在预算加少量宽限时间内完成
+     */
+    public CompletableFuture<MahjongTile> submit(BotStrategy strategy, BotView view, long budgetMillis) {
+        long budget = Math.min(budgetMillis > 0 ? budgetMillis : strategy.getDefaultBudgetMillis(), maxBudgetMillis);
+        long startNanos = System.nanoTime();
+        long deadlineNanos = startNanos + TimeUnit.MILLISECONDS.toNanos(budget);
+        CompletableFuture<MahjongTile> result = new CompletableFuture<>();
+        Object event = GameEvents.beginBotDecision(strategy.getName(), budget);
+
+        try {
+            executor.execute(() -> {
+                if (result.isDone()) {
+                    return;
+                }
+                try {
+                    MahjongTile tile = strategy.chooseDiscard(view, deadlineNanos);
+                    if (tile == null || !view.getHand().contains(tile)) {
+                        complete(result, strategy, view, "invalid", startNanos, event);
+                    } else if (result.complete(tile)) {
+                        record(strategy, "ok", startNanos, event);
+                    }
+                } catch (Exception e) {
+                    log.warn("机器人策略 {} 决策失败，使用兜底策略", strategy.getName(), e);
+                    complete(result, strategy, view, "error", startNanos, event);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            complete(result, strategy, view, "rejected", startNanos, event);
+            return result;
+        }
+
+        if (!result.isDone()) {
+            ScheduledFuture<?> timeout = deadlineTimer.schedule(
+                    () -> complete(result, strategy, view, "timeout", startNanos, event),
+                    budget + GRACE_MILLIS, TimeUnit.MILLISECONDS);
+            // 按时完成的决策撤掉超时任务，计时器队列里只留下仍在计算的决策
+            result.whenComplete((tile, error) -> timeout.cancel(false));
+        }
+        return result;
+    }
+
+    /**
+     * 停止线程池
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        deadlineTimer.shutdownNow();
+    }
+
+    /**
+     * 使用兜底策略完成决策（若尚未完成）
+     *
+     * @param result 决策结果
+     * @param strategy 原策略
+     * @param view 局面快照
+     * @param outcome 结果标签
+     * @param startNanos 开始时间
+     * @param event JFR 决策事件，未录制时为null
+     */
+    private void complete(CompletableFuture<MahjongTile> result, BotStrategy strategy, BotView view,
+                          String outcome, long startNanos, Object event) {
+        if (!result.isDone() && result.complete(fallback.chooseDiscard(view.getHand()))) {
+            record(strategy, outcome, startNanos, event);
+        }
+    }
+
+    /**
+     * 记录决策指标
+     *
+     * @param strategy 策略
+     * @param outcome 结果标签
+     * @param startNanos 开始时间
+     * @param event JFR 决策事件，未录制时为null
+     */
+    private void record(BotStrategy strategy, String outcome, long startNanos, Object event) {
+        decisionTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        GameEvents.endBotDecision(event, outcome);
+        Counter.builder("mahjong.bot.decisions")
+                .tag("strategy", strategy.getName())
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,56 @@
+package com.jeizas.service.bot;
+
+/**
+ * 机器人难度，对应默认的出牌策略和决策时间预算
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+public enum BotDifficulty {
+    EASY("heuristic", 5),
+    NORMAL("efficiency", 50),
+    HARD("montecarlo", 3000);
+
+    /** 策略名称 */
+    private final String strategy;
+
+    /** 决策时间预算（毫秒） */
+    private final long budgetMillis;
+
+    /**
+     * 构造函数
+     *
+     * @param strategy 策略名称
+     * @param budgetMillis 决策时间预算（毫秒）
+     */
+    BotDifficulty(String strategy, long budgetMillis) {
+        this.strategy = strategy;
+        this.budgetMillis = budgetMillis;
+    }
+
+    public String getStrategy() {
+        return strategy;
+    }
+
+    public long getBudgetMillis() {
+        return budgetMillis;
+    }
+
+    /**
+     * 按名称解析难度（不区分大小写）
+     *
+     * @param name 难度名称
+     * @param defaultValue 名称为空或无法识别时的默认值
+     * @return 难度
+     */
+    public static BotDifficulty fromName(String name, BotDifficulty defaultValue) {
+        if (name != null) {
+            for (BotDifficulty difficulty : values()) {
+                if (difficulty.name().equalsIgnoreCase(name)) {
+                    return difficulty;
+                }
+            }
+        }
+        return defaultValue;
+    }
+}
@@ -0,0 +1,36 @@
+package com.jeizas.service.bot;
+
+import com.jeizas.model.mahjong.MahjongTile;
+
+/**
+ * 麻将机器人出牌策略扩展点，每个机器人座位可选择不同实现
+ * 实现必须是线程安全的无状态组件，在机器人计算线程池上执行，并在截止时间前返回当前最优解
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+public interface BotStrategy {
+
+    /**
+     * 获取策略名称，用于 ADD_BOT 参数和指标标签
+     *
+     * @return 策略名称
+     */
+    String getName();
+
+    /**
+     * 获取策略默认的单次决策CPU时间预算
+     *
+     * @return 预算（毫秒）
+     */
+    long getDefaultBudgetMillis();
+
+    /**
+     * 选择要打出的牌
+     *
+     * @param view 机器人可见的局面快照
+     * @param deadlineNanos 决策截止时间（System.nanoTime 基准）
+     * @return 要打出的牌，必须是手牌中的一张
+     */
+    MahjongTile chooseDiscard(BotView view, long deadlineNanos);
+}
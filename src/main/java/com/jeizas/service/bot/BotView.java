@@ -0,0 +1,112 @@
+package com.jeizas.service.bot;
+
+import com.jeizas.model.mahjong.MahjongMeld;
+import com.jeizas.model.mahjong.MahjongPlayer;
+import com.jeizas.model.mahjong.MahjongRoom;
+import com.jeizas.model.mahjong.MahjongTile;
+import com.jeizas.service.rules.TileCodec;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 机器人决策使用的局面快照，只包含该座位可见的信息
+ * 在房间锁内创建，之后在计算线程池上只读使用，不再访问房间对象
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+@Getter
+public final class BotView {
+
+    /** 机器人座位 */
+    private final int seat;
+
+    /** 机器人手牌 */
+    private final List<MahjongTile> hand;
+
+    /** 机器人手牌计数 */
+    private final int[] handCounts;
+
+    /** 机器人副露组数 */
+    private final int meldCount;
+
+    /** 机器人可见的每种牌数量（自己手牌、所有出牌、所有副露） */
+    private final int[] visibleCounts;
+
+    /** 牌堆剩余张数 */
+    private final int wallRemaining;
+
+    /** 各座位的出牌 */
+    private final List<List<MahjongTile>> discards;
+
+    /** 各座位的手牌张数 */
+    private final int[] handSizes;
+
+    /** 各座位的副露组数 */
+    private final int[] meldCounts;
+
+    /**
+     * 构造函数
+     *
+     * @param seat 机器人座位
+     * @param hand 机器人手牌
+     * @param visibleCounts 可见牌计数
+     * @param wallRemaining 牌堆剩余张数
+     * @param discards 各座位的出牌
+     * @param handSizes 各座位的手牌张数
+     * @param meldCounts 各座位的副露组数
+     */
+    public BotView(int seat, List<MahjongTile> hand, int[] visibleCounts, int wallRemaining,
+                   List<List<MahjongTile>> discards, int[] handSizes, int[] meldCounts) {
+        this.seat = seat;
+        this.hand = Collections.unmodifiableList(hand);
+        this.handCounts = TileCodec.toCounts(hand);
+        this.meldCount = meldCounts[seat];
+        this.visibleCounts = visibleCounts;
+        this.wallRemaining = wallRemaining;
+        this.discards = discards;
+        this.handSizes = handSizes;
+        this.meldCounts = meldCounts;
+    }
+
+    /**
+     * 在房间锁内为机器人创建局面快照
+     *
+     * @param room 麻将房间
+     * @param bot 机器人玩家
+     * @return 局面快照
+     */
+    public static BotView of(MahjongRoom room, MahjongPlayer bot) {
+        List<MahjongPlayer> players = room.getPlayers();
+        int[] visible = TileCodec.toCounts(bot.getHand());
+        List<List<MahjongTile>> discards = new ArrayList<>(players.size());
+        int[] handSizes = new int[players.size()];
+        int[] meldCounts = new int[players.size()];
+        for (int i = 0; i < players.size(); i++) {
+            MahjongPlayer player = players.get(i);
+            List<MahjongTile> discarded = new ArrayList<>(player.getDiscardedTiles());
+            discards.add(Collections.unmodifiableList(discarded));
+            TileCodec.addCounts(visible, discarded);
+            for (MahjongMeld meld : player.getMelds()) {
+                TileCodec.addCounts(visible, meld.getTiles());
+            }
+            handSizes[i] = player.getHand().size();
+            meldCounts[i] = player.getMelds().size();
+        }
+        return new BotView(bot.getPosition(), new ArrayList<>(bot.getHand()), visible,
+                room.getDeck().size(), Collections.unmodifiableList(discards), handSizes, meldCounts);
+    }
+
+    /**
+     * 计算某种牌在机器人视角下还未现身的张数
+     *
+     * @param index 牌索引
+     * @return 未现身的张数
+     */
+    public int unseen(int index) {
+        return Math.max(0, 4 - visibleCounts[index]);
+    }
+}
@@ -0,0 +1,89 @@
+package com.jeizas.service.bot;
+
+import com.jeizas.model.mahjong.MahjongTile;
+import com.jeizas.service.rules.ShantenCalculator;
+import com.jeizas.service.rules.TileCodec;
+import org.springframework.stereotype.Component;
+
+/**
+ * 牌效率出牌策略：打出后向听数最小的牌，向听数相同时选择有效进张（未现身张数）最多的
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+@Component
+public class EfficiencyBotStrategy implements BotStrategy {
+
+    /** 策略名称 */
+    public static final String NAME = "efficiency";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public long getDefaultBudgetMillis() {
+        return 50;
+    }
+
+    /**
+     * 选择牌效率最高的打法，超出截止时间则返回当前最优解
+     *
+     * @param view 机器人可见的局面快照
+     * @param deadlineNanos 决策截止时间
+     * @return 要打出的牌
+     */
+    @Override
+    public MahjongTile chooseDiscard(BotView view, long deadlineNanos) {
+        int[] counts = view.getHandCounts().clone();
+        int bestIndex = -1;
+        int bestShanten = Integer.MAX_VALUE;
+        int bestAcceptance = -1;
+
+        for (int discard = 0; discard < TileCodec.KINDS; discard++) {
+            if (counts[discard] == 0) {
+                continue;
+            }
+            if (bestIndex >= 0 && System.nanoTime() - deadlineNanos > 0) {
+                break;
+            }
+            counts[discard]--;
+            int shanten = ShantenCalculator.shanten(counts, view.getMeldCount());
+            if (shanten <= bestShanten) {
+                int acceptance = acceptance(counts, shanten, view);
+                if (shanten < bestShanten || acceptance > bestAcceptance) {
+                    bestShanten = shanten;
+                    bestAcceptance = acceptance;
+                    bestIndex = discard;
+                }
+            }
+            counts[discard]++;
+        }
+        return bestIndex < 0 ? null : TileCodec.tileAt(bestIndex);
+    }
+
+    /**
+     * 计算有效进张数：摸到后能减少向听数的牌的未现身张数之和
+     *
+     * @param counts 打出一张后的手牌计数
+     * @param shanten 当前向听数
+     * @param view 局面快照
+     * @return 有效进张数
+     */
+    static int acceptance(int[] counts, int shanten, BotView view) {
+        int total = 0;
+        for (int draw = 0; draw < TileCodec.KINDS; draw++) {
+            int unseen = view.unseen(draw);
+            if (unseen == 0 || counts[draw] >= 4) {
+                continue;
+            }
+            counts[draw]++;
+            if (ShantenCalculator.shanten(counts, view.getMeldCount()) < shanten) {
+                total += unseen;
+            }
+            counts[draw]--;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,137 @@
+package com.jeizas.service.bot;
+
+import com.jeizas.model.mahjong.MahjongTile;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 启发式出牌策略（原机器人逻辑）：按对子、刻子、顺子潜力和中张加分，打出价值最低的牌
+ * 计算量极小，同时作为其他策略超时或线程池拒绝时的兜底策略
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+@Component
+public class HeuristicBotStrategy implements BotStrategy {
+
+    /** 策略名称 */
+    public static final String NAME = "heuristic";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public long getDefaultBudgetMillis() {
+        return 5;
+    }
+
+    /**
+     * 选择价值最低的牌打出
+     *
+     * @param view 机器人可见的局面快照
+     * @param deadlineNanos 决策截止时间（本策略不需要）
+     * @return 要打出的牌
+     */
+    @Override
+    public MahjongTile chooseDiscard(BotView view, long deadlineNanos) {
+        return chooseDiscard(view.getHand());
+    }
+
+    /**
+     * 从手牌中选择价值最低的牌
+     *
+     * @param hand 手牌
+     * @return 要打出的牌，手牌为空返回null
+     */
+    public MahjongTile chooseDiscard(List<MahjongTile> hand) {
+        MahjongTile worstTile = null;
+        int minValue = Integer.MAX_VALUE;
+        for (MahjongTile tile : hand) {
+            int value = calculateTileValue(tile, hand);
+            if (value < minValue) {
+                minValue = value;
+                worstTile = tile;
+            }
+        }
+        return worstTile;
+    }
+
+    /**
+     * 计算牌的价值
+     * 价值越高表示越重要，越不应该打出
+     *
+     * @param tile 要评估的牌
+     * @param hand 手牌
+     * @return 牌的价值
+     */
+    private int calculateTileValue(MahjongTile tile, List<MahjongTile> hand) {
+        int value = 0;
+
+        // 统计相同牌的数量（对子、刻子）
+        int sameCount = 0;
+        for (MahjongTile t : hand) {
+            if (t.equals(tile)) {
+                sameCount++;
+            }
+        }
+
+        // 对子价值: 20, 刻子价值: 50
+        if (sameCount == 2) {
+            value += 20;
+        } else if (sameCount >= 3) {
+            value += 50;
+        }
+
+        // 检查顺子潜力（只有万、条、筒可以组成顺子）
+        if (tile.getType() != MahjongTile.TileType.FENG
+                && tile.getType() != MahjongTile.TileType.JIAN) {
+
+            // 检查 tile-2, tile-1
+            if (tile.getValue() >= 3) {
+                if (hasTile(hand, tile.getType(), tile.getValue() - 1)) {
+                    value += 10;
+                }
+                if (hasTile(hand, tile.getType(), tile.getValue() - 2)) {
+                    value += 5;
+                }
+            }
+
+            // 检查 tile+1, tile+2
+            if (tile.getValue() <= 7) {
+                if (hasTile(hand, tile.getType(), tile.getValue() + 1)) {
+                    value += 10;
+                }
+                if (hasTile(hand, tile.getType(), tile.getValue() + 2)) {
+                    value += 5;
+                }
+            }
+
+            // 中间牌（4-6）比边缘牌（1,2,8,9）更有价值
+            if (tile.getValue() >= 4 && tile.getValue() <= 6) {
+                value += 5;
+            }
+        }
+
+        return value;
+    }
+
+    /**
+     * 检查手牌中是否有指定的牌
+     *
+     * @param hand 手牌
+     * @param type 牌类型
+     * @param value 牌值
+     * @return 是否存在
+     */
+    private boolean hasTile(List<MahjongTile> hand, MahjongTile.TileType type, int value) {
+        for (MahjongTile tile : hand) {
+            if (tile.getType() == type && tile.getValue() == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
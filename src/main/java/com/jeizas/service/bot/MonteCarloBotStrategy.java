@@ -0,0 +1,464 @@
+package com.jeizas.service.bot;
+
+import com.jeizas.model.mahjong.MahjongTile;
+import com.jeizas.service.rules.ShantenCalculator;
+import com.jeizas.service.rules.TileCodec;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 蒙特卡洛确定化搜索出牌策略
+ * 按机器人可见信息（自己手牌、所有出牌和副露）随机还原对手手牌与牌堆，对每个候选打法做快速模拟对局，
+ * 在工作窃取线程池上并行执行，截止时间到达即返回当前平均收益最高的打法
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+@Slf4j
+@Component
+public class MonteCarloBotStrategy implements BotStrategy {
+
+    /** 策略名称 */
+    public static final String NAME = "montecarlo";
+
+    /** 自己和牌的收益 */
+    private static final int WIN_SCORE = 100;
+
+    /** 点炮的收益 */
+    private static final int DEAL_IN_SCORE = -150;
+
+    /** 对手自摸的收益 */
+    private static final int OPPONENT_WIN_SCORE = -30;
+
+    /** 流局时每一向听的扣分 */
+    private static final int SHANTEN_PENALTY = 10;
+
+    /** 单次模拟中机器人最多行动的轮数 */
+    private static final int MAX_TURNS = 18;
+
+    /** 候选打法与最优打法允许的最大向听差 */
+    private static final int CANDIDATE_SHANTEN_SLACK = 1;
+
+    /** 模拟对局使用的工作窃取线程池 */
+    private final ForkJoinPool pool;
+
+    /** 每个候选打法每批次的模拟次数 */
+    private final int batchSize;
+
+    /**
+     * 构造函数
+     *
+     * @param parallelism 并行度，小于等于0时取CPU核数减1
+     * @param batchSize 每个候选打法每批次的模拟次数
+     */
+    public MonteCarloBotStrategy(@Value("${game.bot.mc-parallelism:0}") int parallelism,
+                                 @Value("${game.bot.mc-batch-size:16}") int batchSize) {
+        int size = parallelism > 0 ? parallelism : Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        this.pool = new ForkJoinPool(size, p -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            thread.setName("bot-mc-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        }, null, false);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public long getDefaultBudgetMillis() {
+        return 1000;
+    }
+
+    /**
+     * 在截止时间内分批模拟，返回平均收益最高的打法
+     *
+     * @param view 机器人可见的局面快照
+     * @param deadlineNanos 决策截止时间
+     * @return 要打出的牌
+     */
+    @Override
+    public MahjongTile chooseDiscard(BotView view, long deadlineNanos) {
+        return chooseDiscard(view, deadlineNanos, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * 以指定种子在截止时间内分批模拟，截止时间已过时直接返回牌效率最高的候选
+     *
+     * @param view 机器人可见的局面快照
+     * @param deadlineNanos 决策截止时间
+     * @param seed 首轮模拟的随机种子，之后每轮加一
+     * @return 要打出的牌
+     */
+    MahjongTile chooseDiscard(BotView view, long deadlineNanos, long seed) {
+        int[] candidates = candidates(view);
+        if (candidates.length == 0) {
+            return null;
+        }
+        if (candidates.length == 1) {
+            return TileCodec.tileAt(candidates[0]);
+        }
+
+        long[] totals = new long[candidates.length];
+        long[] runs = new long[candidates.length];
+        int rounds = 0;
+        while (System.nanoTime() - deadlineNanos < 0) {
+            pool.invoke(new SimulationRound(view, candidates, totals, runs, seed + rounds, batchSize, deadlineNanos));
+            rounds++;
+        }
+
+        int best = 0;
+        double bestMean = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < candidates.length; i++) {
+            if (runs[i] > 0) {
+                double mean = (double) totals[i] / runs[i];
+                if (mean > bestMean) {
+                    bestMean = mean;
+                    best = i;
+                }
+            }
+        }
+        log.debug("蒙特卡洛搜索完成，轮次 {}，候选 {} 个，最优 {} 平均收益 {}", rounds, candidates.length,
+                TileCodec.tileAt(candidates[best]), bestMean);
+        return TileCodec.tileAt(candidates[best]);
+    }
+
+    /**
+     * 停止模拟线程池
+     */
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * 挑选候选打法：打出后向听数不超过最优值加容差，按牌效率降序排列以便同分时优先牌效率
+     *
+     * @param view 局面快照
+     * @return 候选牌索引
+     */
+    static int[] candidates(BotView view) {
+        int[] counts = view.getHandCounts().clone();
+        int[] shanten = new int[TileCodec.KINDS];
+        int[] acceptance = new int[TileCodec.KINDS];
+        int min = Integer.MAX_VALUE;
+        for (int i = 0; i < TileCodec.KINDS; i++) {
+            if (counts[i] == 0) {
+                continue;
+            }
+            counts[i]--;
+            shanten[i] = ShantenCalculator.shanten(counts, view.getMeldCount());
+            acceptance[i] = EfficiencyBotStrategy.acceptance(counts, shanten[i], view);
+            counts[i]++;
+            min = Math.min(min, shanten[i]);
+        }
+
+        List<Integer> selected = new ArrayList<>();
+        for (int i = 0; i < TileCodec.KINDS; i++) {
+            if (counts[i] > 0 && shanten[i] <= min + CANDIDATE_SHANTEN_SLACK) {
+                selected.add(i);
+            }
+        }
+        selected.sort((a, b) -> shanten[a] != shanten[b]
+                ? Integer.compare(shanten[a], shanten[b]) : Integer.compare(acceptance[b], acceptance[a]));
+
+        int[] result = new int[selected.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = selected.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * 一轮模拟：每个候选打法一个子任务，由工作窃取线程池分摊
+     */
+    private static final class SimulationRound extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        /** 局面快照 */
+        private final transient BotView view;
+
+        /** 候选牌索引 */
+        private final int[] candidates;
+
+        /** 各候选累计收益 */
+        private final long[] totals;
+
+        /** 各候选模拟次数 */
+        private final long[] runs;
+
+        /** 随机种子 */
+        private final long seed;
+
+        /** 每个候选的模拟次数 */
+        private final int batchSize;
+
+        /** 截止时间 */
+        private final long deadlineNanos;
+
+        /**
+         * 构造函数
+         *
+         * @param view 局面快照
+         * @param candidates 候选牌索引
+         * @param totals 各候选累计收益
+         * @param runs 各候选模拟次数
+         * @param seed 随机种子
+         * @param batchSize 每个候选的模拟次数
+         * @param deadlineNanos 截止时间
+         */
+        SimulationRound(BotView view, int[] candidates, long[] totals, long[] runs, long seed, int batchSize,
+                        long deadlineNanos) {
+            this.view = view;
+            this.candidates = candidates;
+            this.totals = totals;
+            this.runs = runs;
+            this.seed = seed;
+            this.batchSize = batchSize;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        @Override
+        protected void compute() {
+            List<RecursiveAction> tasks = new ArrayList<>(candidates.length);
+            for (int i = 0; i < candidates.length; i++) {
+                int slot = i;
+                // 各候选使用相同种子，在相同的还原局面上比较，降低方差
+                SplittableRandom random = new SplittableRandom(seed);
+                tasks.add(new RecursiveAction() {
+                    private static final long serialVersionUID = 1L;
+
+                    @Override
+                    protected void compute() {
+                        Playout playout = new Playout(view, random);
+                        for (int n = 0; n < batchSize && System.nanoTime() - deadlineNanos < 0; n++) {
+                            totals[slot] += playout.run(candidates[slot]);
+                            runs[slot]++;
+                        }
+                    }
+                });
+            }
+            invokeAll(tasks);
+        }
+    }
+
+    /**
+     * 单次确定化模拟对局，数组在多次模拟之间复用
+     */
+    private static final class Playout {
+
+        /** 局面快照 */
+        private final BotView view;
+
+        /** 随机数生成器 */
+        private final SplittableRandom random;
+
+        /** 未现身的牌（对手手牌与牌堆） */
+        private final int[] unseen;
+
+        /** 各座位模拟中的手牌计数 */
+        private final int[][] hands;
+
+        /** 牌堆 */
+        private final int[] wall;
+
+        /**
+         * 构造函数
+         *
+         * @param view 局面快照
+         * @param random 随机数生成器
+         */
+        Playout(BotView view, SplittableRandom random) {
+            this.view = view;
+            this.random = random;
+            int total = 0;
+            for (int i = 0; i < TileCodec.KINDS; i++) {
+                total += view.unseen(i);
+            }
+            this.unseen = new int[total];
+            int k = 0;
+            for (int i = 0; i < TileCodec.KINDS; i++) {
+                for (int c = view.unseen(i); c > 0; c--) {
+                    unseen[k++] = i;
+                }
+            }
+            this.hands = new int[view.getHandSizes().length][TileCodec.KINDS];
+            this.wall = new int[total];
+        }
+
+        /**
+         * 打出候选牌后模拟到和牌、点炮或流局
+         *
+         * @param discard 候选牌索引
+         * @return 机器人收益
+         */
+        int run(int discard) {
+            int seats = hands.length;
+            int me = view.getSeat();
+            int wallSize = deal();
+            int[] mine = hands[me];
+            mine[discard]--;
+
+            if (dealsIn(me, discard)) {
+                return DEAL_IN_SCORE;
+            }
+
+            int drawn = 0;
+            int turns = 0;
+            int seat = (me + 1) % seats;
+            while (drawn < wallSize && turns < MAX_TURNS) {
+                int tile = wall[drawn++];
+                int[] hand = hands[seat];
+                int meldCount = view.getMeldCounts()[seat];
+                hand[tile]++;
+                if (ShantenCalculator.isWin(hand, meldCount)) {
+                    return seat == me ? WIN_SCORE : OPPONENT_WIN_SCORE;
+                }
+
+                int out;
+                if (seat == me) {
+                    out = chooseOwnDiscard(hand, meldCount, tile);
+                    turns++;
+                } else {
+                    out = random.nextBoolean() ? tile : randomTile(hand);
+                }
+                hand[out]--;
+
+                if (seat == me) {
+                    if (dealsIn(me, out)) {
+                        return DEAL_IN_SCORE;
+                    }
+                } else {
+                    mine[out]++;
+                    boolean ron = ShantenCalculator.isWin(mine, view.getMeldCount());
+                    mine[out]--;
+                    if (ron) {
+                        return WIN_SCORE;
+                    }
+                }
+                seat = (seat + 1) % seats;
+            }
+            return -SHANTEN_PENALTY * Math.max(0, ShantenCalculator.shanten(mine, view.getMeldCount()));
+        }
+
+        /**
+         * 随机还原对手手牌和牌堆，机器人手牌取自快照
+         *
+         * @return 牌堆张数
+         */
+        private int deal() {
+            for (int i = unseen.length - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int tmp = unseen[i];
+                unseen[i] = unseen[j];
+                unseen[j] = tmp;
+            }
+            int k = 0;
+            for (int seat = 0; seat < hands.length; seat++) {
+                int[] hand = hands[seat];
+                if (seat == view.getSeat()) {
+                    System.arraycopy(view.getHandCounts(), 0, hand, 0, TileCodec.KINDS);
+                    continue;
+                }
+                Arrays.fill(hand, 0);
+                for (int n = view.getHandSizes()[seat]; n > 0 && k < unseen.length; n--) {
+                    hand[unseen[k++]]++;
+                }
+            }
+            int wallSize = Math.min(view.getWallRemaining(), unseen.length - k);
+            System.arraycopy(unseen, k, wall, 0, wallSize);
+            return wallSize;
+        }
+
+        /**
+         * 判断机器人打出的牌是否被某个对手胡
+         *
+         * @param me 机器人座位
+         * @param tile 打出的牌
+         * @return 是否点炮
+         */
+        private boolean dealsIn(int me, int tile) {
+            for (int seat = 0; seat < hands.length; seat++) {
+                if (seat == me) {
+                    continue;
+                }
+                int[] hand = hands[seat];
+                hand[tile]++;
+                boolean win = ShantenCalculator.isWin(hand, view.getMeldCounts()[seat]);
+                hand[tile]--;
+                if (win) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * 模拟中机器人的出牌：摸到的牌不能减少向听数时直接打出，否则打出能保持新向听数的第一张牌
+         *
+         * @param hand 机器人手牌计数（已包含摸到的牌）
+         * @param meldCount 副露组数
+         * @param drawn 摸到的牌
+         * @return 打出的牌索引
+         */
+        private int chooseOwnDiscard(int[] hand, int meldCount, int drawn) {
+            int after = ShantenCalculator.shanten(hand, meldCount);
+            hand[drawn]--;
+            int before = ShantenCalculator.shanten(hand, meldCount);
+            hand[drawn]++;
+            if (after >= before) {
+                return drawn;
+            }
+
+            for (int i = 0; i < TileCodec.KINDS; i++) {
+                if (hand[i] == 0 || i == drawn) {
+                    continue;
+                }
+                hand[i]--;
+                int shanten = ShantenCalculator.shanten(hand, meldCount);
+                hand[i]++;
+                if (shanten == after) {
+                    return i;
+                }
+            }
+            return drawn;
+        }
+
+        /**
+         * 从手牌中随机选一张
+         *
+         * @param hand 手牌计数
+         * @return 牌索引
+         */
+        private int randomTile(int[] hand) {
+            int total = 0;
+            for (int count : hand) {
+                total += count;
+            }
+            int pick = random.nextInt(Math.max(1, total));
+            for (int i = 0; i < TileCodec.KINDS; i++) {
+                pick -= hand[i];
+                if (pick < 0) {
+                    return i;
+                }
+            }
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.jeizas.service.rules;
+
+import com.jeizas.model.mahjong.ClaimWindow;
+
+/**
+ * 弃牌声明裁决：计算各座位对一张弃牌可做的声明（胡/杠/碰），并按“胡 > 杠 > 碰、同级按出牌者下家起的座次”裁决
+ * 声明位与决定取值见 {@link ClaimWindow}
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+public final class ClaimArbiter {
+
+    /** 裁决结果：仍需等待未决定的座位 */
+    public static final int PENDING = -2;
+
+    /** 裁决结果：所有座位都放弃 */
+    public static final int NONE = -1;
+
+    /**
+     * 私有构造函数，禁止实例化
+     */
+    private ClaimArbiter() {
+    }
+
+    /**
+     * 一次遍历计算每个座位对弃牌的可选声明
+     *
+     * @param counts 各座位的手牌计数数组（出牌者可为null，计算胡牌时临时修改，返回前恢复）
+     * @param meldCounts 各座位的副露组数
+     * @param discarder 出牌者座位
+     * @param tileIndex 弃牌索引
+     * @return 各座位的可选声明位掩码，出牌者为0
+     */
+    public static int[] options(int[][] counts, int[] meldCounts, int discarder, int tileIndex) {
+        int[] options = new int[counts.length];
+        for (int seat = 0; seat < counts.length; seat++) {
+            int[] hand = counts[seat];
+            if (seat == discarder || hand == null) {
+                continue;
+            }
+            int held = hand[tileIndex];
+            int mask = 0;
+            if (held >= 2) {
+                mask |= ClaimWindow.PENG;
+            }
+            if (held >= 3) {
+                mask |= ClaimWindow.GANG;
+            }
+            hand[tileIndex]++;
+            if (ShantenCalculator.isWin(hand, meldCounts[seat])) {
+                mask |= ClaimWindow.WIN;
+            }
+            hand[tileIndex]--;
+            options[seat] = mask;
+        }
+        return options;
+    }
+
+    /**
+     * 声明的优先级
+     *
+     * @param claim 单个声明位或 {@link ClaimWindow#PASS}
+     * @return 优先级，越大越优先，过为0
+     */
+    public static int priority(int claim) {
+        switch (claim) {
+            case ClaimWindow.WIN:
+                return 3;
+            case ClaimWindow.GANG:
+                return 2;
+            case ClaimWindow.PENG:
+                return 1;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * 可选声明中的最高优先级
+     *
+     * @param options 可选声明位掩码
+     * @return 最高优先级，无可选声明为0
+     */
+    public static int bestPriority(int options) {
+        if ((options & ClaimWindow.WIN) != 0) {
+            return priority(ClaimWindow.WIN);
+        }
+        if ((options & ClaimWindow.GANG) != 0) {
+            return priority(ClaimWindow.GANG);
+        }
+        return (options & ClaimWindow.PENG) != 0 ? priority(ClaimWindow.PENG) : 0;
+    }
+
+    /**
+     * 裁决声明窗口
+     *
+     * @param window 声明窗口
+     * @return 胜出的座位，{@link #NONE} 表示全部放弃，{@link #PENDING} 表示仍需等待
+     */
+    public static int resolve(ClaimWindow window) {
+        return resolve(window.getOptions(), window.getDecisions(), window.getDiscarderIndex());
+    }
+
+    /**
+     * 裁决当前的声明：已决定的最优声明不可能再被任何未决定的座位超过时即可定案
+     *
+     * @param options 各座位的可选声明
+     * @param decisions 各座位的决定
+     * @param discarder 出牌者座位
+     * @return 胜出的座位，{@link #NONE} 表示全部放弃，{@link #PENDING} 表示仍需等待
+     */
+    public static int resolve(int[] options, int[] decisions, int discarder) {
+        int seats = options.length;
+        int bestSeat = NONE;
+        int bestPriority = 0;
+        for (int step = 1; step < seats; step++) {
+            int seat = (discarder + step) % seats;
+            if (decisions[seat] != ClaimWindow.UNDECIDED && priority(decisions[seat]) > bestPriority) {
+                bestSeat = seat;
+                bestPriority = priority(decisions[seat]);
+            }
+        }
+        for (int step = 1; step < seats; step++) {
+            int seat = (discarder + step) % seats;
+            if (decisions[seat] != ClaimWindow.UNDECIDED || options[seat] == 0) {
+                continue;
+            }
+            int possible = bestPriority(options[seat]);
+            boolean ahead = bestSeat == NONE || step < (bestSeat - discarder + seats) % seats;
+            if (possible > bestPriority || (possible == bestPriority && ahead)) {
+                return PENDING;
+            }
+        }
+        return bestSeat;
+    }
+}
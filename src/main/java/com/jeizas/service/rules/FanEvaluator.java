@@ -0,0 +1,358 @@
+package com.jeizas.service.rules;
+
+import com.jeizas.model.mahjong.MahjongMeld;
+import com.jeizas.model.mahjong.MahjongTile;
+
+import java.util.List;
+
+/**
+ * 番型计算器：枚举和牌的所有拆分（将 + 面子），每种拆分归约为番种位掩码，按规则表求番数最高的拆分
+ * 与拆分无关的特征（花色、幺九、门清、自摸）只计算一次，拆分内只用位运算判断顺子/刻子相关番种
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+public final class FanEvaluator {
+
+    /** 箭牌（中发白）起始索引 */
+    private static final int DRAGON_START = 31;
+
+    /** 一气通贯的顺子起点（1、4、7）掩码 */
+    private static final int STRAIGHT = 0b1001001;
+
+    /** 各番种覆盖（不再另计）的番种掩码，按番种序号排列 */
+    private static final long[] SUPPRESSES = new long[FanPattern.values().length];
+
+    static {
+        long dragonPungs = FanPattern.RED_DRAGON.bit() | FanPattern.GREEN_DRAGON.bit()
+                | FanPattern.WHITE_DRAGON.bit();
+        SUPPRESSES[FanPattern.BIG_THREE_DRAGONS.ordinal()] = dragonPungs;
+        SUPPRESSES[FanPattern.SMALL_THREE_DRAGONS.ordinal()] = dragonPungs;
+        SUPPRESSES[FanPattern.SEVEN_PAIRS.ordinal()] = FanPattern.CONCEALED.bit();
+    }
+
+    /**
+     * 私有构造函数，禁止实例化
+     */
+    private FanEvaluator() {
+    }
+
+    /**
+     * 计算和牌的番型
+     *
+     * @param counts 手牌计数数组（含和牌张，搜索时临时修改，返回前恢复）
+     * @param melds 已碰/杠的牌组
+     * @param selfDrawn 是否自摸
+     * @param rules 番数规则表
+     * @return 番数最高的拆分对应的结果
+     */
+    public static FanResult evaluate(int[] counts, List<MahjongMeld> melds, boolean selfDrawn, FanRuleSet rules) {
+        Search search = new Search(counts, rules);
+        long common = commonPatterns(counts, melds, selfDrawn);
+        search.consider(common);
+
+        if (melds.isEmpty() && isSevenPairs(counts)) {
+            search.consider(common | FanPattern.SEVEN_PAIRS.bit());
+        }
+
+        for (MahjongMeld meld : melds) {
+            search.addPung(TileCodec.indexOf(meld.getTiles().get(0)));
+        }
+        search.common = common;
+        for (int i = 0; i < TileCodec.KINDS; i++) {
+            if (counts[i] >= 2) {
+                counts[i] -= 2;
+                search.pair = i;
+                search.run(0);
+                counts[i] += 2;
+            }
+        }
+        return new FanResult(search.bestMask, Math.max(search.bestFan, 0));
+    }
+
+    /**
+     * 计算手牌加副露的番型（便捷方法）
+     *
+     * @param hand 手牌（含和牌张）
+     * @param melds 已碰/杠的牌组
+     * @param selfDrawn 是否自摸
+     * @param rules 番数规则表
+     * @return 番型结果
+     */
+    public static FanResult evaluate(List<MahjongTile> hand, List<MahjongMeld> melds, boolean selfDrawn,
+                                     FanRuleSet rules) {
+        return evaluate(TileCodec.toCounts(hand), melds, selfDrawn, rules);
+    }
+
+    /**
+     * 计算与拆分无关的番种
+     *
+     * @param counts 手牌计数数组
+     * @param melds 已碰/杠的牌组
+     * @param selfDrawn 是否自摸
+     * @return 番型掩码
+     */
+    private static long commonPatterns(int[] counts, List<MahjongMeld> melds, boolean selfDrawn) {
+        int suits = 0;
+        boolean honors = false;
+        boolean terminals = false;
+        boolean open = false;
+        for (int i = 0; i < TileCodec.KINDS; i++) {
+            if (counts[i] > 0) {
+                suits |= suitBit(i);
+                honors |= !TileCodec.isSuited(i);
+                terminals |= isTerminalOrHonor(i);
+            }
+        }
+        for (MahjongMeld meld : melds) {
+            int index = TileCodec.indexOf(meld.getTiles().get(0));
+            suits |= suitBit(index);
+            honors |= !TileCodec.isSuited(index);
+            terminals |= isTerminalOrHonor(index);
+            open |= meld.getType() != MahjongMeld.MeldType.ANGANG;
+        }
+
+        long mask = 0;
+        if (selfDrawn) {
+            mask |= FanPattern.SELF_DRAWN.bit();
+        }
+        if (!open) {
+            mask |= FanPattern.CONCEALED.bit();
+        }
+        if (!terminals) {
+            mask |= FanPattern.ALL_SIMPLES.bit();
+        }
+        if (suits == 0) {
+            mask |= FanPattern.ALL_HONORS.bit();
+        } else if (Integer.bitCount(suits) == 1) {
+            mask |= honors ? FanPattern.HALF_FLUSH.bit() : FanPattern.FULL_FLUSH.bit();
+        }
+        return mask;
+    }
+
+    /**
+     * 判断是否为七对（七种不同的对子）
+     *
+     * @param counts 手牌计数数组
+     * @return 是否七对
+     */
+    private static boolean isSevenPairs(int[] counts) {
+        int pairs = 0;
+        for (int count : counts) {
+            if (count == 2) {
+                pairs++;
+            } else if (count != 0) {
+                return false;
+            }
+        }
+        return pairs == 7;
+    }
+
+    /**
+     * 数牌的花色位（万1、条2、筒4），字牌为0
+     *
+     * @param index 牌索引
+     * @return 花色位
+     */
+    private static int suitBit(int index) {
+        return TileCodec.isSuited(index) ? 1 << (index / 9) : 0;
+    }
+
+    /**
+     * 判断是否为幺九牌或字牌
+     *
+     * @param index 牌索引
+     * @return 是否幺九或字牌
+     */
+    private static boolean isTerminalOrHonor(int index) {
+        return !TileCodec.isSuited(index) || index % 9 == 0 || index % 9 == 8;
+    }
+
+    /**
+     * 面子拆分搜索，拆分状态全部用计数和位掩码表示，回溯时恢复
+     */
+    private static final class Search {
+
+        /** 手牌计数数组 */
+        private final int[] counts;
+
+        /** 番数规则表 */
+        private final FanRuleSet rules;
+
+        /** 与拆分无关的番型掩码 */
+        private long common;
+
+        /** 当前拆分的将 */
+        private int pair;
+
+        /** 刻子/杠数（含副露） */
+        private int pungs;
+
+        /** 顺子数 */
+        private int chows;
+
+        /** 箭牌刻子掩码（中1、发2、白4） */
+        private int dragonPungs;
+
+        /** 各花色顺子起点掩码（第 n 位表示点数 n+1 起的顺子） */
+        private final int[] chowStarts = new int[3];
+
+        /** 同一花色相同顺子的组数 */
+        private int doubleChows;
+
+        /** 最高番数 */
+        private int bestFan = -1;
+
+        /** 最高番数对应的计分掩码 */
+        private long bestMask;
+
+        /**
+         * 构造函数
+         *
+         * @param counts 手牌计数数组
+         * @param rules 番数规则表
+         */
+        Search(int[] counts, FanRuleSet rules) {
+            this.counts = counts;
+            this.rules = rules;
+        }
+
+        /**
+         * 记入一组刻子/杠
+         *
+         * @param index 牌索引
+         */
+        void addPung(int index) {
+            pungs++;
+            if (index >= DRAGON_START) {
+                dragonPungs |= 1 << (index - DRAGON_START);
+            }
+        }
+
+        /**
+         * 撤销一组刻子/杠
+         *
+         * @param index 牌索引
+         */
+        void removePung(int index) {
+            pungs--;
+            if (index >= DRAGON_START) {
+                dragonPungs &= ~(1 << (index - DRAGON_START));
+            }
+        }
+
+        /**
+         * 按规则表给番型掩码计分，番数更高时记为最优
+         *
+         * @param mask 番型掩码
+         */
+        void consider(long mask) {
+            long suppressed = 0;
+            for (long bits = mask; bits != 0; bits &= bits - 1) {
+                suppressed |= SUPPRESSES[Long.numberOfTrailingZeros(bits)];
+            }
+            long scored = 0;
+            int fan = 0;
+            for (long bits = mask & ~suppressed; bits != 0; bits &= bits - 1) {
+                int ordinal = Long.numberOfTrailingZeros(bits);
+                int value = rules.fan(ordinal);
+                if (value > 0) {
+                    scored |= 1L << ordinal;
+                    fan += value;
+                }
+            }
+            if (fan > bestFan) {
+                bestFan = fan;
+                bestMask = scored;
+            }
+        }
+
+        /**
+         * 从指定索引开始拆出刻子或顺子，全部拆完时计算该拆分的番型
+         *
+         * @param start 起始索引
+         */
+        void run(int start) {
+            int i = start;
+            while (i < TileCodec.KINDS && counts[i] == 0) {
+                i++;
+            }
+            if (i == TileCodec.KINDS) {
+                consider(patterns());
+                return;
+            }
+            if (counts[i] >= 3) {
+                counts[i] -= 3;
+                addPung(i);
+                run(i);
+                removePung(i);
+                counts[i] += 3;
+            }
+            if (TileCodec.isSuited(i) && i % 9 <= 6 && counts[i + 1] > 0 && counts[i + 2] > 0) {
+                int suit = i / 9;
+                int bit = 1 << (i % 9);
+                boolean repeated = (chowStarts[suit] & bit) != 0;
+                int savedStarts = chowStarts[suit];
+                counts[i]--;
+                counts[i + 1]--;
+                counts[i + 2]--;
+                chows++;
+                chowStarts[suit] |= bit;
+                if (repeated) {
+                    doubleChows++;
+                }
+                run(i);
+                if (repeated) {
+                    doubleChows--;
+                }
+                chowStarts[suit] = savedStarts;
+                chows--;
+                counts[i]++;
+                counts[i + 1]++;
+                counts[i + 2]++;
+            }
+        }
+
+        /**
+         * 当前拆分的番型掩码
+         *
+         * @return 番型掩码
+         */
+        long patterns() {
+            long mask = common;
+            if (chows == 0) {
+                mask |= FanPattern.ALL_PUNGS.bit();
+            }
+            if (pungs == 0 && TileCodec.isSuited(pair)) {
+                mask |= FanPattern.ALL_CHOWS.bit();
+            }
+            if ((dragonPungs & 1) != 0) {
+                mask |= FanPattern.RED_DRAGON.bit();
+            }
+            if ((dragonPungs & 2) != 0) {
+                mask |= FanPattern.GREEN_DRAGON.bit();
+            }
+            if ((dragonPungs & 4) != 0) {
+                mask |= FanPattern.WHITE_DRAGON.bit();
+            }
+            int dragons = Integer.bitCount(dragonPungs);
+            if (dragons == 3) {
+                mask |= FanPattern.BIG_THREE_DRAGONS.bit();
+            } else if (dragons == 2 && pair >= DRAGON_START) {
+                mask |= FanPattern.SMALL_THREE_DRAGONS.bit();
+            }
+            if (doubleChows > 0) {
+                mask |= FanPattern.PURE_DOUBLE_CHOW.bit();
+            }
+            if ((chowStarts[0] & chowStarts[1] & chowStarts[2]) != 0) {
+                mask |= FanPattern.MIXED_TRIPLE_CHOW.bit();
+            }
+            for (int starts : chowStarts) {
+                if ((starts & STRAIGHT) == STRAIGHT) {
+                    mask |= FanPattern.PURE_STRAIGHT.bit();
+                }
+            }
+            return mask;
+        }
+    }
+}
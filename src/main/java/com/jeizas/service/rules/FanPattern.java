@@ -0,0 +1,81 @@
+package com.jeizas.service.rules;
+
+/**
+ * 番种，每个番种在番型掩码中占一位（第 ordinal 位）
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+public enum FanPattern {
+
+    /** 自摸 */
+    SELF_DRAWN("自摸"),
+
+    /** 门前清：没有碰或明杠 */
+    CONCEALED("门前清"),
+
+    /** 断幺九：没有幺九牌和字牌 */
+    ALL_SIMPLES("断幺九"),
+
+    /** 平和：四组顺子，将为数牌 */
+    ALL_CHOWS("平和"),
+
+    /** 碰碰和：四组刻子/杠 */
+    ALL_PUNGS("碰碰和"),
+
+    /** 混一色：一种数牌加字牌 */
+    HALF_FLUSH("混一色"),
+
+    /** 清一色：只有一种数牌 */
+    FULL_FLUSH("清一色"),
+
+    /** 字一色：只有字牌 */
+    ALL_HONORS("字一色"),
+
+    /** 七对 */
+    SEVEN_PAIRS("七对"),
+
+    /** 红中刻子 */
+    RED_DRAGON("中刻"),
+
+    /** 发财刻子 */
+    GREEN_DRAGON("发刻"),
+
+    /** 白板刻子 */
+    WHITE_DRAGON("白刻"),
+
+    /** 一般高：同一花色两组相同的顺子 */
+    PURE_DOUBLE_CHOW("一般高"),
+
+    /** 三色同顺：三种花色同点数的顺子 */
+    MIXED_TRIPLE_CHOW("三色同顺"),
+
+    /** 一气通贯：同一花色 123、456、789 */
+    PURE_STRAIGHT("一气通贯"),
+
+    /** 小三元：两组箭牌刻子加箭牌将 */
+    SMALL_THREE_DRAGONS("小三元"),
+
+    /** 大三元：三组箭牌刻子 */
+    BIG_THREE_DRAGONS("大三元");
+
+    /** 显示名称 */
+    private final String displayName;
+
+    FanPattern(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * 番种在掩码中的位
+     *
+     * @return 位掩码
+     */
+    public long bit() {
+        return 1L << ordinal();
+    }
+}
@@ -0,0 +1,49 @@
+package com.jeizas.service.rules;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 番型计算结果
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+@Data
+@AllArgsConstructor
+public class FanResult {
+
+    /** 命中的番种掩码（已去掉被更大番种覆盖的番种） */
+    private long patterns;
+
+    /** 总番数 */
+    private int fan;
+
+    /**
+     * 判断是否命中某番种
+     *
+     * @param pattern 番种
+     * @return 是否命中
+     */
+    public boolean has(FanPattern pattern) {
+        return (patterns & pattern.bit()) != 0;
+    }
+
+    /**
+     * 命中番种的显示名称
+     *
+     * @return 番种名称列表
+     */
+    public List<String> names() {
+        List<String> names = new ArrayList<>();
+        for (FanPattern pattern : FanPattern.values()) {
+            if (has(pattern)) {
+                names.add(pattern.getDisplayName());
+            }
+        }
+        return names;
+    }
+}
@@ -0,0 +1,115 @@
+package com.jeizas.service.rules;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * 番数规则表：每个番种的番数，0 表示该规则不计此番
+ * 内置 classic（只计七对与自摸，与旧版计分一致）和 standard（全部番种）两套，可再按 “番种=番数” 覆盖
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+public final class FanRuleSet {
+
+    /** 规则名称 */
+    private final String name;
+
+    /** 按番种序号排列的番数 */
+    private final int[] fans;
+
+    /**
+     * 构造函数
+     *
+     * @param name 规则名称
+     * @param fans 按番种序号排列的番数
+     */
+    private FanRuleSet(String name, int[] fans) {
+        this.name = name;
+        this.fans = fans;
+    }
+
+    /**
+     * 获取内置规则
+     *
+     * @param name 规则名称（classic 或 standard）
+     * @return 规则表
+     */
+    public static FanRuleSet preset(String name) {
+        int[] fans = new int[FanPattern.values().length];
+        switch (name.toLowerCase(Locale.ROOT)) {
+            case "classic":
+                fans[FanPattern.SELF_DRAWN.ordinal()] = 1;
+                fans[FanPattern.SEVEN_PAIRS.ordinal()] = 1;
+                break;
+            case "standard":
+                fans[FanPattern.SELF_DRAWN.ordinal()] = 1;
+                fans[FanPattern.CONCEALED.ordinal()] = 1;
+                fans[FanPattern.ALL_SIMPLES.ordinal()] = 1;
+                fans[FanPattern.ALL_CHOWS.ordinal()] = 1;
+                fans[FanPattern.ALL_PUNGS.ordinal()] = 2;
+                fans[FanPattern.HALF_FLUSH.ordinal()] = 2;
+                fans[FanPattern.FULL_FLUSH.ordinal()] = 4;
+                fans[FanPattern.ALL_HONORS.ordinal()] = 6;
+                fans[FanPattern.SEVEN_PAIRS.ordinal()] = 2;
+                fans[FanPattern.RED_DRAGON.ordinal()] = 1;
+                fans[FanPattern.GREEN_DRAGON.ordinal()] = 1;
+                fans[FanPattern.WHITE_DRAGON.ordinal()] = 1;
+                fans[FanPattern.PURE_DOUBLE_CHOW.ordinal()] = 1;
+                fans[FanPattern.MIXED_TRIPLE_CHOW.ordinal()] = 2;
+                fans[FanPattern.PURE_STRAIGHT.ordinal()] = 2;
+                fans[FanPattern.SMALL_THREE_DRAGONS.ordinal()] = 4;
+                fans[FanPattern.BIG_THREE_DRAGONS.ordinal()] = 6;
+                break;
+            default:
+                throw new IllegalArgumentException("未知的计分规则: " + name);
+        }
+        return new FanRuleSet(name, fans);
+    }
+
+    /**
+     * 按 “番种=番数,番种=番数” 覆盖部分番种的番数
+     *
+     * @param spec 覆盖配置，为空时返回自身
+     * @return 新的规则表
+     */
+    public FanRuleSet withOverrides(String spec) {
+        if (spec == null || spec.trim().isEmpty()) {
+            return this;
+        }
+        int[] overridden = Arrays.copyOf(fans, fans.length);
+        for (String entry : spec.split(",")) {
+            int eq = entry.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("番数覆盖格式应为 番种=番数: " + entry);
+            }
+            FanPattern pattern = FanPattern.valueOf(entry.substring(0, eq).trim().toUpperCase(Locale.ROOT));
+            overridden[pattern.ordinal()] = Integer.parseInt(entry.substring(eq + 1).trim());
+        }
+        return new FanRuleSet(name, overridden);
+    }
+
+    /**
+     * 获取番种的番数
+     *
+     * @param pattern 番种
+     * @return 番数，0 表示不计
+     */
+    public int fan(FanPattern pattern) {
+        return fans[pattern.ordinal()];
+    }
+
+    /**
+     * 按序号获取番数
+     *
+     * @param ordinal 番种序号
+     * @return 番数
+     */
+    int fan(int ordinal) {
+        return fans[ordinal];
+    }
+
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,58 @@
+package com.jeizas.service.rules;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 单手牌的分析结果，空字段不输出
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class HandAnalysis {
+
+    /** 在请求中的序号（从0开始），结果按完成顺序返回 */
+    private int index;
+
+    /** 原始牌串 */
+    private String hand;
+
+    /** 是否已和牌（仅 3n+2 张时给出） */
+    private Boolean win;
+
+    /** 向听数，-1 表示已和牌 */
+    private Integer shanten;
+
+    /** 听的牌（3n+1 张且听牌时给出） */
+    private List<String> waits;
+
+    /** 最优打法（3n+2 张且未和牌时给出），按有效进张降序 */
+    private List<Discard> discards;
+
+    /** 牌串错误时的原因 */
+    private String error;
+
+    /**
+     * 打法候选
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Discard {
+
+        /** 打出的牌 */
+        private String tile;
+
+        /** 打出后的向听数 */
+        private int shanten;
+
+        /** 有效进张数（能减少向听数的牌的剩余张数之和） */
+        private int acceptance;
+    }
+}
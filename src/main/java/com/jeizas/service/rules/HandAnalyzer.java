@@ -0,0 +1,130 @@
+package com.jeizas.service.rules;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 手牌分析：和牌判定、向听数、听牌和最优打法，副露组数按 (14 - 张数) / 3 推算
+ * 剩余张数只扣除自己手中的牌
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+public final class HandAnalyzer {
+
+    /**
+     * 私有构造函数，禁止实例化
+     */
+    private HandAnalyzer() {
+    }
+
+    /**
+     * 分析牌串
+     *
+     * @param index 在请求中的序号
+     * @param notation 牌串
+     * @return 分析结果，牌串有误时 error 字段给出原因
+     */
+    public static HandAnalysis analyze(int index, String notation) {
+        HandAnalysis result = new HandAnalysis();
+        result.setIndex(index);
+        result.setHand(notation);
+        int[] counts;
+        try {
+            counts = TileNotation.parse(notation);
+        } catch (IllegalArgumentException e) {
+            result.setError(e.getMessage());
+            return result;
+        }
+        int size = 0;
+        for (int count : counts) {
+            size += count;
+        }
+        if (size == 0 || size > 14 || size % 3 == 0) {
+            result.setError("张数应为 3n+1 或 3n+2 且不超过14: " + size);
+            return result;
+        }
+
+        int meldCount = (14 - size) / 3;
+        int shanten = ShantenCalculator.shanten(counts, meldCount);
+        result.setShanten(shanten);
+        if (size % 3 == 1) {
+            if (shanten == 0) {
+                result.setWaits(waits(counts, meldCount));
+            }
+        } else {
+            result.setWin(shanten == -1);
+            if (shanten >= 0) {
+                result.setDiscards(bestDiscards(counts, meldCount));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 听牌时能和的牌
+     *
+     * @param counts 3n+1 张手牌计数
+     * @param meldCount 副露组数
+     * @return 听的牌
+     */
+    private static List<String> waits(int[] counts, int meldCount) {
+        List<String> waits = new ArrayList<>();
+        for (int draw = 0; draw < TileCodec.KINDS; draw++) {
+            if (counts[draw] >= 4) {
+                continue;
+            }
+            counts[draw]++;
+            if (ShantenCalculator.isWin(counts, meldCount)) {
+                waits.add(TileNotation.format(draw));
+            }
+            counts[draw]--;
+        }
+        return waits;
+    }
+
+    /**
+     * 向听数最小的打法，只对这些打法计算有效进张
+     *
+     * @param counts 3n+2 张手牌计数
+     * @param meldCount 副露组数
+     * @return 打法候选，按有效进张降序
+     */
+    private static List<HandAnalysis.Discard> bestDiscards(int[] counts, int meldCount) {
+        int[] after = new int[TileCodec.KINDS];
+        int best = Integer.MAX_VALUE;
+        for (int discard = 0; discard < TileCodec.KINDS; discard++) {
+            if (counts[discard] == 0) {
+                continue;
+            }
+            counts[discard]--;
+            after[discard] = ShantenCalculator.shanten(counts, meldCount);
+            counts[discard]++;
+            best = Math.min(best, after[discard]);
+        }
+
+        List<HandAnalysis.Discard> discards = new ArrayList<>();
+        for (int discard = 0; discard < TileCodec.KINDS; discard++) {
+            if (counts[discard] == 0 || after[discard] != best) {
+                continue;
+            }
+            counts[discard]--;
+            int acceptance = 0;
+            for (int draw = 0; draw < TileCodec.KINDS; draw++) {
+                int unseen = 4 - counts[draw] - (draw == discard ? 1 : 0);
+                if (unseen <= 0) {
+                    continue;
+                }
+                counts[draw]++;
+                if (ShantenCalculator.shanten(counts, meldCount) < best) {
+                    acceptance += unseen;
+                }
+                counts[draw]--;
+            }
+            counts[discard]++;
+            discards.add(new HandAnalysis.Discard(TileNotation.format(discard), best, acceptance));
+        }
+        discards.sort((a, b) -> Integer.compare(b.getAcceptance(), a.getAcceptance()));
+        return discards;
+    }
+}
@@ -0,0 +1,210 @@
+package com.jeizas.service.rules;
+
+/**
+ * 向听数计算器，基于计数数组搜索面子/搭子的最优拆分
+ * 向听数 -1 表示已和牌，0 表示听牌
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+public final class ShantenCalculator {
+
+    /**
+     * 私有构造函数，禁止实例化
+     */
+    private ShantenCalculator() {
+    }
+
+    /**
+     * 计算向听数（标准型与七对子取较小值）
+     *
+     * @param counts 手牌计数数组（会被临时修改，返回前恢复）
+     * @param meldCount 已碰/杠的副露组数
+     * @return 向听数
+     */
+    public static int shanten(int[] counts, int meldCount) {
+        int standard = standardShanten(counts, meldCount);
+        if (meldCount == 0) {
+            return Math.min(standard, sevenPairsShanten(counts));
+        }
+        return standard;
+    }
+
+    /**
+     * 判断手牌是否已和牌
+     *
+     * @param counts 手牌计数数组
+     * @param meldCount 已碰/杠的副露组数
+     * @return 是否和牌
+     */
+    public static boolean isWin(int[] counts, int meldCount) {
+        return shanten(counts, meldCount) == -1;
+    }
+
+    /**
+     * 计算七对子向听数
+     *
+     * @param counts 手牌计数数组
+     * @return 向听数
+     */
+    public static int sevenPairsShanten(int[] counts) {
+        int pairs = 0;
+        int kinds = 0;
+        for (int count : counts) {
+            if (count > 0) {
+                kinds++;
+            }
+            if (count >= 2) {
+                pairs++;
+            }
+        }
+        return 6 - pairs + Math.max(0, 7 - kinds);
+    }
+
+    /**
+     * 计算标准型（一对将 + 4组面子）向听数，优先查构建时生成的拆分表
+     *
+     * @param counts 手牌计数数组
+     * @param meldCount 已碰/杠的副露组数
+     * @return 向听数
+     */
+    public static int standardShanten(int[] counts, int meldCount) {
+        ShantenTables tables = ShantenTables.get();
+        if (tables != null) {
+            return tables.standardShanten(counts, meldCount);
+        }
+        return searchShanten(counts, meldCount);
+    }
+
+    /**
+     * 搜索计算标准型向听数（拆分表不可用时使用）
+     *
+     * @param counts 手牌计数数组（会被临时修改，返回前恢复）
+     * @param meldCount 已碰/杠的副露组数
+     * @return 向听数
+     */
+    static int searchShanten(int[] counts, int meldCount) {
+        Search search = new Search(counts, meldCount);
+        search.run(0, 0, 0, 0);
+        for (int i = 0; i < TileCodec.KINDS; i++) {
+            if (counts[i] >= 2) {
+                counts[i] -= 2;
+                search.run(0, 0, 0, 1);
+                counts[i] += 2;
+            }
+        }
+        return search.best;
+    }
+
+    /**
+     * 面子/搭子拆分搜索
+     */
+    private static final class Search {
+
+        /** 手牌计数数组 */
+        private final int[] counts;
+
+        /** 副露组数 */
+        private final int meldCount;
+
+        /** 当前最小向听数 */
+        private int best = 8;
+
+        /**
+         * 构造函数
+         *
+         * @param counts 手牌计数数组
+         * @param meldCount 副露组数
+         */
+        Search(int[] counts, int meldCount) {
+            this.counts = counts;
+            this.meldCount = meldCount;
+        }
+
+        /**
+         * 估算当前分支可能达到的最小向听数，剩余牌全部优先组成面子
+         *
+         * @param start 剩余牌的起始索引
+         * @param totalMelds 面子总数（含副露）
+         * @param usable 计入的搭子数
+         * @param pair 是否已有雀头
+         * @return 向听数下界
+         */
+        int lowerBound(int start, int totalMelds, int usable, int pair) {
+            int remaining = 0;
+            for (int i = start; i < TileCodec.KINDS; i++) {
+                remaining += counts[i];
+            }
+            int slots = 4 - totalMelds - usable;
+            int extraMelds = Math.min(slots, remaining / 3);
+            int extraPartials = Math.min(slots - extraMelds, (remaining - 3 * extraMelds) / 2);
+            return 8 - 2 * (totalMelds + extraMelds) - usable - extraPartials - pair;
+        }
+
+        /**
+         * 从指定索引开始依次尝试拆出面子、搭子或孤张
+         *
+         * @param start 起始索引
+         * @param melds 已拆出的面子数
+         * @param partials 已拆出的搭子数
+         * @param pair 是否已有雀头（0或1）
+         */
+        void run(int start, int melds, int partials, int pair) {
+            int i = start;
+            while (i < TileCodec.KINDS && counts[i] == 0) {
+                i++;
+            }
+            int totalMelds = melds + meldCount;
+            int usable = Math.min(partials, 4 - totalMelds);
+            if (i == TileCodec.KINDS) {
+                best = Math.min(best, 8 - 2 * totalMelds - usable - pair);
+                return;
+            }
+            if (lowerBound(i, totalMelds, usable, pair) >= best) {
+                return;
+            }
+
+            boolean suited = TileCodec.isSuited(i);
+            int rank = i % 9;
+            if (counts[i] >= 3) {
+                counts[i] -= 3;
+                run(i, melds + 1, partials, pair);
+                counts[i] += 3;
+            }
+            if (suited && rank <= 6 && counts[i + 1] > 0 && counts[i + 2] > 0) {
+                counts[i]--;
+                counts[i + 1]--;
+                counts[i + 2]--;
+                run(i, melds + 1, partials, pair);
+                counts[i]++;
+                counts[i + 1]++;
+                counts[i + 2]++;
+            }
+            if (totalMelds + partials < 4) {
+                if (counts[i] >= 2) {
+                    counts[i] -= 2;
+                    run(i, melds, partials + 1, pair);
+                    counts[i] += 2;
+                }
+                if (suited && rank <= 7 && counts[i + 1] > 0) {
+                    counts[i]--;
+                    counts[i + 1]--;
+                    run(i, melds, partials + 1, pair);
+                    counts[i]++;
+                    counts[i + 1]++;
+                }
+                if (suited && rank <= 6 && counts[i + 2] > 0) {
+                    counts[i]--;
+                    counts[i + 2]--;
+                    run(i, melds, partials + 1, pair);
+                    counts[i]++;
+                    counts[i + 2]++;
+                }
+            }
+            int saved = counts[i];
+            counts[i] = 0;
+            run(i + 1, melds, partials, pair);
+            counts[i] = saved;
+        }
+    }
+}
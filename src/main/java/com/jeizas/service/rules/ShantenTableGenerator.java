@@ -0,0 +1,174 @@
+package com.jeizas.service.rules;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+/**
+ * 向听数拆分表生成器，构建时由 exec-maven-plugin 在 process-classes 阶段调用，输出到 target/classes/mahjong
+ * 表以单个花色（数牌9种或字牌7种）的计数组合为键（五进制），每项记录拆出 m 组面子、有/无雀头时最多的搭子数，
+ * 运行时按花色查表后合并即得标准型向听数，见 {@link ShantenTables}
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+public final class ShantenTableGenerator {
+
+    /** 单个花色最多的牌数（超过的组合不会出现在合法手牌中） */
+    private static final int MAX_TILES = 14;
+
+    /**
+     * 私有构造函数，禁止实例化
+     */
+    private ShantenTableGenerator() {
+    }
+
+    /**
+     * 生成数牌表与字牌表，已存在且版本一致的表不重复生成
+     *
+     * @param args args[0] 为输出目录
+     * @throws IOException 写文件失败
+     */
+    public static void main(String[] args) throws IOException {
+        Path dir = Paths.get(args.length > 0 ? args[0] : "target/classes/mahjong");
+        Files.createDirectories(dir);
+        write(dir.resolve(ShantenTables.SUITED_FILE), 9, true);
+        write(dir.resolve(ShantenTables.HONOR_FILE), 7, false);
+    }
+
+    /**
+     * 生成一张表并写入文件（先写临时文件再原子替换）
+     *
+     * @param file 目标文件
+     * @param kinds 花色内的牌种数
+     * @param suited 是否为数牌（可组成顺子）
+     * @throws IOException 写文件失败
+     */
+    static void write(Path file, int kinds, boolean suited) throws IOException {
+        if (Files.exists(file) && ShantenTables.isValid(file, kinds)) {
+            return;
+        }
+        long start = System.nanoTime();
+        byte[] table = build(kinds, suited);
+        Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        Files.write(temp, table);
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        System.out.printf("生成 %s：%d 字节，耗时 %d ms%n", file, table.length,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * 构建一张表（含文件头）
+     *
+     * @param kinds 花色内的牌种数
+     * @param suited 是否为数牌
+     * @return 表内容
+     */
+    static byte[] build(int kinds, boolean suited) {
+        int entries = ShantenTables.pow5(kinds);
+        ByteBuffer buffer = ByteBuffer.allocate(ShantenTables.HEADER_BYTES + entries * ShantenTables.ENTRY_BYTES);
+        buffer.putInt(ShantenTables.MAGIC).putInt(ShantenTables.VERSION << 8 | kinds);
+        byte[] impossible = new byte[ShantenTables.ENTRY_BYTES];
+        Arrays.fill(impossible, (byte) 0xFF);
+
+        int[] counts = new int[kinds];
+        int[] best = new int[ShantenTables.SLOTS];
+        for (int key = 0; key < entries; key++) {
+            int total = 0;
+            for (int i = 0, rest = key; i < kinds; i++, rest /= 5) {
+                counts[i] = rest % 5;
+                total += counts[i];
+            }
+            if (total > MAX_TILES) {
+                buffer.put(impossible);
+                continue;
+            }
+            Arrays.fill(best, -1);
+            search(counts, suited, 0, 0, 0, 0, best);
+            for (int slot = 0; slot < ShantenTables.SLOTS; slot += 2) {
+                buffer.put((byte) (nibble(best[slot]) | nibble(best[slot + 1]) << 4));
+            }
+        }
+        return buffer.array();
+    }
+
+    /**
+     * 搜索单个花色的所有面子/搭子拆分，记录每个（雀头，面子数）组合下最多的搭子数
+     *
+     * @param counts 花色内的计数（搜索时临时修改）
+     * @param suited 是否为数牌
+     * @param start 起始位置
+     * @param melds 已拆出的面子数
+     * @param partials 已拆出的搭子数
+     * @param pair 是否已有雀头
+     * @param best 结果，下标为 pair * 5 + melds
+     */
+    private static void search(int[] counts, boolean suited, int start, int melds, int partials, int pair,
+                               int[] best) {
+        int i = start;
+        while (i < counts.length && counts[i] == 0) {
+            i++;
+        }
+        if (i == counts.length) {
+            if (melds <= 4) {
+                int slot = pair * 5 + melds;
+                best[slot] = Math.max(best[slot], Math.min(partials, 14));
+            }
+            return;
+        }
+        if (counts[i] >= 3) {
+            counts[i] -= 3;
+            search(counts, suited, i, melds + 1, partials, pair, best);
+            counts[i] += 3;
+        }
+        if (suited && i <= counts.length - 3 && counts[i + 1] > 0 && counts[i + 2] > 0) {
+            counts[i]--;
+            counts[i + 1]--;
+            counts[i + 2]--;
+            search(counts, suited, i, melds + 1, partials, pair, best);
+            counts[i]++;
+            counts[i + 1]++;
+            counts[i + 2]++;
+        }
+        if (counts[i] >= 2) {
+            counts[i] -= 2;
+            if (pair == 0) {
+                search(counts, suited, i, melds, partials, 1, best);
+            }
+            search(counts, suited, i, melds, partials + 1, pair, best);
+            counts[i] += 2;
+        }
+        if (suited && i <= counts.length - 2 && counts[i + 1] > 0) {
+            counts[i]--;
+            counts[i + 1]--;
+            search(counts, suited, i, melds, partials + 1, pair, best);
+            counts[i]++;
+            counts[i + 1]++;
+        }
+        if (suited && i <= counts.length - 3 && counts[i + 2] > 0) {
+            counts[i]--;
+            counts[i + 2]--;
+            search(counts, suited, i, melds, partials + 1, pair, best);
+            counts[i]++;
+            counts[i + 2]++;
+        }
+        int saved = counts[i];
+        counts[i] = 0;
+        search(counts, suited, i + 1, melds, partials, pair, best);
+        counts[i] = saved;
+    }
+
+    /**
+     * 把搭子数编码为半字节，不可达记为 {@link ShantenTables#IMPOSSIBLE}
+     *
+     * @param partials 搭子数，-1 表示不可达
+     * @return 半字节
+     */
+    private static int nibble(int partials) {
+        return partials < 0 ? ShantenTables.IMPOSSIBLE : partials;
+    }
+}
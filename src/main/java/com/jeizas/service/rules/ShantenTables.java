@@ -0,0 +1,345 @@
+package com.jeizas.service.rules;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * 构建时生成的向听数拆分表，运行时以只读内存映射加载，启动无需建表，同一主机上的多个 JVM 共享页缓存
+ * 表在 classes 目录中时直接映射；打包在 jar 中时先解压到临时目录下当前用户独占的目录（按版本和长度命名，
+ * 同一用户的多个进程共用一份）再映射，其他用户无法预先放入或替换表文件。
+ * 找不到表时（如未经 Maven 构建直接在 IDE 中运行）{@link #get()} 返回 null，调用方回退到搜索
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+@Slf4j
+public final class ShantenTables {
+
+    /** 数牌表文件名 */
+    public static final String SUITED_FILE = "shanten-suited.bin";
+
+    /** 字牌表文件名 */
+    public static final String HONOR_FILE = "shanten-honor.bin";
+
+    /** 文件头魔数 "MJST" */
+    static final int MAGIC = 0x4D4A5354;
+
+    /** 表格式版本 */
+    static final int VERSION = 1;
+
+    /** 文件头字节数（魔数 + 版本与牌种数） */
+    static final int HEADER_BYTES = 8;
+
+    /** 每项的槽位数：有/无雀头 × 面子数 0-4 */
+    static final int SLOTS = 10;
+
+    /** 每项字节数（每槽位半字节） */
+    static final int ENTRY_BYTES = SLOTS / 2;
+
+    /** 不可达槽位的取值 */
+    static final int IMPOSSIBLE = 15;
+
+    /** 表在类路径中的目录 */
+    private static final String RESOURCE_DIR = "/mahjong/";
+
+    /** 数牌表 */
+    private final ByteBuffer suited;
+
+    /** 字牌表 */
+    private final ByteBuffer honors;
+
+    /**
+     * 构造函数
+     *
+     * @param suited 数牌表
+     * @param honors 字牌表
+     */
+    private ShantenTables(ByteBuffer suited, ByteBuffer honors) {
+        this.suited = suited;
+        this.honors = honors;
+    }
+
+    /**
+     * 获取已加载的表
+     *
+     * @return 表，类路径中没有表时返回null
+     */
+    public static ShantenTables get() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * 延迟加载持有者
+     */
+    private static final class Holder {
+
+        /** 表实例 */
+        private static final ShantenTables INSTANCE = load();
+    }
+
+    /**
+     * 从类路径映射两张表
+     *
+     * @return 表，加载失败时返回null
+     */
+    private static ShantenTables load() {
+        try {
+            ByteBuffer suited = map(SUITED_FILE, 9);
+            ByteBuffer honors = map(HONOR_FILE, 7);
+            if (suited == null || honors == null) {
+                log.warn("类路径中没有向听数拆分表，回退到搜索计算（请通过 Maven 构建生成）");
+                return null;
+            }
+            return new ShantenTables(suited, honors);
+        } catch (IOException | RuntimeException e) {
+            log.warn("加载向听数拆分表失败，回退到搜索计算", e);
+            return null;
+        }
+    }
+
+    /**
+     * 只读映射一张表
+     *
+     * @param name 文件名
+     * @param kinds 牌种数
+     * @return 映射后的表，找不到时返回null
+     * @throws IOException 读取失败
+     */
+    private static ByteBuffer map(String name, int kinds) throws IOException {
+        URL url = ShantenTables.class.getResource(RESOURCE_DIR + name);
+        if (url == null) {
+            return null;
+        }
+        Path file = "file".equals(url.getProtocol()) ? toPath(url) : extract(url, name);
+        if (!isValid(file, kinds)) {
+            throw new IOException("向听数拆分表版本或长度不符: " + file);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /**
+     * 把 file 协议的地址转换为路径
+     *
+     * @param url 资源地址
+     * @return 路径
+     * @throws IOException 地址非法
+     */
+    private static Path toPath(URL url) throws IOException {
+        try {
+            return Paths.get(url.toURI());
+        } catch (URISyntaxException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * 把 jar 中的表解压到当前用户独占的临时目录，已解压过的直接复用
+     *
+     * @param url 资源地址
+     * @param name 文件名
+     * @return 解压后的文件
+     * @throws IOException 解压失败
+     */
+    private static Path extract(URL url, String name) throws IOException {
+        URLConnection connection = url.openConnection();
+        long length = connection.getContentLengthLong();
+        Path dir = privateDir();
+        Path file = dir.resolve("v" + VERSION + "-" + length + "-" + name);
+        if (Files.isRegularFile(file, LinkOption.NOFOLLOW_LINKS) && Files.size(file) == length) {
+            return file;
+        }
+        Path temp = Files.createTempFile(dir, name, ".tmp");
+        try (InputStream in = connection.getInputStream()) {
+            Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return file;
+    }
+
+    /**
+     * 当前用户独占的解压目录：按用户名命名，POSIX 文件系统上权限为 rwx------；
+     * 该目录不是当前用户所有（如被其他用户预先创建）、是符号链接或对其他用户可写时，改用本进程独有的临时目录
+     *
+     * @return 解压目录
+     * @throws IOException 创建失败
+     */
+    private static Path privateDir() throws IOException {
+        String user = System.getProperty("user.name");
+        Path dir = Paths.get(System.getProperty("java.io.tmpdir"), "game-tables-" + user);
+        if (!FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            return Files.createDirectories(dir);
+        }
+        Set<PosixFilePermission> ownerOnly = PosixFilePermissions.fromString("rwx------");
+        if (!Files.exists(dir, LinkOption.NOFOLLOW_LINKS)) {
+            try {
+                Files.createDirectory(dir, PosixFilePermissions.asFileAttribute(ownerOnly));
+            } catch (FileAlreadyExistsException ignored) {
+                // 并发启动的其他进程已创建，下面统一校验
+            }
+        }
+        Path own = Files.createTempDirectory("game-tables");
+        PosixFileAttributes attributes = Files.getFileAttributeView(dir, PosixFileAttributeView.class,
+                LinkOption.NOFOLLOW_LINKS).readAttributes();
+        UserPrincipal self = Files.getOwner(own);
+        if (attributes.isDirectory() && attributes.owner().equals(self)
+                && attributes.permissions().equals(ownerOnly)) {
+            Files.delete(own);
+            return dir;
+        }
+        log.warn("向听数拆分表目录 {} 不是当前用户独占，改用本进程的临时目录 {}", dir, own);
+        return own;
+    }
+
+    /**
+     * 校验表文件的魔数、版本与长度
+     *
+     * @param file 表文件
+     * @param kinds 牌种数
+     * @return 是否有效
+     * @throws IOException 读取失败
+     */
+    static boolean isValid(Path file, int kinds) throws IOException {
+        if (Files.size(file) != HEADER_BYTES + (long) pow5(kinds) * ENTRY_BYTES) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            channel.read(header, 0);
+            header.flip();
+            return header.getInt() == MAGIC && header.getInt() == (VERSION << 8 | kinds);
+        }
+    }
+
+    /**
+     * 5 的幂
+     *
+     * @param exponent 指数
+     * @return 5^exponent
+     */
+    static int pow5(int exponent) {
+        int result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result *= 5;
+        }
+        return result;
+    }
+
+    /**
+     * 查表计算标准型（一对将 + 4组面子）向听数，与搜索计算结果一致
+     *
+     * @param counts 手牌计数数组
+     * @param meldCount 已碰/杠的副露组数
+     * @return 向听数
+     */
+    public int standardShanten(int[] counts, int meldCount) {
+        int[] combined = new int[SLOTS];
+        int[] next = new int[SLOTS];
+        load(honors, key(counts, TileCodec.HONOR_START, 7), combined);
+        int[] group = new int[SLOTS];
+        for (int offset = 0; offset < TileCodec.HONOR_START; offset += 9) {
+            load(suited, key(counts, offset, 9), group);
+            merge(combined, group, next);
+            int[] swap = combined;
+            combined = next;
+            next = swap;
+        }
+
+        int best = 8;
+        for (int pair = 0; pair <= 1; pair++) {
+            for (int melds = 0; melds + meldCount <= 4; melds++) {
+                int partials = combined[pair * 5 + melds];
+                if (partials >= 0) {
+                    int totalMelds = melds + meldCount;
+                    best = Math.min(best, 8 - 2 * totalMelds - Math.min(partials, 4 - totalMelds) - pair);
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * 计算花色内计数组合的五进制键
+     *
+     * @param counts 手牌计数数组
+     * @param offset 花色起始索引
+     * @param kinds 花色内的牌种数
+     * @return 键
+     */
+    private static int key(int[] counts, int offset, int kinds) {
+        int key = 0;
+        for (int i = offset + kinds - 1; i >= offset; i--) {
+            key = key * 5 + counts[i];
+        }
+        return key;
+    }
+
+    /**
+     * 读出一项的全部槽位，不可达记为 -1
+     *
+     * @param table 表
+     * @param key 键
+     * @param slots 输出
+     */
+    private static void load(ByteBuffer table, int key, int[] slots) {
+        int base = HEADER_BYTES + key * ENTRY_BYTES;
+        for (int i = 0; i < ENTRY_BYTES; i++) {
+            int packed = table.get(base + i) & 0xFF;
+            int low = packed & 0x0F;
+            int high = packed >>> 4;
+            slots[2 * i] = low == IMPOSSIBLE ? -1 : low;
+            slots[2 * i + 1] = high == IMPOSSIBLE ? -1 : high;
+        }
+    }
+
+    /**
+     * 合并两组拆分：雀头至多一个、面子数相加，取搭子数之和的最大值
+     *
+     * @param left 左侧槽位
+     * @param right 右侧槽位
+     * @param out 输出槽位
+     */
+    private static void merge(int[] left, int[] right, int[] out) {
+        Arrays.fill(out, -1);
+        for (int leftPair = 0; leftPair <= 1; leftPair++) {
+            for (int leftMelds = 0; leftMelds <= 4; leftMelds++) {
+                int a = left[leftPair * 5 + leftMelds];
+                if (a < 0) {
+                    continue;
+                }
+                for (int rightPair = 0; rightPair + leftPair <= 1; rightPair++) {
+                    for (int rightMelds = 0; rightMelds + leftMelds <= 4; rightMelds++) {
+                        int b = right[rightPair * 5 + rightMelds];
+                        int slot = (leftPair + rightPair) * 5 + leftMelds + rightMelds;
+                        if (b >= 0 && a + b > out[slot]) {
+                            out[slot] = a + b;
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.jeizas.service.rules;
+
+import com.jeizas.model.mahjong.MahjongTile;
+
+import java.util.List;
+
+/**
+ * 牌编码工具，将牌映射为 0-33 的索引，用计数数组表示手牌以便快速计算
+ * 索引布局：万 0-8，条 9-17，筒 18-26，风 27-30（东南西北），箭 31-33（中发白）
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+public final class TileCodec {
+
+    /** 牌的种类数 */
+    public static final int KINDS = 34;
+
+    /** 字牌（风、箭）起始索引 */
+    public static final int HONOR_START = 27;
+
+    /** 各类型在索引中的起始偏移，按 TileType 序号排列 */
+    private static final int[] TYPE_OFFSET = {0, 9, 18, 27, 31};
+
+    /** 索引到牌的映射 */
+    private static final MahjongTile[] TILES = new MahjongTile[KINDS];
+
+    static {
+        for (MahjongTile.TileType type : MahjongTile.TileType.values()) {
+            for (int value = 1; value <= MahjongTile.maxValue(type); value++) {
+                TILES[TYPE_OFFSET[type.ordinal()] + value - 1] = MahjongTile.of(type, value);
+            }
+        }
+    }
+
+    /**
+     * 私有构造函数，禁止实例化
+     */
+    private TileCodec() {
+    }
+
+    /**
+     * 获取牌的索引
+     *
+     * @param tile 牌
+     * @return 0-33 的索引
+     */
+    public static int indexOf(MahjongTile tile) {
+        return TYPE_OFFSET[tile.getType().ordinal()] + tile.getValue() - 1;
+    }
+
+    /**
+     * 根据索引获取共享牌实例
+     *
+     * @param index 0-33 的索引
+     * @return 牌
+     */
+    public static MahjongTile tileAt(int index) {
+        return TILES[index];
+    }
+
+    /**
+     * 判断索引是否为数牌（万、条、筒）
+     *
+     * @param index 牌索引
+     * @return 是否为数牌
+     */
+    public static boolean isSuited(int index) {
+        return index < HONOR_START;
+    }
+
+    /**
+     * 统计手牌中每种牌的数量
+     *
+     * @param tiles 牌列表
+     * @return 长度为34的计数数组
+     */
+    public static int[] toCounts(List<MahjongTile> tiles) {
+        int[] counts = new int[KINDS];
+        addCounts(counts, tiles);
+        return counts;
+    }
+
+    /**
+     * 将牌列表累加到计数数组
+     *
+     * @param counts 计数数组
+     * @param tiles 牌列表
+     */
+    public static void addCounts(int[] counts, List<MahjongTile> tiles) {
+        for (MahjongTile tile : tiles) {
+            counts[indexOf(tile)]++;
+        }
+    }
+}
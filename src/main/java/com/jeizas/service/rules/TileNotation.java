@@ -0,0 +1,87 @@
+package com.jeizas.service.rules;
+
+/**
+ * 紧凑牌串记法：数字后跟花色字母，m 万、s 条、p 筒、z 字牌（1-7 依次为东南西北中发白），如 123m456p789s11z
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+public final class TileNotation {
+
+    /** 各花色字母在索引中的起始偏移 */
+    private static final String SUITS = "msp";
+
+    /**
+     * 私有构造函数，禁止实例化
+     */
+    private TileNotation() {
+    }
+
+    /**
+     * 解析牌串为计数数组
+     *
+     * @param notation 牌串
+     * @return 长度为34的计数数组
+     * @throws IllegalArgumentException 牌串格式错误或某种牌超过4张
+     */
+    public static int[] parse(String notation) {
+        int[] counts = new int[TileCodec.KINDS];
+        int pendingStart = 0;
+        int length = notation.length();
+        for (int i = 0; i < length; i++) {
+            char c = notation.charAt(i);
+            if (c >= '0' && c <= '9') {
+                continue;
+            }
+            int offset = offsetOf(c);
+            int max = c == 'z' ? 7 : 9;
+            if (i == pendingStart) {
+                throw new IllegalArgumentException("花色 " + c + " 前缺少数字");
+            }
+            for (int j = pendingStart; j < i; j++) {
+                int value = notation.charAt(j) - '0';
+                if (value < 1 || value > max) {
+                    throw new IllegalArgumentException("无效的牌: " + value + c);
+                }
+                if (++counts[offset + value - 1] > 4) {
+                    throw new IllegalArgumentException("超过4张: " + value + c);
+                }
+            }
+            pendingStart = i + 1;
+        }
+        if (pendingStart != length) {
+            throw new IllegalArgumentException("牌串末尾缺少花色: " + notation);
+        }
+        return counts;
+    }
+
+    /**
+     * 把牌索引格式化为牌串记法
+     *
+     * @param index 牌索引
+     * @return 如 5p、7z
+     */
+    public static String format(int index) {
+        if (!TileCodec.isSuited(index)) {
+            return (index - TileCodec.HONOR_START + 1) + "z";
+        }
+        return (index % 9 + 1) + String.valueOf(SUITS.charAt(index / 9));
+    }
+
+    /**
+     * 花色字母对应的起始索引
+     *
+     * @param suit 花色字母
+     * @return 起始索引
+     */
+    private static int offsetOf(char suit) {
+        if (suit == 'z') {
+            return TileCodec.HONOR_START;
+        }
+        int position = SUITS.indexOf(suit);
+        if (position < 0) {
+            throw new IllegalArgumentException("未知的花色: " + suit);
+        }
+        return position * 9;
+    }
+}
@@ -0,0 +1,66 @@
+package com.jeizas.web;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * 静态资源缓存头：清单中的资源以构建时的内容哈希作为 ETag，条件请求命中时直接返回 304，不读取资源；
+ * 文件名带哈希的资源内容永不变化，允许浏览器缓存一年且不再校验；HTML 入口每次校验（命中时只有响应头）。
+ * 同一资源的 br/gz/原始版本语义相同，使用弱 ETag
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+public class StaticAssetCacheFilter extends OncePerRequestFilter {
+
+    /** 文件名带哈希的资源的缓存策略 */
+    static final String IMMUTABLE = "public, max-age=31536000, immutable";
+
+    /** HTML 入口等不带哈希的资源的缓存策略：可以缓存，但每次使用前校验 */
+    static final String REVALIDATE = "no-cache";
+
+    /** 静态资源清单 */
+    private final StaticAssetManifest manifest;
+
+    /**
+     * 构造函数
+     *
+     * @param manifest 静态资源清单
+     */
+    public StaticAssetCacheFilter(StaticAssetManifest manifest) {
+        this.manifest = manifest;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String method = request.getMethod();
+        return manifest.size() == 0 || !("GET".equals(method) || "HEAD".equals(method));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.startsWith("/")) {
+            path = path.substring(1);
+        }
+        String hash = manifest.hashOf(path);
+        if (hash == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        response.setHeader(HttpHeaders.CACHE_CONTROL, manifest.isImmutable(path) ? IMMUTABLE : REVALIDATE);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (new ServletWebRequest(request, response).checkNotModified("W/\"" + hash + "\"")) {
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+}
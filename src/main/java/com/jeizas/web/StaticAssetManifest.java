@@ -0,0 +1,116 @@
+package com.jeizas.web;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * 静态资源清单：构建时由 StaticAssetBuilder（测试源码中的构建工具）写出的资源路径到内容哈希的映射，
+ * 内容哈希即 ETag；文件名中带有自身哈希的资源内容永不变化，可以长期缓存
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+@Slf4j
+public class StaticAssetManifest {
+
+    /** 清单在类路径中的位置（类路径根目录，不在静态资源目录内，不对外提供） */
+    public static final String LOCATION = "asset-manifest.properties";
+
+    /** 资源路径（相对静态资源根，不带前导斜杠）到内容哈希的映射 */
+    private final Map<String, String> hashes;
+
+    /**
+     * 构造函数
+     *
+     * @param hashes 资源路径到内容哈希的映射
+     */
+    public StaticAssetManifest(Map<String, String> hashes) {
+        this.hashes = Collections.unmodifiableMap(new HashMap<>(hashes));
+    }
+
+    /**
+     * 从类路径加载清单，未经构建步骤（如在 IDE 中直接运行）时返回空清单
+     *
+     * @return 清单
+     */
+    public static StaticAssetManifest load() {
+        ClassPathResource resource = new ClassPathResource(LOCATION);
+        if (!resource.exists()) {
+            log.info("未找到静态资源清单 {}，静态资源不带 ETag 与长期缓存", LOCATION);
+            return new StaticAssetManifest(Collections.emptyMap());
+        }
+        Properties properties = new Properties();
+        try (InputStream in = resource.getInputStream()) {
+            properties.load(in);
+        } catch (IOException e) {
+            log.warn("读取静态资源清单失败", e);
+            return new StaticAssetManifest(Collections.emptyMap());
+        }
+        Map<String, String> hashes = new HashMap<>(properties.size() * 2);
+        for (String name : properties.stringPropertyNames()) {
+            hashes.put(name, properties.getProperty(name));
+        }
+        return new StaticAssetManifest(hashes);
+    }
+
+    /**
+     * 获取资源的内容哈希
+     *
+     * @param path 资源路径（相对静态资源根，不带前导斜杠）
+     * @return 内容哈希，不在清单中时返回null
+     */
+    public String hashOf(String path) {
+        return hashes.get(path);
+    }
+
+    /**
+     * 资源是否按内容哈希命名（内容永不变化）
+     *
+     * @param path 资源路径
+     * @return 是否按内容哈希命名
+     */
+    public boolean isImmutable(String path) {
+        String hash = hashes.get(path);
+        return hash != null && path.equals(fingerprint(stripHash(path, hash), hash));
+    }
+
+    /**
+     * 带内容哈希的文件名，构建时按此改名，运行时据此判断资源是否按内容哈希命名
+     *
+     * @param name 原文件名
+     * @param hash 内容哈希
+     * @return name-hash.ext
+     */
+    public static String fingerprint(String name, String hash) {
+        int dot = name.lastIndexOf('.');
+        return dot < 0 ? name + "-" + hash : name.substring(0, dot) + "-" + hash + name.substring(dot);
+    }
+
+    /**
+     * 去掉文件名中的哈希
+     *
+     * @param path 资源路径
+     * @param hash 内容哈希
+     * @return 原资源路径，不含该哈希时原样返回
+     */
+    private static String stripHash(String path, String hash) {
+        int index = path.lastIndexOf("-" + hash);
+        return index < 0 ? path : path.substring(0, index) + path.substring(index + hash.length() + 1);
+    }
+
+    /**
+     * 清单中的资源数
+     *
+     * @return 资源数
+     */
+    public int size() {
+        return hashes.size();
+    }
+}
@@ -0,0 +1,410 @@
+package com.jeizas.websocket;
+
+import com.jeizas.service.GameExecutors;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 按负载准入：计时线程定期采样指令处理延迟 p99、动作执行器积压、老年代占用与会话数，
+ * 各项除以各自的预算取最大值作为负载，换算成负载等级；准入检查只读取等级，不做任何计算。
+ * 负载升高时先削减观战（ELEVATED 起拒绝新观众），过载（OVERLOADED）时再拒绝或重定向新房间、限制添加机器人，
+ * 并按配置断开部分观众；已有房间内的对局不受影响。等级升高立即生效，回落要低于阈值一定比例，避免来回抖动
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+@Slf4j
+@Component
+public class AdmissionControl {
+
+    /** 新房间策略：拒绝 */
+    public static final String POLICY_REJECT = "reject";
+
+    /** 新房间策略：重定向到溢出地址 */
+    public static final String POLICY_REDIRECT = "redirect";
+
+    /** 新房间策略：照常放行 */
+    public static final String POLICY_ALLOW = "allow";
+
+    /** 等级回落时负载须低于阈值的比例 */
+    private static final double RECOVERY_FACTOR = 0.9;
+
+    /**
+     * 负载等级
+     */
+    public enum Level {
+        /** 正常 */
+        NORMAL,
+        /** 负载偏高：拒绝新观众 */
+        ELEVATED,
+        /** 过载：另外拒绝或重定向新房间、限制添加机器人 */
+        OVERLOADED
+    }
+
+    /**
+     * 新房间准入结果
+     */
+    public enum Verdict {
+        /** 放行 */
+        ALLOW,
+        /** 拒绝 */
+        REJECT,
+        /** 重定向到溢出地址 */
+        REDIRECT
+    }
+
+    /** 是否启用 */
+    private final boolean enabled;
+
+    /** 采样间隔（毫秒） */
+    private final long sampleMillis;
+
+    /** 游戏动作执行器 */
+    private final GameExecutors executors;
+
+    /** 观战广播中心 */
+    private final SpectatorHub spectators;
+
+    /** 指令处理延迟 */
+    private final Timer actionLatency;
+
+    /** 当前会话数（含观众） */
+    private final AtomicInteger sessions = new AtomicInteger();
+
+    /** 老年代内存池，找不到时按整个堆计算 */
+    private final MemoryPoolMXBean tenured = findTenuredPool();
+
+    /** 指标注册表 */
+    private final MeterRegistry meterRegistry;
+
+    /** 拒绝计数器缓存，键为拒绝类型 */
+    private final Map<String, Counter> refused = new ConcurrentHashMap<>();
+
+    /** 过载时主动断开的观众数，与拒绝的新连接分开统计 */
+    private final Counter shedSpectators;
+
+    /** 指令处理延迟 p99 预算（毫秒） */
+    private final double latencyBudgetMillis;
+
+    /** 动作积压预算 */
+    private final int backlogBudget;
+
+    /** 老年代占用比例预算 */
+    private final double heapBudget;
+
+    /** 会话数预算 */
+    private final int sessionBudget;
+
+    /** 负载达到该比例时进入 ELEVATED */
+    private final double degradeRatio;
+
+    /** 过载时的新房间策略 */
+    private final String newRoomPolicy;
+
+    /** 重定向新房间的目标地址（如 ws://host:port） */
+    private final String overflowUrl;
+
+    /** 过载时添加机器人的令牌桶，为null时过载期间不能添加机器人 */
+    private final InboundRateLimiter.TokenBucket botBucket;
+
+    /** 过载时每次采样断开的观众数，0 表示不断开 */
+    private final int shedPerSample;
+
+    /** 当前负载等级 */
+    private volatile Level level = Level.NORMAL;
+
+    /** 最近一次采样的负载 */
+    private volatile double load;
+
+    /**
+     * 构造函数
+     *
+     * @param properties 负载准入配置
+     * @param executors 游戏动作执行器
+     * @param spectators 观战广播中心
+     * @param meterRegistry 指标注册表
+     */
+    public AdmissionControl(AdmissionProperties properties, GameExecutors executors, SpectatorHub spectators,
+                            MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.sampleMillis = Math.max(10, properties.getSampleMs());
+        this.latencyBudgetMillis = Math.max(1, properties.getLatencyP99Ms());
+        this.backlogBudget = Math.max(1, properties.getBacklog());
+        this.heapBudget = Math.min(1, Math.max(0.05, 1 - properties.getMinHeapFree()));
+        this.sessionBudget = Math.max(1, properties.getMaxSessions());
+        this.degradeRatio = Math.min(1, Math.max(0.1, properties.getDegradeRatio()));
+        this.newRoomPolicy = properties.getNewRoomPolicy();
+        this.overflowUrl = properties.getOverflowUrl() == null ? "" : properties.getOverflowUrl();
+        double botsPerSecond = properties.getBotsPerSecond();
+        this.botBucket = botsPerSecond > 0
+                ? new InboundRateLimiter.TokenBucket(botsPerSecond, (int) Math.ceil(botsPerSecond), System.nanoTime())
+                : null;
+        this.shedPerSample = Math.max(0, properties.getShedSpectatorsPerSample());
+        this.executors = executors;
+        this.spectators = spectators;
+        this.meterRegistry = meterRegistry;
+        this.actionLatency = Timer.builder("game.action.latency")
+                .description("指令处理耗时（含等待房间锁）")
+                .publishPercentiles(0.99)
+                .distributionStatisticExpiry(Duration.ofSeconds(30))
+                .distributionStatisticBufferLength(3)
+                .register(meterRegistry);
+        this.shedSpectators = Counter.builder("game.admission.shed")
+                .description("过载时主动断开的观众数")
+                .register(meterRegistry);
+        Gauge.builder("game.admission.level", this, control -> control.level.ordinal())
+                .description("负载等级：0 正常，1 偏高，2 过载")
+                .register(meterRegistry);
+        Gauge.builder("game.admission.load", this, control -> control.load)
+                .description("负载（各项信号与预算之比的最大值）")
+                .register(meterRegistry);
+        Gauge.builder("game.sessions", sessions, AtomicInteger::get)
+                .description("当前会话数（含观众）")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 在计时线程上定期采样
+     */
+    @PostConstruct
+    public void start() {
+        if (enabled) {
+            executors.timer().scheduleAtFixedRate(this::safeSample, sampleMillis, sampleMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 记录一条指令的处理耗时
+     *
+     * @param nanos 耗时（纳秒）
+     */
+    public void recordAction(long nanos) {
+        actionLatency.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 会话建立
+     */
+    public void sessionOpened() {
+        sessions.incrementAndGet();
+    }
+
+    /**
+     * 会话关闭
+     */
+    public void sessionClosed() {
+        sessions.decrementAndGet();
+    }
+
+    /**
+     * 获取当前负载等级
+     *
+     * @return 负载等级
+     */
+    public Level getLevel() {
+        return level;
+    }
+
+    /**
+     * 获取重定向新房间的目标地址
+     *
+     * @return 目标地址
+     */
+    public String getOverflowUrl() {
+        return overflowUrl;
+    }
+
+    /**
+     * 新观众是否放行：负载偏高时最先拒绝
+     *
+     * @return 是否放行
+     */
+    public boolean admitSpectator() {
+        if (level == Level.NORMAL) {
+            return true;
+        }
+        count("spectator");
+        return false;
+    }
+
+    /**
+     * 创建新房间是否放行，加入已有房间不经过此检查
+     *
+     * @return 准入结果
+     */
+    public Verdict admitNewRoom() {
+        if (level != Level.OVERLOADED || POLICY_ALLOW.equalsIgnoreCase(newRoomPolicy)) {
+            return Verdict.ALLOW;
+        }
+        count("room");
+        return POLICY_REDIRECT.equalsIgnoreCase(newRoomPolicy) && !overflowUrl.isEmpty()
+                ? Verdict.REDIRECT : Verdict.REJECT;
+    }
+
+    /**
+     * 添加机器人是否放行：过载期间整个节点共用一个令牌桶限速
+     *
+     * @return 是否放行
+     */
+    public boolean admitBot() {
+        if (level != Level.OVERLOADED || (botBucket != null && botBucket.tryAcquire(System.nanoTime()))) {
+            return true;
+        }
+        count("bot");
+        return false;
+    }
+
+    /**
+     * 采样，异常只记录日志，不能让定时任务因此停止
+     */
+    private void safeSample() {
+        try {
+            Level current = evaluate(latencyP99Millis(), executors.backlog(), heapUsedRatio(), sessions.get());
+            if (current == Level.OVERLOADED && shedPerSample > 0) {
+                executors.execute(() -> {
+                    int shed = spectators.shed(shedPerSample);
+                    if (shed > 0) {
+                        shedSpectators.increment(shed);
+                    }
+                });
+            }
+        } catch (RuntimeException e) {
+            log.error("负载采样失败", e);
+        }
+    }
+
+    /**
+     * 根据各项信号计算负载并更新等级
+     *
+     * @param p99Millis 指令处理延迟 p99（毫秒）
+     * @param backlog 动作积压
+     * @param heapUsed 老年代占用比例
+     * @param sessionCount 会话数
+     * @return 更新后的等级
+     */
+    Level evaluate(double p99Millis, int backlog, double heapUsed, int sessionCount) {
+        double current = Math.max(Math.max(p99Millis / latencyBudgetMillis, (double) backlog / backlogBudget),
+                Math.max(heapUsed / heapBudget, (double) sessionCount / sessionBudget));
+        Level previous = level;
+        Level next = levelOf(current);
+        if (next.ordinal() < previous.ordinal() && current > thresholdOf(previous) * RECOVERY_FACTOR) {
+            next = previous;
+        }
+        load = current;
+        level = next;
+        if (next != previous) {
+            log.warn("负载等级 {} -> {}：负载 {}，p99 {}ms，积压 {}，老年代占用 {}，会话 {}", previous, next,
+                    String.format("%.2f", current), String.format("%.1f", p99Millis), backlog,
+                    String.format("%.2f", heapUsed), sessionCount);
+        }
+        return next;
+    }
+
+    /**
+     * 负载对应的等级
+     *
+     * @param value 负载
+     * @return 等级
+     */
+    private Level levelOf(double value) {
+        if (value >= 1) {
+            return Level.OVERLOADED;
+        }
+        return value >= degradeRatio ? Level.ELEVATED : Level.NORMAL;
+    }
+
+    /**
+     * 进入等级的负载阈值
+     *
+     * @param value 等级
+     * @return 阈值
+     */
+    private double thresholdOf(Level value) {
+        return value == Level.OVERLOADED ? 1 : degradeRatio;
+    }
+
+    /**
+     * 最近一个统计窗口内指令处理延迟的 p99
+     *
+     * @return p99（毫秒），没有数据时为0
+     */
+    private double latencyP99Millis() {
+        for (ValueAtPercentile percentile : actionLatency.takeSnapshot().percentileValues()) {
+            if (percentile.percentile() == 0.99) {
+                return percentile.value(TimeUnit.MILLISECONDS);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * 老年代占用比例：取最近一次回收后的占用（存活数据），不计入两次老年代回收之间累积的垃圾；
+     * JVM 不提供回收后占用时退回当前占用
+     *
+     * @return 占用比例
+     */
+    private double heapUsedRatio() {
+        if (tenured != null) {
+            MemoryUsage usage = tenured.getCollectionUsage();
+            if (usage == null) {
+                usage = tenured.getUsage();
+            }
+            long max = usage.getMax() > 0 ? usage.getMax() : Runtime.getRuntime().maxMemory();
+            return (double) usage.getUsed() / max;
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return (double) (runtime.totalMemory() - runtime.freeMemory()) / runtime.maxMemory();
+    }
+
+    /**
+     * 查找老年代内存池
+     *
+     * @return 老年代内存池，找不到时返回null
+     */
+    private static MemoryPoolMXBean findTenuredPool() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            String name = pool.getName();
+            if (pool.getType() == MemoryType.HEAP && (name.contains("Old") || name.contains("Tenured"))) {
+                return pool;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 拒绝计数加一
+     *
+     * @param kind 拒绝类型
+     */
+    private void count(String kind) {
+        counter(kind).increment();
+    }
+
+    /**
+     * 获取拒绝计数器
+     *
+     * @param kind 拒绝类型
+     * @return 计数器
+     */
+    private Counter counter(String kind) {
+        return refused.computeIfAbsent(kind, k -> Counter.builder("game.admission.refused")
+                .tag("kind", k)
+                .register(meterRegistry));
+    }
+}
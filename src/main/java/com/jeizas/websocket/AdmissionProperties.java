@@ -0,0 +1,50 @@
+package com.jeizas.websocket;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 负载准入配置（game.admission.*），默认值只在此处定义，取值范围由 AdmissionControl 构造时约束
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "game.admission")
+public class AdmissionProperties {
+
+    /** 是否启用 */
+    private boolean enabled = true;
+
+    /** 采样间隔（毫秒） */
+    private long sampleMs = 1000;
+
+    /** 指令处理延迟 p99 预算（毫秒） */
+    private double latencyP99Ms = 200;
+
+    /** 动作积压预算 */
+    private int backlog = 1000;
+
+    /** 老年代至少保留的空闲比例 */
+    private double minHeapFree = 0.15;
+
+    /** 会话数预算 */
+    private int maxSessions = 20000;
+
+    /** 负载达到该比例时开始削减观战 */
+    private double degradeRatio = 0.8;
+
+    /** 过载时的新房间策略：reject、redirect 或 allow */
+    private String newRoomPolicy = AdmissionControl.POLICY_REJECT;
+
+    /** 重定向新房间的目标地址，为空时 redirect 按 reject 处理 */
+    private String overflowUrl = "";
+
+    /** 过载期间整个节点每秒最多添加的机器人数，0 表示不能添加 */
+    private double botsPerSecond = 1;
+
+    /** 过载时每次采样断开的观众数，0 表示不断开 */
+    private int shedSpectatorsPerSample;
+}
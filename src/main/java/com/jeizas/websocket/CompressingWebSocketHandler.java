@@ -0,0 +1,100 @@
+package com.jeizas.websocket;
+
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 压缩处理器装饰：握手协商了 {@link MessageCompressor#PROTOCOL} 的会话被包装为压缩会话，
+ * 被装饰的处理器在所有回调中拿到的都是同一个包装实例，其后经该会话发出的文本消息按阈值压缩
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+public class CompressingWebSocketHandler extends WebSocketHandlerDecorator {
+
+    /** 消息压缩器 */
+    private final MessageCompressor compressor;
+
+    /** 会话ID到压缩会话的映射 */
+    private final Map<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * 构造函数
+     *
+     * @param delegate 被装饰的处理器
+     * @param compressor 消息压缩器
+     */
+    public CompressingWebSocketHandler(WebSocketHandler delegate, MessageCompressor compressor) {
+        super(delegate);
+        this.compressor = compressor;
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        if (MessageCompressor.PROTOCOL.equals(session.getAcceptedProtocol())) {
+            CompressingSession compressing = new CompressingSession(session, compressor);
+            sessions.put(session.getId(), compressing);
+            super.afterConnectionEstablished(compressing);
+        } else {
+            super.afterConnectionEstablished(session);
+        }
+    }
+
+    @Override
+    public void handleMessage(WebSocketSession session, WebSocketMessage<?> message) throws Exception {
+        super.handleMessage(sessions.getOrDefault(session.getId(), session), message);
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) throws Exception {
+        super.handleTransportError(sessions.getOrDefault(session.getId(), session), exception);
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+        WebSocketSession compressing = sessions.remove(session.getId());
+        super.afterConnectionClosed(compressing != null ? compressing : session, closeStatus);
+    }
+
+    /**
+     * 压缩会话：超过阈值的文本消息改为二进制压缩帧发送，广播给多个会话的同一帧复用压缩器中已有的压缩结果
+     */
+    static final class CompressingSession extends WebSocketSessionDecorator {
+
+        /** 消息压缩器 */
+        private final MessageCompressor compressor;
+
+        /**
+         * 构造函数
+         *
+         * @param delegate 原始会话
+         * @param compressor 消息压缩器
+         */
+        CompressingSession(WebSocketSession delegate, MessageCompressor compressor) {
+            super(delegate);
+            this.compressor = compressor;
+        }
+
+        @Override
+        public void sendMessage(WebSocketMessage<?> message) throws IOException {
+            if (message instanceof TextMessage && message.isLast()) {
+                BinaryMessage compressed = compressor.compress(((TextMessage) message).getPayload());
+                if (compressed != null) {
+                    super.sendMessage(compressed);
+                    return;
+                }
+            }
+            super.sendMessage(message);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.jeizas.websocket;
+
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.web.socket.WebSocketExtension;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.server.support.DefaultHandshakeHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 压缩握手处理：客户端声明 {@link MessageCompressor#PROTOCOL} 子协议时接受该协议，
+ * 并去掉容器自带的 permessage-deflate（它会压缩每一帧，包括很短的消息和已压缩的二进制帧），
+ * 未声明的客户端仍按容器默认协商 permessage-deflate
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+public class CompressionHandshakeHandler extends DefaultHandshakeHandler {
+
+    /** 容器的逐帧压缩扩展名 */
+    private static final String PERMESSAGE_DEFLATE = "permessage-deflate";
+
+    /**
+     * 构造函数
+     */
+    public CompressionHandshakeHandler() {
+        setSupportedProtocols(MessageCompressor.PROTOCOL);
+    }
+
+    @Override
+    protected List<WebSocketExtension> filterRequestedExtensions(ServerHttpRequest request,
+                                                                 List<WebSocketExtension> requestedExtensions,
+                                                                 List<WebSocketExtension> supportedExtensions) {
+        List<WebSocketExtension> extensions = super.filterRequestedExtensions(request, requestedExtensions,
+                supportedExtensions);
+        if (!new WebSocketHttpHeaders(request.getHeaders()).getSecWebSocketProtocol()
+                .contains(MessageCompressor.PROTOCOL)) {
+            return extensions;
+        }
+        List<WebSocketExtension> result = new ArrayList<>(extensions.size());
+        for (WebSocketExtension extension : extensions) {
+            if (!PERMESSAGE_DEFLATE.equalsIgnoreCase(extension.getName())) {
+                result.add(extension);
+            }
+        }
+        return result;
+    }
+}
@@ -1,17 +1,31 @@
 package com.jeizas.websocket;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jeizas.cluster.RoomMigratable;
+import com.jeizas.cluster.RoomOwnershipListener;
+import com.jeizas.cluster.RoomRouter;
+import com.jeizas.jfr.GameEvents;
 import com.jeizas.model.GameMessage;
 import com.jeizas.model.GameRoom;
+import com.jeizas.model.GameRoomSnapshot;
+import com.jeizas.model.RoomSummary;
+import com.jeizas.service.GameExecutors;
+import com.jeizas.service.RoomSummaryRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.handler.TextWebSocketHandler;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 五子棋WebSocket处理器，处理游戏相关的WebSocket连接和消息
@@ -20,7 +34,8 @@ import java.util.concurrent.ConcurrentHashMap;
  * @date 2025-11-29
  */
 @Slf4j
-public class GomokuWebSocketHandler extends TextWebSocketHandler {
+public class GomokuWebSocketHandler extends TextWebSocketHandler
+        implements IdleReclaimable, RoomOwnershipListener, RoomMigratable<GameRoomSnapshot> {
 
     /** JSON对象映射器 */
     private static final ObjectMapper objectMapper = new ObjectMapper();
@@ -34,6 +49,56 @@ public class GomokuWebSocketHandler extends TextWebSocketHandler {
     /** 默认房间ID */
     private static final String DEFAULT_ROOM = "default";
 
+    /** 观战广播中心 */
+    @Autowired
+    private SpectatorHub spectators;
+
+    /** 房间路由器 */
+    @Autowired
+    private RoomRouter roomRouter;
+
+    /** 入站消息限流 */
+    @Autowired
+    private InboundRateLimiter rateLimiter;
+
+    /** 房间摘要登记表 */
+    @Autowired
+    private RoomSummaryRegistry roomSummaries;
+
+    /** 负载准入 */
+    @Autowired
+    private AdmissionControl admission;
+
+    /** 游戏动作执行器，断线座位到期释放在其上执行 */
+    private final GameExecutors executors;
+
+    /** 断线重连令牌登记表 */
+    private final ResumeTokenRegistry resumeTokens;
+
+    /** 断线后保留座位的宽限时间（秒） */
+    @Value("${game.session.resume-grace-seconds:60}")
+    private long resumeGraceSeconds;
+
+    /** 无落子多久后回收房间（秒） */
+    @Value("${game.reaper.idle-seconds:600}")
+    private long idleSeconds;
+
+    /** 房间空闲截止时间索引 */
+    private final IdleIndex<String> idleRooms = new IdleIndex<>(1000);
+
+    /** 已迁走的房间到目标节点地址的映射，宽限期内旧地址上的连接会被转到目标节点 */
+    private final Map<String, String> movedRooms = new ConcurrentHashMap<>();
+
+    /**
+     * 构造函数
+     *
+     * @param executors 游戏动作执行器
+     */
+    public GomokuWebSocketHandler(GameExecutors executors) {
+        this.executors = executors;
+        this.resumeTokens = new ResumeTokenRegistry(executors.timer());
+    }
+
     /**
      * WebSocket连接建立后的处理
      *
@@ -43,7 +108,25 @@ public class GomokuWebSocketHandler extends TextWebSocketHandler {
     @Override
     public void afterConnectionEstablished(WebSocketSession session) throws Exception {
         log.info("新玩家连接: {}", session.getId());
-        joinRoom(session, DEFAULT_ROOM);
+        admission.sessionOpened();
+        boolean spectate = WebSocketSessionUtils.isSpectateRequest(session);
+        String roomId = spectate ? WebSocketSessionUtils.resolveRoomId(session, DEFAULT_ROOM) : DEFAULT_ROOM;
+        if (redirectIfRemote(session, roomId)) {
+            return;
+        }
+        if (spectate) {
+            if (admitSpectator(session)) {
+                spectate(session, roomId);
+            }
+            return;
+        }
+        String resumeToken = WebSocketSessionUtils.getQueryParam(session, WebSocketSessionUtils.RESUME_TOKEN_ATTR);
+        if (resumeToken != null && resumeSeat(session, resumeToken)) {
+            return;
+        }
+        if (rooms.containsKey(DEFAULT_ROOM) || admitNewRoom(session)) {
+            joinRoom(session, DEFAULT_ROOM);
+        }
     }
 
     /**
@@ -55,8 +138,15 @@ public class GomokuWebSocketHandler extends TextWebSocketHandler {
      */
     @Override
     protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
+        if (!admitInbound(session)) {
+            return;
+        }
         String payload = message.getPayload();
         log.info("收到消息: {} from {}", payload, session.getId());
+        if (SpectatorHub.isSpectator(session)) {
+            sendMessage(session, GameMessage.error("观战中不能操作"));
+            return;
+        }
 
         GameMessage gameMessage = objectMapper.readValue(payload, GameMessage.class);
         String roomId = sessionToRoom.get(session.getId());
@@ -72,18 +162,65 @@ public class GomokuWebSocketHandler extends TextWebSocketHandler {
             return;
         }
 
-        switch (gameMessage.getType()) {
-            case "MOVE":
-                handleMove(session, room, gameMessage);
-                break;
-            case "RESET":
-                handleReset(room);
-                break;
+        Object event = GameEvents.beginCommand();
+        long startNanos = System.nanoTime();
+        try {
+            switch (gameMessage.getType()) {
+                case "MOVE":
+                    handleMove(session, room, gameMessage);
+                    break;
+                case "RESET":
+                    handleReset(room);
+                    break;
+                default:
+                    log.warn("未知消息类型: {}", gameMessage.getType());
+            }
+        } finally {
+            admission.recordAction(System.nanoTime() - startNanos);
+            GameEvents.endCommand(event, "gomoku", gameMessage.getType(), roomId);
+        }
+    }
+
+    /**
+     * 过载时按策略拒绝或重定向创建新房间的连接，加入已有房间的连接不受影响
+     *
+     * @param session WebSocket会话
+     * @return 放行返回true
+     * @throws IOException IO异常
+     */
+    private boolean admitNewRoom(WebSocketSession session) throws IOException {
+        switch (admission.admitNewRoom()) {
+            case ALLOW:
+                return true;
+            case REDIRECT:
+                String redirectUrl = RoomRouter.relocate(admission.getOverflowUrl(), session);
+                log.info("节点过载，新房间重定向到 {}", redirectUrl);
+                sendMessage(session, GameMessage.redirect(redirectUrl));
+                session.close(RoomRouter.REDIRECT_STATUS);
+                return false;
             default:
-                log.warn("未知消息类型: {}", gameMessage.getType());
+                sendMessage(session, GameMessage.error("服务器繁忙，暂不能创建新房间，请稍后再试"));
+                session.close(CloseStatus.SERVICE_OVERLOAD);
+                return false;
         }
     }
 
+    /**
+     * 负载偏高时拒绝新观众
+     *
+     * @param session WebSocket会话
+     * @return 放行返回true
+     * @throws IOException IO异常
+     */
+    private boolean admitSpectator(WebSocketSession session) throws IOException {
+        if (admission.admitSpectator()) {
+            return true;
+        }
+        sendMessage(session, GameMessage.error("服务器繁忙，暂不开放观战"));
+        session.close(CloseStatus.SERVICE_OVERLOAD);
+        return false;
+    }
+
     /**
      * WebSocket连接关闭后的处理
      *
@@ -94,6 +231,10 @@ public class GomokuWebSocketHandler extends TextWebSocketHandler {
     @Override
     public void afterConnectionClosed(WebSocketSession session, CloseStatus status) throws Exception {
         log.info("玩家断开连接: {}", session.getId());
+        admission.sessionClosed();
+        if (spectators.leave(session)) {
+            return;
+        }
         leaveRoom(session);
     }
 
@@ -108,30 +249,135 @@ public class GomokuWebSocketHandler extends TextWebSocketHandler {
             String roomId) throws IOException {
         GameRoom room = rooms.computeIfAbsent(roomId, GameRoom::new);
 
-        synchronized (room.getLock()) {
-            if (room.getBlackPlayer() == null) {
+        lockRoom(room);
+        try {
+            if (room.isMigrating()) {
+                sendMessage(session, GameMessage.error("房间迁移中，请稍后再试"));
+                session.close();
+            } else if (room.getBlackPlayer() == null) {
                 room.setBlackPlayer(session);
                 sessionToRoom.put(session.getId(), roomId);
                 log.info("玩家 {} 加入房间 {} 作为黑棋", session.getId(), roomId);
+                issueResumeToken(session, roomId, 1);
+                touchRoom(room);
                 sendMessage(session, GameMessage.waiting());
             } else if (room.getWhitePlayer() == null) {
                 room.setWhitePlayer(session);
                 sessionToRoom.put(session.getId(), roomId);
+                issueResumeToken(session, roomId, 2);
+                touchRoom(room);
                 room.setGameStarted(true);
                 log.info("玩家 {} 加入房间 {} 作为白棋，游戏开始",
                         session.getId(), roomId);
 
                 sendMessage(room.getBlackPlayer(), GameMessage.gameStart(1));
                 sendMessage(room.getWhitePlayer(), GameMessage.gameStart(2));
+                publishSpectatorView(room);
             } else {
                 sendMessage(session, GameMessage.error("房间已满，请稍后再试"));
                 session.close();
             }
+        } finally {
+            room.getLock().unlock();
+        }
+    }
+
+    /**
+     * 观众加入房间，下发当前棋盘，之后随落子推送
+     *
+     * @param session WebSocket会话
+     * @param roomId  房间ID
+     * @throws IOException IO异常
+     */
+    private void spectate(WebSocketSession session, String roomId) throws IOException {
+        GameRoom room = rooms.get(roomId);
+        if (room == null) {
+            sendMessage(session, GameMessage.error("房间不存在"));
+            session.close();
+            return;
+        }
+        lockRoom(room);
+        try {
+            if (rooms.get(roomId) != room || !spectators.join(spectatorChannel(room), session)) {
+                sendMessage(session, GameMessage.error("房间不存在或观战人数已满"));
+                session.close();
+                return;
+            }
+            log.info("观众 {} 进入房间 {}", session.getId(), roomId);
+            spectators.sendTo(session, objectMapper.writeValueAsString(GameMessage.spectate(room)));
+        } finally {
+            room.getLock().unlock();
+        }
+    }
+
+    /**
+     * 为座位签发恢复令牌并告知客户端
+     *
+     * @param session WebSocket会话
+     * @param roomId  房间ID
+     * @param color   玩家颜色
+     * @throws IOException IO异常
+     */
+    private void issueResumeToken(WebSocketSession session, String roomId, int color) throws IOException {
+        String token = resumeTokens.issue(roomId, String.valueOf(color));
+        session.getAttributes().put(WebSocketSessionUtils.RESUME_TOKEN_ATTR, token);
+        sendMessage(session, GameMessage.session(token));
+    }
+
+    /**
+     * 使用恢复令牌重新接管断线期间保留的座位，并下发棋盘状态
+     *
+     * @param session     新的WebSocket会话
+     * @param resumeToken 恢复令牌
+     * @return 恢复成功返回true，令牌无效或座位已释放返回false
+     * @throws IOException IO异常
+     */
+    private boolean resumeSeat(WebSocketSession session, String resumeToken) throws IOException {
+        ResumeTokenRegistry.Reservation reservation = resumeTokens.resume(resumeToken);
+        if (reservation == null) {
+            return false;
+        }
+        GameRoom room = rooms.get(reservation.getRoomId());
+        if (room == null) {
+            resumeTokens.revoke(resumeToken);
+            return false;
+        }
+
+        int color = Integer.parseInt(reservation.getSeatId());
+        lockRoom(room);
+        try {
+            WebSocketSession held = room.getPlayerSession(color);
+            if (held == null ? !room.isMigrating() : held.isOpen()) {
+                resumeTokens.revoke(resumeToken);
+                return false;
+            }
+
+            room.replacePlayer(color, session);
+            touchRoom(room);
+            session.getAttributes().put(WebSocketSessionUtils.RESUME_TOKEN_ATTR, resumeToken);
+            sessionToRoom.put(session.getId(), room.getRoomId());
+            log.info("玩家 {} 断线重连，恢复房间 {} 的{}", session.getId(), room.getRoomId(),
+                    color == 1 ? "黑棋" : "白棋");
+
+            sendMessage(session, GameMessage.session(resumeToken));
+            if (room.isGameStarted()) {
+                sendMessage(session, GameMessage.resume(color, room));
+                sendMessage(room.getOpponent(session), GameMessage.opponentResumed());
+            } else {
+                sendMessage(session, GameMessage.waiting());
+            }
+            if (room.isMigrating() && (room.isFull() || !room.isGameStarted())) {
+                room.setMigrating(false);
+                publishSummary(room);
+            }
+        } finally {
+            room.getLock().unlock();
         }
+        return true;
     }
 
     /**
-     * 玩家离开房间
+     * 玩家离开房间，对局进行中则保留座位等待重连
      *
      * @param session WebSocket会话
      * @throws IOException IO异常
@@ -145,24 +391,78 @@ public class GomokuWebSocketHandler extends TextWebSocketHandler {
         if (room == null)
             return;
 
-        synchronized (room.getLock()) {
-            WebSocketSession opponent = room.getOpponent(session);
-
-            if (session.equals(room.getBlackPlayer())) {
-                room.setBlackPlayer(null);
-            } else if (session.equals(room.getWhitePlayer())) {
-                room.setWhitePlayer(null);
+        String resumeToken = WebSocketSessionUtils.getResumeToken(session);
+        lockRoom(room);
+        try {
+            if (room.isGameStarted() && !room.isGameOver()
+                    && resumeTokens.hold(resumeToken, resumeGraceSeconds * 1000,
+                        () -> executors.execute(() -> releaseHeldSeat(roomId, session)))) {
+                log.info("玩家 {} 掉线，保留座位 {} 秒", session.getId(), resumeGraceSeconds);
+                sendMessage(room.getOpponent(session), GameMessage.opponentOffline(resumeGraceSeconds));
+                return;
             }
+            resumeTokens.revoke(resumeToken);
+            removeFromRoom(room, session);
+        } finally {
+            room.getLock().unlock();
+        }
+    }
 
-            if (opponent != null && opponent.isOpen()) {
-                sendMessage(opponent, GameMessage.opponentLeft());
+    /**
+     * 宽限期到期仍未重连，释放保留的座位
+     *
+     * @param roomId  房间ID
+     * @param session 掉线前的WebSocket会话
+     */
+    private void releaseHeldSeat(String roomId, WebSocketSession session) {
+        GameRoom room = rooms.get(roomId);
+        if (room == null) {
+            return;
+        }
+        try {
+            lockRoom(room);
+            try {
+                if (room.getPlayerColor(session) != 0) {
+                    log.info("玩家 {} 重连超时，释放座位", session.getId());
+                    removeFromRoom(room, session);
+                }
+            } finally {
+                room.getLock().unlock();
             }
+        } catch (IOException e) {
+            log.error("释放保留座位失败", e);
+        }
+    }
 
-            room.reset();
+    /**
+     * 将玩家移出房间并重置对局，房间为空则销毁
+     *
+     * @param room    游戏房间
+     * @param session 离开玩家的WebSocket会话
+     * @throws IOException IO异常
+     */
+    private void removeFromRoom(GameRoom room, WebSocketSession session) throws IOException {
+        WebSocketSession opponent = room.getOpponent(session);
 
-            if (room.isEmpty()) {
-                rooms.remove(roomId);
-            }
+        if (session.equals(room.getBlackPlayer())) {
+            room.setBlackPlayer(null);
+        } else if (session.equals(room.getWhitePlayer())) {
+            room.setWhitePlayer(null);
+        }
+
+        if (opponent != null && opponent.isOpen()) {
+            sendMessage(opponent, GameMessage.opponentLeft());
+        }
+
+        room.reset();
+
+        if (room.isEmpty()) {
+            rooms.remove(room.getRoomId());
+            roomSummaries.remove(getGameName(), room.getRoomId());
+            idleRooms.remove(room.getRoomId());
+            spectators.close(spectatorChannel(room));
+        } else {
+            publishSpectatorView(room);
         }
     }
 
@@ -175,7 +475,13 @@ public class GomokuWebSocketHandler extends TextWebSocketHandler {
      * @throws IOException IO异常
      */
     private void handleMove(WebSocketSession session, GameRoom room, GameMessage message) throws IOException {
-        synchronized (room.getLock()) {
+        lockRoom(room);
+        try {
+            if (room.isMigrating()) {
+                sendMessage(session, GameMessage.error("房间迁移中，请稍候"));
+                return;
+            }
+            touchRoom(room);
             if (!room.isGameStarted()) {
                 sendMessage(session, GameMessage.error("游戏尚未开始"));
                 return;
@@ -213,20 +519,15 @@ public class GomokuWebSocketHandler extends TextWebSocketHandler {
                 room.setGameOver(true);
                 room.setWinner(playerColor);
 
-                GameMessage moveMsg = GameMessage.move(row, col, playerColor, 0, room.getBoard());
-                sendMessage(room.getBlackPlayer(), moveMsg);
-                sendMessage(room.getWhitePlayer(), moveMsg);
-
-                GameMessage gameOverMsg = GameMessage.gameOver(playerColor);
-                sendMessage(room.getBlackPlayer(), gameOverMsg);
-                sendMessage(room.getWhitePlayer(), gameOverMsg);
+                broadcast(room, GameMessage.move(row, col, playerColor, 0, room.getBoard()));
+                broadcast(room, GameMessage.gameOver(playerColor));
             } else {
                 room.setCurrentPlayer(playerColor == 1 ? 2 : 1);
 
-                GameMessage moveMsg = GameMessage.move(row, col, playerColor, room.getCurrentPlayer(), room.getBoard());
-                sendMessage(room.getBlackPlayer(), moveMsg);
-                sendMessage(room.getWhitePlayer(), moveMsg);
+                broadcast(room, GameMessage.move(row, col, playerColor, room.getCurrentPlayer(), room.getBoard()));
             }
+        } finally {
+            room.getLock().unlock();
         }
     }
 
@@ -237,7 +538,12 @@ public class GomokuWebSocketHandler extends TextWebSocketHandler {
      * @throws IOException IO异常
      */
     private void handleReset(GameRoom room) throws IOException {
-        synchronized (room.getLock()) {
+        lockRoom(room);
+        try {
+            if (room.isMigrating()) {
+                return;
+            }
+            touchRoom(room);
             room.reset();
             room.setGameStarted(true);
 
@@ -249,6 +555,445 @@ public class GomokuWebSocketHandler extends TextWebSocketHandler {
                 sendMessage(room.getWhitePlayer(), GameMessage.reset());
                 sendMessage(room.getWhitePlayer(), GameMessage.gameStart(2));
             }
+            publishSpectatorView(room);
+        } finally {
+            room.getLock().unlock();
+        }
+    }
+
+    /**
+     * 记录玩家操作，推迟房间的空闲截止时间
+     *
+     * @param room 游戏房间
+     */
+    private void touchRoom(GameRoom room) {
+        long now = System.currentTimeMillis();
+        room.setLastActiveAt(now);
+        idleRooms.touch(room.getRoomId(), now + idleSeconds * 1000);
+        publishSummary(room);
+    }
+
+    /**
+     * 在房间锁内发布房间摘要，已从房间表移除的房间不再发布
+     *
+     * @param room 游戏房间
+     */
+    private void publishSummary(GameRoom room) {
+        if (rooms.get(room.getRoomId()) == room) {
+            roomSummaries.publish(RoomSummary.of(getGameName(), room, System.currentTimeMillis()));
+        }
+    }
+
+    /**
+     * 获取房间锁，锁被占用时记录等待时间
+     *
+     * @param room 游戏房间
+     */
+    private void lockRoom(GameRoom room) {
+        GameEvents.lock(room.getLock(), "gomoku", room.getRoomId());
+    }
+
+    /**
+     * 获取游戏名称
+     *
+     * @return 游戏名称
+     */
+    @Override
+    public String getGameName() {
+        return "gomoku";
+    }
+
+    /**
+     * 回收空闲房间：关闭长时间无落子的会话（含半开连接）并释放房间
+     *
+     * @param now   当前时间戳（毫秒）
+     * @param limit 本次最多回收的房间数
+     * @return 回收统计
+     */
+    @Override
+    public ReclaimStats reclaimIdle(long now, int limit) {
+        ReclaimStats stats = new ReclaimStats();
+        for (String roomId : idleRooms.pollExpired(now, limit)) {
+            GameRoom room = rooms.get(roomId);
+            if (room == null) {
+                continue;
+            }
+            WebSocketSession[] sessions;
+            lockRoom(room);
+            try {
+                if (rooms.get(roomId) != room || idleRooms.contains(roomId)) {
+                    continue;
+                }
+                rooms.remove(roomId);
+                roomSummaries.remove(getGameName(), roomId);
+                sessions = new WebSocketSession[]{room.getBlackPlayer(), room.getWhitePlayer()};
+                for (WebSocketSession session : sessions) {
+                    if (session != null) {
+                        sessionToRoom.remove(session.getId());
+                        resumeTokens.revoke(WebSocketSessionUtils.getResumeToken(session));
+                    }
+                }
+                room.setBlackPlayer(null);
+                room.setWhitePlayer(null);
+                stats.setSessions(stats.getSessions() + spectators.close(spectatorChannel(room)));
+                stats.setRooms(stats.getRooms() + 1);
+            } finally {
+                room.getLock().unlock();
+            }
+            for (WebSocketSession session : sessions) {
+                if (session != null && session.isOpen()) {
+                    closeIdleSession(session);
+                    stats.setSessions(stats.getSessions() + 1);
+                }
+            }
+            log.info("回收空闲房间 {}", roomId);
+        }
+        return stats;
+    }
+
+    /**
+     * 房间归属其他节点时下发重定向并关闭连接；本节点上仍在对局中的房间继续在本节点服务
+     *
+     * @param session WebSocket会话
+     * @param roomId  房间ID
+     * @return 已重定向返回true
+     * @throws IOException IO异常
+     */
+    private boolean redirectIfRemote(WebSocketSession session, String roomId) throws IOException {
+        String movedTo = movedRooms.get(roomId);
+        String redirectUrl;
+        if (movedTo != null) {
+            redirectUrl = RoomRouter.relocate(movedTo, session);
+        } else {
+            GameRoom live = rooms.get(roomId);
+            if (live != null && live.isGameStarted() && !live.isGameOver()) {
+                return false;
+            }
+            redirectUrl = roomRouter.redirectUrl(session, roomId);
+            if (redirectUrl == null) {
+                return false;
+            }
+        }
+        log.info("房间 {} 位于 {}，重定向会话 {}", roomId, redirectUrl, session.getId());
+        sendMessage(session, GameMessage.redirect(redirectUrl));
+        session.close(RoomRouter.REDIRECT_STATUS);
+        return true;
+    }
+
+    /**
+     * 集群成员变化后，把不再归属本节点且未在对局中的房间的玩家与观众重定向到新的归属节点
+     *
+     * @param router 房间路由器
+     * @return 仍在对局中、暂留本节点的房间数
+     */
+    @Override
+    public int rehome(RoomRouter router) {
+        int pinned = 0;
+        for (GameRoom room : rooms.values()) {
+            if (router.isLocal(room.getRoomId())) {
+                continue;
+            }
+            WebSocketSession[] sessions;
+            lockRoom(room);
+            try {
+                if (room.isMigrating()) {
+                    continue;
+                }
+                if (room.isGameStarted() && !room.isGameOver()) {
+                    pinned++;
+                    continue;
+                }
+                sessions = new WebSocketSession[]{room.getBlackPlayer(), room.getWhitePlayer()};
+                spectators.close(spectatorChannel(room));
+            } finally {
+                room.getLock().unlock();
+            }
+            for (WebSocketSession session : sessions) {
+                if (session != null && session.isOpen()) {
+                    try {
+                        sendMessage(session, GameMessage.redirect(router.redirectUrl(session, room.getRoomId())));
+                        session.close(RoomRouter.REDIRECT_STATUS);
+                    } catch (IOException e) {
+                        log.debug("重定向会话失败: {}", session.getId(), e);
+                    }
+                }
+            }
+            log.info("房间 {} 已归属节点 {}", room.getRoomId(), router.ownerOf(room.getRoomId()));
+        }
+        return pinned;
+    }
+
+    @Override
+    public Class<GameRoomSnapshot> getSnapshotType() {
+        return GameRoomSnapshot.class;
+    }
+
+    @Override
+    public List<String> getRoomIds() {
+        return new ArrayList<>(rooms.keySet());
+    }
+
+    /**
+     * 冻结房间并截取快照，之后的落子被拒绝，直到迁移完成或放弃
+     *
+     * @param roomId 房间ID
+     * @return 房间快照，房间不存在、为空或已在迁移中时返回null
+     */
+    @Override
+    public GameRoomSnapshot freezeRoom(String roomId) {
+        GameRoom room = rooms.get(roomId);
+        if (room == null) {
+            return null;
+        }
+        lockRoom(room);
+        try {
+            if (rooms.get(roomId) != room || room.isEmpty() || room.isMigrating()) {
+                return null;
+            }
+            room.setMigrating(true);
+            publishSummary(room);
+            return GameRoomSnapshot.capture(room, seatToken(room.getBlackPlayer()), seatToken(room.getWhitePlayer()));
+        } finally {
+            room.getLock().unlock();
+        }
+    }
+
+    /**
+     * 目标节点已接管房间：释放本地房间，把双方带着恢复令牌重定向到目标节点
+     *
+     * @param roomId    房间ID
+     * @param targetUrl 目标节点的 WebSocket 地址
+     */
+    @Override
+    public void completeMigration(String roomId, String targetUrl) {
+        GameRoom room = rooms.get(roomId);
+        if (room == null) {
+            return;
+        }
+        Map<WebSocketSession, String> redirects = new HashMap<>();
+        lockRoom(room);
+        try {
+            if (rooms.get(roomId) != room || !room.isMigrating()) {
+                return;
+            }
+            movedRooms.put(roomId, targetUrl);
+            executors.timer().schedule(() -> movedRooms.remove(roomId, targetUrl),
+                    resumeGraceSeconds, TimeUnit.SECONDS);
+            rooms.remove(roomId);
+            roomSummaries.remove(getGameName(), roomId);
+            idleRooms.remove(roomId);
+            for (WebSocketSession session : new WebSocketSession[]{room.getBlackPlayer(), room.getWhitePlayer()}) {
+                if (session == null) {
+                    continue;
+                }
+                String token = seatToken(session);
+                resumeTokens.revoke(token);
+                sessionToRoom.remove(session.getId());
+                if (session.isOpen() && token != null) {
+                    redirects.put(session, targetUrl + "/" + getGameName() + "?room=" + roomId
+                            + "&" + WebSocketSessionUtils.RESUME_TOKEN_ATTR + "=" + token);
+                }
+            }
+            room.setBlackPlayer(null);
+            room.setWhitePlayer(null);
+            spectators.close(spectatorChannel(room));
+        } finally {
+            room.getLock().unlock();
+        }
+        for (Map.Entry<WebSocketSession, String> redirect : redirects.entrySet()) {
+            try {
+                sendMessage(redirect.getKey(), GameMessage.redirect(redirect.getValue()));
+                redirect.getKey().close(RoomRouter.REDIRECT_STATUS);
+            } catch (IOException e) {
+                log.debug("重定向会话失败: {}", redirect.getKey().getId(), e);
+            }
+        }
+        log.info("房间 {} 已迁往 {}，重定向 {} 个会话", roomId, targetUrl, redirects.size());
+    }
+
+    /**
+     * 迁移失败：解冻房间，对局在本节点继续
+     *
+     * @param roomId 房间ID
+     */
+    @Override
+    public void abortMigration(String roomId) {
+        GameRoom room = rooms.get(roomId);
+        if (room == null) {
+            return;
+        }
+        lockRoom(room);
+        try {
+            // 房间已被替换（五子棋共用默认房间ID）或未在迁出中时不解冻，避免误解冻迁入后等待重连的房间
+            if (rooms.get(roomId) == room && room.isMigrating()) {
+                room.setMigrating(false);
+                publishSummary(room);
+            }
+        } finally {
+            room.getLock().unlock();
+        }
+    }
+
+    /**
+     * 导入其他节点迁来的房间：双方座位以断线保留状态等待凭原令牌重连，座位都回来后解冻
+     *
+     * @param snapshot 房间快照
+     * @return 导入成功返回true，本节点已存在同名房间返回false
+     */
+    @Override
+    public boolean importRoom(GameRoomSnapshot snapshot) {
+        String roomId = snapshot.getRoomId();
+        GameRoom room = snapshot.restore();
+        room.setMigrating(true);
+        lockRoom(room);
+        try {
+            if (rooms.putIfAbsent(roomId, room) != null) {
+                return false;
+            }
+            String[] tokens = {snapshot.getBlackToken(), snapshot.getWhiteToken()};
+            for (int i = 0; i < tokens.length; i++) {
+                int color = i + 1;
+                if (tokens[i] != null) {
+                    resumeTokens.adopt(tokens[i], roomId, String.valueOf(color), resumeGraceSeconds * 1000,
+                            () -> executors.execute(() -> releaseMigratedSeat(roomId, color)));
+                }
+            }
+            movedRooms.remove(roomId);
+            touchRoom(room);
+            log.info("迁入房间 {}", roomId);
+        } finally {
+            room.getLock().unlock();
+        }
+        return true;
+    }
+
+    /**
+     * 迁入房间的座位在宽限期内未重连：按玩家离开处理，解冻房间
+     *
+     * @param roomId 房间ID
+     * @param color  座位颜色
+     */
+    private void releaseMigratedSeat(String roomId, int color) {
+        GameRoom room = rooms.get(roomId);
+        if (room == null) {
+            return;
+        }
+        try {
+            lockRoom(room);
+            try {
+                if (rooms.get(roomId) != room || room.getPlayerSession(color) != null) {
+                    return;
+                }
+                log.info("迁入房间 {} 的{}重连超时，释放座位", roomId, color == 1 ? "黑棋" : "白棋");
+                room.setMigrating(false);
+                sendMessage(room.getPlayerSession(color == 1 ? 2 : 1), GameMessage.opponentLeft());
+                room.reset();
+                if (room.isEmpty()) {
+                    rooms.remove(roomId);
+                    roomSummaries.remove(getGameName(), roomId);
+                    idleRooms.remove(roomId);
+                    spectators.close(spectatorChannel(room));
+                } else {
+                    publishSpectatorView(room);
+                }
+            } finally {
+                room.getLock().unlock();
+            }
+        } catch (IOException e) {
+            log.error("释放保留座位失败", e);
+        }
+    }
+
+    /**
+     * 获取座位的恢复令牌（掉线保留中的座位仍持有旧会话及其令牌）
+     *
+     * @param session 座位上的会话，可为null
+     * @return 恢复令牌，座位为空返回null
+     */
+    private static String seatToken(WebSocketSession session) {
+        return session == null ? null : WebSocketSessionUtils.getResumeToken(session);
+    }
+
+    /**
+     * 通知并关闭空闲会话
+     *
+     * @param session WebSocket会话
+     */
+    private void closeIdleSession(WebSocketSession session) {
+        try {
+            sendMessage(session, GameMessage.error("长时间无操作，已离开房间"));
+            session.close(CloseStatus.GOING_AWAY.withReason("idle"));
+        } catch (IOException e) {
+            log.debug("关闭空闲会话失败: {}", session.getId(), e);
+        }
+    }
+
+    /**
+     * 获取房间的观战频道
+     *
+     * @param room 游戏房间
+     * @return 频道名
+     */
+    private String spectatorChannel(GameRoom room) {
+        return SpectatorHub.channel(getGameName(), room.getRoomId());
+    }
+
+    /**
+     * 向观众推送当前棋盘快照
+     *
+     * @param room 游戏房间
+     * @throws IOException IO异常
+     */
+    private void publishSpectatorView(GameRoom room) throws IOException {
+        publishSummary(room);
+        String channel = spectatorChannel(room);
+        if (spectators.hasAudience(channel)) {
+            spectators.publish(channel, objectMapper.writeValueAsString(GameMessage.spectate(room)));
+        }
+    }
+
+    /**
+     * 向房间内双方玩家和观众广播同一条消息，只编码一次
+     *
+     * @param room    游戏房间
+     * @param message 游戏消息
+     * @throws IOException IO异常
+     */
+    private void broadcast(GameRoom room, GameMessage message) throws IOException {
+        Object event = GameEvents.beginBroadcast();
+        String json = objectMapper.writeValueAsString(message);
+        TextMessage frame = new TextMessage(json);
+        int recipients = 0;
+        for (WebSocketSession session : new WebSocketSession[]{room.getBlackPlayer(), room.getWhitePlayer()}) {
+            if (session != null && session.isOpen()) {
+                session.sendMessage(frame);
+                recipients++;
+            }
+        }
+        spectators.publish(spectatorChannel(room), json);
+        publishSummary(room);
+        GameEvents.endBroadcast(event, "gomoku", room.getRoomId(), message.getType(), recipients, json);
+    }
+
+    /**
+     * 入站限流，在解析 JSON 与获取房间锁之前执行：超限的帧直接丢弃，开始禁言时通知客户端，屡犯者断开连接
+     *
+     * @param session 会话
+     * @return 是否放行
+     * @throws IOException IO异常
+     */
+    private boolean admitInbound(WebSocketSession session) throws IOException {
+        switch (rateLimiter.admit(session, "gomoku", sessionToRoom.get(session.getId()))) {
+            case ALLOW:
+                return true;
+            case MUTE:
+                sendMessage(session, GameMessage.error("操作过于频繁，请稍后再试"));
+                return false;
+            case DISCONNECT:
+                session.close(CloseStatus.POLICY_VIOLATION.withReason("rate limit"));
+                return false;
+            default:
+                return false;
         }
     }
 
@@ -0,0 +1,155 @@
+package com.jeizas.websocket;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 空闲截止时间索引，按截止时间有序保存键，回收时只访问已到期的部分而无需扫描全部房间
+ *
+ * @param <K> 键类型（房间ID）
+ * @author jeizas
+ * @date 2026-10-19
+ */
+public class IdleIndex<K> {
+
+    /** 按截止时间排序的条目 */
+    private final NavigableSet<Entry<K>> byDeadline = new ConcurrentSkipListSet<>();
+
+    /** 键到当前条目的映射 */
+    private final Map<K, Entry<K>> entries = new ConcurrentHashMap<>();
+
+    /** 条目序号，用于区分截止时间相同的条目 */
+    private final AtomicLong sequence = new AtomicLong();
+
+    /** 截止时间精度（毫秒），小幅推迟截止时间时不重建条目，减少高频操作下的索引抖动 */
+    private final long resolutionMillis;
+
+    /**
+     * 构造函数
+     *
+     * @param resolutionMillis 截止时间精度（毫秒）
+     */
+    public IdleIndex(long resolutionMillis) {
+        this.resolutionMillis = resolutionMillis;
+    }
+
+    /**
+     * 更新键的空闲截止时间
+     *
+     * @param key 键
+     * @param deadline 截止时间戳（毫秒）
+     */
+    public void touch(K key, long deadline) {
+        entries.compute(key, (k, old) -> {
+            if (old != null) {
+                if (deadline >= old.deadline && deadline - old.deadline < resolutionMillis) {
+                    return old;
+                }
+                byDeadline.remove(old);
+            }
+            Entry<K> entry = new Entry<>(k, deadline, sequence.incrementAndGet());
+            byDeadline.add(entry);
+            return entry;
+        });
+    }
+
+    /**
+     * 移除键
+     *
+     * @param key 键
+     */
+    public void remove(K key) {
+        entries.computeIfPresent(key, (k, old) -> {
+            byDeadline.remove(old);
+            return null;
+        });
+    }
+
+    /**
+     * 判断键是否仍在索引中
+     *
+     * @param key 键
+     * @return 是否存在
+     */
+    public boolean contains(K key) {
+        return entries.containsKey(key);
+    }
+
+    /**
+     * 索引中的键数量
+     *
+     * @return 键数量
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * 取出并移除截止时间不晚于指定时间的键
+     *
+     * @param now 当前时间戳（毫秒）
+     * @param limit 本次最多取出的数量
+     * @return 已到期的键，按截止时间从早到晚排列
+     */
+    public List<K> pollExpired(long now, int limit) {
+        List<K> expired = new ArrayList<>();
+        Entry<K> bound = new Entry<>(null, now, Long.MAX_VALUE);
+        for (Entry<K> entry : byDeadline.headSet(bound, true)) {
+            if (expired.size() >= limit) {
+                break;
+            }
+            if (entries.remove(entry.key, entry)) {
+                byDeadline.remove(entry);
+                expired.add(entry.key);
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * 索引条目
+     *
+     * @param <K> 键类型
+     */
+    private static final class Entry<K> implements Comparable<Entry<K>> {
+
+        /** 键 */
+        private final K key;
+
+        /** 截止时间戳 */
+        private final long deadline;
+
+        /** 序号 */
+        private final long seq;
+
+        /**
+         * 构造函数
+         *
+         * @param key 键
+         * @param deadline 截止时间戳
+         * @param seq 序号
+         */
+        Entry(K key, long deadline, long seq) {
+            this.key = key;
+            this.deadline = deadline;
+            this.seq = seq;
+        }
+
+        /**
+         * 先按截止时间、再按序号比较
+         *
+         * @param other 另一个条目
+         * @return 比较结果
+         */
+        @Override
+        public int compareTo(Entry<K> other) {
+            int cmp = Long.compare(deadline, other.deadline);
+            return cmp != 0 ? cmp : Long.compare(seq, other.seq);
+        }
+    }
+}
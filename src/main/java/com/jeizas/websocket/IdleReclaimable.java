@@ -0,0 +1,26 @@
+package com.jeizas.websocket;
+
+/**
+ * 可被空闲回收器清理的游戏处理器
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+public interface IdleReclaimable {
+
+    /**
+     * 获取游戏名称，用作指标标签
+     *
+     * @return 游戏名称
+     */
+    String getGameName();
+
+    /**
+     * 回收已到空闲截止时间的房间：关闭会话、取消机器人定时任务并释放房间
+     *
+     * @param now 当前时间戳（毫秒）
+     * @param limit 本次最多回收的房间数
+     * @return 回收统计
+     */
+    ReclaimStats reclaimIdle(long now, int limit);
+}
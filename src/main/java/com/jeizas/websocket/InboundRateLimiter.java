@@ -0,0 +1,313 @@
+package com.jeizas.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 入站消息限流：每个会话与每个房间各一个令牌桶，在 JSON 解析和获取房间锁之前检查，
+ * 令牌桶用单个 AtomicLong 记录理论到达时间（GCRA），一次 CAS 完成取令牌，没有锁。
+ * 会话超限的帧累计为违规，违规达到阈值后禁言（时长逐次翻倍），禁言次数用尽后断开连接
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+@Slf4j
+@Component
+public class InboundRateLimiter {
+
+    /** 会话属性：限流状态 */
+    static final String STATE_ATTR = "inboundRateLimit";
+
+    /** 房间桶数量超过该值时清理已回满的桶 */
+    private static final int ROOM_SWEEP_THRESHOLD = 4096;
+
+    /**
+     * 限流结果
+     */
+    public enum Verdict {
+        /** 放行 */
+        ALLOW,
+        /** 丢弃本帧 */
+        REJECT,
+        /** 丢弃本帧并开始禁言，需通知客户端 */
+        MUTE,
+        /** 丢弃本帧并断开连接 */
+        DISCONNECT
+    }
+
+    /** 是否启用 */
+    private final boolean enabled;
+
+    /** 每个会话每秒的消息数 */
+    private final double sessionRate;
+
+    /** 每个会话的突发容量 */
+    private final int sessionBurst;
+
+    /** 每个房间每秒的消息数 */
+    private final double roomRate;
+
+    /** 每个房间的突发容量 */
+    private final int roomBurst;
+
+    /** 多少次违规后禁言 */
+    private final int muteStrikes;
+
+    /** 禁言多少次后断开连接 */
+    private final int maxMutes;
+
+    /** 首次禁言时长（纳秒），之后逐次翻倍 */
+    private final long penaltyNanos;
+
+    /** 多久没有违规后清零违规计数（纳秒） */
+    private final long strikeDecayNanos;
+
+    /** 频道（游戏:房间ID）到房间桶的映射 */
+    private final Map<String, TokenBucket> roomBuckets = new ConcurrentHashMap<>();
+
+    /** 指标注册表 */
+    private final MeterRegistry meterRegistry;
+
+    /** 拒绝计数器缓存，键为 游戏:原因 */
+    private final Map<String, Counter> rejected = new ConcurrentHashMap<>();
+
+    /**
+     * 构造函数
+     *
+     * @param enabled 是否启用
+     * @param sessionRate 每个会话每秒的消息数
+     * @param sessionBurst 每个会话的突发容量
+     * @param roomRate 每个房间每秒的消息数
+     * @param roomBurst 每个房间的突发容量
+     * @param muteStrikes 多少次违规后禁言
+     * @param maxMutes 禁言多少次后断开连接
+     * @param penaltyMillis 首次禁言时长（毫秒）
+     * @param strikeDecayMillis 多久没有违规后清零违规计数（毫秒）
+     * @param meterRegistry 指标注册表
+     */
+    public InboundRateLimiter(@Value("${game.rate-limit.enabled:true}") boolean enabled,
+                              @Value("${game.rate-limit.session-rate:20}") double sessionRate,
+                              @Value("${game.rate-limit.session-burst:40}") int sessionBurst,
+                              @Value("${game.rate-limit.room-rate:60}") double roomRate,
+                              @Value("${game.rate-limit.room-burst:120}") int roomBurst,
+                              @Value("${game.rate-limit.mute-strikes:20}") int muteStrikes,
+                              @Value("${game.rate-limit.max-mutes:3}") int maxMutes,
+                              @Value("${game.rate-limit.penalty-ms:2000}") long penaltyMillis,
+                              @Value("${game.rate-limit.strike-decay-ms:10000}") long strikeDecayMillis,
+                              MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.sessionRate = sessionRate;
+        this.sessionBurst = Math.max(1, sessionBurst);
+        this.roomRate = roomRate;
+        this.roomBurst = Math.max(1, roomBurst);
+        this.muteStrikes = Math.max(1, muteStrikes);
+        this.maxMutes = Math.max(0, maxMutes);
+        this.penaltyNanos = TimeUnit.MILLISECONDS.toNanos(penaltyMillis);
+        this.strikeDecayNanos = TimeUnit.MILLISECONDS.toNanos(strikeDecayMillis);
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * 检查一帧入站消息是否放行
+     *
+     * @param session 会话
+     * @param game 游戏名（用于区分房间桶与指标标签）
+     * @param roomId 会话所在房间，未加入房间时为null
+     * @return 限流结果
+     */
+    public Verdict admit(WebSocketSession session, String game, String roomId) {
+        if (!enabled) {
+            return Verdict.ALLOW;
+        }
+        Verdict verdict = admit(session.getAttributes(), game, roomId, System.nanoTime());
+        if (verdict == Verdict.MUTE || verdict == Verdict.DISCONNECT) {
+            log.warn("会话 {} 消息过于频繁: {}", session.getId(), verdict);
+        }
+        return verdict;
+    }
+
+    /**
+     * 检查一帧入站消息是否放行
+     *
+     * @param attributes 会话属性
+     * @param game 游戏名
+     * @param roomId 会话所在房间，未加入房间时为null
+     * @param now 当前时间（纳秒）
+     * @return 限流结果
+     */
+    Verdict admit(Map<String, Object> attributes, String game, String roomId, long now) {
+        SessionState state = (SessionState) attributes.computeIfAbsent(STATE_ATTR,
+                key -> new SessionState(new TokenBucket(sessionRate, sessionBurst, now), now));
+        if (now - state.mutedUntil < 0) {
+            reject(game, "muted");
+            return Verdict.REJECT;
+        }
+        if (!state.bucket.tryAcquire(now)) {
+            reject(game, "session");
+            return strike(state, game, now);
+        }
+        if (roomId != null && !roomBucket(game + ":" + roomId, now).tryAcquire(now)) {
+            reject(game, "room");
+            return Verdict.REJECT;
+        }
+        return Verdict.ALLOW;
+    }
+
+    /**
+     * 记一次违规，达到阈值时禁言或断开
+     *
+     * @param state 会话限流状态
+     * @param game 游戏名
+     * @param now 当前时间（纳秒）
+     * @return 限流结果
+     */
+    private Verdict strike(SessionState state, String game, long now) {
+        synchronized (state) {
+            if (now - state.lastStrike > strikeDecayNanos) {
+                state.strikes = 0;
+            }
+            state.lastStrike = now;
+            if (++state.strikes < muteStrikes) {
+                return Verdict.REJECT;
+            }
+            state.strikes = 0;
+            if (state.mutes >= maxMutes) {
+                reject(game, "disconnect");
+                return Verdict.DISCONNECT;
+            }
+            state.mutedUntil = now + (penaltyNanos << Math.min(state.mutes, 20));
+            state.mutes++;
+            return Verdict.MUTE;
+        }
+    }
+
+    /**
+     * 获取房间桶，桶过多时清理已回满的（回满的桶与新建的桶等价）
+     *
+     * @param channel 频道
+     * @param now 当前时间（纳秒）
+     * @return 房间桶
+     */
+    private TokenBucket roomBucket(String channel, long now) {
+        TokenBucket bucket = roomBuckets.get(channel);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (roomBuckets.size() > ROOM_SWEEP_THRESHOLD) {
+            roomBuckets.values().removeIf(b -> b.isFull(now));
+        }
+        return roomBuckets.computeIfAbsent(channel, key -> new TokenBucket(roomRate, roomBurst, now));
+    }
+
+    /**
+     * 计数一次拒绝
+     *
+     * @param game 游戏名
+     * @param reason 原因（session/room/muted/disconnect）
+     */
+    private void reject(String game, String reason) {
+        rejected.computeIfAbsent(game + ":" + reason, key -> Counter.builder("game.ws.inbound.rejected")
+                .tag("game", game)
+                .tag("reason", reason)
+                .register(meterRegistry)).increment();
+    }
+
+    /**
+     * 会话限流状态
+     */
+    static final class SessionState {
+
+        /** 会话令牌桶 */
+        private final TokenBucket bucket;
+
+        /** 当前违规次数 */
+        private int strikes;
+
+        /** 最近一次违规时间（纳秒） */
+        private long lastStrike;
+
+        /** 已禁言次数 */
+        private int mutes;
+
+        /** 禁言截止时间（纳秒） */
+        private volatile long mutedUntil;
+
+        /**
+         * 构造函数
+         *
+         * @param bucket 会话令牌桶
+         * @param now 当前时间（纳秒）
+         */
+        SessionState(TokenBucket bucket, long now) {
+            this.bucket = bucket;
+            this.mutedUntil = now;
+        }
+    }
+
+    /**
+     * 无锁令牌桶（GCRA）：记录理论到达时间 tat，取令牌时 tat 推进一个间隔，
+     * tat 超前当前时间不超过突发容量对应的时长即放行
+     */
+    static final class TokenBucket {
+
+        /** 每个令牌的间隔（纳秒） */
+        private final long interval;
+
+        /** 突发容量对应的时长（纳秒） */
+        private final long capacity;
+
+        /** 理论到达时间（纳秒） */
+        private final AtomicLong tat;
+
+        /**
+         * 构造函数
+         *
+         * @param rate 每秒令牌数
+         * @param burst 突发容量
+         * @param now 当前时间（纳秒）
+         */
+        TokenBucket(double rate, int burst, long now) {
+            this.interval = Math.max(1L, (long) (TimeUnit.SECONDS.toNanos(1) / rate));
+            this.capacity = interval * burst;
+            this.tat = new AtomicLong(now - capacity);
+        }
+
+        /**
+         * 尝试取一个令牌
+         *
+         * @param now 当前时间（纳秒）
+         * @return 是否取到
+         */
+        boolean tryAcquire(long now) {
+            while (true) {
+                long current = tat.get();
+                long next = (current - now < 0 ? now : current) + interval;
+                if (next - now > capacity) {
+                    return false;
+                }
+                if (tat.compareAndSet(current, next)) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * 桶是否已回满
+         *
+         * @param now 当前时间（纳秒）
+         * @return 是否回满
+         */
+        boolean isFull(long now) {
+            return tat.get() - now <= 0;
+        }
+    }
+}
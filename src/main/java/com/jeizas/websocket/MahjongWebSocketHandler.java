@@ -1,24 +1,42 @@
 package com.jeizas.websocket;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jeizas.cluster.RoomMigratable;
+import com.jeizas.cluster.RoomOwnershipListener;
+import com.jeizas.cluster.RoomRouter;
+import com.jeizas.jfr.GameEvents;
+import com.jeizas.model.RoomSummary;
+import com.jeizas.model.mahjong.ClaimWindow;
+import com.jeizas.model.mahjong.MahjongMeld;
 import com.jeizas.model.mahjong.MahjongMessage;
 import com.jeizas.model.mahjong.MahjongPlayer;
 import com.jeizas.model.mahjong.MahjongRoom;
+import com.jeizas.model.mahjong.MahjongRoomSnapshot;
 import com.jeizas.model.mahjong.MahjongTile;
+import com.jeizas.service.GameExecutors;
+import com.jeizas.service.HandRngService;
 import com.jeizas.service.MahjongBotService;
 import com.jeizas.service.MahjongGameService;
+import com.jeizas.service.MahjongObjectPool;
+import com.jeizas.service.RoomSummaryRegistry;
+import com.jeizas.service.TimerWheel;
+import com.jeizas.service.bot.BotDifficulty;
+import com.jeizas.service.rules.ClaimArbiter;
+import com.jeizas.service.rules.FanResult;
+import com.jeizas.service.rules.TileCodec;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.handler.TextWebSocketHandler;
 
+import javax.annotation.PostConstruct;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -28,7 +46,8 @@ import java.util.concurrent.TimeUnit;
  * @date 2025-12-07
  */
 @Slf4j
-public class MahjongWebSocketHandler extends TextWebSocketHandler {
+public class MahjongWebSocketHandler extends TextWebSocketHandler
+        implements IdleReclaimable, RoomOwnershipListener, RoomMigratable<MahjongRoomSnapshot> {
 
     @Autowired
     private MahjongGameService gameService;
@@ -36,40 +55,316 @@ public class MahjongWebSocketHandler extends TextWebSocketHandler {
     @Autowired
     private MahjongBotService botService;
 
+    @Autowired
+    private MahjongObjectPool objectPool;
+
+    @Autowired
+    private HandRngService handRng;
+
+    /** 入站消息限流 */
+    @Autowired
+    private InboundRateLimiter rateLimiter;
+
+    @Autowired
+    private SpectatorHub spectators;
+
+    @Autowired
+    private RoomRouter roomRouter;
+
+    /** 共享时间轮，回合计时与声明窗口截止都登记在上面 */
+    @Autowired
+    private TimerWheel timerWheel;
+
+    /** 房间摘要登记表 */
+    @Autowired
+    private RoomSummaryRegistry roomSummaries;
+
+    /** 负载准入 */
+    @Autowired
+    private AdmissionControl admission;
+
     private static final ObjectMapper objectMapper = new ObjectMapper();
     private final Map<String, MahjongRoom> rooms = new ConcurrentHashMap<>();
     private final Map<String, String> sessionToRoom = new ConcurrentHashMap<>();
     private final Map<String, String> sessionToPlayer = new ConcurrentHashMap<>();
     private static final String DEFAULT_ROOM = "default";
-    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(4);
+
+    /** 游戏动作执行器，机器人回合与延迟动作在其上执行 */
+    private final GameExecutors executors;
+
+    /** 断线重连令牌登记表 */
+    private final ResumeTokenRegistry resumeTokens;
+
+    /** 断线后保留座位的宽限时间（秒） */
+    @Value("${game.session.resume-grace-seconds:60}")
+    private long resumeGraceSeconds;
+
+    /** 真人无操作多久后回收房间（秒） */
+    @Value("${game.reaper.idle-seconds:600}")
+    private long idleSeconds;
+
+    /** 只剩机器人的房间多久后回收（秒） */
+    @Value("${game.reaper.bot-only-idle-seconds:60}")
+    private long botOnlyIdleSeconds;
+
+    /** 无人观看时机器人单次决策的时间预算（毫秒） */
+    @Value("${game.bot.headless-budget-ms:5}")
+    private long headlessBudgetMillis;
+
+    /** 声明窗口时长（毫秒），有人可以胡/杠/碰时等待其决定的最长时间 */
+    @Value("${game.claim.window-ms:5000}")
+    private long claimWindowMillis;
+
+    /** 真人单回合时限（毫秒），超出部分消耗时间银行；0 表示不限时 */
+    @Value("${game.turn-clock.turn-ms:15000}")
+    private long turnMillis;
+
+    /** 每局开始时每个座位的时间银行（毫秒） */
+    @Value("${game.turn-clock.bank-ms:30000}")
+    private long timeBankMillis;
+
+    /** 连续超时多少回合后由机器人代打 */
+    @Value("${game.turn-clock.away-after:2}")
+    private int awayAfterMissedTurns;
+
+    /** 出站合批周期（毫秒），同一房间一个周期内发给同一玩家的消息合成一帧；0 表示逐条立即发送 */
+    @Value("${game.outbound.coalesce-ms:0}")
+    private long coalesceMillis;
+
+    /** 出站合批器，未启用合批时为null */
+    private OutboundCoalescer coalescer;
+
+    /** 房间空闲截止时间索引 */
+    private final IdleIndex<String> idleRooms = new IdleIndex<>(1000);
+
+    /** 已迁走的房间到目标节点地址的映射，宽限期内旧地址上的重连会被转到目标节点 */
+    private final Map<String, String> movedRooms = new ConcurrentHashMap<>();
+
+    /** 迁入的房间等待玩家重连的最长时间（毫秒），超时后机器人接管掉线座位继续对局 */
+    @Value("${game.migration.resume-wait-ms:3000}")
+    private long migrationResumeWaitMillis;
+
+    /**
+     * 构造函数
+     *
+     * @param executors 游戏动作执行器
+     */
+    public MahjongWebSocketHandler(GameExecutors executors) {
+        this.executors = executors;
+        this.resumeTokens = new ResumeTokenRegistry(executors.timer());
+    }
+
+    /**
+     * 按配置启用出站合批
+     */
+    @PostConstruct
+    public void init() {
+        if (coalesceMillis > 0) {
+            coalescer = new OutboundCoalescer(executors, coalesceMillis);
+        }
+    }
 
     @Override
     public void afterConnectionEstablished(WebSocketSession session) throws Exception {
         log.info("新玩家连接: {}", session.getId());
-        String playerId = UUID.randomUUID().toString();
-        sessionToPlayer.put(session.getId(), playerId);
+        admission.sessionOpened();
+        String roomId = resolveRoomId(session);
+        if (redirectIfRemote(session, roomId)) {
+            return;
+        }
+        if (WebSocketSessionUtils.isSpectateRequest(session)) {
+            if (admitSpectator(session)) {
+                spectate(session, roomId);
+            }
+            return;
+        }
+        String resumeToken = WebSocketSessionUtils.getQueryParam(session, WebSocketSessionUtils.RESUME_TOKEN_ATTR);
+        if (resumeToken != null && resumeSeat(session, resumeToken)) {
+            return;
+        }
 
-        MahjongRoom room = rooms.computeIfAbsent(DEFAULT_ROOM, MahjongRoom::new);
-        synchronized (room.getLock()) {
-            MahjongPlayer player = new MahjongPlayer(playerId, "玩家" + (room.getPlayers().size() + 1),
-                    false, session);
-            if (room.addPlayer(player)) {
-                sessionToRoom.put(session.getId(), DEFAULT_ROOM);
-                log.info("玩家 {} 加入房间 {}", playerId, DEFAULT_ROOM);
+        if (!rooms.containsKey(roomId) && !admitNewRoom(session)) {
+            return;
+        }
+        while (!joinRoom(session, roomId)) {
+            log.debug("房间 {} 已被回收，重新获取", roomId);
+        }
+    }
 
-                // 发送房间状态更新
-                broadcastRoomUpdate(room);
-            } else {
+    /**
+     * 玩家加入房间
+     *
+     * @param session WebSocket会话
+     * @param roomId 房间ID
+     * @return 房间已在加锁前被回收时返回false，调用方需重试
+     * @throws IOException IO异常
+     */
+    private boolean joinRoom(WebSocketSession session, String roomId) throws IOException {
+        MahjongRoom room = rooms.computeIfAbsent(roomId, objectPool::acquireRoom);
+        lockRoom(room);
+        try {
+            if (rooms.get(roomId) != room) {
+                return false;
+            }
+            if (room.isFull()) {
                 sendMessage(session, MahjongMessage.error("房间已满"));
                 session.close();
+                return true;
             }
+
+            String playerId = UUID.randomUUID().toString();
+            MahjongPlayer player = objectPool.acquirePlayer(playerId, "玩家" + (room.getPlayers().size() + 1),
+                    false, session);
+            room.addPlayer(player);
+            sessionToPlayer.put(session.getId(), playerId);
+            sessionToRoom.put(session.getId(), roomId);
+            log.info("玩家 {} 加入房间 {}", playerId, roomId);
+
+            String token = resumeTokens.issue(roomId, playerId);
+            session.getAttributes().put(WebSocketSessionUtils.RESUME_TOKEN_ATTR, token);
+            sendMessage(session, MahjongMessage.session(playerId, token));
+            touchRoom(room);
+
+            // 发送房间状态更新
+            broadcastRoomUpdate(room);
+        } finally {
+            room.getLock().unlock();
         }
+        return true;
+    }
+
+    /**
+     * 观众加入房间，下发不含手牌的局面快照，之后随公开事件推送
+     *
+     * @param session WebSocket会话
+     * @param roomId 房间ID
+     * @throws IOException IO异常
+     */
+    private void spectate(WebSocketSession session, String roomId) throws IOException {
+        MahjongRoom room = rooms.get(roomId);
+        if (room == null) {
+            sendMessage(session, MahjongMessage.error("房间不存在"));
+            session.close();
+            return;
+        }
+        lockRoom(room);
+        try {
+            if (rooms.get(roomId) != room || !spectators.join(spectatorChannel(room), session)) {
+                sendMessage(session, MahjongMessage.error("房间不存在或观战人数已满"));
+                session.close();
+                return;
+            }
+            log.info("观众 {} 进入房间 {}", session.getId(), roomId);
+            spectators.sendTo(session, objectMapper.writeValueAsString(
+                    MahjongMessage.spectate(getPlayersInfo(room), room)));
+        } finally {
+            room.getLock().unlock();
+        }
+    }
+
+    /**
+     * 解析连接请求的房间ID（查询参数 room），缺省或非法时使用默认房间
+     *
+     * @param session WebSocket会话
+     * @return 房间ID
+     */
+    private String resolveRoomId(WebSocketSession session) {
+        return WebSocketSessionUtils.resolveRoomId(session, DEFAULT_ROOM);
+    }
+
+    /**
+     * 房间归属其他节点时下发重定向并关闭连接；本节点上仍在对局中的房间继续在本节点服务
+     *
+     * @param session WebSocket会话
+     * @param roomId 房间ID
+     * @return 已重定向返回true
+     * @throws IOException IO异常
+     */
+    private boolean redirectIfRemote(WebSocketSession session, String roomId) throws IOException {
+        String movedTo = movedRooms.get(roomId);
+        String redirectUrl;
+        if (movedTo != null) {
+            redirectUrl = RoomRouter.relocate(movedTo, session);
+        } else {
+            MahjongRoom live = rooms.get(roomId);
+            if (live != null && live.isMatchInProgress()) {
+                return false;
+            }
+            redirectUrl = roomRouter.redirectUrl(session, roomId);
+            if (redirectUrl == null) {
+                return false;
+            }
+        }
+        log.info("房间 {} 位于 {}，重定向会话 {}", roomId, redirectUrl, session.getId());
+        sendMessage(session, MahjongMessage.redirect(redirectUrl));
+        session.close(RoomRouter.REDIRECT_STATUS);
+        return true;
+    }
+
+    /**
+     * 使用恢复令牌重新接管断线期间保留的座位，并下发状态同步
+     *
+     * @param session 新的WebSocket会话
+     * @param resumeToken 恢复令牌
+     * @return 恢复成功返回true，令牌无效或座位已释放返回false
+     * @throws IOException IO异常
+     */
+    private boolean resumeSeat(WebSocketSession session, String resumeToken) throws IOException {
+        ResumeTokenRegistry.Reservation reservation = resumeTokens.resume(resumeToken);
+        if (reservation == null) {
+            return false;
+        }
+        MahjongRoom room = rooms.get(reservation.getRoomId());
+        if (room == null) {
+            resumeTokens.revoke(resumeToken);
+            return false;
+        }
+
+        lockRoom(room);
+        try {
+            MahjongPlayer player = rooms.get(reservation.getRoomId()) == room
+                    ? room.getPlayer(reservation.getSeatId()) : null;
+            if (player == null || player.isBot()) {
+                resumeTokens.revoke(resumeToken);
+                return false;
+            }
+
+            player.setSession(session);
+            session.getAttributes().put(WebSocketSessionUtils.RESUME_TOKEN_ATTR, resumeToken);
+            sessionToPlayer.put(session.getId(), player.getPlayerId());
+            sessionToRoom.put(session.getId(), room.getRoomId());
+            log.info("玩家 {} 断线重连，恢复房间 {} 的座位", player.getPlayerId(), room.getRoomId());
+
+            sendMessage(session, MahjongMessage.session(player.getPlayerId(), resumeToken));
+            touchRoom(room);
+            broadcastRoomUpdate(room);
+            if (room.isGameStarted()) {
+                boolean canWin = room.getCurrentPlayer() == player && room.isDrawnThisTurn()
+                        && gameService.canWin(player.getHand());
+                sendMessage(session, MahjongMessage.resume(player.getHand(), getPlayersInfo(room), room, canWin));
+            }
+            if (room.isMigrating() && allHumansOnline(room)) {
+                thawRoom(room);
+            } else if (isAwaitingTurn(room, player)) {
+                startTurnClock(room, player, null);
+            }
+        } finally {
+            room.getLock().unlock();
+        }
+        return true;
     }
 
     @Override
     protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
+        if (!admitInbound(session)) {
+            return;
+        }
         String payload = message.getPayload();
         log.info("收到消息: {} from {}", payload, session.getId());
+        if (SpectatorHub.isSpectator(session)) {
+            sendMessage(session, MahjongMessage.error("观战中不能操作"));
+            return;
+        }
 
         @SuppressWarnings("unchecked")
         Map<String, Object> data = objectMapper.readValue(payload, Map.class);
@@ -88,10 +383,29 @@ public class MahjongWebSocketHandler extends TextWebSocketHandler {
             return;
         }
 
-        synchronized (room.getLock()) {
+        Object event = GameEvents.beginCommand();
+        long startNanos = System.nanoTime();
+        lockRoom(room);
+        try {
+            if (room.isMigrating()) {
+                sendMessage(session, MahjongMessage.error("房间迁移中，请稍候"));
+                return;
+            }
+            touchRoom(room);
+            MahjongPlayer self = room.getPlayer(playerId);
+            if (self != null && self.isAway()) {
+                returnFromAway(room, self);
+            }
             switch (type) {
                 case "ADD_BOT":
-                    handleAddBot(room, data);
+                    if (admission.admitBot()) {
+                        handleAddBot(room, data);
+                    } else {
+                        sendMessage(session, MahjongMessage.error("服务器繁忙，请稍后再添加机器人"));
+                    }
+                    break;
+                case "SET_BOT_DIFFICULTY":
+                    handleSetBotDifficulty(room, data);
                     break;
                 case "SET_ROUNDS":
                     handleSetRounds(room, data);
@@ -103,7 +417,16 @@ public class MahjongWebSocketHandler extends TextWebSocketHandler {
                     handleDiscardTile(room, playerId, data);
                     break;
                 case "WIN":
-                    handleWin(room, playerId);
+                    handleWin(session, room, playerId);
+                    break;
+                case "PENG":
+                    submitClaim(session, room, playerId, ClaimWindow.PENG);
+                    break;
+                case "GANG":
+                    handleGang(session, room, playerId, data);
+                    break;
+                case "PASS":
+                    submitClaim(session, room, playerId, ClaimWindow.PASS);
                     break;
                 case "NEXT_ROUND":
                     handleNextRound(room);
@@ -111,30 +434,159 @@ public class MahjongWebSocketHandler extends TextWebSocketHandler {
                 default:
                     log.warn("未知消息类型: {}", type);
             }
+        } finally {
+            room.getLock().unlock();
+            admission.recordAction(System.nanoTime() - startNanos);
+            GameEvents.endCommand(event, "mahjong", type, roomId);
         }
     }
 
+    /**
+     * 过载时按策略拒绝或重定向创建新房间的连接，加入已有房间的连接不受影响
+     *
+     * @param session WebSocket会话
+     * @return 放行返回true
+     * @throws IOException IO异常
+     */
+    private boolean admitNewRoom(WebSocketSession session) throws IOException {
+        switch (admission.admitNewRoom()) {
+            case ALLOW:
+                return true;
+            case REDIRECT:
+                String redirectUrl = RoomRouter.relocate(admission.getOverflowUrl(), session);
+                log.info("节点过载，新房间重定向到 {}", redirectUrl);
+                sendMessage(session, MahjongMessage.redirect(redirectUrl));
+                session.close(RoomRouter.REDIRECT_STATUS);
+                return false;
+            default:
+                sendMessage(session, MahjongMessage.error("服务器繁忙，暂不能创建新房间，请稍后再试"));
+                session.close(CloseStatus.SERVICE_OVERLOAD);
+                return false;
+        }
+    }
+
+    /**
+     * 负载偏高时拒绝新观众
+     *
+     * @param session WebSocket会话
+     * @return 放行返回true
+     * @throws IOException IO异常
+     */
+    private boolean admitSpectator(WebSocketSession session) throws IOException {
+        if (admission.admitSpectator()) {
+            return true;
+        }
+        sendMessage(session, MahjongMessage.error("服务器繁忙，暂不开放观战"));
+        session.close(CloseStatus.SERVICE_OVERLOAD);
+        return false;
+    }
+
     @Override
     public void afterConnectionClosed(WebSocketSession session, CloseStatus status) throws Exception {
         log.info("玩家断开连接: {}", session.getId());
+        admission.sessionClosed();
+        if (spectators.leave(session)) {
+            return;
+        }
         String roomId = sessionToRoom.remove(session.getId());
         String playerId = sessionToPlayer.remove(session.getId());
+        String resumeToken = WebSocketSessionUtils.getResumeToken(session);
 
         if (roomId != null && playerId != null) {
             MahjongRoom room = rooms.get(roomId);
             if (room != null) {
-                synchronized (room.getLock()) {
-                    room.removePlayer(playerId);
-                    if (room.isEmpty()) {
-                        rooms.remove(roomId);
-                    } else {
-                        broadcastRoomUpdate(room);
-                        if (room.isGameStarted()) {
-                            broadcastMessage(room, MahjongMessage.playerLeft("玩家离开，游戏结束"));
-                            room.reset();
-                        }
+                lockRoom(room);
+                try {
+                    MahjongPlayer player = room.getPlayer(playerId);
+                    if (player != null && room.isMatchInProgress()
+                            && resumeTokens.hold(resumeToken, resumeGraceSeconds * 1000,
+                                () -> executors.execute(() -> releaseHeldSeat(roomId, playerId)))) {
+                        holdSeat(room, player);
+                        return;
                     }
+                    resumeTokens.revoke(resumeToken);
+                    leaveRoom(room, playerId);
+                } finally {
+                    room.getLock().unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * 对局中掉线时保留座位，由服务器代为行动，等待玩家重连
+     *
+     * @param room 麻将房间
+     * @param player 掉线的玩家
+     * @throws IOException IO异常
+     */
+    private void holdSeat(MahjongRoom room, MahjongPlayer player) throws IOException {
+        player.setSession(null);
+        log.info("玩家 {} 掉线，保留座位 {} 秒", player.getPlayerId(), resumeGraceSeconds);
+
+        broadcastMessage(room, MahjongMessage.playerOffline(player.getPlayerId(),
+                player.getPlayerName() + " 掉线，机器人暂时代打"));
+        broadcastRoomUpdate(room);
+
+        ClaimWindow window = room.getClaimWindow();
+        if (window != null && window.isPending(player.getPosition())) {
+            autoClaim(window, player.getPosition());
+            resolveClaims(room);
+        } else if (room.isGameStarted() && !room.isGameOver() && room.getCurrentPlayer() == player) {
+            scheduleBotAction(room);
+        }
+    }
+
+    /**
+     * 宽限期到期仍未重连，释放保留的座位
+     *
+     * @param roomId 房间ID
+     * @param playerId 玩家ID
+     */
+    private void releaseHeldSeat(String roomId, String playerId) {
+        MahjongRoom room = rooms.get(roomId);
+        if (room == null) {
+            return;
+        }
+        try {
+            lockRoom(room);
+            try {
+                MahjongPlayer player = room.getPlayer(playerId);
+                if (player != null && !player.isOnline()) {
+                    log.info("玩家 {} 重连超时，释放座位", playerId);
+                    leaveRoom(room, playerId);
                 }
+            } finally {
+                room.getLock().unlock();
+            }
+        } catch (IOException e) {
+            log.error("释放保留座位失败", e);
+        }
+    }
+
+    /**
+     * 玩家离开房间，房间为空则销毁，对局中则结束对局
+     *
+     * @param room 麻将房间
+     * @param playerId 玩家ID
+     * @throws IOException IO异常
+     */
+    private void leaveRoom(MahjongRoom room, String playerId) throws IOException {
+        objectPool.releasePlayer(room.removePlayer(playerId));
+        if (room.isEmpty()) {
+            rooms.remove(room.getRoomId());
+            roomSummaries.remove(getGameName(), room.getRoomId());
+            idleRooms.remove(room.getRoomId());
+            spectators.close(spectatorChannel(room));
+            objectPool.releaseRoom(room);
+        } else {
+            if (!room.hasHumanPlayer()) {
+                idleRooms.touch(room.getRoomId(), System.currentTimeMillis() + botOnlyIdleSeconds * 1000);
+            }
+            broadcastRoomUpdate(room);
+            if (room.isGameStarted()) {
+                broadcastMessage(room, MahjongMessage.playerLeft("玩家离开，游戏结束"));
+                room.reset();
             }
         }
     }
@@ -149,10 +601,32 @@ public class MahjongWebSocketHandler extends TextWebSocketHandler {
         }
 
         String botId = UUID.randomUUID().toString();
-        MahjongPlayer bot = new MahjongPlayer(botId, "机器人" + (room.getPlayers().size() + 1),
+        MahjongPlayer bot = objectPool.acquirePlayer(botId, "机器人" + (room.getPlayers().size() + 1),
                 true, null);
+        botService.configureBot(bot, data);
         room.addPlayer(bot);
-        log.info("添加机器人: {}", bot.getPlayerName());
+        log.info("添加机器人: {}，策略: {}", bot.getPlayerName(),
+                bot.getBotStrategy() != null ? bot.getBotStrategy() : room.getBotDifficulty());
+
+        broadcastRoomUpdate(room);
+    }
+
+    /**
+     * 设置房间的机器人难度，未单独指定策略的机器人座位（含掉线代打）跟随此难度
+     *
+     * @param room 麻将房间
+     * @param data 消息数据
+     * @throws IOException IO异常
+     */
+    private void handleSetBotDifficulty(MahjongRoom room, Map<String, Object> data) throws IOException {
+        Object name = data.get("difficulty");
+        BotDifficulty difficulty = BotDifficulty.fromName(name instanceof String ? (String) name : null, null);
+        if (difficulty == null) {
+            return;
+        }
+
+        room.setBotDifficulty(difficulty.name().toLowerCase());
+        log.info("设置机器人难度: {}", room.getBotDifficulty());
 
         broadcastRoomUpdate(room);
     }
@@ -180,8 +654,10 @@ public class MahjongWebSocketHandler extends TextWebSocketHandler {
         }
 
         room.setCurrentRound(1);
-        room.startNewGame();
+        room.startNewGame(handRng.newHand());
+        refillTimeBanks(room);
         log.info("游戏开始");
+        publishSpectatorView(room);
 
         // 发送游戏开始消息
         for (MahjongPlayer player : room.getPlayers()) {
@@ -190,14 +666,17 @@ public class MahjongWebSocketHandler extends TextWebSocketHandler {
                     player.getHand(),
                     playersInfo,
                     room.getDealerIndex(),
-                    room.getTotalRounds()
+                    room.getTotalRounds(),
+                    room.getHandSeed().getCommitment()
             );
             sendMessageToPlayer(player, msg);
         }
 
-        // 如果当前玩家是机器人，触发机器人行动
-        if (room.getCurrentPlayer().isBot()) {
+        // 如果当前玩家是机器人，触发机器人行动，否则开始回合计时
+        if (room.getCurrentPlayer().isAutoPlay()) {
             scheduleBotAction(room);
+        } else {
+            startTurnClock(room, room.getCurrentPlayer(), null);
         }
     }
 
@@ -212,114 +691,526 @@ public class MahjongWebSocketHandler extends TextWebSocketHandler {
             return;
         }
 
-        if (room.getCurrentPlayer() != player) {
+        if (room.getCurrentPlayer() != player || room.getClaimWindow() != null) {
             sendMessageToPlayer(player, MahjongMessage.error("还没轮到你"));
             return;
         }
 
         @SuppressWarnings("unchecked")
         Map<String, Object> tileData = (Map<String, Object>) data.get("tile");
-        String typeStr = (String) tileData.get("type");
-        int value = (int) tileData.get("value");
-        MahjongTile.TileType type = MahjongTile.TileType.valueOf(typeStr);
-        MahjongTile tile = new MahjongTile(type, value);
+        MahjongTile tile = parseTile(tileData);
+        if (!player.getHand().contains(tile)) {
+            sendMessageToPlayer(player, MahjongMessage.error("手中没有这张牌"));
+            return;
+        }
 
+        stopTurnClock(room, player);
         player.discardTile(tile);
         room.setLastDiscardedTile(tile);
         room.setLastDiscardPlayerIndex(player.getPosition());
 
-        // 检查其他玩家是否能胡、碰、杠
-        boolean someoneCanWin = false;
-        for (MahjongPlayer otherPlayer : room.getPlayers()) {
-            if (otherPlayer != player) {
-                // 检查是否能胡
-                List<MahjongTile> testHand = new ArrayList<>(otherPlayer.getHand());
-                testHand.add(tile);
-                if (gameService.canWin(testHand)) {
-                    someoneCanWin = true;
-                    // 如果是机器人且可以胡，自动胡牌
-                    if (otherPlayer.isBot()) {
-                        handleWinByDiscard(room, otherPlayer, player, tile);
-                        return;
+        // 其他玩家可以胡、杠、碰时打开声明窗口，否则直接轮到下家
+        if (!openClaimWindow(room, player, tile)) {
+            advanceTurn(room, player, tile, false);
+        }
+    }
+
+    /**
+     * 解析消息中的牌
+     *
+     * @param tileData 牌数据（type、value）
+     * @return 共享牌实例
+     */
+    private static MahjongTile parseTile(Map<String, Object> tileData) {
+        MahjongTile.TileType type = MahjongTile.TileType.valueOf((String) tileData.get("type"));
+        return MahjongTile.of(type, ((Number) tileData.get("value")).intValue());
+    }
+
+    /**
+     * 轮到出牌者的下家：摸牌并通知，牌堆摸完则流局
+     *
+     * @param room 麻将房间
+     * @param discarder 出牌者
+     * @param tile 打出的牌
+     * @param announced 打牌消息是否已在声明窗口打开时广播过
+     * @throws IOException IO异常
+     */
+    private void advanceTurn(MahjongRoom room, MahjongPlayer discarder, MahjongTile tile, boolean announced)
+            throws IOException {
+        room.nextPlayer();
+        MahjongPlayer nextPlayer = room.getCurrentPlayer();
+
+        // 摸牌
+        MahjongTile drawnTile = room.drawTile();
+        if (drawnTile == null) {
+            // 流局
+            handleDraw(room);
+            return;
+        }
+
+        nextPlayer.addTile(drawnTile);
+
+        // 广播打牌消息，声明窗口已广播过打牌时只通知轮转
+        if (announced) {
+            broadcastMessage(room, MahjongMessage.turn(room.getCurrentPlayerIndex(), room.getDeck().size()));
+        } else {
+            broadcastMessage(room, MahjongMessage.discardTile(
+                    discarder.getPlayerId(), tile, room.getCurrentPlayerIndex(), room.getDeck().size()
+            ));
+        }
+
+        afterDraw(room, nextPlayer, drawnTile);
+    }
+
+    /**
+     * 玩家摸牌后通知其手牌变化，并检查自摸；轮到托管座位时安排机器人行动
+     *
+     * @param room 麻将房间
+     * @param player 摸牌的玩家
+     * @param drawnTile 摸到的牌
+     * @throws IOException IO异常
+     */
+    private void afterDraw(MahjongRoom room, MahjongPlayer player, MahjongTile drawnTile) throws IOException {
+        // 检查是否自摸
+        boolean canWin = gameService.canWin(player.getHand());
+
+        // 发送摸牌消息
+        if (!player.isBot()) {
+            sendMessageToPlayer(player, MahjongMessage.drawTile(drawnTile, canWin));
+        }
+
+        if (canWin) {
+            if (player.isAutoPlay()) {
+                // 机器人自动胡牌
+                scheduleBotWin(room, player, drawnTile);
+            }
+        } else if (player.isAutoPlay()) {
+            // 机器人打牌
+            scheduleBotAction(room);
+        }
+        if (!player.isAutoPlay()) {
+            startTurnClock(room, player, drawnTile);
+        }
+    }
+
+    /**
+     * 打开声明窗口：基于各座位预先统计的手牌计数一次算出所有可选声明
+     * 托管座位立即决定（能胡则胡，否则放弃），真人收到提示后在窗口时长内决定，到期未决定视为放弃
+     *
+     * @param room 麻将房间
+     * @param discarder 出牌者
+     * @param tile 打出的牌
+     * @return 有人可以声明、窗口已打开（可能已当场裁决）返回true
+     * @throws IOException IO异常
+     */
+    private boolean openClaimWindow(MahjongRoom room, MahjongPlayer discarder, MahjongTile tile) throws IOException {
+        List<MahjongPlayer> players = room.getPlayers();
+        int[][] counts = new int[players.size()][];
+        int[] meldCounts = new int[players.size()];
+        for (MahjongPlayer player : players) {
+            if (player != discarder) {
+                counts[player.getPosition()] = TileCodec.toCounts(player.getHand());
+                meldCounts[player.getPosition()] = player.getMelds().size();
+            }
+        }
+        int[] options = ClaimArbiter.options(counts, meldCounts, discarder.getPosition(), TileCodec.indexOf(tile));
+        boolean any = false;
+        for (int seat = 0; seat < options.length; seat++) {
+            if (room.getDeck().isEmpty()) {
+                // 牌堆已空时杠后无牌可补
+                options[seat] &= ~ClaimWindow.GANG;
+            }
+            any |= options[seat] != 0;
+        }
+        if (!any) {
+            return false;
+        }
+
+        ClaimWindow window = new ClaimWindow(tile, discarder.getPosition(), options,
+                System.currentTimeMillis() + claimWindowMillis);
+        room.setClaimWindow(window);
+        broadcastMessage(room, MahjongMessage.discardTile(discarder.getPlayerId(), tile, -1, room.getDeck().size()));
+        for (MahjongPlayer player : players) {
+            int seat = player.getPosition();
+            if (!window.isPending(seat)) {
+                continue;
+            }
+            if (player.isAutoPlay()) {
+                autoClaim(window, seat);
+            } else {
+                sendMessageToPlayer(player, MahjongMessage.canMeld(tile,
+                        (options[seat] & ClaimWindow.PENG) != 0, (options[seat] & ClaimWindow.GANG) != 0,
+                        (options[seat] & ClaimWindow.WIN) != 0, claimWindowMillis));
+            }
+        }
+        if (!resolveClaims(room)) {
+            scheduleClaimDeadline(room, window);
+        }
+        return true;
+    }
+
+    /**
+     * 托管座位的声明：能胡则胡，否则放弃
+     *
+     * @param window 声明窗口
+     * @param seat 座位
+     */
+    private static void autoClaim(ClaimWindow window, int seat) {
+        window.offer(seat, (window.getOptions()[seat] & ClaimWindow.WIN) != 0 ? ClaimWindow.WIN : ClaimWindow.PASS);
+    }
+
+    /**
+     * 在房间定时器上登记声明窗口的截止事件，到期时未决定的座位视为放弃并裁决
+     *
+     * @param room 麻将房间
+     * @param window 声明窗口
+     */
+    private void scheduleClaimDeadline(MahjongRoom room, ClaimWindow window) {
+        int generation = room.getGeneration();
+        timerWheel.schedule(() -> {
+            try {
+                lockRoom(room);
+                try {
+                    if (room.getGeneration() == generation && room.getClaimWindow() == window) {
+                        window.expire();
+                        resolveClaims(room);
                     }
+                } finally {
+                    room.getLock().unlock();
                 }
+            } catch (IOException e) {
+                log.error("声明窗口裁决失败", e);
+            }
+        }, Math.max(0, window.getDeadline() - System.currentTimeMillis()));
+    }
+
+    /**
+     * 每局开始时补满各座位的时间银行
+     *
+     * @param room 麻将房间
+     */
+    private void refillTimeBanks(MahjongRoom room) {
+        for (MahjongPlayer player : room.getPlayers()) {
+            player.setTimeBankMillis(timeBankMillis);
+        }
+    }
+
+    /**
+     * 判断是否轮到真人出牌（没有声明窗口、房间未冻结）
+     *
+     * @param room 麻将房间
+     * @param player 玩家
+     * @return 是否轮到该真人出牌
+     */
+    private static boolean isAwaitingTurn(MahjongRoom room, MahjongPlayer player) {
+        return room.isGameStarted() && !room.isGameOver() && !room.isMigrating()
+                && room.getClaimWindow() == null && room.getCurrentPlayer() == player && !player.isAutoPlay();
+    }
+
+    /**
+     * 开始真人的回合计时：在共享时间轮上登记单回合时限加剩余时间银行后的截止事件，并广播计时
+     *
+     * @param room 麻将房间
+     * @param player 行动的真人
+     * @param drawnTile 本回合摸到的牌，碰牌后或开局时为null
+     * @throws IOException IO异常
+     */
+    private void startTurnClock(MahjongRoom room, MahjongPlayer player, MahjongTile drawnTile) throws IOException {
+        if (turnMillis <= 0 || !isAwaitingTurn(room, player)) {
+            return;
+        }
+        int generation = room.getGeneration();
+        int serial = room.startTurnClock(player.getPosition(), System.currentTimeMillis());
+        timerWheel.schedule(() -> onTurnTimeout(room, generation, serial, player, drawnTile),
+                turnMillis + player.getTimeBankMillis());
+        broadcastMessage(room, MahjongMessage.turnClock(player.getPosition(), turnMillis, player.getTimeBankMillis()));
+    }
+
+    /**
+     * 玩家在计时内行动，停止计时并从时间银行扣除超出单回合时限的用时
+     *
+     * @param room 麻将房间
+     * @param player 行动的玩家
+     */
+    private void stopTurnClock(MahjongRoom room, MahjongPlayer player) {
+        long elapsed = room.stopTurnClock(player.getPosition(), System.currentTimeMillis());
+        if (elapsed < 0) {
+            return;
+        }
+        if (elapsed > turnMillis) {
+            player.setTimeBankMillis(Math.max(0, player.getTimeBankMillis() - (elapsed - turnMillis)));
+        }
+        player.setMissedTurns(0);
+    }
 
-                // 检查是否能碰或杠（非机器人才提示）
-                if (!otherPlayer.isBot()) {
-                    boolean canPeng = otherPlayer.canPeng(tile);
-                    boolean canGang = otherPlayer.canMingGang(tile);
+    /**
+     * 回合计时到期：计时仍有效时由服务器代为出牌（本回合摸到的牌，没有摸牌时按机器人的选择，机器人选择胡牌时代为胡牌），
+     * 连续超时达到阈值后改由机器人代打，直到玩家再次操作；机器人决策期间不持有房间锁
+     *
+     * @param room 麻将房间
+     * @param generation 开始计时时的房间代数
+     * @param serial 计时序号
+     * @param player 计时的玩家
+     * @param drawnTile 本回合摸到的牌，可能为null
+     */
+    private void onTurnTimeout(MahjongRoom room, int generation, int serial, MahjongPlayer player,
+                               MahjongTile drawnTile) {
+        CompletableFuture<MahjongTile> decision;
+        int stoppedSerial;
+        try {
+            lockRoom(room);
+            try {
+                if (room.getGeneration() != generation || room.getTurnClockSerial() != serial
+                        || !isAwaitingTurn(room, player)) {
+                    return;
+                }
+                room.stopTurnClock(player.getPosition(), System.currentTimeMillis());
+                player.setTimeBankMillis(0);
+                player.setMissedTurns(player.getMissedTurns() + 1);
+                if (drawnTile != null && player.getHand().contains(drawnTile)) {
+                    applyTimeoutAction(room, player, drawnTile);
+                    return;
+                }
+                decision = botService.decideDiscard(room, player, headlessBudgetMillis);
+                stoppedSerial = room.getTurnClockSerial();
+            } finally {
+                room.getLock().unlock();
+            }
+        } catch (Exception e) {
+            log.error("回合超时处理失败", e);
+            return;
+        }
 
-                    if (canPeng || canGang) {
-                        sendMessageToPlayer(otherPlayer,
-                            MahjongMessage.canMeld(tile, canPeng, canGang));
+        decision.thenAcceptAsync(tile -> {
+            try {
+                lockRoom(room);
+                try {
+                    // 决策期间玩家已自行出牌、轮次已过或房间被回收时丢弃；轮回到该玩家会重新计时，计时序号随之变化
+                    if (room.getGeneration() == generation && room.getTurnClockSerial() == stoppedSerial
+                            && isAwaitingTurn(room, player)) {
+                        applyTimeoutAction(room, player, tile);
                     }
+                } finally {
+                    room.getLock().unlock();
                 }
+            } catch (Exception e) {
+                log.error("回合超时处理失败", e);
             }
+        }, executors.actions());
+    }
+
+    /**
+     * 代超时的玩家行动，连续超时达到阈值时转为机器人代打，调用方需持有房间锁
+     *
+     * @param room 麻将房间
+     * @param player 超时的玩家
+     * @param tile 要打出的牌，为null表示自摸胡牌
+     * @throws IOException IO异常
+     */
+    private void applyTimeoutAction(MahjongRoom room, MahjongPlayer player, MahjongTile tile) throws IOException {
+        log.info("玩家 {} 回合超时，自动{}", player.getPlayerId(), tile == null ? "胡牌" : "打出 " + tile);
+        sendMessageToPlayer(player, MahjongMessage.error(tile == null ? "操作超时，已自动胡牌" : "操作超时，已自动出牌"));
+        if (player.getMissedTurns() >= awayAfterMissedTurns) {
+            player.setAway(true);
+            broadcastMessage(room, MahjongMessage.playerOffline(player.getPlayerId(),
+                    player.getPlayerName() + " 连续超时，机器人暂时代打"));
+            broadcastRoomUpdate(room);
         }
+        if (tile == null) {
+            handleWinBySelfDraw(room, player, room.getLastDrawnTile());
+        } else {
+            handleDiscardTile(room, player.getPlayerId(), discardData(tile));
+        }
+    }
 
-        if (!someoneCanWin) {
-            // 下一个玩家
-            room.nextPlayer();
-            MahjongPlayer nextPlayer = room.getCurrentPlayer();
+    /**
+     * 连续超时被代打的玩家重新操作，收回座位；正轮到其出牌时重新开始计时
+     *
+     * @param room 麻将房间
+     * @param player 玩家
+     * @throws IOException IO异常
+     */
+    private void returnFromAway(MahjongRoom room, MahjongPlayer player) throws IOException {
+        player.setAway(false);
+        player.setMissedTurns(0);
+        log.info("玩家 {} 恢复操作，结束代打", player.getPlayerId());
+        broadcastRoomUpdate(room);
+        startTurnClock(room, player, null);
+    }
 
-            // 摸牌
-            MahjongTile drawnTile = room.drawTile();
-            if (drawnTile == null) {
-                // 流局
-                handleDraw(room);
-                return;
+    /**
+     * 真人在声明窗口内作出决定
+     *
+     * @param session 发起声明的WebSocket会话
+     * @param room 麻将房间
+     * @param playerId 玩家ID
+     * @param claim 声明（胡/杠/碰/过）
+     * @throws IOException IO异常
+     */
+    private void submitClaim(WebSocketSession session, MahjongRoom room, String playerId, int claim)
+            throws IOException {
+        MahjongPlayer player = room.getPlayer(playerId);
+        if (player == null) {
+            sendMessage(session, MahjongMessage.error("你不在该房间的座位上"));
+            return;
+        }
+        ClaimWindow window = room.getClaimWindow();
+        if (window == null || !window.offer(player.getPosition(), claim)) {
+            if (claim != ClaimWindow.PASS) {
+                sendMessageToPlayer(player, MahjongMessage.error("现在不能这样做"));
             }
+            return;
+        }
+        resolveClaims(room);
+    }
 
-            nextPlayer.addTile(drawnTile);
+    /**
+     * 裁决声明窗口（胡 > 杠 > 碰，同级按出牌者下家起的座次），仍有可能改变结果的座位未决定时继续等待
+     *
+     * @param room 麻将房间
+     * @return 已定案返回true
+     * @throws IOException IO异常
+     */
+    private boolean resolveClaims(MahjongRoom room) throws IOException {
+        ClaimWindow window = room.getClaimWindow();
+        int seat = ClaimArbiter.resolve(window);
+        if (seat == ClaimArbiter.PENDING) {
+            return false;
+        }
+        room.setClaimWindow(null);
+        MahjongPlayer discarder = room.getPlayers().get(window.getDiscarderIndex());
+        MahjongTile tile = window.getTile();
+        if (seat == ClaimArbiter.NONE) {
+            advanceTurn(room, discarder, tile, true);
+            return true;
+        }
 
-            // 广播打牌消息
-            broadcastMessage(room, MahjongMessage.discardTile(
-                    playerId, tile, room.getCurrentPlayerIndex(), room.getDeck().size()
-            ));
+        MahjongPlayer claimer = room.getPlayers().get(seat);
+        int claim = window.getDecisions()[seat];
+        // 被声明的牌从出牌者的弃牌中拿走
+        List<MahjongTile> discarded = discarder.getDiscardedTiles();
+        discarded.remove(discarded.size() - 1);
+        if (claim == ClaimWindow.WIN) {
+            handleWinByDiscard(room, claimer, discarder, tile);
+        } else if (claim == ClaimWindow.GANG) {
+            claimer.mingGang(tile);
+            applyMeld(room, claimer, true);
+        } else {
+            claimer.peng(tile);
+            applyMeld(room, claimer, false);
+        }
+        return true;
+    }
 
-            // 检查是否自摸
-            boolean canWin = gameService.canWin(nextPlayer.getHand());
-
-            // 发送摸牌消息
-            if (!nextPlayer.isBot()) {
-                sendMessageToPlayer(nextPlayer, MahjongMessage.drawTile(drawnTile, canWin));
-            }
-
-            if (canWin) {
-                if (nextPlayer.isBot()) {
-                    // 机器人自动胡牌
-                    scheduler.schedule(() -> {
-                        try {
-                            synchronized (room.getLock()) {
-                                handleWinBySelfDraw(room, nextPlayer, drawnTile);
-                            }
-                        } catch (IOException e) {
-                            log.error("机器人胡牌失败", e);
-                        }
-                    }, botService.getThinkingDelay(), TimeUnit.MILLISECONDS);
-                }
-            } else if (nextPlayer.isBot()) {
-                // 机器人打牌
-                scheduleBotAction(room);
-            }
+    /**
+     * 碰/杠成功后轮到声明者：广播牌组，杠牌补摸一张，碰牌直接出牌
+     *
+     * @param room 麻将房间
+     * @param claimer 声明者
+     * @param gang 是否为杠
+     * @throws IOException IO异常
+     */
+    private void applyMeld(MahjongRoom room, MahjongPlayer claimer, boolean gang) throws IOException {
+        room.setCurrentPlayerIndex(claimer.getPosition());
+        room.setDrawnThisTurn(false);
+        MahjongMeld meld = claimer.getMelds().get(claimer.getMelds().size() - 1);
+        broadcastMessage(room, gang
+                ? MahjongMessage.gang(claimer.getPlayerId(), meld, room.getCurrentPlayerIndex())
+                : MahjongMessage.peng(claimer.getPlayerId(), meld, room.getCurrentPlayerIndex()));
+        broadcastRoomUpdate(room);
+        if (gang) {
+            drawReplacement(room, claimer);
+        } else if (claimer.isAutoPlay()) {
+            scheduleBotAction(room);
+        } else {
+            startTurnClock(room, claimer, null);
         }
     }
 
-    private void handleWin(MahjongRoom room, String playerId) throws IOException {
+    /**
+     * 杠牌后补摸一张，牌堆摸完则流局
+     *
+     * @param room 麻将房间
+     * @param player 杠牌的玩家
+     * @throws IOException IO异常
+     */
+    private void drawReplacement(MahjongRoom room, MahjongPlayer player) throws IOException {
+        MahjongTile drawnTile = room.drawTile();
+        if (drawnTile == null) {
+            handleDraw(room);
+            return;
+        }
+        player.addTile(drawnTile);
+        afterDraw(room, player, drawnTile);
+    }
+
+    /**
+     * 处理杠：声明窗口打开时为明杠声明，否则为自己回合的暗杠或补杠
+     *
+     * @param session 发起操作的WebSocket会话
+     * @param room 麻将房间
+     * @param playerId 玩家ID
+     * @param data 消息数据（自己回合的杠需带 tile）
+     * @throws IOException IO异常
+     */
+    @SuppressWarnings("unchecked")
+    private void handleGang(WebSocketSession session, MahjongRoom room, String playerId, Map<String, Object> data)
+            throws IOException {
+        if (room.getClaimWindow() != null) {
+            submitClaim(session, room, playerId, ClaimWindow.GANG);
+            return;
+        }
         MahjongPlayer player = room.getPlayer(playerId);
-        if (player == null || room.getLastDiscardedTile() == null) {
+        if (player == null) {
+            sendMessage(session, MahjongMessage.error("你不在该房间的座位上"));
+            return;
+        }
+        Object tileData = data.get("tile");
+        if (room.getCurrentPlayer() != player || !room.isGameStarted() || room.isGameOver()
+                || !(tileData instanceof Map) || room.getDeck().isEmpty()) {
+            sendMessageToPlayer(player, MahjongMessage.error("现在不能杠"));
             return;
         }
+        MahjongTile tile = parseTile((Map<String, Object>) tileData);
+        if (!player.anGang(tile) && !player.buGang(tile)) {
+            sendMessageToPlayer(player, MahjongMessage.error("不能杠这张牌"));
+            return;
+        }
+        stopTurnClock(room, player);
+        applyMeld(room, player, true);
+    }
 
-        MahjongPlayer discardPlayer = room.getPlayers().get(room.getLastDiscardPlayerIndex());
-        handleWinByDiscard(room, player, discardPlayer, room.getLastDiscardedTile());
+    /**
+     * 处理胡牌：声明窗口打开时为点炮胡声明，否则为自己回合的自摸
+     *
+     * @param session 发起操作的WebSocket会话
+     * @param room 麻将房间
+     * @param playerId 玩家ID
+     * @throws IOException IO异常
+     */
+    private void handleWin(WebSocketSession session, MahjongRoom room, String playerId) throws IOException {
+        MahjongPlayer player = room.getPlayer(playerId);
+        if (player == null || !room.isGameStarted() || room.isGameOver()) {
+            return;
+        }
+        if (room.getClaimWindow() != null) {
+            submitClaim(session, room, playerId, ClaimWindow.WIN);
+            return;
+        }
+        if (room.getCurrentPlayer() != player || !room.isDrawnThisTurn() || !gameService.canWin(player.getHand())) {
+            sendMessageToPlayer(player, MahjongMessage.error("现在不能胡牌"));
+            return;
+        }
+        stopTurnClock(room, player);
+        handleWinBySelfDraw(room, player, room.getLastDrawnTile());
     }
 
     private void handleWinByDiscard(MahjongRoom room, MahjongPlayer winner,
                                      MahjongPlayer discardPlayer, MahjongTile tile) throws IOException {
         winner.addTile(tile);
 
-        int score = gameService.calculateScore(winner.getHand(), false);
+        FanResult fan = gameService.evaluateFan(winner, false);
+        int score = gameService.calculateScore(fan);
         winner.setScore(winner.getScore() + score);
         discardPlayer.setScore(discardPlayer.getScore() - score);
 
@@ -329,9 +1220,11 @@ public class MahjongWebSocketHandler extends TextWebSocketHandler {
         winInfo.put("discardPlayerId", discardPlayer.getPlayerId());
         winInfo.put("discardPlayerName", discardPlayer.getPlayerName());
         winInfo.put("score", score);
+        winInfo.put("fan", fan.getFan());
+        winInfo.put("patterns", fan.names());
         winInfo.put("tile", tile);
 
-        broadcastMessage(room, MahjongMessage.win(winner.getPlayerId(), winInfo));
+        broadcastMessage(room, revealSeed(room, MahjongMessage.win(winner.getPlayerId(), winInfo)));
 
         room.endCurrentGame();
 
@@ -342,7 +1235,8 @@ public class MahjongWebSocketHandler extends TextWebSocketHandler {
 
     private void handleWinBySelfDraw(MahjongRoom room, MahjongPlayer winner, MahjongTile tile)
             throws IOException {
-        int score = gameService.calculateScore(winner.getHand(), true);
+        FanResult fan = gameService.evaluateFan(winner, true);
+        int score = gameService.calculateScore(fan);
         winner.setScore(winner.getScore() + score * 3);
 
         for (MahjongPlayer player : room.getPlayers()) {
@@ -356,9 +1250,11 @@ public class MahjongWebSocketHandler extends TextWebSocketHandler {
         winInfo.put("winnerName", winner.getPlayerName());
         winInfo.put("isSelfDraw", true);
         winInfo.put("score", score);
+        winInfo.put("fan", fan.getFan());
+        winInfo.put("patterns", fan.names());
         winInfo.put("tile", tile);
 
-        broadcastMessage(room, MahjongMessage.win(winner.getPlayerId(), winInfo));
+        broadcastMessage(room, revealSeed(room, MahjongMessage.win(winner.getPlayerId(), winInfo)));
 
         room.endCurrentGame();
 
@@ -368,7 +1264,7 @@ public class MahjongWebSocketHandler extends TextWebSocketHandler {
     }
 
     private void handleDraw(MahjongRoom room) throws IOException {
-        broadcastMessage(room, MahjongMessage.error("流局"));
+        broadcastMessage(room, revealSeed(room, MahjongMessage.error("流局")));
         room.endCurrentGame();
 
         if (room.isGameOver()) {
@@ -376,6 +1272,21 @@ public class MahjongWebSocketHandler extends TextWebSocketHandler {
         }
     }
 
+    /**
+     * 本局结束时在结算消息中揭示洗牌种子，玩家据此校验发牌时公布的承诺并复现牌序
+     *
+     * @param room 麻将房间
+     * @param msg 结算消息
+     * @return 结算消息
+     */
+    private static MahjongMessage revealSeed(MahjongRoom room, MahjongMessage msg) {
+        if (room.getHandSeed() != null) {
+            msg.setHandCommitment(room.getHandSeed().getCommitment());
+            msg.setHandSeed(room.getHandSeed().reveal());
+        }
+        return msg;
+    }
+
     private void handleGameOver(MahjongRoom room) throws IOException {
         List<Map<String, Object>> scores = new ArrayList<>();
         for (MahjongPlayer player : room.getPlayers()) {
@@ -398,7 +1309,9 @@ public class MahjongWebSocketHandler extends TextWebSocketHandler {
             room.setCurrentRound(1);
         }
 
-        room.startNewGame();
+        room.startNewGame(handRng.newHand());
+        refillTimeBanks(room);
+        publishSpectatorView(room);
 
         for (MahjongPlayer player : room.getPlayers()) {
             List<Map<String, Object>> playersInfo = getPlayersInfo(room);
@@ -406,47 +1319,634 @@ public class MahjongWebSocketHandler extends TextWebSocketHandler {
                     player.getHand(),
                     playersInfo,
                     room.getDealerIndex(),
-                    room.getTotalRounds()
+                    room.getTotalRounds(),
+                    room.getHandSeed().getCommitment()
             );
             sendMessageToPlayer(player, msg);
         }
 
-        if (room.getCurrentPlayer().isBot()) {
+        if (room.getCurrentPlayer().isAutoPlay()) {
             scheduleBotAction(room);
+        } else {
+            startTurnClock(room, room.getCurrentPlayer(), null);
         }
     }
 
+    /**
+     * 为当前机器人安排出牌：立即在计算线程池上开始决策，思考延迟结束后再落子
+     * 决策与思考延迟并行且预算不超过思考延迟，超出预算时由计算线程池兜底，游戏线程不做任何搜索
+     * 房间无人观看时改为快进模式，不再等待思考延迟；房间因迁移冻结时不安排，解冻后再恢复
+     *
+     * @param room 麻将房间
+     */
     private void scheduleBotAction(MahjongRoom room) {
-        scheduler.schedule(() -> {
+        if (room.isFastForward() || room.isMigrating()) {
+            return;
+        }
+        int generation = room.getGeneration();
+        if (isHeadless(room)) {
+            room.setFastForward(true);
+            room.trackTask(executors.schedule(() -> fastForward(room, generation), 0, TimeUnit.MILLISECONDS));
+            return;
+        }
+
+        MahjongPlayer bot = room.getCurrentPlayer();
+        long thinkMillis = botService.getThinkingDelay();
+        CompletableFuture<MahjongTile> decision = botService.decideDiscard(room, bot, thinkMillis);
+        room.trackTask(executors.timer().schedule(
+                () -> decision.thenAcceptAsync(tile -> applyBotDiscard(room, generation, bot, tile),
+                        executors.actions()),
+                thinkMillis, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * 为自摸的机器人安排胡牌，快进模式下立即胡牌
+     *
+     * @param room 麻将房间
+     * @param bot 机器人玩家
+     * @param drawnTile 摸到的牌
+     * @throws IOException IO异常
+     */
+    private void scheduleBotWin(MahjongRoom room, MahjongPlayer bot, MahjongTile drawnTile) throws IOException {
+        if (room.isFastForward()) {
+            handleWinBySelfDraw(room, bot, drawnTile);
+            return;
+        }
+        int generation = room.getGeneration();
+        room.trackTask(executors.schedule(() -> {
             try {
-                synchronized (room.getLock()) {
-                    if (!room.isGameStarted() || room.isGameOver()) {
-                        return;
+                lockRoom(room);
+                try {
+                    if (room.getGeneration() == generation
+                            && room.isGameStarted() && room.getCurrentPlayer() == bot
+                            && bot.isAutoPlay()) {
+                        handleWinBySelfDraw(room, bot, drawnTile);
                     }
+                } finally {
+                    room.getLock().unlock();
+                }
+            } catch (IOException e) {
+                log.error("机器人胡牌失败", e);
+            }
+        }, botService.getThinkingDelay(), TimeUnit.MILLISECONDS));
+    }
 
-                    MahjongPlayer bot = room.getCurrentPlayer();
-                    if (!bot.isBot()) {
-                        return;
+    /**
+     * 快进模式：房间无人观看时连续执行机器人回合，不等待思考延迟，广播也不再序列化
+     * 纯机器人房间一局结束后直接开始下一局；有真人（含掉线保留座位）时局间仍等待真人操作
+     * 机器人决策期间不持有房间锁，决策完成后回到锁内落子并继续下一回合，有人重新连上后回到正常节奏
+     *
+     * @param room 麻将房间
+     * @param generation 发起快进时的房间代数
+     */
+    private void fastForward(MahjongRoom room, int generation) {
+        lockRoom(room);
+        try {
+            if (room.getGeneration() == generation) {
+                continueFastForward(room, generation);
+            }
+        } finally {
+            room.getLock().unlock();
+        }
+    }
+
+    /**
+     * 在房间锁内推进快进：需要开局时直接开局，轮到机器人时发起决策后返回，决策完成后在锁外排队执行落子；
+     * 不再需要快进时退出快进模式，仍轮到机器人则按正常节奏安排，调用方需持有房间锁
+     *
+     * @param room 麻将房间
+     * @param generation 发起快进时的房间代数
+     */
+    private void continueFastForward(MahjongRoom room, int generation) {
+        try {
+            while (isHeadless(room) && !room.isGameOver()) {
+                if (!room.isGameStarted()) {
+                    if (room.hasHumanPlayer()) {
+                        break;
                     }
+                    handleNextRound(room);
+                    continue;
+                }
 
-                    MahjongTile tileToDiscard = botService.chooseTileToDiscard(bot,
-                            bot.getHand().get(bot.getHand().size() - 1));
+                MahjongPlayer bot = room.getCurrentPlayer();
+                if (!bot.isAutoPlay() || room.getClaimWindow() != null) {
+                    break;
+                }
+                botService.decideDiscard(room, bot, headlessBudgetMillis).thenAcceptAsync(
+                        tile -> applyFastForward(room, generation, bot, tile), executors.actions());
+                return;
+            }
+        } catch (Exception e) {
+            log.error("机器人快进失败", e);
+            room.setFastForward(false);
+            return;
+        }
 
-                    if (tileToDiscard != null) {
-                        Map<String, Object> data = new HashMap<>();
-                        data.put("type", "DISCARD_TILE");
-                        Map<String, Object> tileData = new HashMap<>();
-                        tileData.put("type", tileToDiscard.getType().name());
-                        tileData.put("value", tileToDiscard.getValue());
-                        data.put("tile", tileData);
+        room.setFastForward(false);
+        if (room.isGameStarted() && !room.isGameOver() && room.getCurrentPlayer().isAutoPlay()) {
+            scheduleBotAction(room);
+        }
+    }
 
-                        handleDiscardTile(room, bot.getPlayerId(), data);
+    /**
+     * 快进模式下在房间锁内执行机器人决策并继续快进，房间已被回收、冻结或退出快进时丢弃
+     *
+     * @param room 麻将房间
+     * @param generation 发起快进时的房间代数
+     * @param bot 发起决策的机器人
+     * @param tile 要打出的牌，为null表示自摸胡牌
+     */
+    private void applyFastForward(MahjongRoom room, int generation, MahjongPlayer bot, MahjongTile tile) {
+        lockRoom(room);
+        try {
+            if (room.getGeneration() != generation || !room.isFastForward()) {
+                return;
+            }
+            try {
+                if (room.isGameStarted() && !room.isGameOver() && room.getClaimWindow() == null
+                        && room.getCurrentPlayer() == bot && bot.isAutoPlay()) {
+                    if (tile == null) {
+                        handleWinBySelfDraw(room, bot, room.getLastDrawnTile());
+                    } else {
+                        handleDiscardTile(room, bot.getPlayerId(), discardData(tile));
                     }
                 }
             } catch (Exception e) {
-                log.error("机器人行动失败", e);
+                log.error("机器人快进失败", e);
+                room.setFastForward(false);
+                return;
+            }
+            continueFastForward(room, generation);
+        } finally {
+            room.getLock().unlock();
+        }
+    }
+
+    /**
+     * 判断房间是否无人观看（没有打开的真人会话，也没有观众）
+     *
+     * @param room 麻将房间
+     * @return 是否无人观看
+     */
+    private boolean isHeadless(MahjongRoom room) {
+        return !hasOpenSession(room) && !spectators.hasAudience(spectatorChannel(room));
+    }
+
+    /**
+     * 获取房间的观战频道
+     *
+     * @param room 麻将房间
+     * @return 频道名
+     */
+    private String spectatorChannel(MahjongRoom room) {
+        return SpectatorHub.channel(getGameName(), room.getRoomId());
+    }
+
+    /**
+     * 向观众推送不含手牌的局面快照（开局时使用，替代各玩家的私有开局消息）
+     *
+     * @param room 麻将房间
+     * @throws IOException IO异常
+     */
+    private void publishSpectatorView(MahjongRoom room) throws IOException {
+        String channel = spectatorChannel(room);
+        if (spectators.hasAudience(channel)) {
+            spectators.publish(channel, objectMapper.writeValueAsString(
+                    MahjongMessage.spectate(getPlayersInfo(room), room)));
+        }
+    }
+
+    /**
+     * 判断房间内是否有打开的真人会话
+     *
+     * @param room 麻将房间
+     * @return 是否有打开的真人会话
+     */
+    private boolean hasOpenSession(MahjongRoom room) {
+        for (MahjongPlayer player : room.getPlayers()) {
+            if (!player.isBot() && player.getSession() != null && player.getSession().isOpen()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 构造机器人出牌消息
+     *
+     * @param tile 要打出的牌
+     * @return DISCARD_TILE 消息数据
+     */
+    private static Map<String, Object> discardData(MahjongTile tile) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("type", "DISCARD_TILE");
+        Map<String, Object> tileData = new HashMap<>();
+        tileData.put("type", tile.getType().name());
+        tileData.put("value", tile.getValue());
+        data.put("tile", tileData);
+        return data;
+    }
+
+    /**
+     * 在房间锁内执行机器人的出牌决策，局面已变化（房间被回收、轮次已过、玩家已重连）则丢弃
+     *
+     * @param room 麻将房间
+     * @param generation 发起决策时的房间代数
+     * @param bot 机器人玩家
+     * @param tileToDiscard 要打出的牌，为null表示自摸胡牌
+     */
+    private void applyBotDiscard(MahjongRoom room, int generation, MahjongPlayer bot, MahjongTile tileToDiscard) {
+        try {
+            lockRoom(room);
+            try {
+                if (room.getGeneration() != generation || !room.isGameStarted() || room.isGameOver()) {
+                    return;
+                }
+                if (room.getCurrentPlayer() != bot || !bot.isAutoPlay()) {
+                    return;
+                }
+
+                if (tileToDiscard == null) {
+                    if (room.isDrawnThisTurn() && gameService.canWin(bot.getHand())) {
+                        handleWinBySelfDraw(room, bot, room.getLastDrawnTile());
+                    }
+                } else if (bot.getHand().contains(tileToDiscard)) {
+                    handleDiscardTile(room, bot.getPlayerId(), discardData(tileToDiscard));
+                }
+            } finally {
+                room.getLock().unlock();
             }
-        }, botService.getThinkingDelay(), TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            log.error("机器人行动失败", e);
+        }
+    }
+
+    /**
+     * 记录真人操作，推迟房间的空闲截止时间
+     *
+     * @param room 麻将房间
+     */
+    private void touchRoom(MahjongRoom room) {
+        long now = System.currentTimeMillis();
+        room.setLastActiveAt(now);
+        idleRooms.touch(room.getRoomId(), now + idleSeconds * 1000);
+        publishSummary(room);
+    }
+
+    /**
+     * 在房间锁内发布房间摘要，已从房间表移除的房间（含已归还对象池的）不再发布
+     *
+     * @param room 麻将房间
+     */
+    private void publishSummary(MahjongRoom room) {
+        if (rooms.get(room.getRoomId()) == room) {
+            roomSummaries.publish(RoomSummary.of(getGameName(), room, System.currentTimeMillis()));
+        }
+    }
+
+    /**
+     * 获取房间锁，锁被占用时记录等待时间
+     *
+     * @param room 麻将房间
+     */
+    private void lockRoom(MahjongRoom room) {
+        GameEvents.lock(room.getLock(), "mahjong", room.getRoomId());
+    }
+
+    @Override
+    public String getGameName() {
+        return "mahjong";
+    }
+
+    /**
+     * 回收空闲房间：关闭仍连接但长时间无操作的会话，取消机器人定时任务并释放房间
+     *
+     * @param now 当前时间戳（毫秒）
+     * @param limit 本次最多回收的房间数
+     * @return 回收统计
+     */
+    @Override
+    public ReclaimStats reclaimIdle(long now, int limit) {
+        ReclaimStats stats = new ReclaimStats();
+        for (String roomId : idleRooms.pollExpired(now, limit)) {
+            MahjongRoom room = rooms.get(roomId);
+            if (room == null) {
+                continue;
+            }
+            List<WebSocketSession> sessions = new ArrayList<>();
+            lockRoom(room);
+            try {
+                if (rooms.get(roomId) != room || idleRooms.contains(roomId)) {
+                    continue;
+                }
+                rooms.remove(roomId);
+                roomSummaries.remove(getGameName(), roomId);
+                for (MahjongPlayer player : room.getPlayers()) {
+                    WebSocketSession session = player.getSession();
+                    if (session != null) {
+                        sessionToRoom.remove(session.getId());
+                        sessionToPlayer.remove(session.getId());
+                        resumeTokens.revoke(WebSocketSessionUtils.getResumeToken(session));
+                        sessions.add(session);
+                    }
+                }
+                stats.setBotTasks(stats.getBotTasks() + room.cancelScheduledTasks());
+                stats.setSessions(stats.getSessions() + spectators.close(spectatorChannel(room)));
+                objectPool.releaseRoom(room);
+                stats.setRooms(stats.getRooms() + 1);
+            } finally {
+                room.getLock().unlock();
+            }
+            for (WebSocketSession session : sessions) {
+                closeIdleSession(session);
+                stats.setSessions(stats.getSessions() + 1);
+            }
+            log.info("回收空闲房间 {}，关闭 {} 个会话", roomId, sessions.size());
+        }
+        return stats;
+    }
+
+    /**
+     * 集群成员变化后，把不再归属本节点且未在对局中的房间的玩家与观众重定向到新的归属节点
+     *
+     * @param router 房间路由器
+     * @return 仍在对局中、暂留本节点的房间数
+     */
+    @Override
+    public int rehome(RoomRouter router) {
+        int pinned = 0;
+        for (MahjongRoom room : rooms.values()) {
+            if (router.isLocal(room.getRoomId())) {
+                continue;
+            }
+            List<WebSocketSession> sessions = new ArrayList<>();
+            lockRoom(room);
+            try {
+                if (room.isMigrating()) {
+                    continue;
+                }
+                if (room.isMatchInProgress()) {
+                    pinned++;
+                    continue;
+                }
+                for (MahjongPlayer player : room.getPlayers()) {
+                    if (player.getSession() != null && player.getSession().isOpen()) {
+                        sessions.add(player.getSession());
+                    }
+                }
+                spectators.close(spectatorChannel(room));
+            } finally {
+                room.getLock().unlock();
+            }
+            for (WebSocketSession session : sessions) {
+                try {
+                    sendMessage(session, MahjongMessage.redirect(router.redirectUrl(session, room.getRoomId())));
+                    session.close(RoomRouter.REDIRECT_STATUS);
+                } catch (IOException e) {
+                    log.debug("重定向会话失败: {}", session.getId(), e);
+                }
+            }
+            log.info("房间 {} 已归属节点 {}，重定向 {} 个会话", room.getRoomId(),
+                    router.ownerOf(room.getRoomId()), sessions.size());
+        }
+        return pinned;
+    }
+
+    @Override
+    public Class<MahjongRoomSnapshot> getSnapshotType() {
+        return MahjongRoomSnapshot.class;
+    }
+
+    @Override
+    public List<String> getRoomIds() {
+        return new ArrayList<>(rooms.keySet());
+    }
+
+    /**
+     * 冻结房间并截取快照：作废已安排的机器人动作，之后的玩家操作被拒绝，直到迁移完成或放弃
+     *
+     * @param roomId 房间ID
+     * @return 房间快照，房间不存在、为空或已在迁移中时返回null
+     */
+    @Override
+    public MahjongRoomSnapshot freezeRoom(String roomId) {
+        MahjongRoom room = rooms.get(roomId);
+        if (room == null) {
+            return null;
+        }
+        lockRoom(room);
+        try {
+            if (rooms.get(roomId) != room || room.isEmpty() || room.isMigrating()) {
+                return null;
+            }
+            room.freeze();
+            publishSummary(room);
+            Map<String, String> tokens = new HashMap<>();
+            for (MahjongPlayer player : room.getPlayers()) {
+                if (!player.isBot()) {
+                    tokens.put(player.getPlayerId(), seatToken(room, player));
+                }
+            }
+            return MahjongRoomSnapshot.capture(room, tokens);
+        } finally {
+            room.getLock().unlock();
+        }
+    }
+
+    /**
+     * 目标节点已接管房间：释放本地房间，把玩家带着恢复令牌重定向到目标节点，观众断开后可到目标节点继续观战
+     *
+     * @param roomId 房间ID
+     * @param targetUrl 目标节点的 WebSocket 地址
+     */
+    @Override
+    public void completeMigration(String roomId, String targetUrl) {
+        MahjongRoom room = rooms.get(roomId);
+        if (room == null) {
+            return;
+        }
+        Map<WebSocketSession, String> redirects = new HashMap<>();
+        lockRoom(room);
+        try {
+            if (rooms.get(roomId) != room || !room.isMigrating()) {
+                return;
+            }
+            movedRooms.put(roomId, targetUrl);
+            executors.timer().schedule(() -> movedRooms.remove(roomId, targetUrl),
+                    resumeGraceSeconds, TimeUnit.SECONDS);
+            rooms.remove(roomId);
+            roomSummaries.remove(getGameName(), roomId);
+            idleRooms.remove(roomId);
+            for (MahjongPlayer player : room.getPlayers()) {
+                if (player.isBot()) {
+                    continue;
+                }
+                String token = seatToken(room, player);
+                resumeTokens.revoke(token);
+                WebSocketSession session = player.getSession();
+                if (session != null) {
+                    sessionToRoom.remove(session.getId());
+                    sessionToPlayer.remove(session.getId());
+                    redirects.put(session, targetUrl + "/" + getGameName() + "?room=" + roomId
+                            + "&" + WebSocketSessionUtils.RESUME_TOKEN_ATTR + "=" + token);
+                }
+            }
+            spectators.close(spectatorChannel(room));
+            objectPool.releaseRoom(room);
+        } finally {
+            room.getLock().unlock();
+        }
+        for (Map.Entry<WebSocketSession, String> redirect : redirects.entrySet()) {
+            try {
+                sendMessage(redirect.getKey(), MahjongMessage.redirect(redirect.getValue()));
+                redirect.getKey().close(RoomRouter.REDIRECT_STATUS);
+            } catch (IOException e) {
+                log.debug("重定向会话失败: {}", redirect.getKey().getId(), e);
+            }
+        }
+        log.info("房间 {} 已迁往 {}，重定向 {} 个会话", roomId, targetUrl, redirects.size());
+    }
+
+    /**
+     * 迁移失败：解冻房间，对局在本节点继续
+     *
+     * @param roomId 房间ID
+     */
+    @Override
+    public void abortMigration(String roomId) {
+        MahjongRoom room = rooms.get(roomId);
+        if (room == null) {
+            return;
+        }
+        lockRoom(room);
+        try {
+            if (rooms.get(roomId) == room && room.isMigrating()) {
+                thawRoom(room);
+            }
+        } finally {
+            room.getLock().unlock();
+        }
+    }
+
+    /**
+     * 导入其他节点迁来的房间：按快照重建房间，真人座位进入断线保留状态等待凭原令牌重连，
+     * 全部重连或等待超时后解冻房间继续对局
+     *
+     * @param snapshot 房间快照
+     * @return 导入成功返回true，本节点已存在同名房间返回false
+     */
+    @Override
+    public boolean importRoom(MahjongRoomSnapshot snapshot) {
+        String roomId = snapshot.getRoomId();
+        MahjongRoom room = objectPool.acquireRoom(roomId);
+        lockRoom(room);
+        try {
+            if (rooms.putIfAbsent(roomId, room) != null) {
+                objectPool.releaseRoom(room);
+                return false;
+            }
+            snapshot.restoreInto(room);
+            for (MahjongRoomSnapshot.Seat seat : snapshot.getSeats()) {
+                MahjongPlayer player = objectPool.acquirePlayer(seat.getPlayerId(), seat.getPlayerName(),
+                        seat.isBot(), null);
+                seat.restoreInto(player);
+                room.addPlayer(player);
+                if (!seat.isBot() && seat.getResumeToken() != null) {
+                    String playerId = seat.getPlayerId();
+                    resumeTokens.adopt(seat.getResumeToken(), roomId, playerId, resumeGraceSeconds * 1000,
+                            () -> executors.execute(() -> releaseHeldSeat(roomId, playerId)));
+                }
+            }
+            room.setMigrating(true);
+            movedRooms.remove(roomId);
+            touchRoom(room);
+            int generation = room.getGeneration();
+            room.trackTask(executors.schedule(() -> {
+                lockRoom(room);
+                try {
+                    if (room.getGeneration() == generation && room.isMigrating()) {
+                        thawRoom(room);
+                    }
+                } finally {
+                    room.getLock().unlock();
+                }
+            }, migrationResumeWaitMillis, TimeUnit.MILLISECONDS));
+            log.info("迁入房间 {}，{} 个座位", roomId, snapshot.getSeats().size());
+        } finally {
+            room.getLock().unlock();
+        }
+        return true;
+    }
+
+    /**
+     * 获取真人座位当前的恢复令牌：在线时取自会话，掉线保留中则从登记表查找
+     *
+     * @param room 麻将房间
+     * @param player 真人玩家
+     * @return 恢复令牌，未找到返回null
+     */
+    private String seatToken(MahjongRoom room, MahjongPlayer player) {
+        WebSocketSession session = player.getSession();
+        String token = session == null ? null : WebSocketSessionUtils.getResumeToken(session);
+        return token != null ? token : resumeTokens.findToken(room.getRoomId(), player.getPlayerId());
+    }
+
+    /**
+     * 判断房间内的真人是否都已在线
+     *
+     * @param room 麻将房间
+     * @return 是否都已在线
+     */
+    private boolean allHumansOnline(MahjongRoom room) {
+        for (MahjongPlayer player : room.getPlayers()) {
+            if (!player.isBot() && !player.isOnline()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 解冻房间，轮到托管座位时恢复机器人行动（冻结时取消的自摸胡牌重新安排），轮到真人时重新开始回合计时
+     *
+     * @param room 麻将房间
+     */
+    private void thawRoom(MahjongRoom room) {
+        room.setMigrating(false);
+        publishSummary(room);
+        if (room.getClaimWindow() != null) {
+            scheduleClaimDeadline(room, room.getClaimWindow());
+            return;
+        }
+        if (!room.isGameStarted() || room.isGameOver()) {
+            return;
+        }
+        MahjongPlayer current = room.getCurrentPlayer();
+        try {
+            if (current.isAutoPlay() && room.isDrawnThisTurn() && gameService.canWin(current.getHand())) {
+                scheduleBotWin(room, current, room.getLastDrawnTile());
+            } else if (current.isAutoPlay()) {
+                scheduleBotAction(room);
+            } else {
+                startTurnClock(room, current, null);
+            }
+        } catch (IOException e) {
+            log.error("恢复房间行动失败", e);
+        }
+    }
+
+    /**
+     * 通知并关闭空闲会话
+     *
+     * @param session WebSocket会话
+     */
+    private void closeIdleSession(WebSocketSession session) {
+        try {
+            sendMessage(session, MahjongMessage.error("长时间无操作，已离开房间"));
+            session.close(CloseStatus.GOING_AWAY.withReason("idle"));
+        } catch (IOException e) {
+            log.debug("关闭空闲会话失败: {}", session.getId(), e);
+        }
     }
 
     private List<Map<String, Object>> getPlayersInfo(MahjongRoom room) {
@@ -456,6 +1956,11 @@ public class MahjongWebSocketHandler extends TextWebSocketHandler {
             playerInfo.put("playerId", p.getPlayerId());
             playerInfo.put("playerName", p.getPlayerName());
             playerInfo.put("isBot", p.isBot());
+            if (p.isBot()) {
+                playerInfo.put("botStrategy", p.getBotStrategy() != null ? p.getBotStrategy() : room.getBotDifficulty());
+            }
+            playerInfo.put("online", p.isBot() || p.isOnline());
+            playerInfo.put("away", p.isAway());
             playerInfo.put("position", p.getPosition());
             playerInfo.put("isDealer", p.isDealer());
             playerInfo.put("score", p.getScore());
@@ -467,31 +1972,104 @@ public class MahjongWebSocketHandler extends TextWebSocketHandler {
     }
 
     private void broadcastRoomUpdate(MahjongRoom room) throws IOException {
+        if (isHeadless(room)) {
+            return;
+        }
         List<Map<String, Object>> playersInfo = getPlayersInfo(room);
         MahjongMessage msg = MahjongMessage.roomUpdate(playersInfo);
         broadcastMessage(room, msg);
     }
 
     private void broadcastMessage(MahjongRoom room, MahjongMessage message) throws IOException {
+        publishSummary(room);
+        if (isHeadless(room)) {
+            return;
+        }
+        Object event = GameEvents.beginBroadcast();
         String json = objectMapper.writeValueAsString(message);
+        TextMessage frame = coalescer == null ? new TextMessage(json) : null;
+        int recipients = 0;
         for (MahjongPlayer player : room.getPlayers()) {
             if (!player.isBot() && player.getSession() != null && player.getSession().isOpen()) {
-                player.getSession().sendMessage(new TextMessage(json));
+                if (coalescer == null) {
+                    player.getSession().sendMessage(frame);
+                } else {
+                    coalescer.enqueue(room.getRoomId(), player.getSession(), json, mergeKey(message));
+                }
+                recipients++;
             }
         }
+        spectators.publish(spectatorChannel(room), json);
+        GameEvents.endBroadcast(event, "mahjong", room.getRoomId(), message.getType(), recipients, json);
+    }
+
+    /**
+     * 用处理器自己的 ObjectMapper 编码一条消息、解码一条客户端指令，供启动预热建立序列化器缓存
+     *
+     * @param message 麻将消息
+     * @param command 客户端指令JSON
+     * @return 编码后的长度
+     * @throws IOException 编解码失败
+     */
+    public static int exerciseCodec(MahjongMessage message, String command) throws IOException {
+        String json = objectMapper.writeValueAsString(message);
+        objectMapper.readValue(command, Map.class);
+        return json.length();
     }
 
     private void sendMessageToPlayer(MahjongPlayer player, MahjongMessage message) throws IOException {
         if (!player.isBot() && player.getSession() != null && player.getSession().isOpen()) {
             String json = objectMapper.writeValueAsString(message);
-            player.getSession().sendMessage(new TextMessage(json));
+            String roomId = coalescer == null ? null : sessionToRoom.get(player.getSession().getId());
+            if (roomId == null) {
+                player.getSession().sendMessage(new TextMessage(json));
+            } else {
+                coalescer.enqueue(roomId, player.getSession(), json, mergeKey(message));
+            }
+        }
+    }
+
+    /**
+     * 合批时可合并的消息类型：ROOM_UPDATE 携带完整的座位信息，一个周期内只需发最新一条
+     *
+     * @param message 麻将消息
+     * @return 合并键，不可合并时为null
+     */
+    private static String mergeKey(MahjongMessage message) {
+        return "ROOM_UPDATE".equals(message.getType()) ? message.getType() : null;
+    }
+
+    /**
+     * 入站限流，在解析 JSON 与获取房间锁之前执行：超限的帧直接丢弃，开始禁言时通知客户端，屡犯者断开连接
+     *
+     * @param session 会话
+     * @return 是否放行
+     * @throws IOException IO异常
+     */
+    private boolean admitInbound(WebSocketSession session) throws IOException {
+        switch (rateLimiter.admit(session, "mahjong", sessionToRoom.get(session.getId()))) {
+            case ALLOW:
+                return true;
+            case MUTE:
+                sendMessage(session, MahjongMessage.error("操作过于频繁，请稍后再试"));
+                return false;
+            case DISCONNECT:
+                session.close(CloseStatus.POLICY_VIOLATION.withReason("rate limit"));
+                return false;
+            default:
+                return false;
         }
     }
 
     private void sendMessage(WebSocketSession session, MahjongMessage message) throws IOException {
         if (session != null && session.isOpen()) {
             String json = objectMapper.writeValueAsString(message);
-            session.sendMessage(new TextMessage(json));
+            String roomId = coalescer == null ? null : sessionToRoom.get(session.getId());
+            if (roomId == null) {
+                session.sendMessage(new TextMessage(json));
+            } else {
+                coalescer.sendNow(roomId, session, json);
+            }
         }
     }
 }
@@ -0,0 +1,242 @@
+package com.jeizas.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.socket.BinaryMessage;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.zip.Deflater;
+
+/**
+ * 出站消息压缩：客户端在握手时声明子协议 {@link #PROTOCOL} 后，超过阈值的文本消息改为二进制帧发送，
+ * 内容为以共享字典为预置窗口的 raw deflate（客户端把字典作为一个未压缩块前置即可用标准解压流还原）。
+ * Deflater 放在池中按消息借还，不按连接常驻，避免每个连接各占一份压缩窗口；节省的字节数与压缩耗时记入指标。
+ * 广播与观战推送的同一条消息只压缩一次：最近的压缩结果按消息内容的引用缓存，发给其他会话时直接复用
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+@Component
+public class MessageCompressor {
+
+    /** 压缩子协议 */
+    public static final String PROTOCOL = "json.deflate.v1";
+
+    /** 共享字典在类路径中的位置（同时作为静态资源供客户端下载） */
+    static final String DICTIONARY = "static/ws-dict-v1.txt";
+
+    /** 最近压缩结果的缓存槽数（2的幂） */
+    private static final int RECENT_SLOTS = 64;
+
+    /** 是否启用 */
+    private final boolean enabled;
+
+    /** 压缩阈值（字符数），短于该长度的消息原样发送 */
+    private final int minLength;
+
+    /** 压缩级别 */
+    private final int level;
+
+    /** 共享字典 */
+    private final byte[] dictionary;
+
+    /** 空闲的 Deflater */
+    private final BlockingQueue<Deflater> pool;
+
+    /** 最近的压缩结果，按消息内容的引用哈希定位槽位 */
+    private final AtomicReferenceArray<Recent> recent = new AtomicReferenceArray<>(RECENT_SLOTS);
+
+    /** 压缩的消息数 */
+    private final Counter compressed;
+
+    /** 低于阈值或压缩无收益而原样发送的消息数 */
+    private final Counter skipped;
+
+    /** 复用同一内容已有压缩结果的消息数 */
+    private final Counter reused;
+
+    /** 节省的字节数 */
+    private final Counter bytesSaved;
+
+    /** 压缩耗时 */
+    private final Timer compressTime;
+
+    /**
+     * 构造函数
+     *
+     * @param enabled 是否启用
+     * @param minLength 压缩阈值（字符数）
+     * @param level 压缩级别（1-9）
+     * @param poolSize Deflater 池容量
+     * @param meterRegistry 指标注册表
+     * @throws IOException 读取共享字典失败
+     */
+    public MessageCompressor(@Value("${game.ws.compression.enabled:true}") boolean enabled,
+                             @Value("${game.ws.compression.min-length:512}") int minLength,
+                             @Value("${game.ws.compression.level:6}") int level,
+                             @Value("${game.ws.compression.pool-size:64}") int poolSize,
+                             MeterRegistry meterRegistry) throws IOException {
+        this.enabled = enabled;
+        this.minLength = minLength;
+        this.level = level;
+        try (InputStream in = new ClassPathResource(DICTIONARY).getInputStream()) {
+            this.dictionary = StreamUtils.copyToByteArray(in);
+        }
+        this.pool = new ArrayBlockingQueue<>(Math.max(1, poolSize));
+        this.compressed = Counter.builder("game.ws.compression.messages").tag("result", "compressed")
+                .register(meterRegistry);
+        this.skipped = Counter.builder("game.ws.compression.messages").tag("result", "skipped")
+                .register(meterRegistry);
+        this.reused = Counter.builder("game.ws.compression.messages").tag("result", "reused")
+                .register(meterRegistry);
+        this.bytesSaved = Counter.builder("game.ws.compression.bytes.saved").baseUnit("bytes")
+                .register(meterRegistry);
+        this.compressTime = Timer.builder("game.ws.compression.time").register(meterRegistry);
+    }
+
+    /**
+     * 是否启用压缩
+     *
+     * @return 是否启用
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 压缩一条文本消息，同一内容对象（广播给多个会话的同一条消息）只压缩一次
+     *
+     * @param payload 文本消息内容
+     * @return 二进制帧，每次调用都是新的帧实例；低于阈值或压缩后不更短时返回null（调用方原样发送文本帧）
+     */
+    public BinaryMessage compress(String payload) {
+        if (payload.length() < minLength) {
+            skipped.increment();
+            return null;
+        }
+        int slot = System.identityHashCode(payload) & (RECENT_SLOTS - 1);
+        Recent hit = recent.get(slot);
+        if (hit == null || hit.payload != payload) {
+            hit = deflatePayload(payload);
+            recent.set(slot, hit);
+        } else {
+            reused.increment();
+        }
+        if (hit.output == null) {
+            skipped.increment();
+            return null;
+        }
+        compressed.increment();
+        bytesSaved.increment(hit.savedBytes);
+        // 帧的 ByteBuffer 在发送时会被读走，共享的是字节数组，每个会话各包一个帧
+        return new BinaryMessage(hit.output);
+    }
+
+    /**
+     * 压缩消息内容并记录耗时
+     *
+     * @param payload 文本消息内容
+     * @return 压缩结果
+     */
+    private Recent deflatePayload(String payload) {
+        long start = System.nanoTime();
+        byte[] input = payload.getBytes(StandardCharsets.UTF_8);
+        byte[] output = deflate(input);
+        compressTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return output.length < input.length
+                ? new Recent(payload, output, input.length - output.length) : new Recent(payload, null, 0);
+    }
+
+    /**
+     * 借一个 Deflater 以共享字典为预置窗口压缩
+     *
+     * @param input 原始字节
+     * @return raw deflate 字节
+     */
+    byte[] deflate(byte[] input) {
+        Deflater deflater = pool.poll();
+        if (deflater == null) {
+            deflater = new Deflater(level, true);
+        }
+        try {
+            deflater.setDictionary(dictionary);
+            deflater.setInput(input);
+            deflater.finish();
+            byte[] buffer = new byte[input.length / 2 + 64];
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+                length += deflater.deflate(buffer, length, buffer.length - length);
+            }
+            return Arrays.copyOf(buffer, length);
+        } finally {
+            deflater.reset();
+            if (!pool.offer(deflater)) {
+                deflater.end();
+            }
+        }
+    }
+
+    /**
+     * 获取共享字典
+     *
+     * @return 字典字节
+     */
+    byte[] getDictionary() {
+        return dictionary;
+    }
+
+    /**
+     * 释放池中的 Deflater
+     */
+    @PreDestroy
+    public void shutdown() {
+        Deflater deflater;
+        while ((deflater = pool.poll()) != null) {
+            deflater.end();
+        }
+    }
+
+    /**
+     * 一条消息内容及其压缩结果
+     */
+    private static final class Recent {
+
+        /** 消息内容，按引用比较 */
+        private final String payload;
+
+        /** 压缩结果，压缩无收益时为null */
+        private final byte[] output;
+
+        /** 相比原始 UTF-8 字节节省的字节数 */
+        private final int savedBytes;
+
+        /**
+         * 构造函数
+         *
+         * @param payload 消息内容
+         * @param output 压缩结果
+         * @param savedBytes 节省的字节数
+         */
+        Recent(String payload, byte[] output, int savedBytes) {
+            this.payload = payload;
+            this.output = output;
+            this.savedBytes = savedBytes;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.jeizas.websocket;
+
+import com.jeizas.service.GameExecutors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 出站消息合批：同一房间在一个刷新周期内产生的消息按接收者暂存，周期结束时每个接收者只发一帧，
+ * 多条消息合并为 JSON 数组，只有一条时原样发送。可合并的消息（如 ROOM_UPDATE）只保留最新一条。
+ * 每个接收者的消息都经过同一队列，顺序与产生顺序一致
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+@Slf4j
+public class OutboundCoalescer {
+
+    /** 房间ID到待发批次的映射 */
+    private final Map<String, Batch> batches = new ConcurrentHashMap<>();
+
+    /** 游戏动作执行器，刷新在其上执行 */
+    private final GameExecutors executors;
+
+    /** 刷新周期（毫秒） */
+    private final long tickMillis;
+
+    /**
+     * 构造函数
+     *
+     * @param executors 游戏动作执行器
+     * @param tickMillis 刷新周期（毫秒）
+     */
+    public OutboundCoalescer(GameExecutors executors, long tickMillis) {
+        this.executors = executors;
+        this.tickMillis = tickMillis;
+    }
+
+    /**
+     * 暂存一条消息，本周期内第一条消息安排刷新
+     *
+     * @param roomId 房间ID
+     * @param session 接收者会话
+     * @param json 消息JSON
+     * @param mergeKey 合并键，同一接收者已有相同合并键的待发消息时替换为本条；不可合并时为null
+     */
+    public void enqueue(String roomId, WebSocketSession session, String json, String mergeKey) {
+        while (true) {
+            Batch batch = batches.computeIfAbsent(roomId, Batch::new);
+            batch.lock.lock();
+            try {
+                if (batch.retired) {
+                    continue;
+                }
+                List<Pending> queue = batch.pending.computeIfAbsent(session, s -> new ArrayList<>(4));
+                if (mergeKey != null) {
+                    queue.removeIf(p -> mergeKey.equals(p.mergeKey));
+                }
+                queue.add(new Pending(json, mergeKey));
+                if (!batch.scheduled) {
+                    batch.scheduled = true;
+                    executors.schedule(() -> flush(batch), tickMillis, TimeUnit.MILLISECONDS);
+                }
+                return;
+            } finally {
+                batch.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 立即发送一条消息：先发出该接收者在本周期内暂存的消息，保证顺序不乱
+     *
+     * @param roomId 房间ID
+     * @param session 接收者会话
+     * @param json 消息JSON
+     * @throws IOException IO异常
+     */
+    public void sendNow(String roomId, WebSocketSession session, String json) throws IOException {
+        Batch batch = batches.get(roomId);
+        if (batch == null) {
+            session.sendMessage(new TextMessage(json));
+            return;
+        }
+        batch.lock.lock();
+        try {
+            List<Pending> queue = batch.pending.remove(session);
+            if (queue != null) {
+                send(session, queue);
+            }
+            session.sendMessage(new TextMessage(json));
+        } finally {
+            batch.lock.unlock();
+        }
+    }
+
+    /**
+     * 发送一个批次：每个接收者一帧，发完即退役，之后的消息进入新批次
+     *
+     * @param batch 批次
+     */
+    private void flush(Batch batch) {
+        batch.lock.lock();
+        try {
+            Iterator<Map.Entry<WebSocketSession, List<Pending>>> it = batch.pending.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<WebSocketSession, List<Pending>> entry = it.next();
+                it.remove();
+                send(entry.getKey(), entry.getValue());
+            }
+            batch.scheduled = false;
+            batch.retired = true;
+            batches.remove(batch.roomId, batch);
+        } finally {
+            batch.lock.unlock();
+        }
+    }
+
+    /**
+     * 向一个接收者发送合并后的帧
+     *
+     * @param session 接收者会话
+     * @param queue 待发消息
+     */
+    private static void send(WebSocketSession session, List<Pending> queue) {
+        if (!session.isOpen()) {
+            return;
+        }
+        String payload;
+        if (queue.size() == 1) {
+            payload = queue.get(0).json;
+        } else {
+            StringBuilder builder = new StringBuilder();
+            for (Pending p : queue) {
+                builder.append(builder.length() == 0 ? '[' : ',').append(p.json);
+            }
+            payload = builder.append(']').toString();
+        }
+        try {
+            session.sendMessage(new TextMessage(payload));
+        } catch (IOException | IllegalStateException e) {
+            log.debug("合批发送失败: {}", session.getId(), e);
+        }
+    }
+
+    /**
+     * 房间的待发批次
+     */
+    private static final class Batch {
+
+        /** 房间ID */
+        private final String roomId;
+
+        /** 批次锁，刷新时持锁发送，保证同一接收者的帧有序 */
+        private final ReentrantLock lock = new ReentrantLock();
+
+        /** 接收者到待发消息的映射（按首次入队顺序） */
+        private final Map<WebSocketSession, List<Pending>> pending = new LinkedHashMap<>();
+
+        /** 是否已安排刷新 */
+        private boolean scheduled;
+
+        /** 是否已刷新退役，退役后的批次不再接收消息 */
+        private boolean retired;
+
+        /**
+         * 构造函数
+         *
+         * @param roomId 房间ID
+         */
+        Batch(String roomId) {
+            this.roomId = roomId;
+        }
+    }
+
+    /**
+     * 待发消息
+     */
+    private static final class Pending {
+
+        /** 消息JSON */
+        private final String json;
+
+        /** 合并键 */
+        private final String mergeKey;
+
+        /**
+         * 构造函数
+         *
+         * @param json 消息JSON
+         * @param mergeKey 合并键
+         */
+        Pending(String json, String mergeKey) {
+            this.json = json;
+            this.mergeKey = mergeKey;
+        }
+    }
+}
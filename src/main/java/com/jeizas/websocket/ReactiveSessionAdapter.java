@@ -0,0 +1,197 @@
+package com.jeizas.websocket;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.socket.HandshakeInfo;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketExtension;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.security.Principal;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 将 WebFlux 的响应式会话适配为 servlet 风格的 WebSocketSession，使游戏处理器无需修改即可运行在 Netty 上
+ * 出站消息写入有界缓冲，由 Netty 按客户端消费速度发送；缓冲写满说明客户端跟不上，直接断开而不是无限堆积
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+public class ReactiveSessionAdapter implements WebSocketSession {
+
+    /** 响应式会话 */
+    private final org.springframework.web.reactive.socket.WebSocketSession delegate;
+
+    /** 会话属性 */
+    private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+
+    /** 出站消息缓冲 */
+    private final Sinks.Many<String> outbound;
+
+    /** 会话是否打开 */
+    private final AtomicBoolean open = new AtomicBoolean(true);
+
+    /** 文本消息大小上限 */
+    private volatile int textMessageSizeLimit;
+
+    /** 二进制消息大小上限 */
+    private volatile int binaryMessageSizeLimit;
+
+    /**
+     * 构造函数
+     *
+     * @param delegate 响应式会话
+     * @param bufferSize 出站缓冲的消息条数上限
+     */
+    public ReactiveSessionAdapter(org.springframework.web.reactive.socket.WebSocketSession delegate, int bufferSize) {
+        this.delegate = delegate;
+        this.outbound = Sinks.many().unicast().onBackpressureBuffer(new ArrayBlockingQueue<>(Math.max(1, bufferSize)));
+        this.attributes.putAll(delegate.getAttributes());
+    }
+
+    /**
+     * 获取出站消息流，交给响应式会话发送
+     *
+     * @return 出站消息流
+     */
+    public Flux<org.springframework.web.reactive.socket.WebSocketMessage> outbound() {
+        return outbound.asFlux().map(delegate::textMessage);
+    }
+
+    /**
+     * 连接已断开，结束出站消息流
+     */
+    public void markClosed() {
+        if (open.compareAndSet(true, false)) {
+            synchronized (this) {
+                outbound.tryEmitComplete();
+            }
+        }
+    }
+
+    @Override
+    public String getId() {
+        return delegate.getId();
+    }
+
+    @Override
+    public URI getUri() {
+        return handshakeInfo().getUri();
+    }
+
+    @Override
+    public HttpHeaders getHandshakeHeaders() {
+        return handshakeInfo().getHeaders();
+    }
+
+    @Override
+    public Map<String, Object> getAttributes() {
+        return attributes;
+    }
+
+    @Override
+    public Principal getPrincipal() {
+        return null;
+    }
+
+    @Override
+    public InetSocketAddress getLocalAddress() {
+        return null;
+    }
+
+    @Override
+    public InetSocketAddress getRemoteAddress() {
+        return handshakeInfo().getRemoteAddress();
+    }
+
+    @Override
+    public String getAcceptedProtocol() {
+        return handshakeInfo().getSubProtocol();
+    }
+
+    @Override
+    public void setTextMessageSizeLimit(int messageSizeLimit) {
+        this.textMessageSizeLimit = messageSizeLimit;
+    }
+
+    @Override
+    public int getTextMessageSizeLimit() {
+        return textMessageSizeLimit;
+    }
+
+    @Override
+    public void setBinaryMessageSizeLimit(int messageSizeLimit) {
+        this.binaryMessageSizeLimit = messageSizeLimit;
+    }
+
+    @Override
+    public int getBinaryMessageSizeLimit() {
+        return binaryMessageSizeLimit;
+    }
+
+    @Override
+    public List<WebSocketExtension> getExtensions() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * 写入出站缓冲，缓冲已满时断开会话
+     *
+     * @param message 消息，只支持文本消息
+     * @throws IOException 会话已关闭或缓冲已满
+     */
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) throws IOException {
+        if (!(message instanceof TextMessage)) {
+            throw new IllegalArgumentException("只支持文本消息: " + message.getClass().getSimpleName());
+        }
+        Sinks.EmitResult result;
+        synchronized (this) {
+            if (!open.get()) {
+                throw new IOException("会话已关闭: " + getId());
+            }
+            result = outbound.tryEmitNext(((TextMessage) message).getPayload());
+        }
+        if (result.isFailure()) {
+            close(CloseStatus.SESSION_NOT_RELIABLE);
+            throw new IOException("出站缓冲已满，断开会话: " + getId() + " (" + result + ")");
+        }
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open.get() && delegate.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+        close(CloseStatus.NORMAL);
+    }
+
+    @Override
+    public void close(CloseStatus status) throws IOException {
+        markClosed();
+        delegate.close(new org.springframework.web.reactive.socket.CloseStatus(status.getCode(), status.getReason()))
+                .subscribe();
+    }
+
+    /**
+     * 获取握手信息
+     *
+     * @return 握手信息
+     */
+    private HandshakeInfo handshakeInfo() {
+        return delegate.getHandshakeInfo();
+    }
+}
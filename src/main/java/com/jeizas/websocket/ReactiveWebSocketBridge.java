@@ -0,0 +1,122 @@
+package com.jeizas.websocket;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.WebSocketSession;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * 响应式 WebSocket 桥接器，把 Netty 上的响应式会话交给原有的游戏处理器
+ * 入站消息在游戏工作线程上按到达顺序逐条处理，不阻塞 Netty 事件循环；出站消息经有界缓冲按客户端速度发送
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+@Slf4j
+public class ReactiveWebSocketBridge implements org.springframework.web.reactive.socket.WebSocketHandler {
+
+    /** 游戏处理器 */
+    private final org.springframework.web.socket.WebSocketHandler delegate;
+
+    /** 游戏工作线程 */
+    private final Scheduler scheduler;
+
+    /** 每个会话的出站缓冲条数上限 */
+    private final int outboundBufferSize;
+
+    /**
+     * 构造函数
+     *
+     * @param delegate 游戏处理器
+     * @param scheduler 游戏工作线程
+     * @param outboundBufferSize 每个会话的出站缓冲条数上限
+     */
+    public ReactiveWebSocketBridge(org.springframework.web.socket.WebSocketHandler delegate, Scheduler scheduler,
+                                   int outboundBufferSize) {
+        this.delegate = delegate;
+        this.scheduler = scheduler;
+        this.outboundBufferSize = outboundBufferSize;
+    }
+
+    @Override
+    public Mono<Void> handle(WebSocketSession session) {
+        ReactiveSessionAdapter adapter = new ReactiveSessionAdapter(session, outboundBufferSize);
+
+        Mono<Void> input = session.receive()
+                .filter(message -> message.getType() == WebSocketMessage.Type.TEXT)
+                .map(WebSocketMessage::getPayloadAsText)
+                .publishOn(scheduler)
+                .doOnNext(payload -> dispatch(adapter, payload))
+                .doFinally(signal -> adapter.markClosed())
+                .then();
+        Mono<Void> output = session.send(adapter.outbound());
+
+        return Mono.fromRunnable(() -> established(adapter))
+                .subscribeOn(scheduler)
+                .then(Mono.when(input, output))
+                .doFinally(signal -> scheduler.schedule(() -> closed(adapter)));
+    }
+
+    /**
+     * 通知游戏处理器连接已建立
+     *
+     * @param adapter 会话适配器
+     */
+    private void established(ReactiveSessionAdapter adapter) {
+        try {
+            delegate.afterConnectionEstablished(adapter);
+        } catch (Exception e) {
+            log.error("处理连接建立失败: {}", adapter.getId(), e);
+            closeQuietly(adapter, CloseStatus.SERVER_ERROR);
+        }
+    }
+
+    /**
+     * 交给游戏处理器处理一条文本消息，出错时与 servlet 方式一样关闭会话
+     *
+     * @param adapter 会话适配器
+     * @param payload 消息内容
+     */
+    private void dispatch(ReactiveSessionAdapter adapter, String payload) {
+        if (!adapter.isOpen()) {
+            return;
+        }
+        try {
+            delegate.handleMessage(adapter, new TextMessage(payload));
+        } catch (Exception e) {
+            log.error("处理消息失败: {}", adapter.getId(), e);
+            closeQuietly(adapter, CloseStatus.SERVER_ERROR);
+        }
+    }
+
+    /**
+     * 通知游戏处理器连接已关闭
+     *
+     * @param adapter 会话适配器
+     */
+    private void closed(ReactiveSessionAdapter adapter) {
+        adapter.markClosed();
+        try {
+            delegate.afterConnectionClosed(adapter, CloseStatus.NORMAL);
+        } catch (Exception e) {
+            log.error("处理连接关闭失败: {}", adapter.getId(), e);
+        }
+    }
+
+    /**
+     * 关闭会话并忽略异常
+     *
+     * @param adapter 会话适配器
+     * @param status 关闭状态
+     */
+    private void closeQuietly(ReactiveSessionAdapter adapter, CloseStatus status) {
+        try {
+            adapter.close(status);
+        } catch (Exception e) {
+            log.debug("关闭会话失败: {}", adapter.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.jeizas.websocket;
+
+import lombok.Data;
+
+/**
+ * 空闲回收统计
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+@Data
+public class ReclaimStats {
+
+    /** 释放的房间数 */
+    private int rooms;
+
+    /** 关闭的会话数 */
+    private int sessions;
+
+    /** 取消的机器人定时任务数 */
+    private int botTasks;
+}
@@ -0,0 +1,182 @@
+package com.jeizas.websocket;
+
+import lombok.Getter;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 断线重连令牌登记表，为每个座位签发恢复令牌，并在断线后保留座位一段宽限时间
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+public class ResumeTokenRegistry {
+
+    /** 令牌到座位保留信息的映射 */
+    private final Map<String, Reservation> reservations = new ConcurrentHashMap<>();
+
+    /** 宽限期到期任务所使用的调度器 */
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * 构造函数
+     *
+     * @param scheduler 宽限期到期任务所使用的调度器
+     */
+    public ResumeTokenRegistry(ScheduledExecutorService scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * 为座位签发新的恢复令牌
+     *
+     * @param roomId 房间ID
+     * @param seatId 座位标识（麻将为玩家ID，五子棋为棋子颜色）
+     * @return 恢复令牌
+     */
+    public String issue(String roomId, String seatId) {
+        String token = UUID.randomUUID().toString();
+        reservations.put(token, new Reservation(roomId, seatId));
+        return token;
+    }
+
+    /**
+     * 接收从其他节点迁来的座位：沿用原令牌，座位直接进入断线保留状态
+     *
+     * @param token 原节点签发的恢复令牌
+     * @param roomId 房间ID
+     * @param seatId 座位标识
+     * @param graceMillis 宽限时间（毫秒）
+     * @param onExpire 宽限期到期回调
+     */
+    public void adopt(String token, String roomId, String seatId, long graceMillis, Runnable onExpire) {
+        reservations.put(token, new Reservation(roomId, seatId));
+        hold(token, graceMillis, onExpire);
+    }
+
+    /**
+     * 查找座位当前的恢复令牌（用于迁移断线保留中的座位）
+     *
+     * @param roomId 房间ID
+     * @param seatId 座位标识
+     * @return 恢复令牌，未找到返回null
+     */
+    public String findToken(String roomId, String seatId) {
+        for (Map.Entry<String, Reservation> entry : reservations.entrySet()) {
+            Reservation reservation = entry.getValue();
+            if (reservation.roomId.equals(roomId) && reservation.seatId.equals(seatId)) {
+                return entry.getKey();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 连接断开后保留座位，宽限期内未恢复则执行到期回调
+     *
+     * @param token 恢复令牌
+     * @param graceMillis 宽限时间（毫秒）
+     * @param onExpire 宽限期到期回调
+     * @return 令牌有效并开始保留返回true，否则返回false
+     */
+    public boolean hold(String token, long graceMillis, Runnable onExpire) {
+        Reservation reservation = token == null ? null : reservations.get(token);
+        if (reservation == null || !reservation.held.compareAndSet(false, true)) {
+            return false;
+        }
+        reservation.heldAt = System.currentTimeMillis();
+        reservation.expiry = scheduler.schedule(() -> {
+            if (reservation.held.compareAndSet(true, false)) {
+                reservations.remove(token, reservation);
+                onExpire.run();
+            }
+        }, graceMillis, TimeUnit.MILLISECONDS);
+        return true;
+    }
+
+    /**
+     * 使用令牌恢复被保留的座位
+     *
+     * @param token 恢复令牌
+     * @return 被保留的座位信息，令牌无效或座位未处于保留状态返回null
+     */
+    public Reservation resume(String token) {
+        Reservation reservation = token == null ? null : reservations.get(token);
+        if (reservation == null || !reservation.held.compareAndSet(true, false)) {
+            return null;
+        }
+        ScheduledFuture<?> expiry = reservation.expiry;
+        if (expiry != null) {
+            expiry.cancel(false);
+        }
+        return reservation;
+    }
+
+    /**
+     * 作废令牌（玩家正常离开或座位已释放）
+     *
+     * @param token 恢复令牌
+     */
+    public void revoke(String token) {
+        if (token == null) {
+            return;
+        }
+        Reservation reservation = reservations.remove(token);
+        if (reservation != null && reservation.held.compareAndSet(true, false)) {
+            ScheduledFuture<?> expiry = reservation.expiry;
+            if (expiry != null) {
+                expiry.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * 判断令牌对应的座位是否处于断线保留状态
+     *
+     * @param token 恢复令牌
+     * @return 是否处于保留状态
+     */
+    public boolean isHeld(String token) {
+        Reservation reservation = token == null ? null : reservations.get(token);
+        return reservation != null && reservation.held.get();
+    }
+
+    /**
+     * 座位保留信息
+     */
+    @Getter
+    public static final class Reservation {
+
+        /** 房间ID */
+        private final String roomId;
+
+        /** 座位标识 */
+        private final String seatId;
+
+        /** 是否处于断线保留状态 */
+        private final AtomicBoolean held = new AtomicBoolean(false);
+
+        /** 开始保留的时间戳 */
+        private volatile long heldAt;
+
+        /** 宽限期到期任务 */
+        private volatile ScheduledFuture<?> expiry;
+
+        /**
+         * 构造函数
+         *
+         * @param roomId 房间ID
+         * @param seatId 座位标识
+         */
+        Reservation(String roomId, String seatId) {
+            this.roomId = roomId;
+            this.seatId = seatId;
+        }
+    }
+}
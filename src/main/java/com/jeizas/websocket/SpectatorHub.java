@@ -0,0 +1,565 @@
+package com.jeizas.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 观战广播中心，按频道（游戏+房间）管理观众会话
+ * 每个事件只编码一次，共享同一个 TextMessage 帧；频道的分发任务在分发线程池上只把帧放进各观众自己的有界发送队列，
+ * 从不写套接字。阻塞的套接字写出与关闭都在单独的写出线程池上执行，每个观众同时只占用一个写出线程并按序写出；
+ * 看门狗定期检查，单次写出超时的观众被断开，积压超出缓冲的观众在入队时被断开。
+ * 慢连接只占用自己的写出线程，分发线程不会因此阻塞，其他观众、其他频道和就座玩家的推送不受影响
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+@Slf4j
+@Component
+public class SpectatorHub {
+
+    /** 会话属性：观战频道 */
+    public static final String CHANNEL_ATTR = "spectatorChannel";
+
+    /** 频道到观众的映射 */
+    private final Map<String, Audience> audiences = new ConcurrentHashMap<>();
+
+    /** 分发线程池：只把帧放进观众的发送队列，不做阻塞操作 */
+    private final ExecutorService dispatcher;
+
+    /** 写出线程池：执行阻塞的套接字写出与关闭，按需创建线程，慢连接只占用自己的线程 */
+    private final ExecutorService writers;
+
+    /** 看门狗：定期断开单次写出超时的观众 */
+    private final ScheduledExecutorService watchdog;
+
+    /** 单次发送的最长时间（毫秒） */
+    private final int sendTimeLimitMillis;
+
+    /** 每个观众发送队列的上限（字节） */
+    private final int bufferSizeLimit;
+
+    /** 每个频道的观众上限 */
+    private final int maxPerChannel;
+
+    /** 当前观众总数 */
+    private final AtomicInteger total = new AtomicInteger();
+
+    /** 推送的帧数 */
+    private final Counter framesSent;
+
+    /** 因缓冲溢出或发送失败被移除的观众数 */
+    private final Counter dropped;
+
+    /**
+     * 构造函数
+     *
+     * @param threads 分发线程数
+     * @param sendTimeLimitMillis 单次发送的最长时间（毫秒）
+     * @param bufferSizeLimit 每个观众的发送缓冲上限（字节）
+     * @param maxPerChannel 每个频道的观众上限
+     * @param meterRegistry 指标注册表
+     */
+    public SpectatorHub(@Value("${game.spectator.threads:2}") int threads,
+                        @Value("${game.spectator.send-time-limit-ms:5000}") int sendTimeLimitMillis,
+                        @Value("${game.spectator.buffer-size-limit:262144}") int bufferSizeLimit,
+                        @Value("${game.spectator.max-per-room:5000}") int maxPerChannel,
+                        MeterRegistry meterRegistry) {
+        AtomicInteger fanoutCounter = new AtomicInteger();
+        this.dispatcher = Executors.newFixedThreadPool(Math.max(1, threads), r ->
+                lowPriorityThread(r, "spectator-fanout-" + fanoutCounter.incrementAndGet()));
+        AtomicInteger writerCounter = new AtomicInteger();
+        this.writers = Executors.newCachedThreadPool(r ->
+                lowPriorityThread(r, "spectator-writer-" + writerCounter.incrementAndGet()));
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(r -> lowPriorityThread(r, "spectator-watchdog"));
+        this.sendTimeLimitMillis = sendTimeLimitMillis;
+        this.bufferSizeLimit = bufferSizeLimit;
+        this.maxPerChannel = maxPerChannel;
+        this.framesSent = Counter.builder("game.spectator.frames").register(meterRegistry);
+        this.dropped = Counter.builder("game.spectator.dropped").register(meterRegistry);
+        Gauge.builder("game.spectators", total, AtomicInteger::get)
+                .description("当前观众总数")
+                .register(meterRegistry);
+        long checkMillis = Math.max(50, sendTimeLimitMillis / 4);
+        watchdog.scheduleWithFixedDelay(this::dropStalled, checkMillis, checkMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 创建低优先级守护线程
+     *
+     * @param task 线程任务
+     * @param name 线程名
+     * @return 线程
+     */
+    private static Thread lowPriorityThread(Runnable task, String name) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    }
+
+    /**
+     * 生成观战频道名
+     *
+     * @param game 游戏名称
+     * @param roomId 房间ID
+     * @return 频道名
+     */
+    public static String channel(String game, String roomId) {
+        return game + "/" + roomId;
+    }
+
+    /**
+     * 判断会话是否为观众
+     *
+     * @param session WebSocket会话
+     * @return 是否为观众
+     */
+    public static boolean isSpectator(WebSocketSession session) {
+        return session.getAttributes().containsKey(CHANNEL_ATTR);
+    }
+
+    /**
+     * 观众加入频道，人数检查与加入在同一次原子更新中完成
+     *
+     * @param channel 频道名
+     * @param session WebSocket会话
+     * @return 加入成功返回true，频道观众已满返回false
+     */
+    public boolean join(String channel, WebSocketSession session) {
+        boolean[] joined = new boolean[1];
+        audiences.compute(channel, (key, audience) -> {
+            Audience target = audience == null ? new Audience(key) : audience;
+            if (target.members.size() < maxPerChannel) {
+                WebSocketSession decorated = new ConcurrentWebSocketSessionDecorator(session, sendTimeLimitMillis,
+                        bufferSizeLimit, ConcurrentWebSocketSessionDecorator.OverflowStrategy.TERMINATE);
+                target.members.put(session.getId(), new Member(target, decorated));
+                joined[0] = true;
+            }
+            return target.members.isEmpty() ? null : target;
+        });
+        if (!joined[0]) {
+            return false;
+        }
+        session.getAttributes().put(CHANNEL_ATTR, channel);
+        total.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * 观众离开频道，频道没有观众后一并移除
+     *
+     * @param session WebSocket会话
+     * @return 会话是观众返回true
+     */
+    public boolean leave(WebSocketSession session) {
+        String channel = (String) session.getAttributes().get(CHANNEL_ATTR);
+        if (channel == null) {
+            return false;
+        }
+        Audience audience = audiences.get(channel);
+        if (audience != null && removeMember(audience, session.getId()) != null) {
+            total.decrementAndGet();
+        }
+        return true;
+    }
+
+    /**
+     * 判断频道是否有观众
+     *
+     * @param channel 频道名
+     * @return 是否有观众
+     */
+    public boolean hasAudience(String channel) {
+        Audience audience = audiences.get(channel);
+        return audience != null && !audience.members.isEmpty();
+    }
+
+    /**
+     * 获取频道观众数
+     *
+     * @param channel 频道名
+     * @return 观众数
+     */
+    public int count(String channel) {
+        Audience audience = audiences.get(channel);
+        return audience == null ? 0 : audience.members.size();
+    }
+
+    /**
+     * 向频道内所有观众推送同一帧，按发布顺序异步发送
+     *
+     * @param channel 频道名
+     * @param json 已编码的消息
+     */
+    public void publish(String channel, String json) {
+        Audience audience = audiences.get(channel);
+        if (audience == null || audience.members.isEmpty()) {
+            return;
+        }
+        audience.pending.add(new Frame(null, new TextMessage(json)));
+        audience.schedule();
+    }
+
+    /**
+     * 向单个观众推送消息（如加入时的局面快照），与频道内其他帧保持顺序
+     *
+     * @param session 观众的WebSocket会话
+     * @param json 已编码的消息
+     */
+    public void sendTo(WebSocketSession session, String json) {
+        String channel = (String) session.getAttributes().get(CHANNEL_ATTR);
+        Audience audience = channel == null ? null : audiences.get(channel);
+        if (audience == null) {
+            return;
+        }
+        audience.pending.add(new Frame(session.getId(), new TextMessage(json)));
+        audience.schedule();
+    }
+
+    /**
+     * 关闭频道（房间已释放），断开所有观众
+     *
+     * @param channel 频道名
+     * @return 被断开的观众数
+     */
+    public int close(String channel) {
+        Audience audience = audiences.remove(channel);
+        if (audience == null) {
+            return 0;
+        }
+        List<Member> members = new ArrayList<>(audience.members.values());
+        audience.members.clear();
+        total.addAndGet(-members.size());
+        for (Member member : members) {
+            member.close(CloseStatus.GOING_AWAY.withReason("room closed"));
+        }
+        return members.size();
+    }
+
+    /**
+     * 节点过载时断开部分观众，观战流量先于对局被削减
+     *
+     * @param max 最多断开的观众数
+     * @return 实际断开的观众数
+     */
+    public int shed(int max) {
+        List<Member> shed = new ArrayList<>();
+        for (Audience audience : audiences.values()) {
+            for (String id : new ArrayList<>(audience.members.keySet())) {
+                if (shed.size() >= max) {
+                    break;
+                }
+                Member member = removeMember(audience, id);
+                if (member != null) {
+                    total.decrementAndGet();
+                    shed.add(member);
+                }
+            }
+        }
+        for (Member member : shed) {
+            member.close(CloseStatus.SERVICE_OVERLOAD.withReason("overloaded"));
+        }
+        return shed.size();
+    }
+
+    /**
+     * 看门狗任务：断开单次写出超过时限的观众，频道没有新帧时也能及时发现，异常只记录日志
+     */
+    private void dropStalled() {
+        try {
+            long now = System.currentTimeMillis();
+            for (Audience audience : audiences.values()) {
+                for (Member member : audience.members.values()) {
+                    if (member.isStalled(now)) {
+                        audience.drop(member);
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("检查观众写出超时失败", e);
+        }
+    }
+
+    /**
+     * 把观众移出频道，频道没有观众后从映射中移除
+     *
+     * @param audience 频道观众
+     * @param sessionId 观众会话ID
+     * @return 被移除的观众，已不在频道中时返回null
+     */
+    private Member removeMember(Audience audience, String sessionId) {
+        Member[] removed = new Member[1];
+        audiences.computeIfPresent(audience.channel, (key, current) -> {
+            removed[0] = current.members.remove(sessionId);
+            return current.members.isEmpty() ? null : current;
+        });
+        if (removed[0] == null) {
+            // 频道已被关闭或替换，仍从旧的观众表中移除
+            removed[0] = audience.members.remove(sessionId);
+        }
+        return removed[0];
+    }
+
+    /**
+     * 停止分发、写出线程池与看门狗
+     */
+    @PreDestroy
+    public void shutdown() {
+        watchdog.shutdownNow();
+        dispatcher.shutdownNow();
+        writers.shutdownNow();
+    }
+
+    /**
+     * 待推送的帧
+     */
+    private static final class Frame {
+
+        /** 目标观众会话ID，为null表示推送给频道内所有观众 */
+        private final String target;
+
+        /** 共享的消息帧 */
+        private final TextMessage message;
+
+        /**
+         * 构造函数
+         *
+         * @param target 目标观众会话ID
+         * @param message 消息帧
+         */
+        Frame(String target, TextMessage message) {
+            this.target = target;
+            this.message = message;
+        }
+    }
+
+    /**
+     * 频道观众及其待分发帧，同一频道同时只有一个分发任务，保证帧的顺序；分发只入队不写套接字
+     */
+    private final class Audience {
+
+        /** 频道名 */
+        private final String channel;
+
+        /** 会话ID到观众的映射 */
+        private final Map<String, Member> members = new ConcurrentHashMap<>();
+
+        /** 待分发的帧 */
+        private final Queue<Frame> pending = new ConcurrentLinkedQueue<>();
+
+        /** 是否已有分发任务在运行或排队 */
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        /**
+         * 构造函数
+         *
+         * @param channel 频道名
+         */
+        Audience(String channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * 没有分发任务时提交一个
+         */
+        void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                dispatcher.execute(this::drain);
+            }
+        }
+
+        /**
+         * 把所有待分发帧放进目标观众的发送队列
+         */
+        void drain() {
+            Frame frame;
+            while ((frame = pending.poll()) != null) {
+                if (frame.target != null) {
+                    Member member = members.get(frame.target);
+                    if (member != null) {
+                        offer(member, frame.message);
+                    }
+                } else {
+                    for (Member member : members.values()) {
+                        offer(member, frame.message);
+                    }
+                }
+            }
+            draining.set(false);
+            if (!pending.isEmpty()) {
+                schedule();
+            }
+        }
+
+        /**
+         * 把帧放进观众的发送队列，连接已关闭、积压超出缓冲或当前写出已超时的观众被移出并断开
+         *
+         * @param member 观众
+         * @param message 消息帧
+         */
+        void offer(Member member, TextMessage message) {
+            if (!member.offer(message)) {
+                drop(member);
+            }
+        }
+
+        /**
+         * 移出并断开发送积压或写出超时的观众
+         *
+         * @param member 观众
+         */
+        void drop(Member member) {
+            if (removeMember(this, member.session.getId()) != null) {
+                total.decrementAndGet();
+                dropped.increment();
+                log.debug("观众 {} 发送积压或写出超时，移出频道 {}", member.session.getId(), channel);
+                member.close(CloseStatus.SESSION_NOT_RELIABLE);
+            }
+        }
+
+        /**
+         * 观众写出失败，移出频道
+         *
+         * @param member 观众
+         */
+        void fail(Member member) {
+            if (removeMember(this, member.session.getId()) != null) {
+                total.decrementAndGet();
+                dropped.increment();
+            }
+        }
+    }
+
+    /**
+     * 单个观众的有界发送队列，同一观众同时只有一个写出任务，阻塞的写出只占用写出线程池中该观众自己的线程
+     */
+    private final class Member {
+
+        /** 所在频道 */
+        private final Audience audience;
+
+        /** 包装后的观众会话 */
+        private final WebSocketSession session;
+
+        /** 待写出的帧 */
+        private final Queue<TextMessage> queue = new ConcurrentLinkedQueue<>();
+
+        /** 队列中帧的总字节数 */
+        private final AtomicInteger queuedBytes = new AtomicInteger();
+
+        /** 是否已有发送任务在运行或排队 */
+        private final AtomicBoolean sending = new AtomicBoolean();
+
+        /** 当前写出开始的时间戳（毫秒），没有在写出时为0 */
+        private volatile long writeStartedAt;
+
+        /**
+         * 构造函数
+         *
+         * @param audience 所在频道
+         * @param session 包装后的观众会话
+         */
+        Member(Audience audience, WebSocketSession session) {
+            this.audience = audience;
+            this.session = session;
+        }
+
+        /**
+         * 把帧放进发送队列并安排发送任务
+         *
+         * @param message 消息帧
+         * @return 连接已关闭、积压超出缓冲或当前写出已超时返回false
+         */
+        boolean offer(TextMessage message) {
+            if (!session.isOpen() || isStalled(System.currentTimeMillis())) {
+                return false;
+            }
+            int length = message.getPayloadLength();
+            if (queuedBytes.addAndGet(length) > bufferSizeLimit) {
+                queuedBytes.addAndGet(-length);
+                return false;
+            }
+            queue.add(message);
+            if (sending.compareAndSet(false, true)) {
+                writers.execute(this::drain);
+            }
+            return true;
+        }
+
+        /**
+         * 当前写出是否已超过时限
+         *
+         * @param now 当前时间戳（毫秒）
+         * @return 是否超时
+         */
+        boolean isStalled(long now) {
+            long startedAt = writeStartedAt;
+            return startedAt != 0 && now - startedAt > sendTimeLimitMillis;
+        }
+
+        /**
+         * 在写出线程上依次写出队列中的帧，写出失败时移出频道
+         */
+        void drain() {
+            TextMessage message;
+            while ((message = queue.poll()) != null) {
+                queuedBytes.addAndGet(-message.getPayloadLength());
+                writeStartedAt = System.currentTimeMillis();
+                try {
+                    session.sendMessage(message);
+                    framesSent.increment();
+                } catch (Exception e) {
+                    log.debug("观众 {} 推送失败", session.getId(), e);
+                    queue.clear();
+                    queuedBytes.set(0);
+                    audience.fail(this);
+                } finally {
+                    writeStartedAt = 0;
+                }
+            }
+            sending.set(false);
+            if (!queue.isEmpty() && sending.compareAndSet(false, true)) {
+                writers.execute(this::drain);
+            }
+        }
+
+        /**
+         * 断开观众，在写出线程池上执行，不阻塞分发
+         *
+         * @param status 关闭状态
+         */
+        void close(CloseStatus status) {
+            queue.clear();
+            queuedBytes.set(0);
+            writers.execute(() -> {
+                try {
+                    session.close(status);
+                } catch (Exception e) {
+                    log.debug("关闭观众会话失败: {}", session.getId(), e);
+                }
+            });
+        }
+    }
+}
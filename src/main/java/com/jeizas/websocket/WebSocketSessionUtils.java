@@ -0,0 +1,80 @@
+package com.jeizas.websocket;
+
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.util.regex.Pattern;
+
+/**
+ * WebSocket会话工具类
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+public final class WebSocketSessionUtils {
+
+    /** 会话属性：恢复令牌 */
+    public static final String RESUME_TOKEN_ATTR = "resumeToken";
+
+    /** 合法的房间ID */
+    private static final Pattern ROOM_ID_PATTERN = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    /**
+     * 私有构造函数，禁止实例化
+     */
+    private WebSocketSessionUtils() {
+    }
+
+    /**
+     * 读取握手URI中的查询参数
+     *
+     * @param session WebSocket会话
+     * @param name 参数名
+     * @return 参数值，不存在返回null
+     */
+    public static String getQueryParam(WebSocketSession session, String name) {
+        URI uri = session.getUri();
+        if (uri == null || uri.getQuery() == null) {
+            return null;
+        }
+        String value = UriComponentsBuilder.fromUri(uri).build().getQueryParams().getFirst(name);
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    /**
+     * 解析连接请求的房间ID（查询参数 room），缺省或非法时使用默认房间
+     *
+     * @param session WebSocket会话
+     * @param defaultRoom 默认房间ID
+     * @return 房间ID
+     */
+    public static String resolveRoomId(WebSocketSession session, String defaultRoom) {
+        String roomId = getQueryParam(session, "room");
+        if (roomId == null || !ROOM_ID_PATTERN.matcher(roomId).matches()) {
+            return defaultRoom;
+        }
+        return roomId;
+    }
+
+    /**
+     * 判断连接请求是否为观战（查询参数 spectate=1 或 spectate=true）
+     *
+     * @param session WebSocket会话
+     * @return 是否为观战请求
+     */
+    public static boolean isSpectateRequest(WebSocketSession session) {
+        String spectate = getQueryParam(session, "spectate");
+        return "1".equals(spectate) || "true".equalsIgnoreCase(spectate);
+    }
+
+    /**
+     * 获取会话绑定的恢复令牌
+     *
+     * @param session WebSocket会话
+     * @return 恢复令牌，未绑定返回null
+     */
+    public static String getResumeToken(WebSocketSession session) {
+        return (String) session.getAttributes().get(RESUME_TOKEN_ATTR);
+    }
+}
@@ -0,0 +1,80 @@
+package com.jeizas.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 一致性哈希环测试类
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+public class HashRingTest {
+
+    /** 测试使用的房间数 */
+    private static final int ROOMS = 10000;
+
+    /**
+     * 测试房间在各节点间大致均匀分布
+     */
+    @Test
+    public void spreadsRoomsEvenly() {
+        HashRing ring = new HashRing(nodes("a", "b", "c"), 128);
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < ROOMS; i++) {
+            counts.merge(ring.ownerOf("room-" + i), 1, Integer::sum);
+        }
+        assertEquals(3, counts.size());
+        for (int count : counts.values()) {
+            assertTrue(count > ROOMS / 5 && count < ROOMS / 2, "分布不均: " + counts);
+        }
+    }
+
+    /**
+     * 测试节点加入时只有少量房间改变归属，且都移到新节点
+     */
+    @Test
+    public void joinMovesOnlyRoomsToNewNode() {
+        HashRing before = new HashRing(nodes("a", "b", "c"), 128);
+        HashRing after = new HashRing(nodes("a", "b", "c", "d"), 128);
+        int moved = 0;
+        for (int i = 0; i < ROOMS; i++) {
+            String room = "room-" + i;
+            String owner = after.ownerOf(room);
+            if (!owner.equals(before.ownerOf(room))) {
+                assertEquals("d", owner);
+                moved++;
+            }
+        }
+        assertTrue(moved > ROOMS / 8 && moved < ROOMS * 2 / 5, "迁移比例异常: " + moved);
+    }
+
+    /**
+     * 测试空环没有归属节点
+     */
+    @Test
+    public void emptyRingHasNoOwner() {
+        assertNull(new HashRing(new HashMap<>(), 16).ownerOf("room-1"));
+    }
+
+    /**
+     * 构造节点映射
+     *
+     * @param ids 节点ID
+     * @return 节点ID到地址的映射
+     */
+    private static Map<String, String> nodes(String... ids) {
+        Map<String, String> nodes = new LinkedHashMap<>();
+        for (int i = 0; i < ids.length; i++) {
+            nodes.put(ids[i], "ws://localhost:" + (8081 + i));
+        }
+        return nodes;
+    }
+}
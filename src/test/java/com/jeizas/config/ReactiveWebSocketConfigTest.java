@@ -0,0 +1,52 @@
+package com.jeizas.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.client.ReactorNettyWebSocketClient;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 响应式运行方式测试类，验证 Netty 上的 /gomoku 端点与 servlet 方式行为一致
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+@ActiveProfiles("reactive")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class ReactiveWebSocketConfigTest {
+
+    /** 服务端口 */
+    @LocalServerPort
+    private int port;
+
+    /**
+     * 测试连接五子棋端点后收到会话令牌和等待消息
+     */
+    @Test
+    public void gomokuEndpointServesOverNetty() {
+        ReactorNettyWebSocketClient client = new ReactorNettyWebSocketClient();
+        List<String> received = new ArrayList<>();
+
+        client.execute(URI.create("ws://localhost:" + port + "/gomoku"), session -> session.receive()
+                        .map(WebSocketMessage::getPayloadAsText)
+                        .doOnNext(received::add)
+                        .take(2)
+                        .then())
+                .timeout(Duration.ofSeconds(10))
+                .block();
+
+        assertEquals(2, received.size(), "收到的消息: " + received);
+        assertTrue(received.get(0).contains("\"SESSION\""));
+        assertTrue(received.get(1).contains("\"WAITING\""));
+    }
+}
@@ -0,0 +1,95 @@
+package com.jeizas.jfr;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 游戏 JFR 事件测试类
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+public class GameEventsTest {
+
+    /**
+     * 测试无竞争与有竞争时都能拿到锁，有竞争时等到持有者释放
+     *
+     * @throws Exception 等待异常
+     */
+    @Test
+    public void lockWaitsForHolder() throws Exception {
+        ReentrantLock lock = new ReentrantLock();
+        GameEvents.lock(lock, "mahjong", "r1");
+        assertTrue(lock.isHeldByCurrentThread());
+        lock.unlock();
+
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = new Thread(() -> {
+            lock.lock();
+            try {
+                locked.countDown();
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                lock.unlock();
+            }
+        });
+        holder.start();
+        assertTrue(locked.await(2, TimeUnit.SECONDS));
+        new Thread(() -> {
+            sleepQuietly(50);
+            release.countDown();
+        }).start();
+        GameEvents.lock(lock, "mahjong", "r1");
+        try {
+            assertTrue(lock.isHeldByCurrentThread());
+            assertEquals(1, lock.getHoldCount());
+        } finally {
+            lock.unlock();
+        }
+        holder.join();
+    }
+
+    /**
+     * 测试未录制时 begin 返回null，end 接受null
+     */
+    @Test
+    public void eventsAreNullWithoutRecording() {
+        Object event = GameEvents.beginCommand();
+        GameEvents.endCommand(event, "gomoku", "MOVE", "r1");
+        assertEquals(null, GameEvents.beginBroadcast());
+        GameEvents.endBroadcast(null, "gomoku", "r1", "MOVE", 2, "{}");
+    }
+
+    /**
+     * 测试 UTF-8 字节数与实际编码一致
+     *
+     * @throws Exception 编码异常
+     */
+    @Test
+    public void utf8LengthMatchesEncoding() throws Exception {
+        String s = "{\"type\":\"ROOM_UPDATE\",\"msg\":\"胡牌🀄\"}";
+        assertEquals(s.getBytes("UTF-8").length, FlightEvents.utf8Length(s));
+    }
+
+    /**
+     * 睡眠，忽略中断
+     *
+     * @param millis 毫秒
+     */
+    private static void sleepQuietly(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
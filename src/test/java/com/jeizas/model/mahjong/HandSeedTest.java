@@ -0,0 +1,62 @@
+package com.jeizas.model.mahjong;
+
+import org.junit.jupiter.api.Test;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 洗牌种子测试类
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+public class HandSeedTest {
+
+    /**
+     * 测试揭示的种子能通过承诺校验，篡改后的种子不能
+     */
+    @Test
+    public void revealedSeedMatchesCommitment() {
+        HandSeed seed = HandSeed.generate(new SecureRandom());
+        String revealed = seed.reveal();
+
+        assertEquals(64, seed.getCommitment().length());
+        assertTrue(HandSeed.verify(seed.getCommitment(), revealed));
+        String tampered = (revealed.charAt(0) == '0' ? "1" : "0") + revealed.substring(1);
+        assertFalse(HandSeed.verify(seed.getCommitment(), tampered));
+        assertFalse(HandSeed.verify(seed.getCommitment(), "abc"));
+    }
+
+    /**
+     * 测试用揭示的种子能复现同样的牌序，且洗牌结果是原牌堆的一个排列
+     */
+    @Test
+    public void revealedSeedReproducesDeck() {
+        HandSeed seed = HandSeed.generate(new SecureRandom());
+        MahjongRoom room = new MahjongRoom("r1");
+        room.initDeck(seed);
+
+        MahjongRoom replay = new MahjongRoom("r2");
+        replay.initDeck(HandSeed.fromHex(seed.reveal()));
+        assertEquals(room.getDeck(), replay.getDeck());
+
+        List<Integer> identity = new ArrayList<>();
+        for (int i = 0; i < 136; i++) {
+            identity.add(i);
+        }
+        List<Integer> shuffled = new ArrayList<>(identity);
+        seed.shuffle(shuffled);
+        assertNotEquals(identity, shuffled);
+        List<Integer> sorted = new ArrayList<>(shuffled);
+        Collections.sort(sorted);
+        assertEquals(identity, sorted);
+    }
+}
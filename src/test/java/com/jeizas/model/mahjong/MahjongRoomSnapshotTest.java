@@ -0,0 +1,74 @@
+package com.jeizas.model.mahjong;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * 麻将房间快照测试类
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+public class MahjongRoomSnapshotTest {
+
+    /** 与节点间迁移接口相同配置的JSON映射器 */
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    /**
+     * 测试快照经JSON往返后能完整恢复牌堆、手牌、副露、分数与回合，且牌恢复为共享实例
+     *
+     * @throws Exception 序列化异常
+     */
+    @Test
+    public void restoresRoomAfterJsonRoundTrip() throws Exception {
+        MahjongRoom room = new MahjongRoom("m1");
+        for (int i = 0; i < 4; i++) {
+            room.addPlayer(new MahjongPlayer("p" + i, "玩家" + i, i > 0, null));
+        }
+        room.startNewGame(HandSeed.generate(new SecureRandom()));
+        room.nextPlayer();
+        MahjongTile pengTile = MahjongTile.of(MahjongTile.TileType.TIAO, 5);
+        room.getPlayers().get(1).getMelds().add(new MahjongMeld(MahjongMeld.MeldType.PENG,
+                Arrays.asList(pengTile, pengTile, pengTile)));
+        room.getPlayers().get(2).setScore(12);
+
+        String json = MAPPER.writeValueAsString(
+                MahjongRoomSnapshot.capture(room, Collections.singletonMap("p0", "token-0")));
+        MahjongRoomSnapshot snapshot = MAPPER.readValue(json, MahjongRoomSnapshot.class);
+
+        MahjongRoom restored = new MahjongRoom("m1");
+        snapshot.restoreInto(restored);
+        for (MahjongRoomSnapshot.Seat seat : snapshot.getSeats()) {
+            MahjongPlayer player = new MahjongPlayer(seat.getPlayerId(), seat.getPlayerName(), seat.isBot(), null);
+            seat.restoreInto(player);
+            restored.addPlayer(player);
+        }
+
+        assertEquals(room.getDeck(), restored.getDeck());
+        assertSame(room.getDeck().get(0), restored.getDeck().get(0));
+        assertEquals(room.getCurrentPlayerIndex(), restored.getCurrentPlayerIndex());
+        assertEquals(room.getDealerIndex(), restored.getDealerIndex());
+        assertEquals(room.isDrawnThisTurn(), restored.isDrawnThisTurn());
+        assertEquals(room.getHandSeed().getCommitment(), restored.getHandSeed().getCommitment());
+        assertEquals("token-0", snapshot.getSeats().get(0).getResumeToken());
+        for (int i = 0; i < 4; i++) {
+            MahjongPlayer expected = room.getPlayers().get(i);
+            MahjongPlayer actual = restored.getPlayers().get(i);
+            assertEquals(expected.getPlayerId(), actual.getPlayerId());
+            assertEquals(expected.isBot(), actual.isBot());
+            assertEquals(expected.getHand(), actual.getHand());
+            assertEquals(expected.getScore(), actual.getScore());
+            assertEquals(expected.getMelds(), actual.getMelds());
+        }
+        assertSame(pengTile, restored.getPlayers().get(1).getMelds().get(0).getTiles().get(0));
+    }
+}
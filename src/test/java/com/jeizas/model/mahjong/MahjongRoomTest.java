@@ -0,0 +1,59 @@
+package com.jeizas.model.mahjong;
+
+import org.junit.jupiter.api.Test;
+
+import java.security.SecureRandom;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 麻将房间测试类
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+public class MahjongRoomTest {
+
+    /**
+     * 测试比赛进行中的判断：每局进行中都算进行中，最后一局结束后即使尚未开始下一局也不再算进行中
+     */
+    @Test
+    public void matchIsNotInProgressAfterFinalGame() {
+        MahjongRoom room = new MahjongRoom("m1");
+        for (int i = 0; i < 4; i++) {
+            room.addPlayer(new MahjongPlayer("p" + i, "玩家" + i, i > 0, null));
+        }
+        assertFalse(room.isMatchInProgress());
+
+        for (int game = 0; game < 3; game++) {
+            room.startNewGame(HandSeed.generate(new SecureRandom()));
+            assertTrue(room.isMatchInProgress());
+            room.endCurrentGame();
+        }
+
+        room.startNewGame(HandSeed.generate(new SecureRandom()));
+        room.endCurrentGame();
+        assertTrue(room.isGameOver());
+        assertTrue(room.isGameStarted());
+        assertFalse(room.isMatchInProgress());
+    }
+
+    /**
+     * 测试只有本回合摸过牌才能自摸：庄家起手与摸牌后可以，轮转或碰牌后轮到的回合不可以
+     */
+    @Test
+    public void tracksDrawThisTurn() {
+        MahjongRoom room = new MahjongRoom("m2");
+        for (int i = 0; i < 4; i++) {
+            room.addPlayer(new MahjongPlayer("p" + i, "玩家" + i, true, null));
+        }
+        room.startNewGame(HandSeed.generate(new SecureRandom()));
+        assertTrue(room.isDrawnThisTurn());
+
+        room.nextPlayer();
+        assertFalse(room.isDrawnThisTurn());
+        room.drawTile();
+        assertTrue(room.isDrawnThisTurn());
+    }
+}
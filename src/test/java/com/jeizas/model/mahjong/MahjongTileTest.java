@@ -0,0 +1,51 @@
+package com.jeizas.model.mahjong;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 麻将牌测试类
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+public class MahjongTileTest {
+
+    /**
+     * 测试同一种牌总是返回同一个共享实例，JSON 反序列化也得到该实例
+     *
+     * @throws Exception 序列化异常
+     */
+    @Test
+    public void ofReturnsSharedInstance() throws Exception {
+        MahjongTile tile = MahjongTile.of(MahjongTile.TileType.TONG, 7);
+        assertSame(tile, MahjongTile.of(MahjongTile.TileType.TONG, 7));
+
+        ObjectMapper mapper = new ObjectMapper();
+        assertSame(tile, mapper.readValue(mapper.writeValueAsString(tile), MahjongTile.class));
+        assertThrows(IllegalArgumentException.class, () -> MahjongTile.of(MahjongTile.TileType.JIAN, 4));
+    }
+
+    /**
+     * 测试共享的牌实例不可修改：字段均为 final，也没有 setter
+     */
+    @Test
+    public void tileIsImmutable() {
+        assertTrue(Modifier.isFinal(MahjongTile.class.getModifiers()));
+        for (Field field : MahjongTile.class.getDeclaredFields()) {
+            assertTrue(Modifier.isFinal(field.getModifiers()), field.getName());
+        }
+        for (Method method : MahjongTile.class.getMethods()) {
+            assertFalse(method.getName().startsWith("set"), method.getName());
+        }
+    }
+}
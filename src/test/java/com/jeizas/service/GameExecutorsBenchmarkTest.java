@@ -0,0 +1,97 @@
+package com.jeizas.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 游戏动作执行器基准测试：模拟大量房间依次执行“持房间锁 + 阻塞写套接字”的机器人回合，
+ * 比较 platform 与 virtual 两种模式的总耗时。默认构建不执行，使用 mvn test -Pbenchmark 运行
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+@Tag("benchmark")
+public class GameExecutorsBenchmarkTest {
+
+    /** 房间数 */
+    private static final int ROOMS = 400;
+
+    /** 每个房间连续执行的回合数 */
+    private static final int TURNS = 20;
+
+    /** 每个回合模拟的套接字写入阻塞时间（毫秒） */
+    private static final long WRITE_MILLIS = 2;
+
+    /**
+     * 比较两种模式完成全部回合的耗时，运行时不支持虚拟线程时只测 platform 模式
+     *
+     * @throws InterruptedException 等待被中断
+     */
+    @Test
+    public void compareModes() throws InterruptedException {
+        long platformMillis = run(new GameExecutors(GameExecutors.MODE_PLATFORM, 4));
+        System.out.printf("platform: %d 个房间 x %d 回合, 耗时 %d ms%n", ROOMS, TURNS, platformMillis);
+
+        GameExecutors virtual = new GameExecutors(GameExecutors.MODE_VIRTUAL, 4);
+        if (!virtual.isVirtual()) {
+            virtual.shutdown();
+            System.out.printf("virtual: 当前JDK %s 不支持虚拟线程，跳过%n", System.getProperty("java.version"));
+            return;
+        }
+        long virtualMillis = run(virtual);
+        System.out.printf("virtual: %d 个房间 x %d 回合, 耗时 %d ms%n", ROOMS, TURNS, virtualMillis);
+        assertTrue(virtualMillis < platformMillis, "虚拟线程模式应快于4个平台线程");
+    }
+
+    /**
+     * 每个房间的回合完成后把下一回合重新提交给执行器，直到所有房间打完
+     *
+     * @param executors 被测执行器
+     * @return 总耗时（毫秒）
+     * @throws InterruptedException 等待被中断
+     */
+    private long run(GameExecutors executors) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(ROOMS);
+        AtomicInteger turnsPlayed = new AtomicInteger();
+        long start = System.nanoTime();
+        try {
+            for (int r = 0; r < ROOMS; r++) {
+                ReentrantLock lock = new ReentrantLock();
+                AtomicInteger remaining = new AtomicInteger(TURNS);
+                executors.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        lock.lock();
+                        try {
+                            Thread.sleep(WRITE_MILLIS);
+                            turnsPlayed.incrementAndGet();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        } finally {
+                            lock.unlock();
+                        }
+                        if (remaining.decrementAndGet() > 0) {
+                            executors.execute(this);
+                        } else {
+                            done.countDown();
+                        }
+                    }
+                });
+            }
+            assertTrue(done.await(2, TimeUnit.MINUTES), "基准测试超时");
+            assertEquals(ROOMS * TURNS, turnsPlayed.get());
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        } finally {
+            executors.shutdown();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.jeizas.service;
+
+import com.jeizas.model.RoomSummary;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * 房间摘要登记表测试类
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+public class RoomSummaryRegistryTest {
+
+    /**
+     * 测试按条件过滤后分页，总数按过滤后计算，顺序按房间ID稳定
+     */
+    @Test
+    public void filtersAndPagesInStableOrder() {
+        RoomSummaryRegistry registry = new RoomSummaryRegistry();
+        for (int i = 0; i < 10; i++) {
+            List<RoomSummary.Seat> seats = new ArrayList<>();
+            seats.add(new RoomSummary.Seat("p" + i, "玩家" + i, false, true));
+            for (int b = 0; b < i % 4; b++) {
+                seats.add(new RoomSummary.Seat("b" + i + b, "机器人", true, true));
+            }
+            registry.publish(new RoomSummary("mahjong", "r" + i, i % 2 == 0 ? RoomSummary.PLAYING : RoomSummary.WAITING,
+                    seats, 1, 4, 1000L * i));
+        }
+        registry.publish(new RoomSummary("gomoku", "r0", RoomSummary.PLAYING, Collections.emptyList(), 0, 0, 0));
+
+        RoomSummaryQuery query = new RoomSummaryQuery();
+        query.setGame("mahjong");
+        query.setState("playing");
+        query.setMinBots(1);
+        RoomSummaryPage page = registry.query(query.toFilter(10_000), 1, 2);
+        // 符合条件的为 r2(2 个机器人)、r6(2 个)
+        assertEquals(2, page.getTotal());
+        assertEquals(1, page.getItems().size());
+        assertEquals("r6", page.getItems().get(0).getRoomId());
+
+        query = new RoomSummaryQuery();
+        query.setMinIdleSeconds(5L);
+        query.setPlayer("玩家3");
+        assertEquals(Arrays.asList("r3"), roomIds(registry.query(query.toFilter(10_000), 0, 50)));
+
+        registry.remove("mahjong", "r3");
+        assertNull(registry.get("mahjong", "r3"));
+        assertEquals(10, registry.size());
+    }
+
+    /**
+     * 取出结果中的房间ID
+     *
+     * @param page 查询结果
+     * @return 房间ID
+     */
+    private static List<String> roomIds(RoomSummaryPage page) {
+        List<String> ids = new ArrayList<>();
+        for (RoomSummary summary : page.getItems()) {
+            ids.add(summary.getRoomId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,69 @@
+package com.jeizas.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 共享时间轮测试类
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+public class TimerWheelTest {
+
+    /**
+     * 测试任务不会提前触发，超过一圈的任务在正确的圈数触发，到期后转交执行器
+     *
+     * @throws Exception 等待异常
+     */
+    @Test
+    public void firesOnlyWhenDueAcrossRevolutions() throws Exception {
+        GameExecutors executors = new GameExecutors(GameExecutors.MODE_PLATFORM, 1);
+        try {
+            TimerWheel wheel = new TimerWheel(executors, 10);
+            Queue<String> fired = new ConcurrentLinkedQueue<>();
+            wheel.schedule(() -> fired.add("soon"), 50);
+            // 10ms 一格、512 格一圈，6 秒后到期的任务需要多转一圈
+            wheel.schedule(() -> fired.add("late"), 6000);
+            assertEquals(2, wheel.size());
+
+            wheel.advance(2);
+            wheel.advance(10);
+            awaitSize(fired, 1);
+            assertEquals("soon", fired.peek());
+
+            wheel.advance(512 + 50);
+            wheel.advance(590);
+            TimeUnit.MILLISECONDS.sleep(50);
+            assertEquals(1, fired.size());
+
+            wheel.advance(700);
+            awaitSize(fired, 2);
+            assertEquals(0, wheel.size());
+        } finally {
+            executors.shutdown();
+        }
+    }
+
+    /**
+     * 等待执行器执行完到期任务
+     *
+     * @param fired 已触发的任务
+     * @param size 期望的数量
+     * @throws InterruptedException 等待被中断
+     */
+    private static void awaitSize(Queue<String> fired, int size) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (fired.size() < size && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(5);
+        }
+        assertTrue(fired.size() >= size);
+        assertEquals(size, fired.size());
+    }
+}
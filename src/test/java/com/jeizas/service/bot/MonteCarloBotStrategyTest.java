@@ -0,0 +1,100 @@
+package com.jeizas.service.bot;
+
+import com.jeizas.model.mahjong.MahjongTile;
+import com.jeizas.service.rules.TileCodec;
+import com.jeizas.service.rules.TileNotation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 蒙特卡洛出牌策略测试类
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+public class MonteCarloBotStrategyTest {
+
+    /** 固定种子，各候选在相同的还原局面上比较 */
+    private static final long SEED = 42L;
+
+    /** 打出 7z 即听牌，打其他牌至少一向听 */
+    private static final String HAND = "123m456p789s11z23m7z";
+
+    /** 被测策略：两个模拟线程，每批次 4 次模拟 */
+    private final MonteCarloBotStrategy strategy = new MonteCarloBotStrategy(2, 4);
+
+    @AfterEach
+    public void tearDown() {
+        strategy.shutdown();
+    }
+
+    /**
+     * 测试在预算内返回手牌中的一张
+     */
+    @Test
+    public void returnsLegalTileWithinBudget() {
+        BotView view = view(HAND);
+        // 先加载向听数表，计时只包含搜索本身
+        strategy.chooseDiscard(view, System.nanoTime() - 1, SEED);
+        long budgetMillis = 50;
+        long start = System.nanoTime();
+
+        MahjongTile tile = strategy.chooseDiscard(view, start + TimeUnit.MILLISECONDS.toNanos(budgetMillis), SEED);
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(view.getHand().contains(tile), String.valueOf(tile));
+        assertTrue(elapsedMillis < budgetMillis + 100, elapsedMillis + "ms");
+    }
+
+    /**
+     * 测试截止时间已过时不做模拟，直接返回牌效率最高的候选
+     */
+    @Test
+    public void returnsMostEfficientCandidateWhenDeadlinePassed() {
+        MahjongTile tile = strategy.chooseDiscard(view(HAND), System.nanoTime() - 1, SEED);
+
+        assertEquals("7z", TileNotation.format(TileCodec.indexOf(tile)));
+    }
+
+    /**
+     * 测试有模拟预算时选择明显更优的打法：打出孤张字牌保持听牌
+     */
+    @Test
+    public void prefersClearlyBetterDiscard() {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(300);
+
+        MahjongTile tile = strategy.chooseDiscard(view(HAND), deadline, SEED);
+
+        assertEquals("7z", TileNotation.format(TileCodec.indexOf(tile)));
+    }
+
+    /**
+     * 创建座位0的局面快照：其他三家各13张手牌，没有出牌与副露
+     *
+     * @param notation 机器人手牌牌串
+     * @return 局面快照
+     */
+    private static BotView view(String notation) {
+        int[] counts = TileNotation.parse(notation);
+        List<MahjongTile> hand = new ArrayList<>();
+        for (int i = 0; i < TileCodec.KINDS; i++) {
+            for (int c = 0; c < counts[i]; c++) {
+                hand.add(TileCodec.tileAt(i));
+            }
+        }
+        List<List<MahjongTile>> discards = new ArrayList<>();
+        for (int seat = 0; seat < 4; seat++) {
+            discards.add(Collections.<MahjongTile>emptyList());
+        }
+        return new BotView(0, hand, counts.clone(), 60, discards,
+                new int[]{hand.size(), 13, 13, 13}, new int[4]);
+    }
+}
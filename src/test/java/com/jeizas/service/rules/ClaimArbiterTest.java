@@ -0,0 +1,117 @@
+package com.jeizas.service.rules;
+
+import com.jeizas.model.mahjong.ClaimWindow;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 弃牌声明裁决测试类
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+public class ClaimArbiterTest {
+
+    /**
+     * 测试可选声明计算：两张可碰，三张可碰可杠，差一张成胡的可胡，出牌者没有声明
+     */
+    @Test
+    public void computesOptionsPerSeat() {
+        int[][] hands = {
+                counts(0, 0, 0, 5),
+                counts(9, 9, 18),
+                counts(1, 2, 3, 4, 5, 6, 10, 11, 12, 27, 27, 27, 9),
+                counts(0, 0, 0, 1, 1, 1, 2, 2, 2, 3, 3, 3, 9)
+        };
+        int[] meldCounts = new int[4];
+
+        int[] options = ClaimArbiter.options(hands, meldCounts, 1, 9);
+
+        assertEquals(0, options[0]);
+        assertEquals(0, options[1]);
+        assertEquals(ClaimWindow.WIN, options[2]);
+        assertEquals(ClaimWindow.WIN, options[3]);
+        assertEquals(1, hands[3][9]);
+
+        options = ClaimArbiter.options(hands, meldCounts, 3, 0);
+        assertEquals(ClaimWindow.PENG | ClaimWindow.GANG, options[0]);
+    }
+
+    /**
+     * 测试优先级：胡 > 杠 > 碰，与座次无关
+     */
+    @Test
+    public void winBeatsGangBeatsPeng() {
+        int[] options = {0, ClaimWindow.PENG, ClaimWindow.GANG | ClaimWindow.PENG, ClaimWindow.WIN};
+        int[] decisions = {ClaimWindow.PASS, ClaimWindow.PENG, ClaimWindow.GANG, ClaimWindow.WIN};
+
+        assertEquals(3, ClaimArbiter.resolve(options, decisions, 0));
+
+        decisions[3] = ClaimWindow.PASS;
+        assertEquals(2, ClaimArbiter.resolve(options, decisions, 0));
+    }
+
+    /**
+     * 测试同级声明按出牌者下家起的座次裁决（一炮多响时截胡）
+     */
+    @Test
+    public void tiesGoToSeatClosestAfterDiscarder() {
+        int[] options = {ClaimWindow.WIN, 0, ClaimWindow.WIN, 0};
+        int[] decisions = {ClaimWindow.WIN, ClaimWindow.PASS, ClaimWindow.WIN, ClaimWindow.PASS};
+
+        assertEquals(2, ClaimArbiter.resolve(options, decisions, 1));
+        assertEquals(0, ClaimArbiter.resolve(options, decisions, 3));
+    }
+
+    /**
+     * 测试仍可能胜出的座位未决定时继续等待，不可能胜出时立即定案
+     */
+    @Test
+    public void waitsOnlyForSeatsThatCouldStillWin() {
+        ClaimWindow window = new ClaimWindow(null, 0,
+                new int[]{0, ClaimWindow.PENG, ClaimWindow.WIN, 0}, 0L);
+
+        assertTrue(window.offer(1, ClaimWindow.PENG));
+        assertEquals(ClaimArbiter.PENDING, ClaimArbiter.resolve(window));
+
+        assertTrue(window.offer(2, ClaimWindow.PASS));
+        assertEquals(1, ClaimArbiter.resolve(window));
+
+        window = new ClaimWindow(null, 0, new int[]{0, ClaimWindow.WIN, ClaimWindow.PENG, 0}, 0L);
+        assertTrue(window.offer(1, ClaimWindow.WIN));
+        assertEquals(1, ClaimArbiter.resolve(window));
+    }
+
+    /**
+     * 测试截止后未决定视为放弃，不可选的声明被拒绝
+     */
+    @Test
+    public void expireTurnsUndecidedIntoPass() {
+        ClaimWindow window = new ClaimWindow(null, 0,
+                new int[]{0, ClaimWindow.PENG, 0, 0}, 0L);
+
+        assertFalse(window.offer(1, ClaimWindow.GANG));
+        assertEquals(ClaimArbiter.PENDING, ClaimArbiter.resolve(window));
+
+        window.expire();
+        assertEquals(ClaimArbiter.NONE, ClaimArbiter.resolve(window));
+        assertFalse(window.offer(1, ClaimWindow.PENG));
+    }
+
+    /**
+     * 构造手牌计数数组
+     *
+     * @param indexes 牌索引
+     * @return 计数数组
+     */
+    private static int[] counts(int... indexes) {
+        int[] counts = new int[TileCodec.KINDS];
+        for (int index : indexes) {
+            counts[index]++;
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,141 @@
+package com.jeizas.service.rules;
+
+import com.jeizas.model.mahjong.MahjongMeld;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 番型计算测试类
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+public class FanEvaluatorTest {
+
+    /** 全番种规则 */
+    private static final FanRuleSet STANDARD = FanRuleSet.preset("standard");
+
+    /**
+     * 测试清一色与一气通贯：同一手牌取番数最高的拆分
+     */
+    @Test
+    public void picksHighestScoringDecomposition() {
+        // 万 1111 23 555 6789：拆成 123 456 789 111 + 55 时成一气通贯
+        int[] counts = counts(0, 1, 2, 3, 4, 5, 6, 7, 8, 0, 0, 4, 0, 4);
+
+        FanResult result = FanEvaluator.evaluate(counts, Collections.emptyList(), false, STANDARD);
+
+        assertTrue(result.has(FanPattern.FULL_FLUSH));
+        assertTrue(result.has(FanPattern.PURE_STRAIGHT));
+        assertTrue(result.has(FanPattern.CONCEALED));
+        assertFalse(result.has(FanPattern.HALF_FLUSH));
+        assertEquals(14, Arrays.stream(counts).sum());
+    }
+
+    /**
+     * 测试副露计入碰碰和与混一色，碰牌后不再门清
+     */
+    @Test
+    public void countsMeldsTowardsAllPungs() {
+        int[] counts = counts(9, 9, 9, 12, 12, 12, 27, 27);
+        List<MahjongMeld> melds = Arrays.asList(meld(MahjongMeld.MeldType.PENG, 14),
+                meld(MahjongMeld.MeldType.ANGANG, 28));
+
+        FanResult result = FanEvaluator.evaluate(counts, melds, true, STANDARD);
+
+        assertTrue(result.has(FanPattern.ALL_PUNGS));
+        assertTrue(result.has(FanPattern.HALF_FLUSH));
+        assertTrue(result.has(FanPattern.SELF_DRAWN));
+        assertFalse(result.has(FanPattern.CONCEALED));
+        assertEquals(2 + 2 + 1, result.getFan());
+    }
+
+    /**
+     * 测试大三元覆盖三组箭牌刻子，不重复计番
+     */
+    @Test
+    public void bigThreeDragonsSuppressesDragonPungs() {
+        int[] counts = counts(31, 31, 31, 32, 32, 32, 33, 33, 33, 0, 1, 2, 5, 5);
+
+        FanResult result = FanEvaluator.evaluate(counts, Collections.emptyList(), false, STANDARD);
+
+        assertTrue(result.has(FanPattern.BIG_THREE_DRAGONS));
+        assertFalse(result.has(FanPattern.RED_DRAGON));
+        assertTrue(result.has(FanPattern.HALF_FLUSH));
+        assertEquals(6 + 2 + 1, result.getFan());
+    }
+
+    /**
+     * 测试三色同顺与平和
+     */
+    @Test
+    public void recognizesMixedTripleChow() {
+        int[] counts = counts(1, 2, 3, 10, 11, 12, 19, 20, 21, 4, 5, 6, 25, 25);
+
+        FanResult result = FanEvaluator.evaluate(counts, Collections.emptyList(), false, STANDARD);
+
+        assertTrue(result.has(FanPattern.MIXED_TRIPLE_CHOW));
+        assertTrue(result.has(FanPattern.ALL_CHOWS));
+        assertTrue(result.has(FanPattern.ALL_SIMPLES));
+    }
+
+    /**
+     * 测试 classic 规则与旧版计分一致：七对、自摸各 1 番
+     */
+    @Test
+    public void classicRuleSetMatchesLegacyScoring() {
+        FanRuleSet classic = FanRuleSet.preset("classic");
+        int[] sevenPairs = counts(0, 0, 4, 4, 8, 8, 12, 12, 20, 20, 27, 27, 33, 33);
+
+        assertEquals(2, FanEvaluator.evaluate(sevenPairs, Collections.emptyList(), true, classic).getFan());
+        assertEquals(0, FanEvaluator.evaluate(counts(0, 1, 2, 3, 4, 5, 9, 9, 9, 18, 19, 20, 27, 27),
+                Collections.emptyList(), false, classic).getFan());
+    }
+
+    /**
+     * 测试番数覆盖：可调整或关闭番种，未知番种报错
+     */
+    @Test
+    public void overridesAdjustFans() {
+        FanRuleSet rules = STANDARD.withOverrides("pure_straight=3, CONCEALED=0");
+
+        assertEquals(3, rules.fan(FanPattern.PURE_STRAIGHT));
+        assertEquals(0, rules.fan(FanPattern.CONCEALED));
+        assertEquals(2, STANDARD.fan(FanPattern.PURE_STRAIGHT));
+        assertThrows(IllegalArgumentException.class, () -> STANDARD.withOverrides("NO_SUCH=1"));
+    }
+
+    /**
+     * 构造手牌计数数组
+     *
+     * @param indexes 牌索引
+     * @return 计数数组
+     */
+    private static int[] counts(int... indexes) {
+        int[] counts = new int[TileCodec.KINDS];
+        for (int index : indexes) {
+            counts[index]++;
+        }
+        return counts;
+    }
+
+    /**
+     * 构造刻子/杠牌组
+     *
+     * @param type 牌组类型
+     * @param index 牌索引
+     * @return 牌组
+     */
+    private static MahjongMeld meld(MahjongMeld.MeldType type, int index) {
+        int size = type == MahjongMeld.MeldType.PENG ? 3 : 4;
+        return new MahjongMeld(type, Collections.nCopies(size, TileCodec.tileAt(index)));
+    }
+}
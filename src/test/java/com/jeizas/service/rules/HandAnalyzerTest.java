@@ -0,0 +1,76 @@
+package com.jeizas.service.rules;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 手牌分析与牌串记法测试类
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+public class HandAnalyzerTest {
+
+    /**
+     * 测试牌串解析与格式化：m 万、s 条、p 筒、z 字牌
+     */
+    @Test
+    public void parsesCompactNotation() {
+        int[] counts = TileNotation.parse("19m5s9p17z");
+
+        assertEquals(1, counts[0]);
+        assertEquals(1, counts[8]);
+        assertEquals(1, counts[13]);
+        assertEquals(1, counts[26]);
+        assertEquals(1, counts[27]);
+        assertEquals(1, counts[33]);
+        assertEquals("5s", TileNotation.format(13));
+        assertEquals("7z", TileNotation.format(33));
+        assertThrows(IllegalArgumentException.class, () -> TileNotation.parse("11111m"));
+        assertThrows(IllegalArgumentException.class, () -> TileNotation.parse("8z"));
+        assertThrows(IllegalArgumentException.class, () -> TileNotation.parse("123"));
+    }
+
+    /**
+     * 测试听牌手给出听的牌
+     */
+    @Test
+    public void listsWaitsForTenpaiHand() {
+        HandAnalysis result = HandAnalyzer.analyze(0, "123m456p789s11z23m");
+
+        assertEquals(0, result.getShanten().intValue());
+        assertEquals(Arrays.asList("1m", "4m"), result.getWaits());
+        assertNull(result.getWin());
+    }
+
+    /**
+     * 测试 14 张和牌与最优打法
+     */
+    @Test
+    public void reportsWinAndBestDiscards() {
+        HandAnalysis win = HandAnalyzer.analyze(0, "123m456p789s11z234m");
+        assertTrue(win.getWin());
+        assertNull(win.getDiscards());
+
+        HandAnalysis result = HandAnalyzer.analyze(1, "123m456p789s11z239m");
+        assertEquals(0, result.getShanten().intValue());
+        assertEquals("9m", result.getDiscards().get(0).getTile());
+        assertEquals(3 + 4, result.getDiscards().get(0).getAcceptance());
+    }
+
+    /**
+     * 测试错误牌串与张数不合法时给出原因
+     */
+    @Test
+    public void reportsErrors() {
+        assertNotNull(HandAnalyzer.analyze(0, "123x").getError());
+        assertNotNull(HandAnalyzer.analyze(0, "123m456m").getError());
+    }
+}
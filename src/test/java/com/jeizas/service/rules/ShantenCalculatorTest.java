@@ -0,0 +1,98 @@
+package com.jeizas.service.rules;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 向听数计算测试类
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+public class ShantenCalculatorTest {
+
+    /**
+     * 测试标准胡牌型：四组面子加一对将
+     */
+    @Test
+    public void recognizesStandardWin() {
+        int[] counts = counts(0, 1, 2, 3, 4, 5, 9, 9, 9, 18, 19, 20, 27, 27);
+
+        assertTrue(ShantenCalculator.isWin(counts, 0));
+        assertEquals(-1, ShantenCalculator.shanten(counts, 0));
+    }
+
+    /**
+     * 测试七对胡牌型
+     */
+    @Test
+    public void recognizesSevenPairs() {
+        int[] counts = counts(0, 0, 4, 4, 8, 8, 12, 12, 20, 20, 27, 27, 33, 33);
+
+        assertTrue(ShantenCalculator.isWin(counts, 0));
+    }
+
+    /**
+     * 测试听牌和有副露时的向听数
+     */
+    @Test
+    public void countsTenpaiAndMelds() {
+        int[] tenpai = counts(0, 1, 2, 3, 4, 5, 9, 9, 9, 18, 19, 27, 27);
+        assertFalse(ShantenCalculator.isWin(tenpai, 0));
+        assertEquals(0, ShantenCalculator.shanten(tenpai, 0));
+
+        int[] withMelds = counts(0, 1, 2, 27, 27);
+        assertEquals(-1, ShantenCalculator.shanten(withMelds, 3));
+    }
+
+    /**
+     * 测试构建时生成的拆分表与搜索计算结果一致
+     */
+    @Test
+    public void tableMatchesSearch() {
+        ShantenTables tables = ShantenTables.get();
+        assumeTrue(tables != null, "拆分表未生成");
+
+        Random random = new Random(20261019L);
+        int[] wall = new int[TileCodec.KINDS * 4];
+        for (int i = 0; i < wall.length; i++) {
+            wall[i] = i / 4;
+        }
+        for (int round = 0; round < 20000; round++) {
+            int meldCount = round % 5;
+            int size = 14 - 3 * meldCount - (round / 5) % 2;
+            for (int i = 0; i < size; i++) {
+                int j = i + random.nextInt(wall.length - i);
+                int swap = wall[i];
+                wall[i] = wall[j];
+                wall[j] = swap;
+            }
+            int[] counts = new int[TileCodec.KINDS];
+            for (int i = 0; i < size; i++) {
+                counts[wall[i]]++;
+            }
+            assertEquals(ShantenCalculator.searchShanten(counts, meldCount),
+                    tables.standardShanten(counts, meldCount));
+        }
+    }
+
+    /**
+     * 按牌索引构造计数数组
+     *
+     * @param indexes 牌索引
+     * @return 计数数组
+     */
+    private static int[] counts(int... indexes) {
+        int[] counts = new int[TileCodec.KINDS];
+        for (int index : indexes) {
+            counts[index]++;
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,212 @@
+package com.jeizas.web;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 静态资源构建器，构建时由 exec-maven-plugin 在 process-test-classes 阶段调用，只是构建工具，放在测试源码中不打入运行包：
+ * 读取 target/classes/static，输出到 target/classes/static-dist。
+ * 非 HTML 资源按内容哈希改名（name-hash.ext），HTML 是入口不改名，但其中对这些资源的引用改写为带哈希的路径；
+ * 每个输出文件再生成 .gz 与 .br 预压缩版本，并写出路径到内容哈希的清单 {@link StaticAssetManifest#LOCATION}
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+public final class StaticAssetBuilder {
+
+    /** 内容哈希取 SHA-256 的前多少个十六进制字符 */
+    static final int HASH_LENGTH = 16;
+
+    /** 小于该字节数的文件不生成压缩版本（压缩收益抵不过一次编码协商） */
+    private static final int MIN_COMPRESS_SIZE = 256;
+
+    /** brotli 压缩级别 */
+    private static final int BROTLI_QUALITY = 11;
+
+    /**
+     * 私有构造函数，禁止实例化
+     */
+    private StaticAssetBuilder() {
+    }
+
+    /**
+     * 构建静态资源
+     *
+     * @param args args[0] 为源目录，args[1] 为输出目录，args[2] 为清单文件
+     * @throws IOException 读写文件失败
+     */
+    public static void main(String[] args) throws IOException {
+        Path source = Paths.get(args.length > 0 ? args[0] : "target/classes/static");
+        Path target = Paths.get(args.length > 1 ? args[1] : "target/classes/static-dist");
+        Path manifest = Paths.get(args.length > 2 ? args[2] : "target/classes/" + StaticAssetManifest.LOCATION);
+        long start = System.nanoTime();
+        Map<String, String> hashes = build(source, target, manifest);
+        System.out.printf("生成静态资源 %s：%d 个文件，brotli %s，耗时 %d ms%n", target, hashes.size(),
+                brotliAvailable() ? "可用" : "不可用（仅 gzip）", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * 构建静态资源：输出目录每次整体重建，源目录不改动，重复构建结果一致
+     *
+     * @param source 源目录
+     * @param target 输出目录
+     * @param manifest 清单文件
+     * @return 输出路径（相对输出目录）到内容哈希的映射
+     * @throws IOException 读写文件失败
+     */
+    static Map<String, String> build(Path source, Path target, Path manifest) throws IOException {
+        clean(target);
+        Files.createDirectories(target);
+        List<Path> pages = new ArrayList<>();
+        List<Path> assets = new ArrayList<>();
+        try (Stream<Path> files = Files.list(source)) {
+            for (Path file : files.filter(Files::isRegularFile).sorted().collect(Collectors.toList())) {
+                (file.getFileName().toString().endsWith(".html") ? pages : assets).add(file);
+            }
+        }
+        Map<String, String> hashes = new LinkedHashMap<>();
+        Map<String, String> renamed = new LinkedHashMap<>();
+        for (Path asset : assets) {
+            String name = asset.getFileName().toString();
+            byte[] content = Files.readAllBytes(asset);
+            String hash = hash(content);
+            String fingerprinted = StaticAssetManifest.fingerprint(name, hash);
+            write(target.resolve(fingerprinted), content);
+            hashes.put(fingerprinted, hash);
+            renamed.put(name, fingerprinted);
+        }
+        for (Path page : pages) {
+            String html = new String(Files.readAllBytes(page), StandardCharsets.UTF_8);
+            for (Map.Entry<String, String> entry : renamed.entrySet()) {
+                html = html.replace("/" + entry.getKey(), "/" + entry.getValue());
+            }
+            byte[] content = html.getBytes(StandardCharsets.UTF_8);
+            write(target.resolve(page.getFileName()), content);
+            hashes.put(page.getFileName().toString(), hash(content));
+        }
+        writeManifest(manifest, hashes);
+        return hashes;
+    }
+
+    /**
+     * 内容哈希
+     *
+     * @param content 文件内容
+     * @return SHA-256 的前 {@link #HASH_LENGTH} 个十六进制字符
+     */
+    static String hash(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            StringBuilder hex = new StringBuilder(HASH_LENGTH);
+            for (int i = 0; hex.length() < HASH_LENGTH; i++) {
+                hex.append(String.format("%02x", digest[i]));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 写出文件及其预压缩版本
+     *
+     * @param file 输出文件
+     * @param content 文件内容
+     * @throws IOException 写文件失败
+     */
+    private static void write(Path file, byte[] content) throws IOException {
+        Files.write(file, content);
+        if (content.length < MIN_COMPRESS_SIZE) {
+            return;
+        }
+        Files.write(file.resolveSibling(file.getFileName() + ".gz"), gzip(content));
+        if (brotliAvailable()) {
+            Files.write(file.resolveSibling(file.getFileName() + ".br"),
+                    Encoder.compress(content, new Encoder.Parameters().setQuality(BROTLI_QUALITY)));
+        }
+    }
+
+    /**
+     * 以最高级别 gzip 压缩
+     *
+     * @param content 原始内容
+     * @return gzip 字节
+     * @throws IOException 压缩失败
+     */
+    static byte[] gzip(byte[] content) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(content.length / 3);
+        try (OutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(content);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * brotli 原生库是否可用（构建平台没有对应原生库时只生成 gzip 版本）
+     *
+     * @return 是否可用
+     */
+    static boolean brotliAvailable() {
+        try {
+            return Brotli4jLoader.isAvailable();
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * 写出清单（properties 格式，按路径排序且不带时间戳，内容相同的构建产出相同的清单）
+     *
+     * @param manifest 清单文件
+     * @param hashes 输出路径到内容哈希的映射
+     * @throws IOException 写文件失败
+     */
+    private static void writeManifest(Path manifest, Map<String, String> hashes) throws IOException {
+        List<String> lines = new ArrayList<>(hashes.size());
+        for (Map.Entry<String, String> entry : new TreeMap<>(hashes).entrySet()) {
+            lines.add(entry.getKey() + "=" + entry.getValue());
+        }
+        Files.createDirectories(manifest.getParent());
+        Files.write(manifest, lines, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 删除上次构建的输出
+     *
+     * @param target 输出目录
+     * @throws IOException 删除失败
+     */
+    private static void clean(Path target) throws IOException {
+        if (!Files.isDirectory(target)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(target)) {
+            for (Path file : files.collect(Collectors.toList())) {
+                Files.delete(file);
+            }
+        }
+    }
+}
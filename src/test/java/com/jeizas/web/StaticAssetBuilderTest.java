@@ -0,0 +1,94 @@
+package com.jeizas.web;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 静态资源构建测试类
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+public class StaticAssetBuilderTest {
+
+    /**
+     * 测试非 HTML 资源按内容哈希改名、HTML 中的引用被改写、gzip 版本可还原，清单区分入口与带哈希的资源
+     *
+     * @param dir 临时目录
+     * @throws Exception 读写异常
+     */
+    @Test
+    public void fingerprintsAssetsAndRewritesPages(@TempDir Path dir) throws Exception {
+        Path source = Files.createDirectories(dir.resolve("static"));
+        Path target = dir.resolve("static-dist");
+        byte[] dict = repeat("\"type\":\"ROOM_UPDATE\",", 40).getBytes(StandardCharsets.UTF_8);
+        Files.write(source.resolve("ws-dict-v1.txt"), dict);
+        Files.write(source.resolve("index.html"),
+                ("<script>fetch('/ws-dict-v1.txt');" + repeat("<div></div>", 40) + "</script>")
+                        .getBytes(StandardCharsets.UTF_8));
+
+        Map<String, String> hashes = StaticAssetBuilder.build(source, target, dir.resolve("manifest.properties"));
+        String dictName = StaticAssetManifest.fingerprint("ws-dict-v1.txt", StaticAssetBuilder.hash(dict));
+        assertEquals(2, hashes.size());
+        assertArrayEquals(dict, Files.readAllBytes(target.resolve(dictName)));
+        assertArrayEquals(dict, gunzip(target.resolve(dictName + ".gz")));
+        String page = new String(Files.readAllBytes(target.resolve("index.html")), StandardCharsets.UTF_8);
+        assertTrue(page.contains("fetch('/" + dictName + "')"));
+
+        StaticAssetManifest manifest = new StaticAssetManifest(hashes);
+        assertTrue(manifest.isImmutable(dictName));
+        assertFalse(manifest.isImmutable("index.html"));
+        assertEquals(StaticAssetBuilder.hash(page.getBytes(StandardCharsets.UTF_8)), manifest.hashOf("index.html"));
+
+        // 重复构建结果一致，源目录不受影响
+        assertEquals(hashes, StaticAssetBuilder.build(source, target, dir.resolve("manifest.properties")));
+        assertEquals(2, Files.list(source).count());
+    }
+
+    /**
+     * 重复字符串
+     *
+     * @param s 字符串
+     * @param times 次数
+     * @return 重复后的字符串
+     */
+    private static String repeat(String s, int times) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < times; i++) {
+            builder.append(s);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 解压 gzip 文件
+     *
+     * @param file gzip 文件
+     * @return 原始内容
+     * @throws Exception 读取异常
+     */
+    private static byte[] gunzip(Path file) throws Exception {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        }
+    }
+}
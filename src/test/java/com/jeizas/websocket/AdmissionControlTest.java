@@ -0,0 +1,64 @@
+package com.jeizas.websocket;
+
+import com.jeizas.service.GameExecutors;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 负载准入测试类
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+public class AdmissionControlTest {
+
+    /**
+     * 测试负载取各项信号的最大值，先拒绝观众再拒绝新房间与机器人，回落时带滞后
+     */
+    @Test
+    public void shedsSpectatorsFirstAndRecoversWithHysteresis() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        GameExecutors executors = new GameExecutors(GameExecutors.MODE_PLATFORM, 1);
+        SpectatorHub spectators = new SpectatorHub(1, 1000, 1024, 10, registry);
+        try {
+            AdmissionProperties properties = new AdmissionProperties();
+            properties.setLatencyP99Ms(100);
+            properties.setMinHeapFree(0.2);
+            properties.setMaxSessions(100);
+            properties.setNewRoomPolicy(AdmissionControl.POLICY_REDIRECT);
+            properties.setOverflowUrl("ws://overflow:8080");
+            properties.setBotsPerSecond(0);
+            AdmissionControl control = new AdmissionControl(properties, executors, spectators, registry);
+
+            assertEquals(AdmissionControl.Level.NORMAL, control.evaluate(10, 0, 0.1, 10));
+            assertTrue(control.admitSpectator());
+
+            // 会话数达到预算的 85%：只拒绝观众
+            assertEquals(AdmissionControl.Level.ELEVATED, control.evaluate(10, 0, 0.1, 85));
+            assertFalse(control.admitSpectator());
+            assertEquals(AdmissionControl.Verdict.ALLOW, control.admitNewRoom());
+            assertTrue(control.admitBot());
+
+            // p99 超出预算：过载
+            assertEquals(AdmissionControl.Level.OVERLOADED, control.evaluate(150, 0, 0.1, 10));
+            assertEquals(AdmissionControl.Verdict.REDIRECT, control.admitNewRoom());
+            assertFalse(control.admitBot());
+
+            // 略低于阈值仍保持过载，低于阈值的 90% 才回落
+            assertEquals(AdmissionControl.Level.OVERLOADED, control.evaluate(95, 0, 0.1, 10));
+            assertEquals(AdmissionControl.Level.ELEVATED, control.evaluate(85, 0, 0.1, 10));
+            assertEquals(AdmissionControl.Level.NORMAL, control.evaluate(10, 0, 0.1, 10));
+            assertTrue(registry.get("game.admission.refused").tag("kind", "room").counter().count() > 0);
+            assertEquals(0, registry.get("game.admission.shed").counter().count());
+            assertNull(registry.find("game.admission.refused").tag("kind", "shed").counter());
+        } finally {
+            spectators.shutdown();
+            executors.shutdown();
+        }
+    }
+}
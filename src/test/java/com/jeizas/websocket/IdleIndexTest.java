@@ -0,0 +1,65 @@
+package com.jeizas.websocket;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 空闲截止时间索引测试类
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+public class IdleIndexTest {
+
+    /**
+     * 测试只取出已到期的键，且按截止时间排序
+     */
+    @Test
+    public void pollsOnlyExpiredKeysInDeadlineOrder() {
+        IdleIndex<String> index = new IdleIndex<>(0);
+        index.touch("b", 200);
+        index.touch("a", 100);
+        index.touch("c", 300);
+
+        assertEquals(Arrays.asList("a", "b"), index.pollExpired(250, 10));
+        assertFalse(index.contains("a"));
+        assertTrue(index.contains("c"));
+        assertEquals(1, index.size());
+    }
+
+    /**
+     * 测试重新touch会推迟截止时间，移除后不再被取出
+     */
+    @Test
+    public void touchPostponesAndRemoveForgets() {
+        IdleIndex<String> index = new IdleIndex<>(0);
+        index.touch("a", 100);
+        index.touch("a", 500);
+        index.touch("b", 100);
+        index.remove("b");
+
+        assertEquals(Collections.emptyList(), index.pollExpired(400, 10));
+        assertEquals(Collections.singletonList("a"), index.pollExpired(500, 10));
+    }
+
+    /**
+     * 测试精度范围内的小幅推迟不会重建条目，而提前截止时间总会生效
+     */
+    @Test
+    public void resolutionSkipsSmallPostponementsOnly() {
+        IdleIndex<String> index = new IdleIndex<>(1000);
+        index.touch("a", 1000);
+        index.touch("a", 1500);
+        assertEquals(Collections.singletonList("a"), index.pollExpired(1000, 10));
+
+        index.touch("b", 5000);
+        index.touch("b", 2000);
+        assertEquals(Collections.singletonList("b"), index.pollExpired(2000, 10));
+    }
+}
@@ -0,0 +1,76 @@
+package com.jeizas.websocket;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 入站消息限流测试类
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+public class InboundRateLimiterTest {
+
+    /** 毫秒换算为纳秒 */
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * 测试突发容量用尽后拒绝，按速率回补后再次放行
+     */
+    @Test
+    public void refillsAtConfiguredRate() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        InboundRateLimiter limiter = new InboundRateLimiter(true, 10, 5, 1000, 1000, 20, 3, 2000, 10000, registry);
+        Map<String, Object> session = new HashMap<>();
+        long now = System.nanoTime();
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(InboundRateLimiter.Verdict.ALLOW, limiter.admit(session, "mahjong", "r1", now));
+        }
+        assertEquals(InboundRateLimiter.Verdict.REJECT, limiter.admit(session, "mahjong", "r1", now));
+        assertEquals(InboundRateLimiter.Verdict.ALLOW, limiter.admit(session, "mahjong", "r1", now + 100 * MS));
+        assertEquals(1.0, registry.get("game.ws.inbound.rejected").tag("reason", "session").counter().count());
+    }
+
+    /**
+     * 测试房间桶由同房间的所有会话共享
+     */
+    @Test
+    public void roomBucketIsShared() {
+        InboundRateLimiter limiter = new InboundRateLimiter(true, 1000, 1000, 1, 3, 20, 3, 2000, 10000,
+                new SimpleMeterRegistry());
+        long now = System.nanoTime();
+        for (int i = 0; i < 3; i++) {
+            assertEquals(InboundRateLimiter.Verdict.ALLOW, limiter.admit(new HashMap<>(), "gomoku", "r1", now));
+        }
+        assertEquals(InboundRateLimiter.Verdict.REJECT, limiter.admit(new HashMap<>(), "gomoku", "r1", now));
+        assertEquals(InboundRateLimiter.Verdict.ALLOW, limiter.admit(new HashMap<>(), "gomoku", "r2", now));
+    }
+
+    /**
+     * 测试持续超限时禁言逐次加长，禁言次数用尽后断开
+     */
+    @Test
+    public void escalatesToDisconnect() {
+        InboundRateLimiter limiter = new InboundRateLimiter(true, 1, 1, 1000, 1000, 2, 1, 1000, 60000,
+                new SimpleMeterRegistry());
+        Map<String, Object> session = new HashMap<>();
+        long now = System.nanoTime();
+
+        assertEquals(InboundRateLimiter.Verdict.ALLOW, limiter.admit(session, "mahjong", null, now));
+        assertEquals(InboundRateLimiter.Verdict.REJECT, limiter.admit(session, "mahjong", null, now));
+        assertEquals(InboundRateLimiter.Verdict.MUTE, limiter.admit(session, "mahjong", null, now));
+        assertEquals(InboundRateLimiter.Verdict.REJECT, limiter.admit(session, "mahjong", null, now + 999 * MS));
+
+        long afterMute = now + 1000 * MS;
+        assertEquals(InboundRateLimiter.Verdict.ALLOW, limiter.admit(session, "mahjong", null, afterMute));
+        assertEquals(InboundRateLimiter.Verdict.REJECT, limiter.admit(session, "mahjong", null, afterMute));
+        assertEquals(InboundRateLimiter.Verdict.DISCONNECT, limiter.admit(session, "mahjong", null, afterMute));
+    }
+}
@@ -0,0 +1,85 @@
+package com.jeizas.websocket;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.BinaryMessage;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Inflater;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 出站消息压缩测试类
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+public class MessageCompressorTest {
+
+    /**
+     * 测试短消息不压缩，长消息压缩后按客户端的方式（字典作为未压缩块前置）能还原
+     *
+     * @throws Exception 解压异常
+     */
+    @Test
+    public void clientCanInflateWithDictionaryAsStoredBlock() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MessageCompressor compressor = new MessageCompressor(true, 256, 6, 4, registry);
+        assertNull(compressor.compress("{\"type\":\"TURN\"}"));
+
+        StringBuilder json = new StringBuilder("{\"type\":\"ROOM_UPDATE\",\"players\":[");
+        for (int i = 0; i < 4; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"playerId\":\"p").append(i)
+                    .append("\",\"playerName\":\"玩家").append(i).append("\",\"isBot\":true,\"score\":0,")
+                    .append("\"discardedTiles\":[{\"type\":\"WAN\",\"value\":3,\"tileId\":\"WAN_3\"}]}");
+        }
+        String payload = json.append("]}").toString();
+        BinaryMessage frame = compressor.compress(payload);
+        assertNotNull(frame);
+
+        byte[] dictionary = compressor.getDictionary();
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        int len = dictionary.length;
+        stream.write(new byte[]{0, (byte) len, (byte) (len >> 8), (byte) ~len, (byte) (~len >> 8)});
+        stream.write(dictionary);
+        byte[] compressed = new byte[frame.getPayloadLength()];
+        frame.getPayload().get(compressed);
+        stream.write(compressed);
+
+        Inflater inflater = new Inflater(true);
+        inflater.setInput(stream.toByteArray());
+        byte[] out = new byte[len + payload.length() * 4];
+        int n = inflater.inflate(out);
+        inflater.end();
+        assertEquals(payload, new String(out, len, n - len, StandardCharsets.UTF_8));
+        assertTrue(registry.get("game.ws.compression.bytes.saved").counter().count() > 0);
+    }
+
+    /**
+     * 测试同一内容对象只压缩一次，再次发送复用压缩结果且每次得到独立的帧
+     */
+    @Test
+    public void compressesSharedPayloadOnce() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MessageCompressor compressor = new MessageCompressor(true, 16, 6, 4, registry);
+        StringBuilder json = new StringBuilder("{\"type\":\"ROOM_UPDATE\",\"players\":[");
+        for (int i = 0; i < 8; i++) {
+            json.append("{\"playerId\":\"p").append(i).append("\",\"isBot\":true},");
+        }
+        String payload = json.append("{}]}").toString();
+
+        BinaryMessage first = compressor.compress(payload);
+        byte[] drained = new byte[first.getPayloadLength()];
+        first.getPayload().get(drained);
+        BinaryMessage second = compressor.compress(payload);
+
+        assertEquals(drained.length, second.getPayload().remaining());
+        assertEquals(1.0, registry.get("game.ws.compression.messages").tag("result", "reused").counter().count());
+        assertEquals(1L, registry.get("game.ws.compression.time").timer().count());
+    }
+}
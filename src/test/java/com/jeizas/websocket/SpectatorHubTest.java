@@ -0,0 +1,158 @@
+package com.jeizas.websocket;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.HashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 观战广播中心测试类
+ *
+ * @author jeizas
+ * @date 2026-10-19
+ */
+public class SpectatorHubTest {
+
+    /** 被测广播中心：两个分发线程，每个频道最多两名观众 */
+    private final SpectatorHub hub = new SpectatorHub(2, 5000, 1024, 2, new SimpleMeterRegistry());
+
+    @AfterEach
+    public void tearDown() {
+        hub.shutdown();
+    }
+
+    /**
+     * 测试频道满员后拒绝加入，观众全部离开后频道被移除
+     */
+    @Test
+    public void enforcesLimitAndRemovesEmptyChannel() {
+        WebSocketSession first = session("s1");
+        WebSocketSession second = session("s2");
+
+        assertTrue(hub.join("mahjong/r1", first));
+        assertTrue(hub.join("mahjong/r1", second));
+        assertFalse(hub.join("mahjong/r1", session("s3")));
+        assertEquals(2, hub.count("mahjong/r1"));
+
+        hub.leave(first);
+        hub.leave(second);
+        assertFalse(hub.hasAudience("mahjong/r1"));
+        assertTrue(hub.join("mahjong/r1", session("s4")));
+        assertEquals(1, hub.count("mahjong/r1"));
+    }
+
+    /**
+     * 测试写出阻塞的观众不影响同频道其他观众收到帧
+     *
+     * @throws Exception 发送异常
+     */
+    @Test
+    public void slowSpectatorDoesNotBlockOthers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch delivered = new CountDownLatch(1);
+        WebSocketSession slow = session("slow");
+        doAnswer(invocation -> release.await(5, TimeUnit.SECONDS)).when(slow).sendMessage(any(WebSocketMessage.class));
+        WebSocketSession fast = session("fast");
+        doAnswer(invocation -> {
+            delivered.countDown();
+            return null;
+        }).when(fast).sendMessage(any(WebSocketMessage.class));
+
+        hub.join("mahjong/r1", slow);
+        hub.join("mahjong/r1", fast);
+        hub.publish("mahjong/r1", "{\"type\":\"SPECTATE\"}");
+
+        try {
+            assertTrue(delivered.await(2, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    /**
+     * 测试阻塞写出的观众多于分发线程数时，其他频道的观众仍能收到帧
+     *
+     * @throws Exception 发送异常
+     */
+    @Test
+    public void slowSpectatorsDoNotBlockOtherChannels() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch delivered = new CountDownLatch(1);
+        for (int i = 0; i < 3; i++) {
+            WebSocketSession slow = session("slow" + i);
+            doAnswer(invocation -> release.await(5, TimeUnit.SECONDS))
+                    .when(slow).sendMessage(any(WebSocketMessage.class));
+            hub.join("mahjong/slow" + i, slow);
+            hub.publish("mahjong/slow" + i, "{\"type\":\"SPECTATE\"}");
+        }
+        WebSocketSession fast = session("fast");
+        doAnswer(invocation -> {
+            delivered.countDown();
+            return null;
+        }).when(fast).sendMessage(any(WebSocketMessage.class));
+        hub.join("mahjong/r1", fast);
+        hub.publish("mahjong/r1", "{\"type\":\"SPECTATE\"}");
+
+        try {
+            assertTrue(delivered.await(2, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    /**
+     * 测试单次写出超时的观众在没有新帧时也会被看门狗断开
+     *
+     * @throws Exception 发送异常
+     */
+    @Test
+    public void dropsStalledSpectatorWithoutNewFrames() throws Exception {
+        SpectatorHub strict = new SpectatorHub(1, 100, 1024, 2, new SimpleMeterRegistry());
+        CountDownLatch release = new CountDownLatch(1);
+        WebSocketSession slow = session("slow");
+        doAnswer(invocation -> release.await(5, TimeUnit.SECONDS)).when(slow).sendMessage(any(WebSocketMessage.class));
+        try {
+            strict.join("mahjong/r1", slow);
+            strict.publish("mahjong/r1", "{\"type\":\"SPECTATE\"}");
+            long deadline = System.currentTimeMillis() + 2000;
+            while (strict.hasAudience("mahjong/r1") && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertFalse(strict.hasAudience("mahjong/r1"));
+            verify(slow, timeout(1000)).close(any(CloseStatus.class));
+        } finally {
+            release.countDown();
+            strict.shutdown();
+        }
+    }
+
+    /**
+     * 创建打开状态的模拟会话
+     *
+     * @param id 会话ID
+     * @return 模拟会话
+     */
+    private static WebSocketSession session(String id) {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(id);
+        when(session.isOpen()).thenReturn(true);
+        when(session.getAttributes()).thenReturn(new HashMap<>());
+        return session;
+    }
+}